@@ -0,0 +1,44 @@
+package com.regionmanager.benchmarks;
+
+import com.regionmanager.engine.Assignment;
+import com.regionmanager.engine.AssignmentEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замер решения о смене региона при перемещении игрока (путь onPlayerMove)
+ *
+ * Движок не запускается: замеряется только расчет назначения по снимку раскладки.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssignmentBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Engine {
+        AssignmentEngine engine;
+
+        @Setup
+        public void setUp() {
+            engine = new AssignmentEngine(RegionWorkload.REGION_SIZE, RegionWorkload.MIN_DISTANCE, 50, 1024);
+        }
+    }
+
+    @Benchmark
+    public Assignment onPlayerMoveDecision(RegionWorkload workload, Engine engine) {
+        return engine.engine.assign(workload.layout, workload.updates[workload.next()]);
+    }
+}
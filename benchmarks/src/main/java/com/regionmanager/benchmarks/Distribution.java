@@ -0,0 +1,70 @@
+package com.regionmanager.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Распределение координат регионов и игроков в нагрузке замеров
+ */
+public enum Distribution {
+
+    /**
+     * Равномерно по всему квадрату мира
+     */
+    UNIFORM {
+        @Override
+        int[] sample(Random random, int spread, int[][] clusters) {
+            return new int[] {uniform(random, spread), uniform(random, spread)};
+        }
+    },
+
+    /**
+     * Нормально вокруг нескольких центров (базы, фермы)
+     */
+    CLUSTERED {
+        @Override
+        int[] sample(Random random, int spread, int[][] clusters) {
+            int[] cluster = clusters[random.nextInt(clusters.length)];
+            double sigma = Math.max(64, spread / 20.0);
+            return new int[] {
+                cluster[0] + (int) (random.nextGaussian() * sigma),
+                cluster[1] + (int) (random.nextGaussian() * sigma)
+            };
+        }
+    },
+
+    /**
+     * Большая часть у точки спавна, остальные равномерно
+     */
+    SPAWN_HEAVY {
+        @Override
+        int[] sample(Random random, int spread, int[][] clusters) {
+            if (random.nextDouble() < 0.7) {
+                return new int[] {(int) (random.nextGaussian() * 512), (int) (random.nextGaussian() * 512)};
+            }
+            return UNIFORM.sample(random, spread, clusters);
+        }
+    };
+
+    /**
+     * Получить точку {x, z}
+     *
+     * @param spread половина стороны квадрата мира
+     * @param clusters центры скоплений для CLUSTERED
+     */
+    abstract int[] sample(Random random, int spread, int[][] clusters);
+
+    /**
+     * Центры скоплений для мира
+     */
+    static int[][] clusters(Random random, int spread, int count) {
+        int[][] clusters = new int[Math.max(1, count)][];
+        for (int i = 0; i < clusters.length; i++) {
+            clusters[i] = new int[] {uniform(random, spread), uniform(random, spread)};
+        }
+        return clusters;
+    }
+
+    private static int uniform(Random random, int spread) {
+        return random.nextInt(spread * 2 + 1) - spread;
+    }
+}
@@ -0,0 +1,63 @@
+package com.regionmanager.benchmarks;
+
+import com.regionmanager.engine.MergePlanner;
+import com.regionmanager.engine.ParallelAnalytics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замеры поиска пар для объединения регионов (mergeNearbyRegions)
+ *
+ * Сравнивает последовательный проход и проход в пуле аналитики.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MergeBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Pools {
+        ParallelAnalytics sequential;
+        ParallelAnalytics parallel;
+        MergePlanner planner;
+
+        @Setup
+        public void setUp() {
+            int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+            sequential = new ParallelAnalytics(1, Integer.MAX_VALUE);
+            parallel = new ParallelAnalytics(threads, 64);
+            planner = new MergePlanner(RegionWorkload.REGION_SIZE, RegionWorkload.MAX_PLAYERS_PER_REGION,
+                RegionWorkload.MAX_MERGE_SCORE);
+        }
+
+        @TearDown
+        public void tearDown() {
+            sequential.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Benchmark
+    public List<String[]> mergeNearbyRegionsSequential(RegionWorkload workload, Pools pools) {
+        return pools.planner.findCandidates(workload.regions, pools.sequential);
+    }
+
+    @Benchmark
+    public List<String[]> mergeNearbyRegionsParallel(RegionWorkload workload, Pools pools) {
+        return pools.planner.findCandidates(workload.regions, pools.parallel);
+    }
+}
@@ -0,0 +1,64 @@
+package com.regionmanager.benchmarks;
+
+import com.regionmanager.engine.ChunkShape;
+import com.regionmanager.engine.RegionGeometry;
+import com.regionmanager.engine.RegionLayout;
+import com.regionmanager.engine.RegionView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замеры поиска регионов для позиции игрока
+ *
+ * contains - проверка одной позиции по всем регионам (как при поиске содержащего
+ * региона), findNearestRegion и findOptimalRegionShape - пути RegionManager,
+ * вынесенные в ядро, createLayout - снимок раскладки реестра, который плагин
+ * пересоздает после каждого изменения регионов.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegionLookupBenchmark {
+
+    @Benchmark
+    public int contains(RegionWorkload workload) {
+        int i = workload.next();
+        int x = workload.queryX[i];
+        int z = workload.queryZ[i];
+        int count = 0;
+        for (RegionView region : workload.regions) {
+            if (region.contains(x, z)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public RegionView findNearestRegion(RegionWorkload workload) {
+        int i = workload.next();
+        return RegionGeometry.findNearest(workload.regions, workload.worldNames[workload.queryWorld[i]],
+            workload.queryX[i], workload.queryZ[i], RegionWorkload.CHECK_DISTANCE);
+    }
+
+    @Benchmark
+    public ChunkShape findOptimalRegionShape(RegionWorkload workload) {
+        int i = workload.next();
+        return RegionGeometry.findFreeShape(workload.regions, workload.worldNames[workload.queryWorld[i]],
+            workload.queryX[i], workload.queryZ[i], RegionWorkload.REGION_SIZE, RegionWorkload.MIN_DISTANCE);
+    }
+
+    @Benchmark
+    public RegionLayout createLayout(RegionWorkload workload) {
+        return workload.registry.createLayout();
+    }
+}
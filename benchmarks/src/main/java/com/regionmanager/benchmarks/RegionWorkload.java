@@ -0,0 +1,119 @@
+package com.regionmanager.benchmarks;
+
+import com.regionmanager.engine.ChunkShape;
+import com.regionmanager.engine.PositionUpdate;
+import com.regionmanager.engine.RegionLayout;
+import com.regionmanager.engine.RegionListener;
+import com.regionmanager.engine.RegionRegistry;
+import com.regionmanager.engine.RegionState;
+import com.regionmanager.engine.RegionView;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Нагрузка замеров: раскладка регионов и позиции игроков
+ *
+ * Строится детерминированно из фиксированного зерна, поэтому результаты разных
+ * версий сравнимы на одинаковом входе. Параметры задают число регионов,
+ * распределение регионов и игроков и число миров. Регионы и игроки в них
+ * заводятся в RegionRegistry ядра, раскладка - его снимок, как в плагине.
+ */
+@State(Scope.Benchmark)
+public class RegionWorkload {
+
+    static final int REGION_SIZE = 512;
+    static final int MIN_DISTANCE = 256;
+    static final int CHECK_DISTANCE = 128;
+    static final int MAX_PLAYERS_PER_REGION = 20;
+    static final double MAX_MERGE_SCORE = 4000.0;
+    private static final int QUERY_COUNT = 4096;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int regionCount;
+
+    @Param({"UNIFORM", "CLUSTERED", "SPAWN_HEAVY"})
+    public Distribution distribution;
+
+    @Param({"1"})
+    public int worldCount;
+
+    @Param({"42"})
+    public long seed;
+
+    String[] worldNames;
+    RegionRegistry registry;
+    List<RegionView> regions;
+    RegionLayout layout;
+    // Позиции игроков
+    int[] queryWorld;
+    int[] queryX;
+    int[] queryZ;
+    PositionUpdate[] updates;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(seed);
+        worldNames = new String[worldCount];
+        for (int w = 0; w < worldCount; w++) {
+            worldNames[w] = w == 0 ? "world" : "world_" + w;
+        }
+
+        // Мир растет с числом регионов, чтобы плотность оставалась реалистичной
+        int spread = (int) Math.max(2048, Math.sqrt((double) regionCount / worldCount) * REGION_SIZE);
+        int[][][] clusters = new int[worldCount][][];
+        for (int w = 0; w < worldCount; w++) {
+            clusters[w] = Distribution.clusters(random, spread, Math.max(4, regionCount / 50));
+        }
+
+        registry = new RegionRegistry(REGION_SIZE, MIN_DISTANCE, Integer.MAX_VALUE, MAX_PLAYERS_PER_REGION,
+            new RegionListener() { });
+        for (int i = 0; i < regionCount; i++) {
+            int w = random.nextInt(worldCount);
+            int[] center = distribution.sample(random, spread, clusters[w]);
+            int players = random.nextInt(6);
+            // Регионы плагина выровнены по чанкам, поэтому и здесь проверка идет по форме
+            ChunkShape shape = ChunkShape.square(center[0], center[1], REGION_SIZE);
+            RegionState region = registry.restore("region_" + i, worldNames[w], shape, 0L, 0L, false, 0, true);
+            region.setCostScore(random.nextDouble() * 2000.0);
+            for (int p = 0; p < players; p++) {
+                registry.join(new UUID(~(long) i, p), region, 0L);
+            }
+        }
+        layout = registry.createLayout();
+        regions = new ArrayList<>(layout.getRegions());
+
+        queryWorld = new int[QUERY_COUNT];
+        queryX = new int[QUERY_COUNT];
+        queryZ = new int[QUERY_COUNT];
+        updates = new PositionUpdate[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            int w = random.nextInt(worldCount);
+            int[] position = distribution.sample(random, spread, clusters[w]);
+            queryWorld[i] = w;
+            queryX[i] = position[0];
+            queryZ[i] = position[1];
+
+            // Часть игроков уже числится в случайном регионе, как после прошлого перемещения
+            String currentRegion = regionCount > 0 && random.nextBoolean()
+                ? regions.get(random.nextInt(regionCount)).getId() : null;
+            updates[i] = new PositionUpdate(new UUID(seed, i), worldNames[w], position[0], position[1], currentRegion);
+        }
+    }
+
+    /**
+     * Индекс следующей позиции игрока
+     */
+    int next() {
+        int i = cursor;
+        cursor = (i + 1) & (QUERY_COUNT - 1);
+        return i;
+    }
+}
@@ -0,0 +1,389 @@
+package com.regionmanager;
+
+import com.regionmanager.commands.RegionCommand;
+import com.regionmanager.engine.ParallelAnalytics;
+import com.regionmanager.listeners.EntitySpawnListener;
+import com.regionmanager.listeners.PlayerListener;
+import com.regionmanager.listeners.RegionActivityListener;
+import com.regionmanager.managers.AssignmentManager;
+import com.regionmanager.managers.CostManager;
+import com.regionmanager.managers.EntityThrottleManager;
+import com.regionmanager.managers.ForecastManager;
+import com.regionmanager.managers.HeatmapManager;
+import com.regionmanager.managers.ItemCleanupManager;
+import com.regionmanager.managers.RegionManager;
+import com.regionmanager.managers.PerformanceManager;
+import com.regionmanager.managers.PlacementManager;
+import com.regionmanager.managers.PositionSamplingManager;
+import com.regionmanager.managers.RateLimitManager;
+import com.regionmanager.managers.SpawnLimitManager;
+import com.regionmanager.managers.TraceManager;
+import com.regionmanager.managers.ViewDistanceManager;
+import com.regionmanager.prediction.MovementPredictor;
+import com.regionmanager.scheduler.TaskScheduler;
+import com.regionmanager.scheduler.TaskSchedulers;
+import com.regionmanager.utils.Logger;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * Основной класс плагина RegionManagerBukkit
+ * Плагин для распределения игроков по регионам для оптимизации TPS
+ */
+public class RegionManagerPlugin extends JavaPlugin {
+    
+    private static RegionManagerPlugin instance;
+    private TaskScheduler taskScheduler;
+    private RegionManager regionManager;
+    private PerformanceManager performanceManager;
+    private MovementPredictor movementPredictor;
+    private HeatmapManager heatmapManager;
+    private ForecastManager forecastManager;
+    private CostManager costManager;
+    private EntityThrottleManager entityThrottleManager;
+    private SpawnLimitManager spawnLimitManager;
+    private RateLimitManager rateLimitManager;
+    private ItemCleanupManager itemCleanupManager;
+    private ViewDistanceManager viewDistanceManager;
+    private AssignmentManager assignmentManager;
+    private PositionSamplingManager positionSamplingManager;
+    private TraceManager traceManager;
+    private PlacementManager placementManager;
+    private PlayerListener playerListener;
+    private ParallelAnalytics analytics;
+    private Logger logger;
+    // Счетчик тиков плагина: номер тика сервера недоступен на Folia
+    private volatile long currentTick;
+    
+    @Override
+    public void onEnable() {
+        instance = this;
+        
+        // Инициализация логгера
+        logger = new Logger(this);
+        logger.info("Запуск RegionManagerBukkit v" + getDescription().getVersion());
+        
+        // Сохранение конфигурации по умолчанию
+        saveDefaultConfig();
+        
+        // Выбор планировщика: Folia (региональные потоки) или Bukkit (главный поток)
+        taskScheduler = TaskSchedulers.create(this);
+        if (taskScheduler.isRegionThreaded()) {
+            logger.info("Обнаружена Folia, задачи регионов выполняются в их потоках");
+        }
+        // Пишется только глобальной задачей, поэтому инкремент без блокировки безопасен
+        taskScheduler.runGlobalTimer(() -> currentTick++, 1L, 1L);
+        
+        // Пул для параллельных расчетов по снимкам регионов и игроков
+        int parallelism = getConfig().getInt("analytics.parallelism", 0);
+        if (parallelism <= 0) {
+            parallelism = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        }
+        analytics = new ParallelAnalytics(parallelism, getConfig().getInt("analytics.parallel-threshold", 64));
+        
+        // Инициализация менеджеров
+        initializeManagers();
+        
+        // Регистрация команд
+        registerCommands();
+        
+        // Регистрация слушателей событий
+        registerListeners();
+        
+        logger.info("RegionManagerBukkit успешно запущен!");
+    }
+    
+    @Override
+    public void onDisable() {
+        if (traceManager != null) {
+            traceManager.shutdown();
+        }
+        
+        if (positionSamplingManager != null) {
+            positionSamplingManager.shutdown();
+        }
+        
+        if (assignmentManager != null) {
+            assignmentManager.shutdown();
+        }
+        
+        if (viewDistanceManager != null) {
+            viewDistanceManager.shutdown();
+        }
+        
+        if (itemCleanupManager != null) {
+            itemCleanupManager.shutdown();
+        }
+        
+        if (rateLimitManager != null) {
+            rateLimitManager.shutdown();
+        }
+        
+        if (spawnLimitManager != null) {
+            spawnLimitManager.shutdown();
+        }
+        
+        if (entityThrottleManager != null) {
+            entityThrottleManager.shutdown();
+        }
+        
+        if (costManager != null) {
+            costManager.shutdown();
+        }
+        
+        if (forecastManager != null) {
+            forecastManager.shutdown();
+        }
+        
+        if (heatmapManager != null) {
+            heatmapManager.shutdown();
+        }
+        
+        if (regionManager != null) {
+            regionManager.shutdown();
+        }
+        
+        if (performanceManager != null) {
+            performanceManager.shutdown();
+        }
+        
+        if (taskScheduler != null) {
+            taskScheduler.cancelAll();
+        }
+        
+        if (analytics != null) {
+            analytics.shutdown();
+        }
+        
+        logger.info("RegionManagerBukkit выключен!");
+    }
+    
+    /**
+     * Инициализация менеджеров
+     */
+    private void initializeManagers() {
+        try {
+            // Инициализация менеджера производительности
+            performanceManager = new PerformanceManager(this);
+            
+            // Инициализация менеджера регионов
+            regionManager = new RegionManager(this);
+            
+            // Инициализация системы предиктов движения
+            movementPredictor = new MovementPredictor(this);
+            
+            // Инициализация тепловой карты занятости
+            heatmapManager = new HeatmapManager(this);
+            
+            // Инициализация прогнозирования занятости по времени суток
+            forecastManager = new ForecastManager(this);
+            
+            // Инициализация учета стоимости регионов
+            costManager = new CostManager(this);
+            
+            // Инициализация понижения активности мобов под нагрузкой
+            entityThrottleManager = new EntityThrottleManager(this);
+            
+            // Инициализация лимитов спавна мобов по регионам
+            spawnLimitManager = new SpawnLimitManager(this);
+            
+            // Инициализация ограничения воронок и редстоуна по регионам
+            rateLimitManager = new RateLimitManager(this);
+            
+            // Инициализация объединения и очистки предметов в регионах
+            itemCleanupManager = new ItemCleanupManager(this);
+            
+            // Инициализация динамической дальности прорисовки игроков
+            viewDistanceManager = new ViewDistanceManager(this);
+            
+            // Инициализация движка назначения игроков регионам
+            assignmentManager = new AssignmentManager(this);
+            
+            // Инициализация пакетной выборки позиций игроков
+            positionSamplingManager = new PositionSamplingManager(this);
+            
+            // Инициализация записи трассы перемещений
+            traceManager = new TraceManager(this);
+            
+            // Инициализация размещения регионов по скоплениям игроков
+            placementManager = new PlacementManager(this);
+            
+            logger.info("Менеджеры инициализированы успешно");
+        } catch (Exception e) {
+            logger.error("Ошибка при инициализации менеджеров: " + e.getMessage());
+            getServer().getPluginManager().disablePlugin(this);
+        }
+    }
+    
+    /**
+     * Регистрация команд
+     */
+    private void registerCommands() {
+        try {
+            getCommand("region").setExecutor(new RegionCommand(this));
+            logger.info("Команды зарегистрированы");
+        } catch (Exception e) {
+            logger.error("Ошибка при регистрации команд: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Регистрация слушателей событий
+     */
+    private void registerListeners() {
+        try {
+            getServer().getPluginManager().registerEvents(playerListener = new PlayerListener(this), this);
+            getServer().getPluginManager().registerEvents(new RegionActivityListener(this), this);
+            getServer().getPluginManager().registerEvents(new EntitySpawnListener(this), this);
+            logger.info("Слушатели событий зарегистрированы");
+        } catch (Exception e) {
+            logger.error("Ошибка при регистрации слушателей: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Получить экземпляр плагина
+     */
+    public static RegionManagerPlugin getInstance() {
+        return instance;
+    }
+    
+    /**
+     * Получить планировщик задач
+     */
+    public TaskScheduler getTaskScheduler() {
+        return taskScheduler;
+    }
+    
+    /**
+     * Получить менеджер регионов
+     */
+    public RegionManager getRegionManager() {
+        return regionManager;
+    }
+    
+    /**
+     * Получить менеджер производительности
+     */
+    public PerformanceManager getPerformanceManager() {
+        return performanceManager;
+    }
+    
+    /**
+     * Получить систему предиктов движения
+     */
+    public MovementPredictor getMovementPredictor() {
+        return movementPredictor;
+    }
+    
+    /**
+     * Получить менеджер тепловой карты
+     */
+    public HeatmapManager getHeatmapManager() {
+        return heatmapManager;
+    }
+    
+    /**
+     * Получить менеджер прогнозирования занятости
+     */
+    public ForecastManager getForecastManager() {
+        return forecastManager;
+    }
+    
+    /**
+     * Получить менеджер стоимости регионов
+     */
+    public CostManager getCostManager() {
+        return costManager;
+    }
+    
+    /**
+     * Получить менеджер понижения активности мобов
+     */
+    public EntityThrottleManager getEntityThrottleManager() {
+        return entityThrottleManager;
+    }
+    
+    /**
+     * Получить менеджер лимитов спавна
+     */
+    public SpawnLimitManager getSpawnLimitManager() {
+        return spawnLimitManager;
+    }
+    
+    /**
+     * Получить менеджер ограничения воронок и редстоуна
+     */
+    public RateLimitManager getRateLimitManager() {
+        return rateLimitManager;
+    }
+    
+    /**
+     * Получить менеджер очистки предметов
+     */
+    public ItemCleanupManager getItemCleanupManager() {
+        return itemCleanupManager;
+    }
+    
+    /**
+     * Получить менеджер дальности прорисовки
+     */
+    public ViewDistanceManager getViewDistanceManager() {
+        return viewDistanceManager;
+    }
+    
+    /**
+     * Получить менеджер назначения игроков регионам
+     */
+    public AssignmentManager getAssignmentManager() {
+        return assignmentManager;
+    }
+    
+    /**
+     * Получить менеджер пакетной выборки позиций
+     */
+    public PositionSamplingManager getPositionSamplingManager() {
+        return positionSamplingManager;
+    }
+    
+    /**
+     * Получить менеджер записи трассы перемещений
+     */
+    public TraceManager getTraceManager() {
+        return traceManager;
+    }
+    
+    /**
+     * Получить менеджер размещения регионов по скоплениям
+     */
+    public PlacementManager getPlacementManager() {
+        return placementManager;
+    }
+    
+    /**
+     * Получить номер текущего тика с запуска плагина
+     */
+    public long getCurrentTick() {
+        return currentTick;
+    }
+    
+    /**
+     * Получить пул параллельных расчетов
+     */
+    public ParallelAnalytics getAnalytics() {
+        return analytics;
+    }
+    
+    /**
+     * Получить слушатель событий игроков
+     */
+    public PlayerListener getPlayerListener() {
+        return playerListener;
+    }
+    
+    /**
+     * Получить логгер
+     */
+    public Logger getPluginLogger() {
+        return logger;
+    }
+} 
\ No newline at end of file
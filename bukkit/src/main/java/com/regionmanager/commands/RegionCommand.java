@@ -1,7 +1,15 @@
 package com.regionmanager.commands;
 
 import com.regionmanager.RegionManagerPlugin;
+import com.regionmanager.heatmap.HeatCell;
+import com.regionmanager.managers.ForecastManager;
+import com.regionmanager.managers.SpawnLimitManager;
+import com.regionmanager.managers.HeatmapManager;
+import com.regionmanager.managers.TraceManager;
+import com.regionmanager.motion.MotionEstimate;
+import com.regionmanager.motion.PredictionTracker;
 import com.regionmanager.region.Region;
+import com.regionmanager.region.RegionCost;
 import com.regionmanager.prediction.MovementPredictor;
 import com.regionmanager.prediction.PlayerMovementData;
 import org.bukkit.ChatColor;
@@ -99,6 +107,12 @@ public class RegionCommand implements CommandExecutor, TabCompleter {
                     sender.sendMessage("§cИспользование: /region analyze <игрок>");
                 }
                 break;
+            case "heatmap":
+                showHeatmap(sender, args);
+                break;
+            case "trace":
+                toggleTrace(sender, args);
+                break;
             default:
                 showHelp(sender);
                 break;
@@ -122,7 +136,9 @@ public class RegionCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage(ChatColor.YELLOW + "/region debug <игрок> - Отладка региона игрока");
         sender.sendMessage(ChatColor.YELLOW + "/region test <игрок> - Тестирование логики регионов");
         sender.sendMessage(ChatColor.YELLOW + "/region analyze <игрок> - Детальный анализ региона игрока");
+        sender.sendMessage(ChatColor.YELLOW + "/region heatmap [мир] [количество] - Горячие области по тепловой карте");
         sender.sendMessage(ChatColor.YELLOW + "/region toggle-debug - Переключить отладку");
+        sender.sendMessage(ChatColor.YELLOW + "/region trace [on|off] - Запись трассы перемещений");
     }
     
     /**
@@ -206,6 +222,40 @@ public class RegionCommand implements CommandExecutor, TabCompleter {
             sender.sendMessage(ChatColor.YELLOW + "Игроков в регионе: " + region.getPlayerCount());
             sender.sendMessage(ChatColor.YELLOW + "Активен: " + (region.isActive() ? "Да" : "Нет"));
             sender.sendMessage(ChatColor.YELLOW + "Принудительный: " + (region.isForcedRegion() ? "Да" : "Нет"));
+            
+            RegionCost cost = region.getCost();
+            sender.sendMessage(ChatColor.YELLOW + "Сущностей: " + cost.getEntityCount() +
+                " | Тайл-сущностей: " + cost.getTileEntityCount() +
+                " | Загружено чанков: " + cost.getLoadedChunkCount());
+            sender.sendMessage(ChatColor.YELLOW + "Редстоун: " + String.format("%.1f", cost.getRedstonePerSecond()) + "/сек" +
+                " | Воронки: " + String.format("%.1f", cost.getHopperPerSecond()) + "/сек" +
+                " | Доля тика: " + String.format("%.1f%%", cost.getTickShare() * 100.0) +
+                " (~" + String.format("%.2f", plugin.getCostManager().getEstimatedTickMs(region)) + " мс)");
+
+            if (plugin.getRateLimitManager().isThrottled(region)) {
+                sender.sendMessage(ChatColor.RED + "Ограничение воронок и редстоуна включено");
+            }
+            if (region.getBlockedRedstoneEvents() > 0 || region.getBlockedHopperEvents() > 0) {
+                sender.sendMessage(ChatColor.YELLOW + "Подавлено: редстоун " + region.getBlockedRedstoneEvents() +
+                    " | воронки " + region.getBlockedHopperEvents());
+            }
+
+            SpawnLimitManager spawnLimitManager = plugin.getSpawnLimitManager();
+            if (spawnLimitManager.isEnabled()) {
+                sender.sendMessage(ChatColor.YELLOW + "Мобов: " + region.getMobCount() + " / " + spawnLimitManager.getBudget(region));
+            }
+
+            int throttled =plugin.getEntityThrottleManager().getThrottledCount(region);
+            if (throttled > 0) {
+                sender.sendMessage(ChatColor.YELLOW + "Мобов с отключенным ИИ: " + throttled);
+            }
+
+            ForecastManager forecastManager = plugin.getForecastManager();
+            if (forecastManager != null && forecastManager.isEnabled()) {
+                float forecast = forecastManager.getForecast(region, System.currentTimeMillis() + 3600000L);
+                sender.sendMessage(ChatColor.YELLOW + "Прогноз через час: " +
+                    (Float.isNaN(forecast) ? "нет данных" : String.format("%.1f игроков", forecast)));
+            }
         } else {
             sender.sendMessage(ChatColor.RED + "Игрок " + playerName + " не находится в регионе");
         }
@@ -269,6 +319,50 @@ public class RegionCommand implements CommandExecutor, TabCompleter {
         // Показать TPS
         double[] tps = plugin.getServer().getTPS();
         sender.sendMessage(ChatColor.YELLOW + "TPS: " + String.format("%.2f", tps[0]));
+        sender.sendMessage(ChatColor.YELLOW + "Игроков с уменьшенной дальностью: " +
+            plugin.getViewDistanceManager().getReducedPlayerCount());
+        if (plugin.getPositionSamplingManager().isBatchMode()) {
+            sender.sendMessage(ChatColor.YELLOW + "Пакетная выборка позиций: " +
+                String.format("%.3f", plugin.getPositionSamplingManager().getLastSampleMs()) + " мс");
+        }
+        if (plugin.getAssignmentManager().isEnabled()) {
+            sender.sendMessage(ChatColor.YELLOW + "Движок назначения: в очереди " +
+                plugin.getAssignmentManager().getPendingCount() + ", применено " +
+                plugin.getAssignmentManager().getAppliedCount() + ", отказов по лимиту " +
+                plugin.getAssignmentManager().getLimitedCount());
+        }
+        if (plugin.getTraceManager().isEnabled()) {
+            sender.sendMessage(ChatColor.YELLOW + "Запись трассы: записей " +
+                plugin.getTraceManager().getRecordedCount() + ", отброшено " +
+                plugin.getTraceManager().getDroppedCount());
+        }
+        if (plugin.getPlacementManager().isEnabled()) {
+            sender.sendMessage(ChatColor.YELLOW + "Скопления игроков: " +
+                plugin.getPlacementManager().getClusterCount() + ", размещений " +
+                plugin.getPlacementManager().getPlacementCount() + ", перенесено регионов " +
+                plugin.getPlacementManager().getReshapedRegions() + ", пересчет " +
+                String.format("%.2f", plugin.getPlacementManager().getLastUpdateMs()) + " мс");
+        }
+        MovementPredictor predictor = plugin.getMovementPredictor();
+        if (predictor != null) {
+            Map<String, Object> predictionStats = predictor.getPredictionStats();
+            if ((Long) predictionStats.get("resolvedPredictions") > 0) {
+                sender.sendMessage(ChatColor.YELLOW + "Точность предсказаний: ошибка " +
+                    String.format("%.1f", (Double) predictionStats.get("meanError")) + " (p90 " +
+                    String.format("%.0f", (Double) predictionStats.get("p90Error")) + ") блоков, попаданий " +
+                    String.format("%.0f%%", (Double) predictionStats.get("hitRate") * 100) + ", горизонт " +
+                    String.format("%.1f", (Double) predictionStats.get("averageHorizonSeconds")) + " с");
+            }
+            if (!((Map<?, ?>) predictionStats.get("transportModes")).isEmpty()) {
+                sender.sendMessage(ChatColor.YELLOW + "Способы передвижения: " + predictionStats.get("transportModes"));
+            }
+            if ((Long) predictionStats.get("resizeRequests") > 0) {
+                sender.sendMessage(ChatColor.YELLOW + "Изменения размера по предсказанию: запросов " +
+                    predictionStats.get("resizeRequests") + ", расширений " + predictionStats.get("resizeGrows") +
+                    ", сжатий " + predictionStats.get("resizeShrinks") + ", объединено " +
+                    predictionStats.get("resizeCoalesced") + ", отклонено " + predictionStats.get("resizeSuppressed"));
+            }
+        }
     }
     
     /**
@@ -342,6 +436,35 @@ public class RegionCommand implements CommandExecutor, TabCompleter {
             (currentDebug ? "отключена" : "включена"));
     }
     
+    /**
+     * Включить или выключить запись трассы перемещений
+     */
+    private void toggleTrace(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("regionmanager.admin")) {
+            sender.sendMessage(ChatColor.RED + "У вас нет прав для выполнения этой команды");
+            return;
+        }
+        
+        TraceManager traceManager = plugin.getTraceManager();
+        if (args.length < 2) {
+            sender.sendMessage(ChatColor.YELLOW + "Запись трассы " +
+                (traceManager.isEnabled() ? "включена" : "выключена") + ". Использование: /region trace <on|off>");
+            return;
+        }
+        
+        if (args[1].equalsIgnoreCase("on")) {
+            sender.sendMessage(traceManager.start()
+                ? ChatColor.GREEN + "Запись трассы включена"
+                : ChatColor.YELLOW + "Запись трассы уже идет");
+        } else if (args[1].equalsIgnoreCase("off")) {
+            sender.sendMessage(traceManager.stop()
+                ? ChatColor.GREEN + "Запись трассы выключена"
+                : ChatColor.YELLOW + "Запись трассы не идет");
+        } else {
+            sender.sendMessage(ChatColor.RED + "Использование: /region trace <on|off>");
+        }
+    }
+    
     /**
      * Принудительно создать регион для игрока
      */
@@ -417,6 +540,7 @@ public class RegionCommand implements CommandExecutor, TabCompleter {
         }
 
         Location predictedLocation = predictor.getPredictedLocation(targetPlayer);
+        MotionEstimate estimate = predictor.getPrediction(targetPlayer);
         
         sender.sendMessage(ChatColor.GOLD + "=== Предсказания для " + playerName + " ===");
         sender.sendMessage(ChatColor.YELLOW + "Средняя скорость: " + ChatColor.WHITE + 
@@ -425,8 +549,25 @@ public class RegionCommand implements CommandExecutor, TabCompleter {
             String.format("%.2f", movementData.getLastSpeed()) + " блоков/сек");
         sender.sendMessage(ChatColor.YELLOW + "Движется: " + ChatColor.WHITE + 
             (movementData.isMoving() ? "Да" : "Нет"));
+        sender.sendMessage(ChatColor.YELLOW + "Способ передвижения: " + ChatColor.WHITE + 
+            predictor.getTransportMode(targetPlayer).getConfigName());
         sender.sendMessage(ChatColor.YELLOW + "Предсказанная позиция: " + ChatColor.WHITE + 
             String.format("%.1f, %.1f, %.1f", predictedLocation.getX(), predictedLocation.getY(), predictedLocation.getZ()));
+        if (estimate != null && estimate.getUncertainty() > 0) {
+            sender.sendMessage(ChatColor.YELLOW + "Неопределенность: " + ChatColor.WHITE + 
+                String.format("%.1f", estimate.getUncertainty()) + " блоков");
+        }
+        PredictionTracker tracker = predictor.getPredictionTracker(targetPlayer);
+        if (tracker != null) {
+            sender.sendMessage(ChatColor.YELLOW + "Горизонт: " + ChatColor.WHITE + 
+                String.format("%.1f", tracker.getHorizonTicks() / 20.0) + " сек");
+            if (tracker.getHistogram().getCount() > 0) {
+                sender.sendMessage(ChatColor.YELLOW + "Точность: " + ChatColor.WHITE + 
+                    String.format("ошибка %.1f блоков, попаданий %.0f%% из %d",
+                        tracker.getHistogram().getMeanError(), tracker.getHistogram().getHitRate() * 100,
+                        tracker.getHistogram().getCount()));
+            }
+        }
         sender.sendMessage(ChatColor.YELLOW + "Размер истории: " + ChatColor.WHITE + movementData.getHistorySize());
     }
 
@@ -549,12 +690,66 @@ public class RegionCommand implements CommandExecutor, TabCompleter {
             (System.currentTimeMillis() - region.getLastActivityTime()) / 1000 + " секунд назад");
     }
 
+    /**
+     * Показать горячие области тепловой карты
+     */
+    private void showHeatmap(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("regionmanager.admin")) {
+            sender.sendMessage(ChatColor.RED + "У вас нет прав для выполнения этой команды");
+            return;
+        }
+
+        HeatmapManager heatmapManager = plugin.getHeatmapManager();
+        if (heatmapManager == null || !heatmapManager.isEnabled()) {
+            sender.sendMessage(ChatColor.RED + "Тепловая карта отключена");
+            return;
+        }
+
+        String worldName;
+        if (args.length > 1) {
+            worldName = args[1];
+        } else if (sender instanceof Player) {
+            worldName = ((Player) sender).getWorld().getName();
+        } else {
+            sender.sendMessage(ChatColor.RED + "Использование: /region heatmap <мир> [количество]");
+            return;
+        }
+
+        int limit = 10;
+        if (args.length > 2) {
+            try {
+                limit = Math.max(1, Math.min(50, Integer.parseInt(args[2])));
+            } catch (NumberFormatException e) {
+                sender.sendMessage(ChatColor.RED + "Количество должно быть числом");
+                return;
+            }
+        }
+
+        List<HeatCell> hottest = heatmapManager.getHottest(worldName, limit);
+        sender.sendMessage(ChatColor.GOLD + "=== Тепловая карта мира " + worldName + " ===");
+        if (hottest.isEmpty()) {
+            sender.sendMessage(ChatColor.YELLOW + "Нет данных о занятости");
+        }
+        for (HeatCell cell : hottest) {
+            String level = cell.getValue() >= heatmapManager.getHotThreshold() ? ChatColor.RED + " (горячая)" : "";
+            sender.sendMessage(ChatColor.YELLOW + "Чанк " + cell.getChunkX() + ", " + cell.getChunkZ() +
+                " (блоки " + (cell.getChunkX() << 4) + ", " + (cell.getChunkZ() << 4) + "): " + ChatColor.WHITE +
+                String.format("%.1f", cell.getValue() / 60.0f) + " игроко-минут" + level);
+        }
+
+        if (sender instanceof Player && ((Player) sender).getWorld().getName().equals(worldName)) {
+            Location location = ((Player) sender).getLocation();
+            sender.sendMessage(ChatColor.YELLOW + "Ваш чанк: " + ChatColor.WHITE +
+                String.format("%.1f", heatmapManager.getHeat(location) / 60.0f) + " игроко-минут");
+        }
+    }
+
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         List<String> completions = new ArrayList<>();
         
         if (args.length == 1) {
-            List<String> subcommands = List.of("info", "stats", "reload", "optimize", "list", "player", "debug");
+            List<String> subcommands = List.of("info", "stats", "reload", "optimize", "list", "player", "debug", "heatmap", "trace");
             for (String subcommand : subcommands) {
                 if (subcommand.toLowerCase().startsWith(args[0].toLowerCase())) {
                     completions.add(subcommand);
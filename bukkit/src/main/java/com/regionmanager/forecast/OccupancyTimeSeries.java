@@ -0,0 +1,144 @@
+package com.regionmanager.forecast;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+
+/**
+ * Скользящий временной ряд занятости региона по часам недели
+ *
+ * 168 часовых корзин (7 дней x 24 часа). Текущий час накапливается отдельно и при смене
+ * часа вливается в свою корзину экспоненциальным сглаживанием, поэтому корзины отражают
+ * типичную нагрузку в этот час недели за последние недели.
+ */
+public class OccupancyTimeSeries {
+
+    public static final int BUCKETS = 7 * 24;
+
+    private final float[] buckets;
+    private int currentBucket;
+    private double currentSum;
+    private int currentSamples;
+
+    /**
+     * Конструктор временного ряда
+     */
+    public OccupancyTimeSeries() {
+        this.buckets = new float[BUCKETS];
+        Arrays.fill(buckets, Float.NaN);
+        this.currentBucket = -1;
+    }
+
+    /**
+     * Учесть количество игроков в момент времени
+     */
+    public void record(long timeMillis, int playerCount, ZoneId zone, float smoothing) {
+        int bucket = bucketOf(timeMillis, zone);
+
+        if (bucket != currentBucket) {
+            commitCurrent(smoothing);
+            currentBucket = bucket;
+        }
+
+        currentSum += playerCount;
+        currentSamples++;
+    }
+
+    /**
+     * Влить накопленный час в его корзину
+     */
+    private void commitCurrent(float smoothing) {
+        if (currentBucket >= 0 && currentSamples > 0) {
+            float mean = (float) (currentSum / currentSamples);
+            float previous = buckets[currentBucket];
+            buckets[currentBucket] = Float.isNaN(previous) ? mean : previous + smoothing * (mean - previous);
+        }
+
+        currentSum = 0.0;
+        currentSamples = 0;
+    }
+
+    /**
+     * Прогноз числа игроков на момент времени
+     *
+     * @return прогноз или NaN, если по этому часу еще нет истории
+     */
+    public float forecast(long timeMillis, ZoneId zone) {
+        return buckets[bucketOf(timeMillis, zone)];
+    }
+
+    /**
+     * Максимальный прогноз на интервале времени
+     *
+     * @return максимум или NaN, если по интервалу нет истории
+     */
+    public float maxForecast(long fromMillis, long toMillis, ZoneId zone) {
+        float max = Float.NaN;
+        for (long time = fromMillis; time <= toMillis; time += 3600000L) {
+            float value = forecast(time, zone);
+            if (!Float.isNaN(value) && (Float.isNaN(max) || value > max)) {
+                max = value;
+            }
+        }
+
+        float last = forecast(toMillis, zone);
+        if (!Float.isNaN(last) && (Float.isNaN(max) || last > max)) {
+            max = last;
+        }
+        return max;
+    }
+
+    /**
+     * Количество часов недели, по которым есть история
+     */
+    public int getKnownBuckets() {
+        int known = 0;
+        for (float value : buckets) {
+            if (!Float.isNaN(value)) {
+                known++;
+            }
+        }
+        return known;
+    }
+
+    /**
+     * Записать ряд в поток
+     */
+    public void write(DataOutputStream out) throws IOException {
+        for (float value : buckets) {
+            out.writeFloat(value);
+        }
+    }
+
+    /**
+     * Прочитать ряд из потока
+     */
+    public static OccupancyTimeSeries read(DataInputStream in) throws IOException {
+        OccupancyTimeSeries series = new OccupancyTimeSeries();
+        for (int i = 0; i < BUCKETS; i++) {
+            series.buckets[i] = in.readFloat();
+        }
+        return series;
+    }
+
+    /**
+     * Создать копию для асинхронного сохранения
+     */
+    public OccupancyTimeSeries copy() {
+        OccupancyTimeSeries copy = new OccupancyTimeSeries();
+        System.arraycopy(buckets, 0, copy.buckets, 0, BUCKETS);
+        return copy;
+    }
+
+    /**
+     * Номер часа недели: 0 - понедельник 00:00
+     */
+    static int bucketOf(long timeMillis, ZoneId zone) {
+        ZonedDateTime time = ZonedDateTime.ofInstant(Instant.ofEpochMilli(timeMillis), zone);
+        return (time.getDayOfWeek().getValue() - 1) * 24 + time.getHour();
+    }
+}
@@ -0,0 +1,21 @@
+package com.regionmanager.heatmap;
+
+/**
+ * Чанк тепловой карты и его накопленная занятость
+ */
+public class HeatCell {
+
+    private final int chunkX;
+    private final int chunkZ;
+    private final float value;
+
+    public HeatCell(int chunkX, int chunkZ, float value) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.value = value;
+    }
+
+    public int getChunkX() { return chunkX; }
+    public int getChunkZ() { return chunkZ; }
+    public float getValue() { return value; }
+}
@@ -0,0 +1,183 @@
+package com.regionmanager.heatmap;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Тепловая карта занятости мира с точностью до чанка
+ *
+ * Хранит игроко-секунды на чанк в разреженных тайлах 16x16 чанков (примитивные массивы float).
+ * Тайлы создаются только там, где бывали игроки, и удаляются, когда значения затухают.
+ * Запись идет в глобальном потоке, чтение возможно из потоков регионов Folia.
+ */
+public class OccupancyHeatmap {
+
+    private static final int TILE_SHIFT = 4;
+    private static final int TILE_SIZE = 1 << TILE_SHIFT;
+    private static final int TILE_MASK = TILE_SIZE - 1;
+
+    private final Map<Long, float[]> tiles;
+    private volatile double totalHeat;
+
+    /**
+     * Конструктор тепловой карты
+     */
+    public OccupancyHeatmap() {
+        this.tiles = new ConcurrentHashMap<>();
+        this.totalHeat = 0.0;
+    }
+
+    /**
+     * Добавить занятость в чанк
+     */
+    public void add(int chunkX, int chunkZ, float amount) {
+        float[] tile = tiles.computeIfAbsent(tileKey(chunkX >> TILE_SHIFT, chunkZ >> TILE_SHIFT),
+            k -> new float[TILE_SIZE * TILE_SIZE]);
+        tile[cellIndex(chunkX, chunkZ)] += amount;
+        totalHeat += amount;
+    }
+
+    /**
+     * Получить накопленную занятость чанка
+     */
+    public float get(int chunkX, int chunkZ) {
+        float[] tile = tiles.get(tileKey(chunkX >> TILE_SHIFT, chunkZ >> TILE_SHIFT));
+        return tile != null ? tile[cellIndex(chunkX, chunkZ)] : 0.0f;
+    }
+
+    /**
+     * Затухание всех значений
+     * Значения ниже порога обнуляются, пустые тайлы удаляются
+     */
+    public void decay(float factor, float pruneBelow) {
+        double newTotal = 0.0;
+        Iterator<float[]> iterator = tiles.values().iterator();
+
+        while (iterator.hasNext()) {
+            float[] tile = iterator.next();
+            boolean empty = true;
+
+            for (int i = 0; i < tile.length; i++) {
+                float value = tile[i] * factor;
+                if (value < pruneBelow) {
+                    value = 0.0f;
+                } else {
+                    empty = false;
+                    newTotal += value;
+                }
+                tile[i] = value;
+            }
+
+            if (empty) {
+                iterator.remove();
+            }
+        }
+
+        totalHeat = newTotal;
+    }
+
+    /**
+     * Получить самые горячие чанки
+     */
+    public List<HeatCell> getHottest(int limit, float minValue) {
+        PriorityQueue<HeatCell> top = new PriorityQueue<>(Math.max(1, limit),
+            (a, b) -> Float.compare(a.getValue(), b.getValue()));
+
+        for (Map.Entry<Long, float[]> entry : tiles.entrySet()) {
+            int tileX = (int) (entry.getKey() >> 32);
+            int tileZ = (int) (long) entry.getKey();
+            float[] tile = entry.getValue();
+
+            for (int i = 0; i < tile.length; i++) {
+                float value = tile[i];
+                if (value < minValue) {
+                    continue;
+                }
+                if (top.size() < limit) {
+                    top.add(new HeatCell((tileX << TILE_SHIFT) + (i & TILE_MASK), (tileZ << TILE_SHIFT) + (i >> TILE_SHIFT), value));
+                } else if (limit > 0 && value > top.peek().getValue()) {
+                    top.poll();
+                    top.add(new HeatCell((tileX << TILE_SHIFT) + (i & TILE_MASK), (tileZ << TILE_SHIFT) + (i >> TILE_SHIFT), value));
+                }
+            }
+        }
+
+        List<HeatCell> result = new ArrayList<>(top);
+        result.sort((a, b) -> Float.compare(b.getValue(), a.getValue()));
+        return result;
+    }
+
+    /**
+     * Создать независимую копию для асинхронного сохранения
+     */
+    public OccupancyHeatmap copy() {
+        OccupancyHeatmap copy = new OccupancyHeatmap();
+        for (Map.Entry<Long, float[]> entry : tiles.entrySet()) {
+            copy.tiles.put(entry.getKey(), entry.getValue().clone());
+        }
+        copy.totalHeat = totalHeat;
+        return copy;
+    }
+
+    /**
+     * Записать карту в поток
+     */
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(tiles.size());
+        for (Map.Entry<Long, float[]> entry : tiles.entrySet()) {
+            out.writeLong(entry.getKey());
+            for (float value : entry.getValue()) {
+                out.writeFloat(value);
+            }
+        }
+    }
+
+    /**
+     * Прочитать карту из потока
+     */
+    public static OccupancyHeatmap read(DataInputStream in) throws IOException {
+        OccupancyHeatmap heatmap = new OccupancyHeatmap();
+        int tileCount = in.readInt();
+
+        for (int t = 0; t < tileCount; t++) {
+            long key = in.readLong();
+            float[] tile = new float[TILE_SIZE * TILE_SIZE];
+            for (int i = 0; i < tile.length; i++) {
+                tile[i] = in.readFloat();
+                heatmap.totalHeat += tile[i];
+            }
+            heatmap.tiles.put(key, tile);
+        }
+
+        return heatmap;
+    }
+
+    private static long tileKey(int tileX, int tileZ) {
+        return ((long) tileX << 32) | (tileZ & 0xFFFFFFFFL);
+    }
+
+    private static int cellIndex(int chunkX, int chunkZ) {
+        return ((chunkZ & TILE_MASK) << TILE_SHIFT) | (chunkX & TILE_MASK);
+    }
+
+    /**
+     * Получить суммарную занятость мира
+     */
+    public double getTotalHeat() {
+        return totalHeat;
+    }
+
+    /**
+     * Получить количество тайлов
+     */
+    public int getTileCount() {
+        return tiles.size();
+    }
+}
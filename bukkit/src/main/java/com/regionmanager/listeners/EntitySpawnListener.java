@@ -0,0 +1,69 @@
+package com.regionmanager.listeners;
+
+import com.destroystokyo.paper.event.entity.EntityAddToWorldEvent;
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+import com.regionmanager.RegionManagerPlugin;
+import com.regionmanager.managers.SpawnLimitManager;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.CreatureSpawnEvent;
+import org.bukkit.event.entity.EntityDeathEvent;
+
+/**
+ * Слушатель появления и удаления мобов
+ * Ограничивает спавн по лимитам регионов и поддерживает счетчики мобов
+ */
+public class EntitySpawnListener implements Listener {
+
+    private final SpawnLimitManager spawnLimitManager;
+
+    /**
+     * Конструктор слушателя
+     */
+    public EntitySpawnListener(RegionManagerPlugin plugin) {
+        this.spawnLimitManager = plugin.getSpawnLimitManager();
+    }
+
+    /**
+     * Запрет спавна в переполненных регионах
+     */
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onCreatureSpawn(CreatureSpawnEvent event) {
+        if (spawnLimitManager.shouldBlockSpawn(event.getEntity(), event.getLocation(), event.getSpawnReason())) {
+            event.setCancelled(true);
+        }
+    }
+
+    /**
+     * Учет состоявшегося спавна
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onCreatureSpawned(CreatureSpawnEvent event) {
+        spawnLimitManager.track(event.getEntity());
+    }
+
+    /**
+     * Учет мобов, загруженных вместе с чанками
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityAddToWorld(EntityAddToWorldEvent event) {
+        spawnLimitManager.track(event.getEntity());
+    }
+
+    /**
+     * Учет смерти моба
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityDeath(EntityDeathEvent event) {
+        spawnLimitManager.untrack(event.getEntity());
+    }
+
+    /**
+     * Учет удаления моба из мира (деспавн, выгрузка чанка)
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityRemoveFromWorld(EntityRemoveFromWorldEvent event) {
+        spawnLimitManager.untrack(event.getEntity());
+    }
+}
@@ -1,6 +1,9 @@
 package com.regionmanager.listeners;
 
 import com.regionmanager.RegionManagerPlugin;
+import com.regionmanager.managers.AssignmentManager;
+import com.regionmanager.managers.PositionSamplingManager;
+import com.regionmanager.managers.TraceManager;
 import com.regionmanager.region.Region;
 import com.regionmanager.prediction.MovementPredictor;
 import org.bukkit.Location;
@@ -15,9 +18,9 @@ import org.bukkit.event.player.PlayerTeleportEvent;
 import org.bukkit.event.player.PlayerBedEnterEvent;
 import org.bukkit.event.player.PlayerBedLeaveEvent;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Слушатель событий игроков
@@ -27,8 +30,9 @@ public class PlayerListener implements Listener {
     
     private final RegionManagerPlugin plugin;
     private final MovementPredictor movementPredictor;
+    private final TraceManager traceManager;
     private final int regionCheckDistance;
-    private final Map<UUID, Boolean> sleepingPlayers = new HashMap<>();
+    private final Map<UUID, Boolean> sleepingPlayers = new ConcurrentHashMap<>();
     private final boolean preventSleepRegionChange;
     private final double sleepExpansionMultiplier;
     private final int sleepExpansionBuffer;
@@ -39,6 +43,7 @@ public class PlayerListener implements Listener {
     public PlayerListener(RegionManagerPlugin plugin) {
         this.plugin = plugin;
         this.movementPredictor = plugin.getMovementPredictor();
+        this.traceManager = plugin.getTraceManager();
         // Используем настройку из конфигурации для расстояния проверки
         this.regionCheckDistance = plugin.getConfig().getInt("regions.check-distance", 64);
         // Настройки сна
@@ -54,15 +59,26 @@ public class PlayerListener implements Listener {
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
         
+        if (traceManager != null) {
+            traceManager.recordJoin(player);
+        }
+        
         // Найти или создать регион для игрока
-        Region region = plugin.getRegionManager().findOrCreateRegionForPlayer(player);
-        if (region != null) {
-            plugin.getRegionManager().addPlayerToRegion(player, region);
+        Location location = player.getLocation();
+        plugin.getRegionManager().runSerialized(() -> {
+            if (!player.isOnline()) {
+                return;
+            }
             
-            if (plugin.getConfig().getBoolean("debug.show-region-info", false)) {
-                player.sendMessage("§aВы присоединились к региону: " + region.getId());
+            Region region = plugin.getRegionManager().findOrCreateRegionForPlayer(player, location);
+            if (region != null) {
+                plugin.getRegionManager().addPlayerToRegion(player, region, location);
+                
+                if (plugin.getConfig().getBoolean("debug.show-region-info", false)) {
+                    player.sendMessage("§aВы присоединились к региону: " + region.getId());
+                }
             }
-        }
+        });
     }
     
     /**
@@ -72,13 +88,22 @@ public class PlayerListener implements Listener {
     public void onPlayerQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
         
+        if (traceManager != null) {
+            traceManager.recordQuit(player);
+        }
+        
         // Очистить данные движения игрока
         if (movementPredictor != null) {
             movementPredictor.onPlayerQuit(player);
         }
         
         // Удалить игрока из региона
-        plugin.getRegionManager().removePlayerFromRegion(player);
+        plugin.getRegionManager().runSerialized(() -> plugin.getRegionManager().removePlayerFromRegion(player));
+        
+        AssignmentManager assignmentManager = plugin.getAssignmentManager();
+        if (assignmentManager != null) {
+            assignmentManager.forget(player);
+        }
         
         // Очистить флаг сна
         sleepingPlayers.remove(player.getUniqueId());
@@ -92,6 +117,10 @@ public class PlayerListener implements Listener {
         Player player = event.getPlayer();
         sleepingPlayers.put(player.getUniqueId(), true);
         
+        if (traceManager != null) {
+            traceManager.recordBed(player, true);
+        }
+        
         plugin.getPluginLogger().info("Игрок " + player.getName() + " лег спать в " + player.getLocation());
         
         if (preventSleepRegionChange && plugin.getConfig().getBoolean("debug.show-region-info", false)) {
@@ -107,12 +136,21 @@ public class PlayerListener implements Listener {
         Player player = event.getPlayer();
         sleepingPlayers.remove(player.getUniqueId());
         
+        if (traceManager != null) {
+            traceManager.recordBed(player, false);
+        }
+        
         plugin.getPluginLogger().info("Игрок " + player.getName() + " проснулся в " + player.getLocation());
         
         // При пробуждении проверяем, нужно ли изменить регион
         // Но делаем это более осторожно, чтобы избежать ненужных изменений
         if (preventSleepRegionChange) {
-            handleSleepWakeRegionCheck(player, player.getLocation());
+            Location wakeLocation = player.getLocation();
+            plugin.getRegionManager().runSerialized(() -> {
+                if (player.isOnline()) {
+                    handleSleepWakeRegionCheck(player, wakeLocation);
+                }
+            });
         }
     }
     
@@ -129,6 +167,17 @@ public class PlayerListener implements Listener {
             return;
         }
         
+        // В трассу попадает только смена позиции, повороты головы не пишутся
+        if (traceManager != null && (from.getX() != to.getX() || from.getY() != to.getY() || from.getZ() != to.getZ())) {
+            traceManager.recordMove(player, to);
+        }
+        
+        // В пакетном режиме позиции обрабатываются выборкой по таймеру
+        PositionSamplingManager samplingManager = plugin.getPositionSamplingManager();
+        if (samplingManager != null && samplingManager.isBatchMode()) {
+            return;
+        }
+        
         // Проверяем, действительно ли игрок переместился (не просто повернул голову)
         if (from.getBlockX() == to.getBlockX() && from.getBlockZ() == to.getBlockZ()) {
             // Игрок не переместился, только повернул голову - обновляем только предиктор
@@ -145,13 +194,28 @@ public class PlayerListener implements Listener {
         
         // Проверить, изменился ли мир
         if (!from.getWorld().equals(to.getWorld())) {
-            handleWorldChange(player, to);
+            plugin.getRegionManager().runSerialized(() -> {
+                if (player.isOnline()) {
+                    handleWorldChange(player, to);
+                }
+            });
+            return;
+        }
+        
+        // В режиме движка назначения главный поток только передает позицию
+        AssignmentManager assignmentManager = plugin.getAssignmentManager();
+        if (assignmentManager != null && assignmentManager.isEnabled()) {
+            assignmentManager.submit(player, to);
             return;
         }
         
         // Проверить, нужно ли проверять смену региона
         if (shouldCheckRegionChange(player, from, to)) {
-            handleRegionChange(player, to);
+            plugin.getRegionManager().runSerialized(() -> {
+                if (player.isOnline()) {
+                    handleRegionChange(player, to);
+                }
+            });
         }
     }
     
@@ -167,9 +231,28 @@ public class PlayerListener implements Listener {
             return;
         }
         
+        if (traceManager != null) {
+            traceManager.recordTeleport(player, to);
+        }
+        
+        if (movementPredictor != null) {
+            movementPredictor.onPlayerTeleport(player);
+        }
+        
         // При телепортации всегда принудительно пересчитываем регион
         plugin.getPluginLogger().info("Игрок " + player.getName() + " телепортирован в " + to);
-        
+        plugin.getRegionManager().runSerialized(() -> {
+            if (player.isOnline()) {
+                handleTeleport(player, to);
+            }
+        });
+    }
+    
+    /**
+     * Пересчитать регион игрока после телепортации
+     * Выполняется через RegionManager.runSerialized
+     */
+    private void handleTeleport(Player player, Location to) {
         // Удалить игрока из текущего региона
         Region currentRegion = plugin.getRegionManager().getPlayerRegion(player);
         if (currentRegion != null) {
@@ -178,9 +261,9 @@ public class PlayerListener implements Listener {
         }
         
         // Найти или создать новый регион
-        Region newRegion = plugin.getRegionManager().findOrCreateRegionForPlayer(player);
+        Region newRegion = plugin.getRegionManager().findOrCreateRegionForPlayer(player, to);
         if (newRegion != null) {
-            plugin.getRegionManager().addPlayerToRegion(player, newRegion);
+            plugin.getRegionManager().addPlayerToRegion(player, newRegion, to);
             
             if (plugin.getConfig().getBoolean("debug.show-region-info", false)) {
                 player.sendMessage("§aТелепортация: вы в регионе " + newRegion.getId());
@@ -192,6 +275,20 @@ public class PlayerListener implements Listener {
         }
     }
     
+    /**
+     * Обработать выход игрока за границы региона, найденный пакетной выборкой
+     * Вызывается из глобального потока (пакетная выборка на Folia отключена)
+     */
+    public void onSampledRegionExit(Player player, Location location) {
+        Region currentRegion = plugin.getRegionManager().getPlayerRegion(player);
+        if (currentRegion != null && !currentRegion.getWorld().equals(location.getWorld())) {
+            handleWorldChange(player, location);
+            return;
+        }
+        
+        handleRegionChange(player, location);
+    }
+    
     /**
      * Проверить, нужно ли проверять смену региона
      */
@@ -224,6 +321,7 @@ public class PlayerListener implements Listener {
     
     /**
      * Обработать смену мира
+     * Здесь и ниже регионы меняются только через RegionManager.runSerialized
      */
     private void handleWorldChange(Player player, Location newLocation) {
         Region currentRegion = plugin.getRegionManager().getPlayerRegion(player);
@@ -234,9 +332,9 @@ public class PlayerListener implements Listener {
         }
         
         // Найти или создать регион в новом мире
-        Region newRegion = plugin.getRegionManager().findOrCreateRegionForPlayer(player);
+        Region newRegion = plugin.getRegionManager().findOrCreateRegionForPlayer(player, newLocation);
         if (newRegion != null) {
-            plugin.getRegionManager().addPlayerToRegion(player, newRegion);
+            plugin.getRegionManager().addPlayerToRegion(player, newRegion, newLocation);
             
             if (plugin.getConfig().getBoolean("debug.show-region-info", false)) {
                 player.sendMessage("§aВы перешли в регион: " + newRegion.getId());
@@ -285,7 +383,7 @@ public class PlayerListener implements Listener {
         if (suitableRegion != null) {
             // Добавить игрока в найденный регион
             plugin.getPluginLogger().info("Найден подходящий регион " + suitableRegion.getId() + " для игрока " + player.getName());
-            plugin.getRegionManager().addPlayerToRegion(player, suitableRegion);
+            plugin.getRegionManager().addPlayerToRegion(player, suitableRegion, newLocation);
             
             if (plugin.getConfig().getBoolean("debug.show-region-info", false)) {
                 player.sendMessage("§aВы перешли в регион: " + suitableRegion.getId());
@@ -305,6 +403,7 @@ public class PlayerListener implements Listener {
      */
     private Region findSuitableRegionForLocation(Location location) {
         plugin.getPluginLogger().debug("Поиск подходящего региона для локации " + location.getBlockX() + ", " + location.getBlockZ());
+        plugin.getRegionManager().restorePendingRegions(location.getWorld());
         
         // Ищем только регион, который содержит эту локацию
         for (Region region : plugin.getRegionManager().getRegions().values()) {
@@ -372,7 +471,7 @@ public class PlayerListener implements Listener {
                     existingRegion.getId() + ", переводим в него");
                 
                 plugin.getRegionManager().removePlayerFromRegion(player);
-                plugin.getRegionManager().addPlayerToRegion(player, existingRegion);
+                plugin.getRegionManager().addPlayerToRegion(player, existingRegion, wakeLocation);
                 
                 if (plugin.getConfig().getBoolean("debug.show-region-info", false)) {
                     player.sendMessage("§aВы перешли в регион: " + existingRegion.getId());
@@ -404,7 +503,7 @@ public class PlayerListener implements Listener {
     private void createNewRegionForPlayer(Player player, Location location) {
         Region newRegion = plugin.getRegionManager().createNewRegion(location);
         if (newRegion != null) {
-            plugin.getRegionManager().addPlayerToRegion(player, newRegion);
+            plugin.getRegionManager().addPlayerToRegion(player, newRegion, location);
             
             if (plugin.getConfig().getBoolean("debug.show-region-info", false)) {
                 player.sendMessage("§aСоздан новый регион: " + newRegion.getId());
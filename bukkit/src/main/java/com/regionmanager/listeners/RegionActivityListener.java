@@ -0,0 +1,71 @@
+package com.regionmanager.listeners;
+
+import com.regionmanager.RegionManagerPlugin;
+import com.regionmanager.managers.RateLimitManager;
+import com.regionmanager.region.Region;
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockRedstoneEvent;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+
+/**
+ * Слушатель активности мира внутри регионов
+ * Учитывает события, по которым оценивается стоимость регионов, и ограничивает
+ * их частоту в регионах, занимающих слишком большую долю тика
+ */
+public class RegionActivityListener implements Listener {
+
+    private final RegionManagerPlugin plugin;
+
+    /**
+     * Конструктор слушателя
+     */
+    public RegionActivityListener(RegionManagerPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Учет и ограничение срабатываний редстоуна
+     */
+    @EventHandler(priority = EventPriority.HIGH)
+    public void onBlockRedstone(BlockRedstoneEvent event) {
+        Block block = event.getBlock();
+        Region region = plugin.getRegionManager().getRegionAtChunk(block.getWorld(), block.getX() >> 4, block.getZ() >> 4);
+        if (region == null) {
+            return;
+        }
+
+        region.recordRedstoneEvent();
+
+        // Подавляются только включения сигнала, чтобы схемы могли обесточиться
+        RateLimitManager rateLimitManager = plugin.getRateLimitManager();
+        if (event.getNewCurrent() > event.getOldCurrent() && !rateLimitManager.tryRedstoneChange(region)) {
+            event.setNewCurrent(event.getOldCurrent());
+        }
+    }
+
+    /**
+     * Учет и ограничение перемещений предметов воронками
+     */
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onInventoryMoveItem(InventoryMoveItemEvent event) {
+        Location location = event.getSource().getLocation();
+        if (location == null || location.getWorld() == null) {
+            return;
+        }
+
+        Region region = plugin.getRegionManager().getRegionAtChunk(location.getWorld(),
+            location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        if (region == null) {
+            return;
+        }
+
+        region.recordHopperEvent();
+        if (!plugin.getRateLimitManager().tryHopperMove(region)) {
+            event.setCancelled(true);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.regionmanager.managers;
+
+import com.regionmanager.RegionManagerPlugin;
+import com.regionmanager.engine.Assignment;
+import com.regionmanager.engine.AssignmentEngine;
+import com.regionmanager.engine.PositionUpdate;
+import com.regionmanager.engine.RegionRegistry;
+import com.regionmanager.region.Region;
+import com.regionmanager.scheduler.TaskScheduler;
+import com.regionmanager.utils.Logger;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Менеджер асинхронного назначения игроков регионам
+ *
+ * Связывает движок назначения с сервером: передает ему позиции игроков, раз в тик
+ * публикует снимок раскладки (если регионы изменились) и применяет накопленные
+ * результаты одной пачкой. Перед применением каждое решение проверяется по
+ * актуальному состоянию, устаревшие решения пересчитываются по текущей позиции.
+ * На Folia состояние игрока читается в потоке, которому он принадлежит, а регионы
+ * меняются в глобальном потоке, как и при обработке событий игроков.
+ */
+public class AssignmentManager {
+
+    private final RegionManagerPlugin plugin;
+    private final Logger logger;
+    private final AssignmentEngine engine;
+    private final boolean enabled;
+    private final boolean preventSleepRegionChange;
+    private final int maxAppliedPerTick;
+    private long publishedVersion;
+    private final LongAdder appliedCount;
+    private final LongAdder limitedCount;
+
+    /**
+     * Конструктор менеджера
+     */
+    public AssignmentManager(RegionManagerPlugin plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getPluginLogger();
+
+        // Загрузка конфигурации
+        this.enabled = plugin.getConfig().getBoolean("assignment.async-engine", true);
+        this.preventSleepRegionChange = plugin.getConfig().getBoolean("sleep.prevent-region-change", true);
+        this.maxAppliedPerTick = plugin.getConfig().getInt("assignment.max-applied-per-tick", 200);
+        this.engine = new AssignmentEngine(
+            plugin.getConfig().getInt("regions.size", 512),
+            plugin.getConfig().getInt("regions.min-distance-between-regions", 256),
+            plugin.getConfig().getInt("performance.max-active-regions", 50),
+            plugin.getConfig().getInt("assignment.max-batch", 1024)
+        );
+        this.publishedVersion = -1L;
+        this.appliedCount = new LongAdder();
+        this.limitedCount = new LongAdder();
+
+        if (enabled) {
+            engine.publish(plugin.getRegionManager().createLayout());
+            engine.start();
+            plugin.getTaskScheduler().runGlobalTimer(this::tick, 1L, 1L);
+        }
+
+        logger.info("AssignmentManager инициализирован" + (enabled ? " (движок назначения запущен)" : ""));
+    }
+
+    /**
+     * Передать позицию игрока движку
+     */
+    public void submit(Player player, Location location) {
+        Region current = plugin.getRegionManager().getPlayerRegion(player);
+        engine.submit(new PositionUpdate(player.getUniqueId(), location.getWorld().getName(),
+            location.getBlockX(), location.getBlockZ(), current != null ? current.getId() : null));
+    }
+
+    /**
+     * Забыть последнее решение движка для вышедшего игрока
+     */
+    public void forget(Player player) {
+        engine.forget(player.getUniqueId());
+    }
+
+    /**
+     * Опубликовать раскладку и применить результаты движка
+     */
+    private void tick() {
+        RegionManager regionManager = plugin.getRegionManager();
+        if (regionManager.getLayoutVersion() != publishedVersion) {
+            publishedVersion = regionManager.getLayoutVersion();
+            engine.publish(regionManager.createLayout());
+        }
+
+        Assignment assignment;
+        int applied = 0;
+        while (applied < maxAppliedPerTick && (assignment = engine.pollResult()) != null) {
+            dispatch(assignment);
+            applied++;
+        }
+    }
+
+    /**
+     * Передать решение на применение в поток игрока
+     */
+    private void dispatch(Assignment assignment) {
+        if (assignment.getType() == Assignment.Type.LIMIT) {
+            // Движок выдает отказ игроку один раз, пока лимит не освободится
+            limitedCount.increment();
+            plugin.getRegionManager().isActiveLimitReached();
+            return;
+        }
+
+        Player player = plugin.getServer().getPlayer(assignment.getPlayerId());
+        if (player == null) {
+            return;
+        }
+
+        TaskScheduler scheduler = plugin.getTaskScheduler();
+        if (scheduler.isRegionThreaded()) {
+            scheduler.runForEntity(player, () -> apply(player, assignment));
+        } else {
+            apply(player, assignment);
+        }
+    }
+
+    /**
+     * Применить решение движка
+     */
+    private void apply(Player player, Assignment assignment) {
+        if (!player.isOnline()) {
+            return;
+        }
+
+        Location location = player.getLocation();
+        // Смена мира обрабатывается синхронно слушателем
+        if (!location.getWorld().getName().equals(assignment.getWorldName())) {
+            return;
+        }
+        if (preventSleepRegionChange && player.isSleeping()) {
+            return;
+        }
+
+        // Состояние игрока прочитано в его потоке, регионы меняются в едином потоке изменений
+        plugin.getRegionManager().runSerialized(() -> {
+            if (player.isOnline()) {
+                applyAt(player, assignment, location);
+            }
+        });
+    }
+
+    /**
+     * Применить решение движка для позиции игрока
+     * Решение проверяет и применяет реестр регионов ядра; здесь - загрузка чанков и журнал событий.
+     * Выполняется через RegionManager.runSerialized
+     */
+    private void applyAt(Player player, Assignment assignment, Location location) {
+        RegionManager regionManager = plugin.getRegionManager();
+        regionManager.restorePendingRegions(location.getWorld());
+        Region previous = regionManager.getPlayerRegion(player);
+
+        RegionRegistry.Outcome outcome = regionManager.getRegistry().apply(player.getUniqueId(), assignment,
+            location.getWorld().getName(), location.getBlockX(), location.getBlockZ(), System.currentTimeMillis());
+        switch (outcome) {
+            case JOINED:
+            case CREATED:
+                onMoved(player, previous, regionManager.getPlayerRegion(player), location,
+                    outcome == RegionRegistry.Outcome.CREATED);
+                break;
+            case RETRY:
+                // Раскладка изменилась после расчета - пересчитываем по текущей позиции;
+                // без forget движок счел бы то же решение повтором и не выдал бы его
+                engine.forget(player.getUniqueId());
+                submit(player, location);
+                break;
+            case LIMITED:
+                // Лимит занят после расчета движком - решение придет заново, когда он освободится
+                engine.forget(player.getUniqueId());
+                logger.debug("Не удалось создать регион для игрока " + player.getName() + " в " + location);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Игрок переведен реестром в регион: загрузить чанки вокруг него
+     */
+    private void onMoved(Player player, Region previous, Region region, Location location, boolean created) {
+        if (region == null) {
+            return;
+        }
+        if (created) {
+            logger.info("Создан новый регион " + region.getId() + " для игрока " + player.getName());
+        }
+        if (previous != null) {
+            logger.info("Игрок " + player.getName() + " вышел за границы региона " + previous.getId() +
+                " (позиция: " + location.getBlockX() + ", " + location.getBlockZ() + ")");
+        }
+
+        region.onPlayerAdded(player, location);
+        appliedCount.increment();
+
+        if (plugin.getConfig().getBoolean("debug.show-region-info", false)) {
+            player.sendMessage("§aВы перешли в регион: " + region.getId());
+        }
+    }
+
+    /**
+     * Проверить, включен ли движок назначения
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Получить число позиций, ожидающих обработки движком
+     */
+    public int getPendingCount() {
+        return engine.getPendingCount();
+    }
+
+    /**
+     * Получить число примененных назначений
+     */
+    public long getAppliedCount() {
+        return appliedCount.sum();
+    }
+
+    /**
+     * Получить число отказов в создании региона из-за лимита активных регионов
+     */
+    public long getLimitedCount() {
+        return limitedCount.sum();
+    }
+    
+    /**
+     * Завершить работу менеджера
+     */
+    public void shutdown() {
+        engine.shutdown();
+        logger.info("AssignmentManager завершил работу");
+    }
+}
@@ -0,0 +1,233 @@
+package com.regionmanager.managers;
+
+import com.regionmanager.RegionManagerPlugin;
+import com.regionmanager.engine.ChunkShape;
+import com.regionmanager.region.Region;
+import com.regionmanager.region.RegionCost;
+import com.regionmanager.scheduler.SliceDispatcher;
+import com.regionmanager.scheduler.TaskScheduler;
+import com.regionmanager.utils.Logger;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Менеджер учета стоимости регионов
+ *
+ * Каждый тик обходит ограниченное число чанков текущего региона, считая сущности,
+ * тайл-сущности и загруженные чанки. После обхода всех чанков региона публикует
+ * его стоимость и переходит к следующему, поэтому нагрузка равномерно
+ * распределяется по тикам и не зависит от количества регионов.
+ * На Folia порция выполняется в потоке, владеющем текущим чанком обхода, и
+ * прерывается на первом чанке другого потока: следующая порция уйдет к нему.
+ */
+public class CostManager {
+
+    private final RegionManagerPlugin plugin;
+    private final Logger logger;
+    private final TaskScheduler scheduler;
+    private final SliceDispatcher dispatcher;
+    private final Deque<String> sweepQueue;
+    private final Map<String, Double> latestScores;
+    private final Map<String, Long> lastPublished;
+    private final int maxChunkChecksPerTick;
+    private final int maxLoadedChunksPerTick;
+    private final double entityWeight;
+    private final double tileEntityWeight;
+    private final double chunkWeight;
+    private final double redstoneWeight;
+    private final double hopperWeight;
+    private double totalScore;
+
+    // Состояние обхода текущего региона
+    private Region current;
+    private int minChunkX;
+    private int maxChunkX;
+    private int maxChunkZ;
+    private int cursorX;
+    private int cursorZ;
+    private int entities;
+    private int tileEntities;
+    private int loadedChunks;
+
+    /**
+     * Конструктор менеджера стоимости
+     */
+    public CostManager(RegionManagerPlugin plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getPluginLogger();
+        this.scheduler = plugin.getTaskScheduler();
+        this.dispatcher = new SliceDispatcher(scheduler);
+        this.sweepQueue = new ArrayDeque<>();
+        this.latestScores = new HashMap<>();
+        this.lastPublished = new HashMap<>();
+        this.totalScore = 0.0;
+
+        // Загрузка конфигурации
+        this.maxChunkChecksPerTick = plugin.getConfig().getInt("cost.max-chunk-checks-per-tick", 256);
+        this.maxLoadedChunksPerTick = plugin.getConfig().getInt("cost.max-loaded-chunks-per-tick", 16);
+        this.entityWeight = plugin.getConfig().getDouble("cost.weights.entity", 1.0);
+        this.tileEntityWeight = plugin.getConfig().getDouble("cost.weights.tile-entity", 0.5);
+        this.chunkWeight = plugin.getConfig().getDouble("cost.weights.chunk", 2.0);
+        this.redstoneWeight = plugin.getConfig().getDouble("cost.weights.redstone", 0.2);
+        this.hopperWeight = plugin.getConfig().getDouble("cost.weights.hopper", 0.1);
+
+        if (plugin.getConfig().getBoolean("cost.enabled", true)) {
+            plugin.getTaskScheduler().runGlobalTimer(this::tick, 1L, 1L);
+        }
+
+        logger.info("CostManager инициализирован");
+    }
+
+    /**
+     * Запустить порцию выборки в текущем тике
+     */
+    private void tick() {
+        if (!dispatcher.tryBegin()) {
+            return;
+        }
+        if (current == null && !startNextRegion()) {
+            dispatcher.end();
+            return;
+        }
+        dispatcher.dispatch(current.getWorld(), cursorX, cursorZ, this::sweep);
+    }
+
+    /**
+     * Выполнить порцию выборки
+     */
+    private void sweep() {
+        int checks = 0;
+        int loads = 0;
+
+        while (checks < maxChunkChecksPerTick && loads < maxLoadedChunksPerTick) {
+            if (current == null && !startNextRegion()) {
+                return;
+            }
+
+            if (cursorZ > maxChunkZ) {
+                publish();
+                current = null;
+                continue;
+            }
+
+            World world = current.getWorld();
+            boolean loaded = current.containsChunk(cursorX, cursorZ) && world.isChunkLoaded(cursorX, cursorZ);
+            if (loaded && !scheduler.isOwnedByCurrentThread(world, cursorX, cursorZ)) {
+                return;
+            }
+
+            checks++;
+            if (loaded) {
+                Chunk chunk = world.getChunkAt(cursorX, cursorZ);
+                entities += chunk.getEntities().length;
+                tileEntities += chunk.getTileEntities(false).length;
+                loadedChunks++;
+                loads++;
+            }
+
+            if (++cursorX > maxChunkX) {
+                cursorX = minChunkX;
+                cursorZ++;
+            }
+        }
+    }
+
+    /**
+     * Перейти к следующему региону; при пустой очереди начинается новый проход
+     */
+    private boolean startNextRegion() {
+        if (sweepQueue.isEmpty()) {
+            Set<String> activeIds = new HashSet<>();
+            for (Region region : plugin.getRegionManager().getRegions().values()) {
+                if (region.isActive()) {
+                    activeIds.add(region.getId());
+                }
+            }
+            if (activeIds.isEmpty()) {
+                return false;
+            }
+
+            // Удаленные регионы не должны влиять на доли
+            latestScores.keySet().retainAll(activeIds);
+            lastPublished.keySet().retainAll(activeIds);
+            totalScore = latestScores.values().stream().mapToDouble(Double::doubleValue).sum();
+            sweepQueue.addAll(activeIds);
+        }
+
+        while (!sweepQueue.isEmpty()) {
+            Region region = plugin.getRegionManager().getRegions().get(sweepQueue.poll());
+            if (region == null || !region.isActive()) {
+                continue;
+            }
+
+            ChunkShape shape = region.getShape();
+            current = region;
+            minChunkX = shape.getMinChunkX();
+            maxChunkX = shape.getMinChunkX() + shape.getWidth() - 1;
+            maxChunkZ = shape.getMinChunkZ() + shape.getDepth() - 1;
+            cursorX = minChunkX;
+            cursorZ = shape.getMinChunkZ();
+            entities = 0;
+            tileEntities = 0;
+            loadedChunks = 0;
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Опубликовать стоимость обойденного региона
+     */
+    private void publish() {
+        long now = System.currentTimeMillis();
+        String id = current.getId();
+        long since = lastPublished.getOrDefault(id, current.getCreationTime());
+        double elapsedSeconds = Math.max(1.0, (now - since) / 1000.0);
+        double redstonePerSecond = current.drainRedstoneEvents() / elapsedSeconds;
+        double hopperPerSecond = current.drainHopperEvents() / elapsedSeconds;
+
+        double score = entities * entityWeight
+            + tileEntities * tileEntityWeight
+            + loadedChunks * chunkWeight
+            + redstonePerSecond * redstoneWeight
+            + hopperPerSecond * hopperWeight;
+
+        Double previous = latestScores.put(id, score);
+        totalScore += score - (previous != null ? previous : 0.0);
+        double tickShare = totalScore > 0.0 ? Math.min(1.0, score / totalScore) : 0.0;
+
+        RegionCost cost = new RegionCost(entities, tileEntities, loadedChunks, redstonePerSecond, hopperPerSecond,
+            score, tickShare, now);
+        current.setCost(cost);
+        lastPublished.put(id, now);
+        
+        ItemCleanupManager itemCleanupManager = plugin.getItemCleanupManager();
+        if (itemCleanupManager != null) {
+            itemCleanupManager.onCostPublished(current, cost);
+        }
+    }
+
+    /**
+     * Оценка времени тика региона в миллисекундах по средней длительности тика сервера
+     */
+    public double getEstimatedTickMs(Region region) {
+        return region.getCost().getEstimatedTickMs(plugin.getPerformanceManager().getAverageTickTime());
+    }
+
+    /**
+     * Завершить работу менеджера
+     */
+    public void shutdown() {
+        sweepQueue.clear();
+        current = null;
+        logger.info("CostManager завершил работу");
+    }
+}
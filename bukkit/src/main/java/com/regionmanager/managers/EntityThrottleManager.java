@@ -0,0 +1,296 @@
+package com.regionmanager.managers;
+
+import com.regionmanager.RegionManagerPlugin;
+import com.regionmanager.engine.ChunkShape;
+import com.regionmanager.region.Region;
+import com.regionmanager.scheduler.TaskScheduler;
+import com.regionmanager.utils.Logger;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Mob;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Менеджер понижения активности мобов по регионам
+ *
+ * При нагрузке на сервер выбирает регионы с игроками, у которых наименьший приоритет
+ * (мало игроков на единицу стоимости), и отключает ИИ (setAware(false)) у мобов,
+ * начиная с самых дальних от игроков. Отключенные мобы запоминаются и сразу
+ * возвращаются в нормальный режим, когда нагрузка спадает. На Folia мобы каждого
+ * региона обрабатываются в потоке, владеющем центром региона.
+ */
+public class EntityThrottleManager {
+
+    private final RegionManagerPlugin plugin;
+    private final Logger logger;
+    private final TaskScheduler scheduler;
+    // Мобы, у которых ИИ отключил этот менеджер, по идентификатору региона
+    private final Map<String, Map<UUID, Mob>> throttledMobs;
+    private final boolean enabled;
+    private final double minDistanceSquared;
+    private final int maxPerPass;
+    private final boolean skipNamed;
+
+    /**
+     * Конструктор менеджера
+     */
+    public EntityThrottleManager(RegionManagerPlugin plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getPluginLogger();
+        this.scheduler = plugin.getTaskScheduler();
+        this.throttledMobs = new ConcurrentHashMap<>();
+
+        // Загрузка конфигурации
+        this.enabled = plugin.getConfig().getBoolean("entity-throttling.enabled", true);
+        double minDistance = plugin.getConfig().getDouble("entity-throttling.min-distance", 32.0);
+        this.minDistanceSquared = minDistance * minDistance;
+        this.maxPerPass = plugin.getConfig().getInt("entity-throttling.max-per-pass", 500);
+        this.skipNamed = plugin.getConfig().getBoolean("entity-throttling.skip-named", true);
+
+        if (enabled) {
+            int interval = plugin.getConfig().getInt("entity-throttling.interval", 40);
+            plugin.getTaskScheduler().runGlobalTimer(this::update, interval, interval);
+        }
+
+        logger.info("EntityThrottleManager инициализирован");
+    }
+
+    /**
+     * Пересчитать набор регионов и мобов с отключенным ИИ
+     */
+    private void update() {
+        double pressure = plugin.getPerformanceManager().getLoadPressure();
+        if (pressure <= 0.0) {
+            if (!throttledMobs.isEmpty()) {
+                restoreAll();
+                logger.info("Нагрузка спала, ИИ мобов восстановлен во всех регионах");
+            }
+            return;
+        }
+
+        RegionManager regionManager = plugin.getRegionManager();
+        List<Region> candidates = new ArrayList<>();
+        for (Region region : regionManager.getRegions().values()) {
+            if (region.isActive() && region.getPlayerCount() > 0) {
+                candidates.add(region);
+            }
+        }
+
+        // Низкий приоритет - мало игроков на единицу стоимости региона
+        candidates.sort(Comparator.comparingDouble(region -> region.getPlayerCount() / (region.getCost().getScore() + 1.0)));
+        int throttledCount = (int) Math.ceil(candidates.size() * pressure);
+
+        Set<String> selected = new HashSet<>();
+        for (int i = 0; i < throttledCount && i < candidates.size(); i++) {
+            selected.add(candidates.get(i).getId());
+        }
+
+        // Регионы, вышедшие из выборки, восстанавливаем немедленно
+        Iterator<Map.Entry<String, Map<UUID, Mob>>> iterator = throttledMobs.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Map<UUID, Mob>> entry = iterator.next();
+            if (!selected.contains(entry.getKey())) {
+                restore(entry.getValue().values());
+                iterator.remove();
+            }
+        }
+
+        if (selected.isEmpty()) {
+            return;
+        }
+
+        if (scheduler.isRegionThreaded()) {
+            int budget = Math.max(1, maxPerPass / selected.size());
+            for (Region region : candidates) {
+                if (selected.contains(region.getId())) {
+                    Location center = region.getCenter();
+                    scheduler.runAtChunk(region.getWorld(), center.getBlockX() >> 4, center.getBlockZ() >> 4,
+                        () -> throttleRegion(region, collectOwnedMobs(region), pressure, budget));
+                }
+            }
+            return;
+        }
+
+        // Мобы каждого мира распределяются по регионам через индекс чанков
+        Map<String, List<Mob>> mobsByRegion = new HashMap<>();
+        Set<World> worlds = new HashSet<>();
+        for (Region region : candidates) {
+            if (selected.contains(region.getId())) {
+                worlds.add(region.getWorld());
+            }
+        }
+        for (World world : worlds) {
+            for (Mob mob : world.getEntitiesByClass(Mob.class)) {
+                Location location = mob.getLocation();
+                Region region = regionManager.getRegionAtChunk(world, location.getBlockX() >> 4, location.getBlockZ() >> 4);
+                if (region != null && selected.contains(region.getId())) {
+                    mobsByRegion.computeIfAbsent(region.getId(), k -> new ArrayList<>()).add(mob);
+                }
+            }
+        }
+
+        int budget = maxPerPass;
+        for (Region region : candidates) {
+            if (selected.contains(region.getId())) {
+                budget -= throttleRegion(region, mobsByRegion.getOrDefault(region.getId(), List.of()), pressure, budget);
+            }
+        }
+    }
+
+    /**
+     * Отключить ИИ дальних мобов региона
+     *
+     * @return количество мобов, отключенных в этом проходе
+     */
+    private int throttleRegion(Region region, List<Mob> mobs, double pressure, int budget) {
+        List<Location> playerLocations = new ArrayList<>();
+        for (UUID playerId : region.getPlayers()) {
+            Player player = plugin.getServer().getPlayer(playerId);
+            if (player != null) {
+                playerLocations.add(player.getLocation());
+            }
+        }
+
+        Map<UUID, Mob> throttled = throttledMobs.computeIfAbsent(region.getId(), k -> new ConcurrentHashMap<>());
+        // Мертвые и выгруженные мобы больше не отслеживаются
+        throttled.values().removeIf(mob -> !mob.isValid());
+
+        List<Mob> farMobs = new ArrayList<>();
+        Map<Mob, Double> distances = new HashMap<>();
+        for (Mob mob : mobs) {
+            if (skipNamed && mob.getCustomName() != null || mob.isLeashed()) {
+                continue;
+            }
+
+            double distance = nearestDistanceSquared(mob.getLocation(), playerLocations);
+            if (distance < minDistanceSquared) {
+                // Игрок подошел близко - возвращаем мобу ИИ
+                if (throttled.remove(mob.getUniqueId()) != null) {
+                    mob.setAware(true);
+                }
+                continue;
+            }
+
+            farMobs.add(mob);
+            distances.put(mob, distance);
+        }
+
+        // Сначала самые дальние от игроков; доля отключаемых растет с нагрузкой
+        farMobs.sort((a, b) -> Double.compare(distances.get(b), distances.get(a)));
+        int target = (int) Math.ceil(farMobs.size() * pressure);
+        int changed = 0;
+
+        for (int i = 0; i < farMobs.size(); i++) {
+            Mob mob = farMobs.get(i);
+            if (i < target) {
+                if (changed < budget && mob.isAware()) {
+                    mob.setAware(false);
+                    throttled.put(mob.getUniqueId(), mob);
+                    changed++;
+                }
+            } else if (throttled.remove(mob.getUniqueId()) != null) {
+                mob.setAware(true);
+            }
+        }
+
+        if (changed > 0) {
+            logger.debug("Регион " + region.getId() + ": отключен ИИ у " + changed + " мобов (всего " + throttled.size() + ")");
+        }
+        return changed;
+    }
+
+    /**
+     * Собрать мобов из чанков региона, принадлежащих текущему потоку
+     */
+    private List<Mob> collectOwnedMobs(Region region) {
+        List<Mob> mobs = new ArrayList<>();
+        World world = region.getWorld();
+        ChunkShape shape = region.getShape();
+        int minChunkX = shape.getMinChunkX();
+        int maxChunkX = shape.getMinChunkX() + shape.getWidth() - 1;
+        int minChunkZ = shape.getMinChunkZ();
+        int maxChunkZ = shape.getMinChunkZ() + shape.getDepth() - 1;
+
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                if (!shape.containsChunk(chunkX, chunkZ) || !world.isChunkLoaded(chunkX, chunkZ)
+                    || !scheduler.isOwnedByCurrentThread(world, chunkX, chunkZ)) {
+                    continue;
+                }
+                for (Entity entity : world.getChunkAt(chunkX, chunkZ).getEntities()) {
+                    if (entity instanceof Mob) {
+                        mobs.add((Mob) entity);
+                    }
+                }
+            }
+        }
+        return mobs;
+    }
+
+    /**
+     * Квадрат расстояния до ближайшего игрока
+     */
+    private double nearestDistanceSquared(Location location, List<Location> playerLocations) {
+        double nearest = Double.MAX_VALUE;
+        for (Location playerLocation : playerLocations) {
+            if (playerLocation.getWorld().equals(location.getWorld())) {
+                nearest = Math.min(nearest, playerLocation.distanceSquared(location));
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Вернуть ИИ мобам
+     */
+    private void restore(Iterable<Mob> mobs) {
+        for (Mob mob : mobs) {
+            if (!mob.isValid()) {
+                continue;
+            }
+            if (scheduler.isOwnedByCurrentThread(mob)) {
+                mob.setAware(true);
+            } else {
+                scheduler.runForEntity(mob, () -> mob.setAware(true));
+            }
+        }
+    }
+
+    /**
+     * Немедленно вернуть ИИ всем отключенным мобам
+     */
+    public void restoreAll() {
+        for (Map<UUID, Mob> mobs : throttledMobs.values()) {
+            restore(mobs.values());
+        }
+        throttledMobs.clear();
+    }
+
+    /**
+     * Получить количество мобов с отключенным ИИ в регионе
+     */
+    public int getThrottledCount(Region region) {
+        Map<UUID, Mob> mobs = throttledMobs.get(region.getId());
+        return mobs != null ? mobs.size() : 0;
+    }
+
+    /**
+     * Завершить работу менеджера
+     */
+    public void shutdown() {
+        restoreAll();
+        logger.info("EntityThrottleManager завершил работу");
+    }
+}
@@ -0,0 +1,265 @@
+package com.regionmanager.managers;
+
+import com.regionmanager.RegionManagerPlugin;
+import com.regionmanager.forecast.OccupancyTimeSeries;
+import com.regionmanager.region.Region;
+import com.regionmanager.utils.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Менеджер прогнозирования занятости регионов по времени суток
+ * Ведет почасовые ряды занятости за неделю, заранее активирует и прогревает регионы
+ * перед прогнозируемыми пиками и досрочно выгружает регионы, которые останутся пустыми
+ */
+public class ForecastManager {
+
+    private static final int FILE_MAGIC = 0x524D4643; // "RMFC"
+    private static final short FILE_VERSION = 1;
+
+    private final RegionManagerPlugin plugin;
+    private final Logger logger;
+    private final Map<String, OccupancyTimeSeries> series;
+    // Регионы, уже прогретые к текущему пику, и время прогрева, чтобы не прогревать их каждую минуту
+    private final Map<String, Long> warmedRegions;
+    private final File forecastFile;
+    private final boolean enabled;
+    private final ZoneId zone;
+    private final float smoothing;
+    private final long leadTimeMs;
+    private final float peakThreshold;
+    private final float idleThreshold;
+    private final long idleHorizonMs;
+    private final int minKnownBuckets;
+    private final int warmRadius;
+
+    /**
+     * Конструктор менеджера прогнозирования
+     */
+    public ForecastManager(RegionManagerPlugin plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getPluginLogger();
+        this.series = new HashMap<>();
+        this.warmedRegions = new HashMap<>();
+
+        // Загрузка конфигурации
+        this.enabled = plugin.getConfig().getBoolean("forecast.enabled", true);
+        this.forecastFile = new File(plugin.getDataFolder(), plugin.getConfig().getString("forecast.file", "forecast.dat"));
+        String zoneId = plugin.getConfig().getString("forecast.time-zone", "");
+        this.zone = zoneId == null || zoneId.isEmpty() ? ZoneId.systemDefault() : ZoneId.of(zoneId);
+        this.smoothing = (float) plugin.getConfig().getDouble("forecast.smoothing", 0.3);
+        this.leadTimeMs = plugin.getConfig().getLong("forecast.lead-minutes", 5L) * 60000L;
+        this.peakThreshold = (float) plugin.getConfig().getDouble("forecast.peak-threshold", 3.0);
+        this.idleThreshold = (float) plugin.getConfig().getDouble("forecast.idle-threshold", 0.2);
+        this.idleHorizonMs = plugin.getConfig().getLong("forecast.idle-horizon-hours", 2L) * 3600000L;
+        this.minKnownBuckets = plugin.getConfig().getInt("forecast.min-known-hours", 24);
+        this.warmRadius = plugin.getConfig().getInt("forecast.warm-radius", 3);
+
+        if (enabled) {
+            load();
+
+            int sampleInterval = plugin.getConfig().getInt("forecast.sample-interval", 1200);
+            plugin.getTaskScheduler().runGlobalTimer(this::sampleAndSchedule, sampleInterval, sampleInterval);
+
+            int saveInterval = plugin.getConfig().getInt("forecast.save-interval", 12000);
+            plugin.getTaskScheduler().runGlobalTimer(() -> save(true), saveInterval, saveInterval);
+        }
+
+        logger.info("ForecastManager инициализирован");
+    }
+
+    /**
+     * Учесть текущую занятость регионов и выполнить действия по прогнозу
+     */
+    private void sampleAndSchedule() {
+        long now = System.currentTimeMillis();
+        Map<String, Region> regions = plugin.getRegionManager().getRegions();
+
+        for (Region region : regions.values()) {
+            series.computeIfAbsent(region.getId(), k -> new OccupancyTimeSeries())
+                .record(now, region.isActive() ? region.getPlayerCount() : 0, zone, smoothing);
+        }
+
+        for (Region region : regions.values()) {
+            OccupancyTimeSeries regionSeries = series.get(region.getId());
+            if (regionSeries.getKnownBuckets() < minKnownBuckets) {
+                continue;
+            }
+
+            float upcoming = regionSeries.forecast(now + leadTimeMs, zone);
+            if (!Float.isNaN(upcoming) && upcoming >= peakThreshold) {
+                prepareForPeak(region, upcoming);
+            } else {
+                warmedRegions.remove(region.getId());
+                if (isForecastIdle(region, regionSeries, now)) {
+                    region.forceUnload();
+                    logger.info("Прогноз: регион " + region.getId() + " останется пустым, выгружен досрочно");
+                }
+            }
+        }
+
+        // Ряды удаленных регионов больше не нужны
+        series.keySet().removeIf(id -> !plugin.getRegionManager().isKnownRegion(id));
+        warmedRegions.keySet().removeIf(id -> !series.containsKey(id));
+    }
+
+    /**
+     * Подготовить регион к прогнозируемому пику: активировать и прогреть чанки
+     */
+    private void prepareForPeak(Region region, float expectedPlayers) {
+        if (warmedRegions.putIfAbsent(region.getId(), System.currentTimeMillis()) != null) {
+            return;
+        }
+
+        if (!region.isActive()) {
+            region.reactivate();
+        }
+        region.preloadChunks(region.getCenter(), warmRadius);
+
+        logger.info("Прогноз: регион " + region.getId() + " подготовлен к пику (" +
+            String.format("%.1f", expectedPlayers) + " игроков через " + leadTimeMs / 60000L + " мин)");
+    }
+
+    /**
+     * Проверить, что пустой регион по прогнозу останется пустым
+     */
+    private boolean isForecastIdle(Region region, OccupancyTimeSeries regionSeries, long now) {
+        if (!region.canUnload()) {
+            return false;
+        }
+
+        float expected = regionSeries.maxForecast(now, now + idleHorizonMs, zone);
+        return !Float.isNaN(expected) && expected < idleThreshold;
+    }
+
+    /**
+     * Проверить, удерживается ли прогретый регион к пику
+     * Регион держится активным до прогнозируемого пика и столько же после него; затем пустой
+     * регион выгружается по таймауту простоя и до конца пика повторно не прогревается
+     */
+    public boolean isWarmedForPeak(Region region) {
+        Long warmedAt = warmedRegions.get(region.getId());
+        return warmedAt != null && System.currentTimeMillis() - warmedAt < leadTimeMs * 2;
+    }
+
+    /**
+     * Проверить, ожидается ли в регионе нагрузка в ближайшее время
+     * Такие регионы не удаляются очисткой, чтобы их можно было активировать к пику
+     */
+    public boolean isExpectedBusy(Region region) {
+        if (!enabled) {
+            return false;
+        }
+
+        OccupancyTimeSeries regionSeries = series.get(region.getId());
+        if (regionSeries == null || regionSeries.getKnownBuckets() < minKnownBuckets) {
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        float expected = regionSeries.maxForecast(now, now + idleHorizonMs, zone);
+        return !Float.isNaN(expected) && expected >= peakThreshold;
+    }
+
+    /**
+     * Получить прогноз числа игроков региона на момент времени
+     *
+     * @return прогноз или NaN, если истории недостаточно
+     */
+    public float getForecast(Region region, long timeMillis) {
+        OccupancyTimeSeries regionSeries = series.get(region.getId());
+        return regionSeries != null ? regionSeries.forecast(timeMillis, zone) : Float.NaN;
+    }
+
+    /**
+     * Загрузить временные ряды из файла
+     */
+    private void load() {
+        if (!forecastFile.exists()) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(forecastFile.toPath())))) {
+            if (in.readInt() != FILE_MAGIC || in.readShort() != FILE_VERSION) {
+                logger.warn("Файл прогноза имеет неизвестный формат и будет перезаписан");
+                return;
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String regionId = in.readUTF();
+                series.put(regionId, OccupancyTimeSeries.read(in));
+            }
+
+            logger.info("Загружены временные ряды занятости для " + count + " регионов");
+        } catch (IOException e) {
+            logger.error("Не удалось загрузить прогноз занятости: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Сохранить временные ряды
+     */
+    public void save(boolean async) {
+        if (!enabled) {
+            return;
+        }
+
+        Map<String, OccupancyTimeSeries> copy = new HashMap<>();
+        series.forEach((regionId, regionSeries) -> copy.put(regionId, regionSeries.copy()));
+
+        Runnable writeTask = () -> {
+            File tempFile = new File(forecastFile.getPath() + ".tmp");
+            try {
+                File parent = forecastFile.getAbsoluteFile().getParentFile();
+                if (parent != null && !parent.exists()) {
+                    parent.mkdirs();
+                }
+
+                try (DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+                    out.writeInt(FILE_MAGIC);
+                    out.writeShort(FILE_VERSION);
+                    out.writeInt(copy.size());
+                    for (Map.Entry<String, OccupancyTimeSeries> entry : copy.entrySet()) {
+                        out.writeUTF(entry.getKey());
+                        entry.getValue().write(out);
+                    }
+                }
+
+                Files.move(tempFile.toPath(), forecastFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                logger.error("Не удалось сохранить прогноз занятости: " + e.getMessage());
+            }
+        };
+
+        if (async) {
+            plugin.getTaskScheduler().runAsync(writeTask);
+        } else {
+            writeTask.run();
+        }
+    }
+
+    /**
+     * Завершить работу менеджера
+     */
+    public void shutdown() {
+        save(false);
+        logger.info("ForecastManager завершил работу");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -0,0 +1,321 @@
+package com.regionmanager.managers;
+
+import com.regionmanager.RegionManagerPlugin;
+import com.regionmanager.heatmap.HeatCell;
+import com.regionmanager.heatmap.OccupancyHeatmap;
+import com.regionmanager.region.Region;
+import com.regionmanager.utils.Logger;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Менеджер тепловой карты занятости
+ * Накапливает историю присутствия игроков по чанкам, заранее создает регионы
+ * и прогревает чанки в горячих местах, а для холодных мест пропускает прогрев
+ */
+public class HeatmapManager {
+
+    private static final int FILE_MAGIC = 0x524D484D; // "RMHM"
+    private static final short FILE_VERSION = 1;
+
+    private final RegionManagerPlugin plugin;
+    private final Logger logger;
+    private final Map<String, OccupancyHeatmap> heatmaps;
+    private final File heatmapFile;
+    private final boolean enabled;
+    private final int sampleInterval;
+    private final int decayInterval;
+    private final double halfLifeHours;
+    private final float hotThreshold;
+    private final float coldThreshold;
+    private final double minWorldHeat;
+    private final boolean skipColdWarmup;
+    private final int provisionLimit;
+    private final int prewarmRadius;
+    private final long provisionBackoffMs;
+    // Регионы, созданные заранее, и их горячие области
+    private final Map<String, String> provisionedRegions;
+    // Горячие области, где заранее созданный регион простоял без игроков, и срок паузы
+    private final Map<String, Long> provisionBackoff;
+
+    /**
+     * Конструктор менеджера тепловой карты
+     */
+    public HeatmapManager(RegionManagerPlugin plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getPluginLogger();
+        this.heatmaps = new ConcurrentHashMap<>();
+
+        // Загрузка конфигурации
+        this.enabled = plugin.getConfig().getBoolean("heatmap.enabled", true);
+        this.heatmapFile = new File(plugin.getDataFolder(), plugin.getConfig().getString("heatmap.file", "heatmap.dat"));
+        this.sampleInterval = plugin.getConfig().getInt("heatmap.sample-interval", 200);
+        this.decayInterval = plugin.getConfig().getInt("heatmap.decay-interval", 72000);
+        this.halfLifeHours = plugin.getConfig().getDouble("heatmap.half-life-hours", 72.0);
+        this.hotThreshold = (float) plugin.getConfig().getDouble("heatmap.hot-threshold", 3600.0);
+        this.coldThreshold = (float) plugin.getConfig().getDouble("heatmap.cold-threshold", 30.0);
+        this.minWorldHeat = plugin.getConfig().getDouble("heatmap.min-world-heat", 36000.0);
+        this.skipColdWarmup = plugin.getConfig().getBoolean("heatmap.skip-cold-warmup", true);
+        this.provisionLimit = plugin.getConfig().getInt("heatmap.provision-limit", 5);
+        this.prewarmRadius = plugin.getConfig().getInt("heatmap.prewarm-radius", 2);
+        this.provisionBackoffMs = plugin.getConfig().getLong("heatmap.provision-backoff-minutes", 60L) * 60000L;
+        this.provisionedRegions = new HashMap<>();
+        this.provisionBackoff = new HashMap<>();
+
+        if (enabled) {
+            load();
+            startTasks();
+        }
+
+        logger.info("HeatmapManager инициализирован");
+    }
+
+    /**
+     * Запустить задачи сбора, затухания, подготовки регионов и сохранения
+     */
+    private void startTasks() {
+        plugin.getTaskScheduler().runGlobalTimer(this::sample, sampleInterval, sampleInterval);
+        plugin.getTaskScheduler().runGlobalTimer(this::decay, decayInterval, decayInterval);
+
+        int provisionInterval = plugin.getConfig().getInt("heatmap.provision-interval", 6000);
+        plugin.getTaskScheduler().runGlobalTimer(this::provisionHotAreas, provisionInterval, provisionInterval);
+
+        int saveInterval = plugin.getConfig().getInt("heatmap.save-interval", 12000);
+        plugin.getTaskScheduler().runGlobalTimer(() -> save(true), saveInterval, saveInterval);
+    }
+
+    /**
+     * Учесть текущие позиции игроков
+     */
+    private void sample() {
+        float seconds = sampleInterval / 20.0f;
+
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            Location location = player.getLocation();
+            getHeatmap(location.getWorld()).add(location.getBlockX() >> 4, location.getBlockZ() >> 4, seconds);
+        }
+    }
+
+    /**
+     * Затухание накопленных значений с заданным периодом полураспада
+     */
+    private void decay() {
+        double intervalHours = decayInterval / 20.0 / 3600.0;
+        float factor = (float) Math.pow(0.5, intervalHours / halfLifeHours);
+
+        for (OccupancyHeatmap heatmap : heatmaps.values()) {
+            heatmap.decay(factor, 1.0f);
+        }
+    }
+
+    /**
+     * Заранее создать регионы и прогреть чанки в горячих местах без регионов
+     * Пустые заранее созданные регионы выгружаются по таймауту простоя RegionManager;
+     * если в регион так и не вошли игроки, область на время не получает новый регион
+     */
+    public void provisionHotAreas() {
+        RegionManager regionManager = plugin.getRegionManager();
+        int provisioned = 0;
+        long now = System.currentTimeMillis();
+
+        updateProvisioned(regionManager, now);
+
+        for (World world : plugin.getServer().getWorlds()) {
+            OccupancyHeatmap heatmap = heatmaps.get(world.getName());
+            if (heatmap == null) {
+                continue;
+            }
+
+            for (HeatCell cell : heatmap.getHottest(provisionLimit, hotThreshold)) {
+                if (provisioned >= provisionLimit
+                        || regionManager.getActiveRegionCount() >= regionManager.getMaxActiveRegions()) {
+                    return;
+                }
+
+                String cellKey = world.getName() + ":" + cell.getChunkX() + ":" + cell.getChunkZ();
+                if (provisionBackoff.containsKey(cellKey)) {
+                    continue;
+                }
+
+                Location location = new Location(world, (cell.getChunkX() << 4) + 8, 64, (cell.getChunkZ() << 4) + 8);
+                if (regionManager.getRegionAt(location) != null) {
+                    continue;
+                }
+
+                Region region = regionManager.createNewRegion(location);
+                if (region != null) {
+                    region.preloadChunks(location, prewarmRadius);
+                    provisionedRegions.put(region.getId(), cellKey);
+                    provisioned++;
+                    logger.info("Тепловая карта: заранее создан регион " + region.getId() + " в горячей области " +
+                        world.getName() + " (" + location.getBlockX() + ", " + location.getBlockZ() + ")");
+                }
+            }
+        }
+    }
+
+    /**
+     * Проверить заранее созданные регионы: выгруженные без единого игрока ставят свою
+     * область на паузу, чтобы регион в ней не создавался и не выгружался по кругу
+     */
+    private void updateProvisioned(RegionManager regionManager, long now) {
+        provisionBackoff.values().removeIf(until -> until <= now);
+
+        Map<String, Region> regions = regionManager.getRegions();
+        provisionedRegions.entrySet().removeIf(entry -> {
+            Region region = regions.get(entry.getKey());
+            if (region != null && region.isActive() && region.getPeakPlayerCount() == 0) {
+                return false;
+            }
+            if (region == null || region.getPeakPlayerCount() == 0) {
+                provisionBackoff.put(entry.getValue(), now + provisionBackoffMs);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Проверить, нужно ли пропустить прогрев чанков для холодной области
+     * Решение принимается только когда по миру накоплено достаточно истории
+     */
+    public boolean shouldSkipWarmup(Location location) {
+        if (!enabled || !skipColdWarmup) {
+            return false;
+        }
+
+        OccupancyHeatmap heatmap = heatmaps.get(location.getWorld().getName());
+        if (heatmap == null || heatmap.getTotalHeat() < minWorldHeat) {
+            return false;
+        }
+
+        return heatmap.get(location.getBlockX() >> 4, location.getBlockZ() >> 4) < coldThreshold;
+    }
+
+    /**
+     * Получить занятость чанка в игроко-секундах
+     */
+    public float getHeat(Location location) {
+        OccupancyHeatmap heatmap = heatmaps.get(location.getWorld().getName());
+        return heatmap != null ? heatmap.get(location.getBlockX() >> 4, location.getBlockZ() >> 4) : 0.0f;
+    }
+
+    /**
+     * Получить самые горячие чанки мира
+     */
+    public List<HeatCell> getHottest(String worldName, int limit) {
+        OccupancyHeatmap heatmap = heatmaps.get(worldName);
+        return heatmap != null ? heatmap.getHottest(limit, 0.0f) : List.of();
+    }
+
+    /**
+     * Получить тепловую карту мира, создав ее при необходимости
+     */
+    private OccupancyHeatmap getHeatmap(World world) {
+        return heatmaps.computeIfAbsent(world.getName(), k -> new OccupancyHeatmap());
+    }
+
+    /**
+     * Загрузить тепловые карты из файла
+     */
+    private void load() {
+        if (!heatmapFile.exists()) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(heatmapFile.toPath())))) {
+            if (in.readInt() != FILE_MAGIC || in.readShort() != FILE_VERSION) {
+                logger.warn("Файл тепловой карты имеет неизвестный формат и будет перезаписан");
+                return;
+            }
+
+            int worldCount = in.readInt();
+            for (int i = 0; i < worldCount; i++) {
+                String worldName = in.readUTF();
+                heatmaps.put(worldName, OccupancyHeatmap.read(in));
+            }
+
+            logger.info("Загружена тепловая карта для " + worldCount + " миров");
+        } catch (IOException e) {
+            logger.error("Не удалось загрузить тепловую карту: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Сохранить тепловые карты
+     * Копия снимается на главном потоке, запись может идти асинхронно
+     */
+    public void save(boolean async) {
+        if (!enabled) {
+            return;
+        }
+
+        Map<String, OccupancyHeatmap> copy = new HashMap<>();
+        heatmaps.forEach((worldName, heatmap) -> copy.put(worldName, heatmap.copy()));
+
+        Runnable writeTask = () -> {
+            File tempFile = new File(heatmapFile.getPath() + ".tmp");
+            try {
+                File parent = heatmapFile.getAbsoluteFile().getParentFile();
+                if (parent != null && !parent.exists()) {
+                    parent.mkdirs();
+                }
+
+                try (DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+                    out.writeInt(FILE_MAGIC);
+                    out.writeShort(FILE_VERSION);
+                    out.writeInt(copy.size());
+                    for (Map.Entry<String, OccupancyHeatmap> entry : copy.entrySet()) {
+                        out.writeUTF(entry.getKey());
+                        entry.getValue().write(out);
+                    }
+                }
+
+                Files.move(tempFile.toPath(), heatmapFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                logger.error("Не удалось сохранить тепловую карту: " + e.getMessage());
+            }
+        };
+
+        if (async) {
+            plugin.getTaskScheduler().runAsync(writeTask);
+        } else {
+            writeTask.run();
+        }
+    }
+
+    /**
+     * Завершить работу менеджера
+     */
+    public void shutdown() {
+        save(false);
+        logger.info("HeatmapManager завершил работу");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public float getHotThreshold() {
+        return hotThreshold;
+    }
+
+    public float getColdThreshold() {
+        return coldThreshold;
+    }
+}
@@ -0,0 +1,322 @@
+package com.regionmanager.managers;
+
+import com.regionmanager.RegionManagerPlugin;
+import com.regionmanager.engine.ChunkShape;
+import com.regionmanager.region.ChunkRegionIndex;
+import com.regionmanager.region.Region;
+import com.regionmanager.region.RegionCost;
+import com.regionmanager.scheduler.SliceDispatcher;
+import com.regionmanager.scheduler.TaskScheduler;
+import com.regionmanager.utils.Logger;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Item;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Менеджер объединения и очистки выпавших предметов в регионах
+ *
+ * Очистка запускается не по общему таймеру, а когда выборка стоимости показывает
+ * большое число сущностей в регионе. Обработка разбита на порции по тикам:
+ * сбор предметов по чанкам, объединение одинаковых стаков в радиусе и удаление
+ * самых старых предметов сверх лимита региона. Для поиска соседей предметы
+ * раскладываются по сетке с шагом в радиус объединения, поэтому каждый предмет
+ * сравнивается только с предметами из соседних ячеек. На Folia порции выполняются
+ * в потоке, владеющем чанками региона, а предметы других потоков пропускаются.
+ */
+public class ItemCleanupManager {
+
+    private enum Phase { COLLECT, MERGE, EXPIRE }
+
+    private final RegionManagerPlugin plugin;
+    private final Logger logger;
+    private final TaskScheduler scheduler;
+    private final SliceDispatcher dispatcher;
+    private final Set<String> pendingRegions;
+    private final Map<String, Long> lastCleanup;
+    private final boolean enabled;
+    private final int triggerEntityCount;
+    private final long cooldownMs;
+    private final double mergeRadius;
+    private final int maxItemsPerRegion;
+    private final int maxItemsPerTick;
+    private final int maxChunksPerTick;
+
+    // Состояние обработки текущего региона
+    private Region current;
+    private Phase phase;
+    private int minChunkX;
+    private int maxChunkX;
+    private int maxChunkZ;
+    private int cursorX;
+    private int cursorZ;
+    private int cursor;
+    private List<Item> items;
+    private Map<Long, List<Item>> grid;
+    private int merged;
+    private int expired;
+
+    /**
+     * Конструктор менеджера
+     */
+    public ItemCleanupManager(RegionManagerPlugin plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getPluginLogger();
+        this.scheduler = plugin.getTaskScheduler();
+        this.dispatcher = new SliceDispatcher(scheduler);
+        this.pendingRegions = ConcurrentHashMap.newKeySet();
+        this.lastCleanup = new ConcurrentHashMap<>();
+
+        // Загрузка конфигурации
+        this.enabled = plugin.getConfig().getBoolean("item-cleanup.enabled", true);
+        this.triggerEntityCount = plugin.getConfig().getInt("item-cleanup.trigger-entity-count", 300);
+        this.cooldownMs = plugin.getConfig().getLong("item-cleanup.cooldown-seconds", 60) * 1000L;
+        this.mergeRadius = plugin.getConfig().getDouble("item-cleanup.merge-radius", 2.5);
+        this.maxItemsPerRegion = plugin.getConfig().getInt("item-cleanup.max-items-per-region", 400);
+        this.maxItemsPerTick = plugin.getConfig().getInt("item-cleanup.max-items-per-tick", 200);
+        this.maxChunksPerTick = plugin.getConfig().getInt("item-cleanup.max-chunks-per-tick", 16);
+
+        if (enabled) {
+            plugin.getTaskScheduler().runGlobalTimer(this::tick, 1L, 1L);
+        }
+
+        logger.info("ItemCleanupManager инициализирован");
+    }
+
+    /**
+     * Обработать новую стоимость региона; дорогие регионы ставятся в очередь очистки
+     */
+    public void onCostPublished(Region region, RegionCost cost) {
+        if (!enabled || cost.getEntityCount() < triggerEntityCount) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - lastCleanup.getOrDefault(region.getId(), 0L) < cooldownMs) {
+            return;
+        }
+
+        lastCleanup.put(region.getId(), now);
+        if (pendingRegions.add(region.getId())) {
+            logger.debug("Регион " + region.getId() + " поставлен в очередь очистки предметов (сущностей: " + cost.getEntityCount() + ")");
+        }
+    }
+
+    /**
+     * Запустить порцию обработки в текущем тике
+     */
+    private void tick() {
+        if (!dispatcher.tryBegin()) {
+            return;
+        }
+        if (current == null && !startNextRegion()) {
+            dispatcher.end();
+            return;
+        }
+
+        if (!current.isActive()) {
+            current = null;
+            dispatcher.end();
+            return;
+        }
+
+        // Сбор идет по курсору чанков, объединение и удаление - в потоке центра региона
+        if (phase == Phase.COLLECT) {
+            dispatcher.dispatch(current.getWorld(), cursorX, cursorZ, this::process);
+        } else {
+            Location center = current.getCenter();
+            dispatcher.dispatch(current.getWorld(), center.getBlockX() >> 4, center.getBlockZ() >> 4, this::process);
+        }
+    }
+
+    /**
+     * Выполнить порцию текущей фазы
+     */
+    private void process() {
+        switch (phase) {
+            case COLLECT:
+                collect();
+                break;
+            case MERGE:
+                merge();
+                break;
+            case EXPIRE:
+                expire();
+                break;
+        }
+    }
+
+    /**
+     * Взять следующий регион из очереди
+     */
+    private boolean startNextRegion() {
+        while (!pendingRegions.isEmpty()) {
+            String id = pendingRegions.iterator().next();
+            pendingRegions.remove(id);
+
+            Region region = plugin.getRegionManager().getRegions().get(id);
+            if (region == null || !region.isActive()) {
+                continue;
+            }
+
+            ChunkShape shape = region.getShape();
+            current = region;
+            phase = Phase.COLLECT;
+            minChunkX = shape.getMinChunkX();
+            maxChunkX = shape.getMinChunkX() + shape.getWidth() - 1;
+            maxChunkZ = shape.getMinChunkZ() + shape.getDepth() - 1;
+            cursorX = minChunkX;
+            cursorZ = shape.getMinChunkZ();
+            items = new ArrayList<>();
+            grid = new HashMap<>();
+            merged = 0;
+            expired = 0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Собрать предметы из загруженных чанков региона
+     */
+    private void collect() {
+        World world = current.getWorld();
+        int loads = 0;
+
+        while (loads < maxChunksPerTick && cursorZ <= maxChunkZ) {
+            if (current.containsChunk(cursorX, cursorZ) && world.isChunkLoaded(cursorX, cursorZ)) {
+                if (!scheduler.isOwnedByCurrentThread(world, cursorX, cursorZ)) {
+                    return;
+                }
+                loads++;
+                for (Entity entity : world.getChunkAt(cursorX, cursorZ).getEntities()) {
+                    if (entity instanceof Item) {
+                        Item item = (Item) entity;
+                        items.add(item);
+                        grid.computeIfAbsent(cellKey(item.getLocation()), k -> new ArrayList<>()).add(item);
+                    }
+                }
+            }
+
+            if (++cursorX > maxChunkX) {
+                cursorX = minChunkX;
+                cursorZ++;
+            }
+        }
+
+        if (cursorZ > maxChunkZ) {
+            phase = Phase.MERGE;
+            cursor = 0;
+        }
+    }
+
+    /**
+     * Объединить одинаковые стаки в радиусе
+     */
+    private void merge() {
+        double radiusSquared = mergeRadius * mergeRadius;
+        int processed = 0;
+
+        while (processed < maxItemsPerTick && cursor < items.size()) {
+            Item item = items.get(cursor++);
+            processed++;
+            if (!item.isValid() || !scheduler.isOwnedByCurrentThread(item)) {
+                continue;
+            }
+
+            ItemStack stack = item.getItemStack();
+            Location location = item.getLocation();
+            int cellX = (int) Math.floor(location.getX() / mergeRadius);
+            int cellZ = (int) Math.floor(location.getZ() / mergeRadius);
+
+            for (int dx = -1; dx <= 1 && stack.getAmount() < stack.getMaxStackSize(); dx++) {
+                for (int dz = -1; dz <= 1 && stack.getAmount() < stack.getMaxStackSize(); dz++) {
+                    List<Item> cell = grid.get(ChunkRegionIndex.chunkKey(cellX + dx, cellZ + dz));
+                    if (cell == null) {
+                        continue;
+                    }
+
+                    for (Item other : cell) {
+                        if (other == item || !other.isValid() || !scheduler.isOwnedByCurrentThread(other)
+                            || other.getLocation().distanceSquared(location) > radiusSquared) {
+                            continue;
+                        }
+
+                        ItemStack otherStack = other.getItemStack();
+                        if (!stack.isSimilar(otherStack) || stack.getAmount() + otherStack.getAmount() > stack.getMaxStackSize()) {
+                            continue;
+                        }
+
+                        stack.setAmount(stack.getAmount() + otherStack.getAmount());
+                        other.remove();
+                        merged++;
+                    }
+                }
+            }
+
+            item.setItemStack(stack);
+        }
+
+        if (cursor >= items.size()) {
+            // Оставшиеся предметы сортируются от самых старых для удаления сверх лимита
+            items.removeIf(item -> !item.isValid());
+            items.sort(Comparator.comparingInt(Item::getTicksLived).reversed());
+            grid = null;
+            phase = Phase.EXPIRE;
+            cursor = 0;
+        }
+    }
+
+    /**
+     * Удалить самые старые предметы сверх лимита региона
+     */
+    private void expire() {
+        int excess = items.size() - maxItemsPerRegion;
+        int processed = 0;
+
+        while (processed < maxItemsPerTick && cursor < excess) {
+            Item item = items.get(cursor++);
+            processed++;
+            if (item.isValid() && scheduler.isOwnedByCurrentThread(item)) {
+                item.remove();
+                expired++;
+            }
+        }
+
+        if (cursor >= excess) {
+            if (merged > 0 || expired > 0) {
+                logger.info("Очистка предметов в регионе " + current.getId() + ": объединено " + merged + ", удалено " + expired);
+            }
+            current = null;
+            items = null;
+        }
+    }
+
+    /**
+     * Ключ ячейки сетки объединения
+     */
+    private long cellKey(Location location) {
+        return ChunkRegionIndex.chunkKey((int) Math.floor(location.getX() / mergeRadius),
+            (int) Math.floor(location.getZ() / mergeRadius));
+    }
+
+    /**
+     * Завершить работу менеджера
+     */
+    public void shutdown() {
+        pendingRegions.clear();
+        current = null;
+        items = null;
+        grid = null;
+        logger.info("ItemCleanupManager завершил работу");
+    }
+}
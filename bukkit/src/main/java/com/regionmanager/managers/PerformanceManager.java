@@ -1,12 +1,7 @@
 package com.regionmanager.managers;
 
 import com.regionmanager.RegionManagerPlugin;
-import com.regionmanager.region.Region;
 import org.bukkit.Bukkit;
-import org.bukkit.scheduler.BukkitRunnable;
-
-import java.util.Iterator;
-import java.util.Map;
 
 /**
  * Менеджер производительности
@@ -16,6 +11,7 @@ public class PerformanceManager {
     
     private final RegionManagerPlugin plugin;
     private double currentTPS;
+    private double averageTickTime;
     private boolean isLowTPS;
     
     /**
@@ -24,6 +20,7 @@ public class PerformanceManager {
     public PerformanceManager(RegionManagerPlugin plugin) {
         this.plugin = plugin;
         this.currentTPS = 20.0;
+        this.averageTickTime = 0.0;
         this.isLowTPS = false;
         
         startTPSMonitoring();
@@ -35,13 +32,10 @@ public class PerformanceManager {
     private void startTPSMonitoring() {
         int checkInterval = plugin.getConfig().getInt("performance.tps-check-interval", 100);
         
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                updateTPS();
-                checkPerformance();
-            }
-        }.runTaskTimer(plugin, checkInterval, checkInterval);
+        plugin.getTaskScheduler().runGlobalTimer(() -> {
+            updateTPS();
+            checkPerformance();
+        }, checkInterval, checkInterval);
     }
     
     /**
@@ -68,6 +62,9 @@ public class PerformanceManager {
         } else if (currentTPS < 0.0) {
             currentTPS = 0.0;
         }
+        
+        // Средняя длительность тика (MSPT) за последние 100 тиков (Paper API)
+        averageTickTime = Bukkit.getAverageTickTime();
     }
     
     /**
@@ -114,11 +111,11 @@ public class PerformanceManager {
         
         // Принудительная выгрузка пустых регионов
         plugin.getRegionManager().getRegions().values().stream()
-            .filter(region -> region.getPlayerCount() == 0)
+            .filter(region -> region.isActive() && region.getPlayerCount() == 0 && !region.isForcedRegion())
             .forEach(region -> {
                 // Note: unload() method was removed from Region class
                 // Regions are now deactivated instead of unloaded
-                region.getRegionManager().getRegions().remove(region.getId());
+                region.forceUnload();
                 plugin.getPluginLogger().info("Экстренная деактивация региона: " + region.getId());
             });
         
@@ -144,8 +141,14 @@ public class PerformanceManager {
     
     /**
      * Выгрузить ненужные чанки
+     * На Folia пропускается: чанки и позиции игроков принадлежат потокам регионов,
+     * а выгрузку там выполняет сам сервер
      */
     private void unloadUnusedChunks() {
+        if (plugin.getTaskScheduler().isRegionThreaded()) {
+            return;
+        }
+
         int unloadedChunks = 0;
         
         for (var world : Bukkit.getWorlds()) {
@@ -181,32 +184,11 @@ public class PerformanceManager {
     
     /**
      * Очистить неактивные регионы
+     * Пустые регионы без активности деактивируются; удаляет неактивные регионы RegionManager
      */
     private void cleanupInactiveRegions() {
-        long currentTime = System.currentTimeMillis();
         long inactiveThreshold = 600000; // 10 минут
-        
-        int removedRegions = 0;
-        
-        var regions = plugin.getRegionManager().getRegions();
-        Iterator<Map.Entry<String, Region>> iterator = regions.entrySet().iterator();
-        
-        while (iterator.hasNext()) {
-            Map.Entry<String, Region> entry = iterator.next();
-            Region region = entry.getValue();
-            
-            if (!region.isActive() && 
-                (currentTime - region.getLastActivityTime()) > inactiveThreshold) {
-                // Note: unload() method was removed from Region class
-                // Regions are now deactivated instead of unloaded
-                iterator.remove();
-                removedRegions++;
-            }
-        }
-        
-        if (removedRegions > 0) {
-            plugin.getPluginLogger().info("Удалено " + removedRegions + " неактивных регионов");
-        }
+        plugin.getRegionManager().deactivateIdleRegions(inactiveThreshold);
     }
     
     /**
@@ -216,6 +198,37 @@ public class PerformanceManager {
         return currentTPS;
     }
     
+    /**
+     * Получить среднюю длительность тика в миллисекундах
+     */
+    public double getAverageTickTime() {
+        return averageTickTime;
+    }
+    
+    /**
+     * Получить уровень нагрузки сервера от 0 (норма) до 1 (перегрузка)
+     * Растет линейно от performance.pressure-start-mspt до performance.pressure-full-mspt
+     * и не бывает ниже уровня, соответствующего низкому TPS
+     */
+    public double getLoadPressure() {
+        double startMspt = plugin.getConfig().getDouble("performance.pressure-start-mspt", 40.0);
+        double fullMspt = plugin.getConfig().getDouble("performance.pressure-full-mspt", 50.0);
+        
+        double pressure = (averageTickTime - startMspt) / Math.max(1.0, fullMspt - startMspt);
+        if (isLowTPS) {
+            pressure = Math.max(pressure, 0.5);
+        }
+        
+        return Math.max(0.0, Math.min(1.0, pressure));
+    }
+    
+    /**
+     * Проверить, испытывает ли сервер нагрузку
+     */
+    public boolean isUnderPressure() {
+        return getLoadPressure() > 0.0;
+    }
+    
     /**
      * Проверить, низкий ли TPS
      */
@@ -0,0 +1,224 @@
+package com.regionmanager.managers;
+
+import com.regionmanager.RegionManagerPlugin;
+import com.regionmanager.engine.DensityClusterer;
+import com.regionmanager.engine.PlacementShape;
+import com.regionmanager.engine.PlayerCluster;
+import com.regionmanager.engine.RegionGeometry;
+import com.regionmanager.engine.RegionPlacement;
+import com.regionmanager.prediction.MovementPredictor;
+import com.regionmanager.region.Region;
+import com.regionmanager.utils.Logger;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Менеджер размещения регионов по скоплениям игроков
+ *
+ * Периодически ищет скопления игроков в каждом мире (сеточный DBSCAN) и подбирает
+ * для них регионы наименьшего числа и размера, покрывающие всех игроков скопления.
+ * Новый регион для игрока из скопления создается сразу по размещению скопления, а
+ * регион, занятый только игроками одного скопления, переносится на него, если не
+ * покрывает их всех или заметно больше нужного. Перенос пропускается, если новая
+ * форма задевает соседние регионы или размер региона сейчас меняется по предсказанию.
+ * Игроки вне скоплений получают регионы прежним способом.
+ */
+public class PlacementManager {
+
+    private final RegionManagerPlugin plugin;
+    private final Logger logger;
+    private final boolean enabled;
+    private final boolean recenter;
+    private final double oversizeFactor;
+    private final int margin;
+    private final PlacementShape shape;
+    private final double chunkFill;
+    private final DensityClusterer clusterer;
+    // Размещения по имени мира на момент последнего пересчета
+    private volatile Map<String, List<RegionPlacement>> placements;
+    private int[] xs;
+    private int[] zs;
+    private long reshapedRegions;
+    private volatile int lastClusterCount;
+    private volatile double lastUpdateMs;
+
+    /**
+     * Конструктор менеджера
+     */
+    public PlacementManager(RegionManagerPlugin plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getPluginLogger();
+        this.placements = Collections.emptyMap();
+        this.xs = new int[64];
+        this.zs = new int[64];
+
+        // Загрузка конфигурации
+        this.enabled = plugin.getConfig().getBoolean("placement.enabled", true);
+        this.recenter = plugin.getConfig().getBoolean("placement.recenter", true);
+        this.oversizeFactor = plugin.getConfig().getDouble("placement.oversize-factor", 1.5);
+        this.margin = plugin.getConfig().getInt("placement.margin", 32);
+        this.shape = PlacementShape.parse(plugin.getConfig().getString("placement.shape", "rectangle"),
+            PlacementShape.RECTANGLE);
+        this.chunkFill = plugin.getConfig().getDouble("placement.chunk-fill", 0.6);
+        this.clusterer = new DensityClusterer(
+            plugin.getConfig().getInt("placement.cluster-distance", 64),
+            plugin.getConfig().getInt("placement.min-players", 2));
+
+        if (enabled) {
+            int interval = plugin.getConfig().getInt("placement.interval-seconds", 30) * 20;
+            plugin.getTaskScheduler().runGlobalTimer(this::update, interval, interval);
+        }
+
+        logger.info("PlacementManager инициализирован");
+    }
+
+    /**
+     * Пересчитать скопления и размещения по текущим позициям игроков
+     */
+    private void update() {
+        long start = System.nanoTime();
+        int minSize = plugin.getConfig().getInt("regions.size", 512);
+        int maxSize = plugin.getConfig().getInt("regions.max-size", 1024);
+
+        // Игроки по мирам
+        Map<String, List<Player>> playersByWorld = new HashMap<>();
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            playersByWorld.computeIfAbsent(player.getWorld().getName(), k -> new ArrayList<>()).add(player);
+        }
+
+        Map<String, List<RegionPlacement>> updated = new HashMap<>();
+        int clusterCount = 0;
+        for (Map.Entry<String, List<Player>> entry : playersByWorld.entrySet()) {
+            List<Player> players = entry.getValue();
+            ensureCapacity(players.size());
+            for (int i = 0; i < players.size(); i++) {
+                Location location = players.get(i).getLocation();
+                xs[i] = location.getBlockX();
+                zs[i] = location.getBlockZ();
+            }
+
+            List<RegionPlacement> worldPlacements = new ArrayList<>();
+            for (PlayerCluster cluster : clusterer.cluster(xs, zs, players.size())) {
+                clusterCount++;
+                List<RegionPlacement> clusterPlacements = cluster.place(xs, zs, margin, minSize, maxSize, shape, chunkFill);
+                worldPlacements.addAll(clusterPlacements);
+                if (recenter) {
+                    recenterRegions(cluster, clusterPlacements, players);
+                }
+            }
+            if (!worldPlacements.isEmpty()) {
+                updated.put(entry.getKey(), worldPlacements);
+            }
+        }
+
+        placements = updated;
+        lastClusterCount = clusterCount;
+        lastUpdateMs = (System.nanoTime() - start) / 1_000_000.0;
+    }
+
+    /**
+     * Перенести регионы, занятые только игроками скопления, на размещения скопления
+     */
+    private void recenterRegions(PlayerCluster cluster, List<RegionPlacement> clusterPlacements, List<Player> players) {
+        for (RegionPlacement placement : clusterPlacements) {
+            // Игроки скопления, покрытые размещением, и их общий регион
+            Region shared = null;
+            int covered = 0;
+            boolean allInside = true;
+            for (int i : cluster.getMembers()) {
+                if (!placement.contains(xs[i], zs[i])) {
+                    continue;
+                }
+                Region region = plugin.getRegionManager().getPlayerRegion(players.get(i));
+                if (region == null || shared != null && region != shared) {
+                    shared = null;
+                    break;
+                }
+                shared = region;
+                covered++;
+                allInside &= region.contains(players.get(i).getLocation());
+            }
+
+            if (shared == null || shared.isForcedRegion() || !shared.isActive()
+                || shared.getPlayerCount() != covered) {
+                continue;
+            }
+            if (allInside && shared.getShape().getChunkCount() <= placement.getShape().getChunkCount() * oversizeFactor) {
+                continue;
+            }
+            // Размер региона уже меняется по предсказанию - не спорим с ним
+            MovementPredictor movementPredictor = plugin.getMovementPredictor();
+            if (movementPredictor != null && movementPredictor.isResizing(shared)) {
+                continue;
+            }
+            RegionManager regionManager = plugin.getRegionManager();
+            if (!RegionGeometry.canReshape(regionManager.getLayout().getRegionMap().values(),
+                shared.getWorld().getName(), shared.getId(), placement.getShape(),
+                regionManager.getMinDistanceBetweenRegions())) {
+                continue;
+            }
+
+            shared.reshape(placement.getShape());
+            reshapedRegions++;
+        }
+    }
+
+    private void ensureCapacity(int count) {
+        if (xs.length < count) {
+            int capacity = Math.max(count, xs.length * 2);
+            xs = new int[capacity];
+            zs = new int[capacity];
+        }
+    }
+
+    /**
+     * Найти размещение последнего пересчета, покрывающее локацию
+     *
+     * @return размещение или null
+     */
+    public RegionPlacement findPlacement(Location location) {
+        if (!enabled) {
+            return null;
+        }
+        List<RegionPlacement> worldPlacements = placements.get(location.getWorld().getName());
+        if (worldPlacements == null) {
+            return null;
+        }
+        for (RegionPlacement placement : worldPlacements) {
+            if (placement.contains(location.getBlockX(), location.getBlockZ())) {
+                return placement;
+            }
+        }
+        return null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getClusterCount() {
+        return lastClusterCount;
+    }
+
+    public int getPlacementCount() {
+        int count = 0;
+        for (List<RegionPlacement> worldPlacements : placements.values()) {
+            count += worldPlacements.size();
+        }
+        return count;
+    }
+
+    public long getReshapedRegions() {
+        return reshapedRegions;
+    }
+
+    public double getLastUpdateMs() {
+        return lastUpdateMs;
+    }
+}
@@ -0,0 +1,162 @@
+package com.regionmanager.managers;
+
+import com.regionmanager.RegionManagerPlugin;
+import com.regionmanager.prediction.MovementPredictor;
+import com.regionmanager.prediction.PositionBatch;
+import com.regionmanager.region.Region;
+import com.regionmanager.utils.Logger;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Менеджер пакетной выборки позиций игроков
+ *
+ * В пакетном режиме отдельные события движения игнорируются: раз в N тиков позиции
+ * всех игроков записываются в массивы, после чего выход за границы регионов и
+ * скорость движения считаются одним проходом по пакету. Стоимость обработки
+ * зависит только от числа игроков, а не от частоты событий движения.
+ */
+public class PositionSamplingManager {
+
+    private final RegionManagerPlugin plugin;
+    private final Logger logger;
+    private final boolean batchMode;
+    private final int intervalTicks;
+    // Текущий и предыдущий пакеты меняются местами после каждой выборки
+    private PositionBatch current;
+    private PositionBatch previous;
+    private Map<UUID, Integer> previousIndex;
+    private Map<UUID, Integer> currentIndex;
+    private long previousSampleTime;
+    private long lastSampleNanos;
+
+    /**
+     * Конструктор менеджера
+     */
+    public PositionSamplingManager(RegionManagerPlugin plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getPluginLogger();
+        this.intervalTicks = Math.max(1, plugin.getConfig().getInt("sampling.interval-ticks", 2));
+        this.current = new PositionBatch(plugin.getServer().getMaxPlayers());
+        this.previous = new PositionBatch(plugin.getServer().getMaxPlayers());
+        this.previousIndex = new HashMap<>();
+        this.currentIndex = new HashMap<>();
+
+        boolean batch = "batch".equalsIgnoreCase(plugin.getConfig().getString("sampling.mode", "event"));
+        if (batch && plugin.getTaskScheduler().isRegionThreaded()) {
+            // Позиции игроков разных регионов нельзя читать из одного потока
+            logger.warn("Пакетная выборка позиций недоступна на Folia, используется обработка событий");
+            batch = false;
+        }
+        this.batchMode = batch;
+
+        if (batchMode) {
+            plugin.getTaskScheduler().runGlobalTimer(this::sample, intervalTicks, intervalTicks);
+        }
+
+        logger.info("PositionSamplingManager инициализирован (режим: " + (batchMode ? "batch" : "event") + ")");
+    }
+
+    /**
+     * Выполнить выборку позиций и обработать пакет
+     */
+    private void sample() {
+        long started = System.nanoTime();
+        long now = System.currentTimeMillis();
+        Collection<? extends Player> players = plugin.getServer().getOnlinePlayers();
+        RegionManager regionManager = plugin.getRegionManager();
+
+        // Заполнение пакета
+        current.reset(players.size());
+        currentIndex.clear();
+        for (Player player : players) {
+            Location location = player.getLocation();
+            int i = current.add(player, location.getWorld(), location.getX(), location.getZ());
+            currentIndex.put(player.getUniqueId(), i);
+
+            Region region = regionManager.getPlayerRegion(player);
+            if (region != null && region.getWorld().equals(location.getWorld())) {
+                current.setShape(i, region.getShape());
+            }
+
+            Integer j = previousIndex.get(player.getUniqueId());
+            if (j != null && previous.getWorld(j) == location.getWorld()) {
+                current.setPrevious(i, previous.getX(j), previous.getZ(j));
+            }
+        }
+
+        // Проходы по массивам (параллельно для больших пакетов)
+        PositionBatch batch = current;
+        double elapsedSeconds = previousSampleTime > 0 ? (now - previousSampleTime) / 1000.0 : 0.0;
+        int exits = plugin.getAnalytics().sumRange(batch.size(), (from, to) -> {
+            batch.computeMotion(elapsedSeconds, from, to);
+            return batch.computeExits(from, to);
+        });
+
+        MovementPredictor movementPredictor = plugin.getMovementPredictor();
+        if (movementPredictor != null) {
+            for (int i = 0; i < current.size(); i++) {
+                if (!current.hasPrevious(i)) {
+                    continue;
+                }
+                double dx = current.getX(i) - current.getPreviousX(i);
+                double dz = current.getZ(i) - current.getPreviousZ(i);
+                movementPredictor.onPositionSample(current.getPlayer(i), current.getPlayer(i).getLocation(),
+                    Math.sqrt(dx * dx + dz * dz), current.getSpeed(i), current.getDirection(i), now);
+            }
+        }
+
+        // Смена регионов только для игроков, вышедших за границы
+        if (exits > 0) {
+            AssignmentManager assignmentManager = plugin.getAssignmentManager();
+            for (int i = 0; i < current.size(); i++) {
+                if (!current.hasExited(i)) {
+                    continue;
+                }
+                Player player = current.getPlayer(i);
+                if (assignmentManager != null && assignmentManager.isEnabled()) {
+                    assignmentManager.submit(player, player.getLocation());
+                } else {
+                    plugin.getPlayerListener().onSampledRegionExit(player, player.getLocation());
+                }
+            }
+        }
+
+        // Смена буферов
+        current = previous;
+        previous = batch;
+        Map<UUID, Integer> index = previousIndex;
+        previousIndex = currentIndex;
+        currentIndex = index;
+        previousSampleTime = now;
+        lastSampleNanos = System.nanoTime() - started;
+    }
+
+    /**
+     * Проверить, включен ли пакетный режим
+     */
+    public boolean isBatchMode() {
+        return batchMode;
+    }
+
+    /**
+     * Получить длительность последней выборки в миллисекундах
+     */
+    public double getLastSampleMs() {
+        return lastSampleNanos / 1_000_000.0;
+    }
+
+    /**
+     * Завершить работу менеджера
+     */
+    public void shutdown() {
+        previousIndex.clear();
+        currentIndex.clear();
+        logger.info("PositionSamplingManager завершил работу");
+    }
+}
@@ -0,0 +1,139 @@
+package com.regionmanager.managers;
+
+import com.regionmanager.RegionManagerPlugin;
+import com.regionmanager.region.Region;
+import com.regionmanager.utils.Logger;
+import com.regionmanager.utils.TokenBucket;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Менеджер ограничения частоты воронок и редстоуна по регионам
+ *
+ * Раз в секунду по стоимости регионов определяет, какие из них занимают слишком
+ * большую долю тика. Только для таких регионов создаются ведра токенов, поэтому
+ * события в остальных регионах проверяются одним обращением к хеш-таблице.
+ */
+public class RateLimitManager {
+
+    private final RegionManagerPlugin plugin;
+    private final Logger logger;
+    // Ведра токенов ограничиваемых регионов
+    private final Map<String, TokenBucket> hopperBuckets;
+    private final Map<String, TokenBucket> redstoneBuckets;
+    private final boolean enabled;
+    private final double tickShareThreshold;
+    private final double minRegionTickMs;
+    private final double hopperPerSecond;
+    private final double hopperBurst;
+    private final double redstonePerSecond;
+    private final double redstoneBurst;
+
+    /**
+     * Конструктор менеджера
+     */
+    public RateLimitManager(RegionManagerPlugin plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getPluginLogger();
+        this.hopperBuckets = new HashMap<>();
+        this.redstoneBuckets = new HashMap<>();
+
+        // Загрузка конфигурации
+        this.enabled = plugin.getConfig().getBoolean("rate-limits.enabled", true);
+        this.tickShareThreshold = plugin.getConfig().getDouble("rate-limits.tick-share-threshold", 0.3);
+        this.minRegionTickMs = plugin.getConfig().getDouble("rate-limits.min-region-tick-ms", 10.0);
+        this.hopperPerSecond = plugin.getConfig().getDouble("rate-limits.hopper.moves-per-second", 200.0);
+        this.hopperBurst = plugin.getConfig().getDouble("rate-limits.hopper.burst", 400.0);
+        this.redstonePerSecond = plugin.getConfig().getDouble("rate-limits.redstone.changes-per-second", 500.0);
+        this.redstoneBurst = plugin.getConfig().getDouble("rate-limits.redstone.burst", 1000.0);
+
+        if (enabled) {
+            plugin.getTaskScheduler().runGlobalTimer(this::update, 20L, 20L);
+        }
+
+        logger.info("RateLimitManager инициализирован");
+    }
+
+    /**
+     * Пересчитать набор ограничиваемых регионов
+     */
+    private void update() {
+        double averageTickMs = plugin.getPerformanceManager().getAverageTickTime();
+        Set<String> throttled = new HashSet<>();
+
+        for (Region region : plugin.getRegionManager().getRegions().values()) {
+            // Доля тика сама по себе не показатель: единственный регион всегда занимает весь тик
+            if (region.isActive()
+                && region.getCost().getTickShare() >= tickShareThreshold
+                && region.getCost().getEstimatedTickMs(averageTickMs) >= minRegionTickMs) {
+                throttled.add(region.getId());
+            }
+        }
+
+        for (String regionId : throttled) {
+            if (!hopperBuckets.containsKey(regionId)) {
+                hopperBuckets.put(regionId, new TokenBucket(hopperBurst, hopperPerSecond));
+                redstoneBuckets.put(regionId, new TokenBucket(redstoneBurst, redstonePerSecond));
+                logger.info("Регион " + regionId + " превысил долю тика, включено ограничение воронок и редстоуна");
+            }
+        }
+
+        for (String regionId : new HashSet<>(hopperBuckets.keySet())) {
+            if (!throttled.contains(regionId)) {
+                hopperBuckets.remove(regionId);
+                redstoneBuckets.remove(regionId);
+                logger.info("Ограничение воронок и редстоуна снято с региона " + regionId);
+            }
+        }
+    }
+
+    /**
+     * Разрешить перемещение предмета воронкой
+     */
+    public boolean tryHopperMove(Region region) {
+        TokenBucket bucket = hopperBuckets.get(region.getId());
+        if (bucket == null || bucket.tryAcquire()) {
+            return true;
+        }
+        region.recordBlockedHopperEvent();
+        return false;
+    }
+
+    /**
+     * Разрешить изменение сигнала редстоуна
+     */
+    public boolean tryRedstoneChange(Region region) {
+        TokenBucket bucket = redstoneBuckets.get(region.getId());
+        if (bucket == null || bucket.tryAcquire()) {
+            return true;
+        }
+        region.recordBlockedRedstoneEvent();
+        return false;
+    }
+
+    /**
+     * Проверить, ограничивается ли регион
+     */
+    public boolean isThrottled(Region region) {
+        return hopperBuckets.containsKey(region.getId());
+    }
+
+    /**
+     * Проверить, включено ли ограничение
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Завершить работу менеджера
+     */
+    public void shutdown() {
+        hopperBuckets.clear();
+        redstoneBuckets.clear();
+        logger.info("RateLimitManager завершил работу");
+    }
+}
@@ -0,0 +1,890 @@
+package com.regionmanager.managers;
+
+import com.regionmanager.RegionManagerPlugin;
+import com.regionmanager.engine.ChunkShape;
+import com.regionmanager.engine.MergePlanner;
+import com.regionmanager.engine.RegionGeometry;
+import com.regionmanager.engine.RegionLayout;
+import com.regionmanager.engine.RegionListener;
+import com.regionmanager.engine.RegionPlacement;
+import com.regionmanager.engine.RegionRegistry;
+import com.regionmanager.engine.RegionState;
+import com.regionmanager.engine.RegionView;
+import com.regionmanager.persistence.JournalEntry;
+import com.regionmanager.persistence.RegionJournal;
+import com.regionmanager.persistence.RegionRecord;
+import com.regionmanager.persistence.RegionSnapshot;
+import com.regionmanager.persistence.RegionSnapshotStore;
+import com.regionmanager.region.ChunkRegionIndex;
+import com.regionmanager.region.Region;
+import com.regionmanager.region.RegionCost;
+import com.regionmanager.utils.Logger;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Менеджер регионов
+ * Управляет созданием, удалением и распределением игроков по регионам
+ *
+ * Состояние регионов и принадлежность игроков хранит RegionRegistry ядра; менеджер
+ * связывает его с сервером: миры, загрузка чанков, журнал и снимки, задачи обслуживания.
+ */
+public class RegionManager {
+    
+    private final RegionManagerPlugin plugin;
+    private final Logger logger;
+    private final RegionRegistry registry;
+    // Регионы сервера по id, в том же составе, что и реестр
+    private final Map<String, Region> regions;
+    private final int regionSize;
+    private final int minDistanceBetweenRegions;
+    private final int maxActiveRegions;
+    private final long idleTimeoutMs;
+    private final boolean persistenceEnabled;
+    private final RegionSnapshotStore snapshotStore;
+    private RegionJournal journal;
+    private final ChunkRegionIndex chunkIndex;
+    // Регионы из снимка, ожидающие первого обращения к своему миру
+    private final Map<String, List<RegionRecord>> pendingRestores;
+    
+    /**
+     * Конструктор менеджера регионов
+     */
+    public RegionManager(RegionManagerPlugin plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getPluginLogger();
+        this.regions = new ConcurrentHashMap<>();
+        
+        // Загрузка конфигурации
+        this.regionSize = plugin.getConfig().getInt("regions.size", 512);
+        this.minDistanceBetweenRegions = plugin.getConfig().getInt("regions.min-distance-between-regions", 256);
+        this.maxActiveRegions = plugin.getConfig().getInt("performance.max-active-regions", 50);
+        this.idleTimeoutMs = plugin.getConfig().getLong("regions.idle-timeout-seconds", 300L) * 1000L;
+        this.persistenceEnabled = plugin.getConfig().getBoolean("persistence.enabled", true);
+        this.snapshotStore = new RegionSnapshotStore(new File(plugin.getDataFolder(),
+            plugin.getConfig().getString("persistence.snapshot-file", "regions.dat")));
+        this.pendingRestores = new ConcurrentHashMap<>();
+        this.chunkIndex = new ChunkRegionIndex();
+        this.registry = new RegionRegistry(regionSize, minDistanceBetweenRegions, maxActiveRegions,
+            plugin.getConfig().getInt("regions.max-players-per-region", 20), new RegistryListener());
+        
+        // Загрузка сохраненной раскладки регионов и журнала изменений
+        if (persistenceEnabled) {
+            if (plugin.getConfig().getBoolean("persistence.journal.enabled", true)) {
+                this.journal = new RegionJournal(
+                    new File(plugin.getDataFolder(), plugin.getConfig().getString("persistence.journal.file", "regions.journal")),
+                    snapshotStore,
+                    logger,
+                    plugin.getConfig().getLong("persistence.journal.group-commit-ms", 50L),
+                    plugin.getConfig().getLong("persistence.journal.compact-threshold-bytes", 262144L)
+                );
+            }
+            loadSnapshot();
+            startJournal();
+        }
+        
+        // Запуск задач обслуживания
+        startMaintenanceTasks();
+        
+        logger.info("RegionManager инициализирован");
+    }
+    
+    /**
+     * Выполнить изменение регионов и их заполненности в едином последовательном потоке
+     * На Folia события игроков приходят в потоках разных регионов, поэтому изменения
+     * переносятся в глобальный поток, где работают и задачи обслуживания регионов.
+     * На Bukkit события и задачи уже выполняются в главном потоке, задача выполняется сразу.
+     */
+    public void runSerialized(Runnable task) {
+        if (plugin.getTaskScheduler().isRegionThreaded()) {
+            plugin.getTaskScheduler().runGlobal(task);
+        } else {
+            task.run();
+        }
+    }
+    
+    /**
+     * Найти или создать регион для игрока
+     */
+    public Region findOrCreateRegionForPlayer(Player player) {
+        return findOrCreateRegionForPlayer(player, player.getLocation());
+    }
+    
+    /**
+     * Найти или создать регион для игрока в заданной позиции
+     * Позиция передается отдельно: на Folia ее читают в потоке игрока до перехода в глобальный поток
+     */
+    public Region findOrCreateRegionForPlayer(Player player, Location playerLocation) {
+        // Сначала попробуем найти существующий регион
+        Region existingRegion = findNearestRegion(playerLocation);
+        
+        // Если найден регион и игрок в нем, используем его
+        if (existingRegion != null && existingRegion.contains(playerLocation)) {
+            logger.debug("Игрок " + player.getName() + " найден в регионе " + existingRegion.getId());
+            return existingRegion;
+        }
+        
+        // Если нет подходящего региона, создаем новый
+        logger.info("Создание нового региона для игрока " + player.getName() + " в " + playerLocation);
+        return createNewRegion(playerLocation);
+    }
+    
+    /**
+     * Найти ближайший регион к указанной локации
+     */
+    public Region findNearestRegion(Location location) {
+        restorePendingRegions(location.getWorld());
+        
+        RegionView nearest = RegionGeometry.findNearest(getLayout().getRegionMap().values(),
+            location.getWorld().getName(), location.getBlockX(), location.getBlockZ(),
+            plugin.getConfig().getInt("regions.check-distance", 128));
+        if (nearest == null) {
+            logger.debug("Не найден подходящий регион для локации " + 
+                location.getBlockX() + ", " + location.getBlockZ());
+            return null;
+        }
+        
+        logger.debug("Выбран ближайший регион " + nearest.getId() + " для " + 
+            location.getBlockX() + ", " + location.getBlockZ());
+        return regions.get(nearest.getId());
+    }
+    
+    /**
+     * Найти активный регион, содержащий локацию, независимо от его заполненности
+     */
+    public Region getRegionAt(Location location) {
+        restorePendingRegions(location.getWorld());
+        
+        for (Region region : regions.values()) {
+            if (region.isActive() && region.contains(location)) {
+                return region;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Найти активный регион, содержащий чанк
+     * Использует индекс "чанк -> регион", поэтому подходит для частых событий мира
+     */
+    public Region getRegionAtChunk(World world, int chunkX, int chunkZ) {
+        restorePendingRegions(world);
+        return chunkIndex.lookup(world, chunkX, chunkZ, regions.values());
+    }
+    
+    /**
+     * Создать новый регион
+     * Создание синхронизировано: на Folia его вызывают потоки разных регионов
+     */
+    public synchronized Region createNewRegion(Location center) {
+        restorePendingRegions(center.getWorld());
+        
+        // Проверить лимит активных регионов
+        if (isActiveLimitReached()) {
+            return null;
+        }
+        
+        // Игрок в скоплении - регион по скоплению, иначе подходящее место рядом с игроком
+        RegionPlacement placement = findClusterPlacement(center);
+        if (placement != null) {
+            return registerRegion(center.getWorld(), placement.getShape());
+        }
+        return registerRegion(center.getWorld(), findOptimalRegionShape(center));
+    }
+    
+    /**
+     * Зарегистрировать новый регион заданной формы
+     */
+    private Region registerRegion(World world, ChunkShape shape) {
+        // Регион сервера создает слушатель реестра
+        RegionState state = registry.create(world.getName(), shape, System.currentTimeMillis());
+        return state != null ? regions.get(state.getId()) : null;
+    }
+    
+    /**
+     * Найти размещение по скоплению игроков, покрывающее локацию
+     *
+     * @return размещение или null, если локация вне скоплений или слишком близко к другим регионам
+     */
+    private RegionPlacement findClusterPlacement(Location location) {
+        PlacementManager placementManager = plugin.getPlacementManager();
+        RegionPlacement placement = placementManager != null ? placementManager.findPlacement(location) : null;
+        if (placement == null) {
+            return null;
+        }
+        
+        if (!RegionGeometry.canPlace(createLayout().getRegionMap().values(), location.getWorld().getName(),
+            placement.getShape(), minDistanceBetweenRegions)) {
+            return null;
+        }
+        
+        logger.debug("Регион размещается по скоплению игроков: " + placement.getCenterX() + ", " +
+            placement.getCenterZ() + ", " + placement.getShape().getWidth() + "x" + placement.getShape().getDepth() +
+            " чанков, " + placement.getShape().getChunkCount() + " в форме");
+        return placement;
+    }
+    
+    /**
+     * Найти оптимальную форму для нового региона
+     * Форма всегда содержит позицию игрока
+     */
+    private ChunkShape findOptimalRegionShape(Location playerLocation) {
+        World world = playerLocation.getWorld();
+        int x = playerLocation.getBlockX();
+        int z = playerLocation.getBlockZ();
+        
+        // Используем позицию игрока как центр региона, при близости к другим регионам - прижимаем к соседям или уменьшаем
+        ChunkShape shape = RegionGeometry.findFreeShape(createLayout().getRegionMap().values(), world.getName(),
+            x, z, regionSize, minDistanceBetweenRegions);
+        
+        if (shape == null) {
+            // Если не удалось найти подходящее место, используем исходное
+            logger.warn("Не удалось найти свободное место для региона, используем позицию игрока: " + x + ", " + z);
+            return ChunkShape.square(x, z, regionSize);
+        }
+        
+        if (!shape.equals(ChunkShape.square(x, z, regionSize))) {
+            logger.debug("Найдено место для региона: " + shape.getCenterX() + ", " + shape.getCenterZ() +
+                ", размер " + shape.getSize());
+        }
+        return shape;
+    }
+    
+    /**
+     * Добавить игрока в регион
+     */
+    public boolean addPlayerToRegion(Player player, Region region) {
+        return addPlayerToRegion(player, region, player.getLocation());
+    }
+    
+    /**
+     * Добавить игрока в регион; location - позиция игрока для прогрева чанков
+     */
+    public boolean addPlayerToRegion(Player player, Region region, Location location) {
+        if (region == null) {
+            return false;
+        }
+        
+        // Удалить игрока из предыдущего региона
+        Region previousRegion = getPlayerRegion(player);
+        if (previousRegion != null && previousRegion != region) {
+            previousRegion.removePlayer(player);
+        }
+        
+        // Добавить в новый регион
+        region.addPlayer(player, location);
+        logger.debug("Игрок " + player.getName() + " добавлен в регион " + region.getId());
+        return true;
+    }
+    
+    /**
+     * Удалить игрока из региона
+     */
+    public void removePlayerFromRegion(Player player) {
+        Region region = getPlayerRegion(player);
+        if (region != null) {
+            region.removePlayer(player);
+            logger.debug("Игрок " + player.getName() + " удален из региона " + region.getId());
+        }
+    }
+    
+    /**
+     * Получить регион игрока
+     */
+    public Region getPlayerRegion(Player player) {
+        RegionState state = registry.getPlayerRegion(player.getUniqueId());
+        return state != null ? regions.get(state.getId()) : null;
+    }
+    
+    /**
+     * Удалить регион
+     */
+    public void removeRegion(Region region) {
+        if (region != null && registry.remove(region.getState())) {
+            logger.info("Регион " + region.getId() + " удален");
+        }
+    }
+    
+    /**
+     * Проверить, достигнут ли лимит активных регионов
+     * Предупреждение пишется один раз при достижении лимита, а не при каждой попытке создания
+     */
+    public boolean isActiveLimitReached() {
+        return registry.isActiveLimitReached();
+    }
+    
+    /**
+     * Получить количество активных регионов
+     */
+    public int getActiveRegionCount() {
+        return registry.getActiveCount();
+    }
+    
+    /**
+     * Получить общее количество регионов
+     */
+    public int getTotalRegionCount() {
+        return registry.getRegionCount();
+    }
+    
+    /**
+     * Получить статистику регионов
+     */
+    public Map<String, Object> getRegionStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalRegions", getTotalRegionCount());
+        stats.put("activeRegions", getActiveRegionCount());
+        stats.put("totalPlayers", registry.getPlayerCount());
+        stats.put("maxActiveRegions", maxActiveRegions);
+        
+        // Статистика по регионам
+        Map<String, Integer> regionPlayerCounts = new HashMap<>();
+        for (Region region : regions.values()) {
+            regionPlayerCounts.put(region.getId(), region.getPlayerCount());
+        }
+        stats.put("regionPlayerCounts", regionPlayerCounts);
+        
+        // Стоимость регионов по последней выборке
+        Map<String, RegionCost> regionCosts = new HashMap<>();
+        for (Region region : regions.values()) {
+            regionCosts.put(region.getId(), region.getCost());
+        }
+        stats.put("regionCosts", regionCosts);
+        
+        return stats;
+    }
+    
+    /**
+     * Оптимизировать регионы
+     */
+    public void optimizeRegions() {
+        logger.debug("Начинаем оптимизацию регионов...");
+        
+        for (Region region : regions.values()) {
+            if (region.isActive()) {
+                // Выгружаем неиспользуемые чанки
+                // Note: unloadUnusedChunks() method was removed from Region class
+                // This functionality is now handled internally by the Region class
+            }
+        }
+        
+        // Объединяем близкие регионы
+        mergeNearbyRegions();
+        
+        logger.debug("Оптимизация регионов завершена");
+    }
+    
+    /**
+     * Объединить близкие регионы с малым количеством игроков
+     */
+    private void mergeNearbyRegions() {
+        List<RegionView> views = new ArrayList<>(createLayout().getRegionMap().values());
+        views.sort(Comparator.comparing(RegionView::getId));
+        
+        // Поиск пар-кандидатов по снимку: O(n^2) сравнений, параллельно на больших наборах
+        List<String[]> candidates = findMergeCandidates(views);
+        
+        // Применение в главном потоке с повторной проверкой по текущему состоянию
+        Set<String> mergedAway = new HashSet<>();
+        for (String[] pair : candidates) {
+            if (mergedAway.contains(pair[0]) || mergedAway.contains(pair[1])) {
+                continue;
+            }
+            
+            Region region1 = regions.get(pair[0]);
+            Region region2 = regions.get(pair[1]);
+            if (region1 == null || region2 == null) {
+                continue;
+            }
+            
+            // Проверить, можно ли объединить регионы
+            if (canMergeRegions(region1, region2)) {
+                mergeRegions(region1, region2);
+                mergedAway.add(pair[1]);
+            }
+        }
+    }
+    
+    /**
+     * Найти пары регионов, которые можно объединить, по неизменяемому снимку
+     */
+    private List<String[]> findMergeCandidates(List<RegionView> views) {
+        MergePlanner planner = new MergePlanner(regionSize,
+            plugin.getConfig().getInt("regions.max-players-per-region", 20),
+            plugin.getConfig().getDouble("cost.max-merge-score", 4000.0));
+        return planner.findCandidates(views, plugin.getAnalytics());
+    }
+    
+    /**
+     * Проверить, можно ли объединить два региона
+     */
+    private boolean canMergeRegions(Region region1, Region region2) {
+        // Проверить, что оба региона активны
+        if (!region1.isActive() || !region2.isActive()) {
+            return false;
+        }
+        
+        // Проверить, что регионы в одном мире
+        if (!region1.getWorld().equals(region2.getWorld())) {
+            return false;
+        }
+        
+        // Проверить расстояние между центрами
+        double distance = region1.getCenter().distance(region2.getCenter());
+        if (distance > regionSize) {
+            return false;
+        }
+        
+        // Проверить, что общее количество игроков не превышает лимит
+        int maxPlayers = plugin.getConfig().getInt("regions.max-players-per-region", 20);
+        if (region1.getPlayerCount() + region2.getPlayerCount() > maxPlayers) {
+            return false;
+        }
+        
+        // Проверить, что объединенный регион не окажется слишком дорогим
+        double maxMergeScore = plugin.getConfig().getDouble("cost.max-merge-score", 4000.0);
+        return region1.getCost().getScore() + region2.getCost().getScore() <= maxMergeScore;
+    }
+    
+    /**
+     * Объединить два региона
+     * Реестр переводит игроков region2 в region1 и удаляет region2
+     */
+    private void mergeRegions(Region region1, Region region2) {
+        if (registry.merge(region1.getState(), region2.getState(), System.currentTimeMillis())) {
+            logger.info("Объединены регионы " + region1.getId() + " и " + region2.getId());
+        }
+    }
+    
+    /**
+     * Запустить задачи обслуживания
+     */
+    private void startMaintenanceTasks() {
+        // Задача оптимизации регионов каждые 30 секунд
+        plugin.getTaskScheduler().runGlobalTimer(this::optimizeRegions, 600L, 600L);
+        
+        // Задача очистки неактивных регионов каждые 5 минут
+        plugin.getTaskScheduler().runGlobalTimer(this::cleanupInactiveRegions, 6000L, 6000L);
+        
+        // Выгрузка пустых регионов без активности каждые 10 секунд
+        if (idleTimeoutMs > 0) {
+            plugin.getTaskScheduler().runGlobalTimer(() -> deactivateIdleRegions(idleTimeoutMs), 200L, 200L);
+        }
+        
+        // Периодическое сохранение раскладки регионов
+        if (persistenceEnabled) {
+            long snapshotInterval = plugin.getConfig().getLong("persistence.snapshot-interval", 6000L);
+            plugin.getTaskScheduler().runGlobalTimer(() -> saveSnapshot(true),
+                snapshotInterval, snapshotInterval);
+        }
+    }
+    
+    /**
+     * Загрузить снимок раскладки регионов
+     * Регионы не создаются сразу: записи группируются по мирам и восстанавливаются
+     * при первом обращении к миру, поэтому выгруженные миры не мешают запуску
+     */
+    private void loadSnapshot() {
+        Map<String, RegionRecord> records = new LinkedHashMap<>();
+        int savedCounter = 0;
+        
+        try {
+            RegionSnapshot snapshot = snapshotStore.read();
+            if (snapshot != null) {
+                savedCounter = snapshot.getRegionCounter();
+                for (RegionRecord record : snapshot.getRecords()) {
+                    records.put(record.getId(), record);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Не удалось прочитать снимок регионов: " + e.getMessage());
+        }
+        
+        // Изменения после последнего снимка берем из журнала
+        if (journal != null) {
+            try {
+                savedCounter = Math.max(savedCounter, journal.replay(records));
+            } catch (IOException e) {
+                logger.error("Не удалось воспроизвести журнал регионов: " + e.getMessage());
+            }
+        }
+        
+        if (records.isEmpty() && savedCounter == 0) {
+            return;
+        }
+        
+        long maxAgeMs = plugin.getConfig().getLong("persistence.max-region-age-minutes", 1440L) * 60000L;
+        long now = System.currentTimeMillis();
+        int accepted = 0;
+        
+        for (RegionRecord record : records.values()) {
+            // Давно неактивные регионы не восстанавливаем, принудительные храним всегда
+            if (!record.isForced() && now - record.getLastActivityTime() > maxAgeMs) {
+                continue;
+            }
+            pendingRestores.computeIfAbsent(record.getWorldName(), k -> new ArrayList<>()).add(record);
+            accepted++;
+        }
+        
+        registry.restoreCounter(savedCounter);
+        logger.info("Загружен снимок регионов: " + accepted + " из " + records.size() +
+            " регионов ожидают восстановления");
+    }
+    
+    /**
+     * Открыть журнал изменений регионов
+     */
+    private void startJournal() {
+        if (journal == null) {
+            return;
+        }
+        
+        try {
+            journal.start();
+        } catch (IOException e) {
+            logger.error("Не удалось открыть журнал регионов, изменения будут сохраняться только снимками: " + e.getMessage());
+            journal = null;
+        }
+    }
+    
+    /**
+     * Записать событие изменения региона в журнал
+     */
+    private void journal(JournalEntry entry) {
+        if (journal == null) {
+            return;
+        }
+        
+        journal.append(entry);
+        
+        // Журнал разросся - уплотняем его в снимок
+        if (journal.needsCompaction()) {
+            saveSnapshot(true);
+        }
+    }
+    
+    /**
+     * Записать в журнал создание региона и его форму, если она не квадрат по центру и размеру
+     */
+    private void journalCreate(Region region) {
+        RegionRecord record = RegionRecord.fromRegion(region);
+        journal(JournalEntry.create(record, registry.getRegionCounter()));
+        if (record.hasCustomShape()) {
+            journal(JournalEntry.shape(record.getId(), record.getShape()));
+        }
+    }
+    
+    /**
+     * Восстановить регионы мира из снимка, если они еще не восстановлены
+     * Игроков в восстановленных регионах нет, поэтому активными возвращаются только
+     * принудительные регионы и регионы, чей таймаут простоя еще не истек, в пределах
+     * лимита активных регионов. Остальные восстанавливаются выгруженными: их может
+     * активировать прогноз, иначе их удалит очистка неактивных регионов.
+     */
+    public void restorePendingRegions(World world) {
+        if (pendingRestores.isEmpty() || world == null) {
+            return;
+        }
+        
+        List<RegionRecord> records = pendingRestores.remove(world.getName());
+        if (records == null) {
+            return;
+        }
+        
+        long now = System.currentTimeMillis();
+        int activeCount = getActiveRegionCount();
+        int restoredActive = 0;
+        for (RegionRecord record : records) {
+            if (registry.get(record.getId()) != null) {
+                continue;
+            }
+            
+            boolean active = record.isForced() || (activeCount < maxActiveRegions
+                && (idleTimeoutMs <= 0 || now - record.getLastActivityTime() <= idleTimeoutMs));
+            if (active) {
+                activeCount++;
+                restoredActive++;
+            }
+            
+            ChunkShape shape = record.getShape() != null
+                ? record.getShape() : ChunkShape.square(record.getX(), record.getZ(), record.getSize());
+            RegionState state = registry.restore(record.getId(), world.getName(), shape, record.getCreationTime(),
+                record.getLastActivityTime(), record.isForced(), record.getPeakPlayerCount(), active);
+            regions.put(state.getId(), new Region(state, world, record.getY(), this));
+        }
+        chunkIndex.invalidate(world);
+        
+        logger.info("Восстановлено " + records.size() + " регионов мира " + world.getName() + " из снимка, " +
+            restoredActive + " активных");
+    }
+    
+    /**
+     * Сохранить снимок раскладки регионов
+     * Состояние снимается на главном потоке, запись на диск может идти асинхронно.
+     * При включенном журнале снимок пишется потоком журнала, после чего журнал усекается
+     */
+    public void saveSnapshot(boolean async) {
+        if (!persistenceEnabled) {
+            return;
+        }
+        
+        List<RegionRecord> records = new ArrayList<>();
+        for (Region region : regions.values()) {
+            if (region.isActive() || region.isForcedRegion()) {
+                records.add(RegionRecord.fromRegion(region));
+            }
+        }
+        // Регионы миров, к которым еще не обращались, не должны теряться
+        for (List<RegionRecord> pending : pendingRestores.values()) {
+            records.addAll(pending);
+        }
+        
+        RegionSnapshot snapshot = new RegionSnapshot(registry.getRegionCounter(), records);
+        
+        if (journal != null) {
+            if (async) {
+                journal.compact(snapshot);
+            } else {
+                journal.close(snapshot);
+                journal = null;
+            }
+            return;
+        }
+        
+        Runnable writeTask = () -> {
+            try {
+                snapshotStore.write(snapshot);
+                logger.debug("Снимок регионов сохранен: " + records.size() + " регионов");
+            } catch (IOException e) {
+                logger.error("Не удалось сохранить снимок регионов: " + e.getMessage());
+            }
+        };
+        
+        if (async) {
+            plugin.getTaskScheduler().runAsync(writeTask);
+        } else {
+            writeTask.run();
+        }
+    }
+    
+    /**
+     * Очистить неактивные регионы
+     */
+    private void cleanupInactiveRegions() {
+        // Отбор кандидатов по снимку, удаление - в главном потоке после повторной проверки
+        List<RegionView> views = new ArrayList<>(createLayout().getRegionMap().values());
+        List<String> candidates = plugin.getAnalytics().map(views,
+            view -> !view.isActive() && view.getPlayerCount() == 0 ? view.getId() : null);
+        
+        for (String regionId : candidates) {
+            Region region = regions.get(regionId);
+            if (region == null) {
+                continue;
+            }
+            
+            if (!region.isActive() && region.getPlayerCount() == 0 && !isRetainedByForecast(region)
+                && registry.remove(region.getState())) {
+                logger.info("Удален неактивный регион: " + region.getId());
+            }
+        }
+    }
+    
+    /**
+     * Выгрузить активные пустые регионы без активности дольше idleMs
+     * Выгрузка при выходе последнего игрока не касается регионов, в которые игроки не входили:
+     * созданных заранее по тепловой карте или прогнозу. Без этой проверки они оставались бы
+     * активными и занимали лимит активных регионов. Принудительные регионы не выгружаются,
+     * прогретые к пику по прогнозу - только после прогнозируемого пика.
+     *
+     * @return число выгруженных регионов
+     */
+    public int deactivateIdleRegions(long idleMs) {
+        ForecastManager forecastManager = plugin.getForecastManager();
+        int deactivated = registry.deactivateIdle(idleMs, System.currentTimeMillis(),
+            state -> forecastManager != null && forecastManager.isWarmedForPeak(regions.get(state.getId())));
+        
+        if (deactivated > 0) {
+            logger.info("Выгружено " + deactivated + " пустых регионов без активности");
+        }
+        return deactivated;
+    }
+    
+    /**
+     * Построить неизменяемый снимок раскладки регионов для расчетов вне главного потока
+     */
+    public RegionLayout createLayout() {
+        return registry.createLayout();
+    }
+    
+    /**
+     * Получить снимок раскладки текущей версии, пересоздавая его только после изменений
+     */
+    public RegionLayout getLayout() {
+        return registry.getLayout();
+    }
+    
+    /**
+     * Получить текущую версию раскладки регионов
+     */
+    public long getLayoutVersion() {
+        return registry.getVersion();
+    }
+    
+    /**
+     * Проверить, удерживается ли неактивный регион прогнозом ближайшей нагрузки
+     */
+    public boolean isRetainedByForecast(Region region) {
+        ForecastManager forecastManager = plugin.getForecastManager();
+        return forecastManager != null && forecastManager.isExpectedBusy(region);
+    }
+    
+    /**
+     * Проверить, существует ли регион (в том числе ожидающий восстановления из снимка)
+     */
+    public boolean isKnownRegion(String regionId) {
+        if (registry.get(regionId) != null) {
+            return true;
+        }
+        for (List<RegionRecord> pending : pendingRestores.values()) {
+            for (RegionRecord record : pending) {
+                if (record.getId().equals(regionId)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Завершить работу менеджера
+     */
+    public void shutdown() {
+        // Сохраняем раскладку перед очисткой коллекций
+        saveSnapshot(false);
+        
+        regions.clear();
+        registry.clear();
+        chunkIndex.clear();
+        
+        logger.info("RegionManager завершил работу");
+    }
+    
+    // Геттеры
+    public RegionManagerPlugin getPlugin() {
+        return plugin;
+    }
+    
+    /**
+     * Получить реестр регионов ядра
+     */
+    public RegionRegistry getRegistry() {
+        return registry;
+    }
+    
+    /**
+     * Получить все регионы
+     */
+    public Map<String, Region> getRegions() {
+        return new HashMap<>(regions);
+    }
+    
+    public int getRegionSize() {
+        return regionSize;
+    }
+    
+    public int getMinDistanceBetweenRegions() {
+        return minDistanceBetweenRegions;
+    }
+    
+    public int getMaxActiveRegions() {
+        return maxActiveRegions;
+    }
+    
+    /**
+     * Побочные эффекты изменений реестра на сервере: регионы сервера, чанки, индекс и журнал
+     */
+    private final class RegistryListener implements RegionListener {
+        
+        @Override
+        public void onRegionCreated(RegionState state) {
+            World world = plugin.getServer().getWorld(state.getWorldName());
+            Region region = new Region(state, world, 64, RegionManager.this);
+            regions.put(state.getId(), region);
+            chunkIndex.invalidate(world);
+            journalCreate(region);
+            
+            logger.info("Создан новый регион: " + state.getId() + " в " + region.getCenter());
+        }
+        
+        @Override
+        public void onRegionStateChanged(RegionState state) {
+            Region region = regions.get(state.getId());
+            if (region == null || region.getState() != state) {
+                return;
+            }
+            
+            chunkIndex.invalidate(region.getWorld());
+            if (state.isActive()) {
+                // Повторно активированный регион снова попадает в снимок
+                journalCreate(region);
+                logger.info("Регион " + state.getId() + " повторно активирован");
+            } else {
+                region.unloadChunks();
+                journal(JournalEntry.deactivate(state.getId()));
+                logger.info("Регион " + state.getId() + " принудительно выгружен");
+            }
+        }
+        
+        @Override
+        public void onRegionShapeChanged(RegionState state, ChunkShape previous) {
+            Region region = regions.get(state.getId());
+            if (region != null && region.getState() == state) {
+                chunkIndex.invalidate(region.getWorld());
+                // Запись создания с тем же id заменяет прежнюю при восстановлении
+                journalCreate(region);
+            }
+        }
+        
+        @Override
+        public void onRegionForcedChanged(RegionState state) {
+            journal(JournalEntry.forced(state.getId(), state.isForced()));
+        }
+        
+        @Override
+        public void onRegionEmptied(RegionState state) {
+            Region region = regions.get(state.getId());
+            if (region != null && region.getState() == state) {
+                region.scheduleUnload();
+            }
+        }
+        
+        @Override
+        public void onRegionRemoved(RegionState state) {
+            Region region = regions.remove(state.getId());
+            if (region != null) {
+                chunkIndex.invalidate(region.getWorld());
+            }
+            journal(JournalEntry.remove(state.getId()));
+        }
+        
+        @Override
+        public void onRegionsMerged(RegionState target, RegionState source) {
+            Region region = regions.remove(source.getId());
+            if (region != null) {
+                chunkIndex.invalidate(region.getWorld());
+            }
+            journal(JournalEntry.merge(source.getId(), target.getId()));
+        }
+        
+        @Override
+        public void onActiveLimitReached(int maxActiveRegions) {
+            logger.warn("Достигнут лимит активных регионов: " + maxActiveRegions);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.regionmanager.managers;
+
+import com.regionmanager.RegionManagerPlugin;
+import com.regionmanager.region.Region;
+import com.regionmanager.utils.Logger;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Mob;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Менеджер лимитов спавна мобов по регионам
+ *
+ * Количество мобов региона хранится счетчиком, который меняется на событиях появления
+ * и удаления сущностей, поэтому проверка лимита не требует обхода сущностей.
+ * Моб закрепляется за регионом, в котором появился: повторные события появления
+ * и удаления для одной сущности не искажают счетчик.
+ */
+public class SpawnLimitManager {
+
+    private final RegionManagerPlugin plugin;
+    private final Logger logger;
+    // Регион, в счетчике которого учтен моб
+    private final Map<UUID, Region> owners;
+    private final Set<SpawnReason> limitedReasons;
+    private final boolean enabled;
+    private final int maxMobsPerRegion;
+    private final double minBudgetFactor;
+    private long blockedSpawns;
+
+    /**
+     * Конструктор менеджера
+     */
+    public SpawnLimitManager(RegionManagerPlugin plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getPluginLogger();
+        this.owners = new ConcurrentHashMap<>();
+        this.limitedReasons = EnumSet.noneOf(SpawnReason.class);
+
+        // Загрузка конфигурации
+        this.enabled = plugin.getConfig().getBoolean("spawn-limits.enabled", true);
+        this.maxMobsPerRegion = plugin.getConfig().getInt("spawn-limits.max-mobs-per-region", 200);
+        this.minBudgetFactor = plugin.getConfig().getDouble("spawn-limits.min-budget-factor", 0.25);
+        for (String reason : plugin.getConfig().getStringList("spawn-limits.limited-reasons")) {
+            try {
+                limitedReasons.add(SpawnReason.valueOf(reason.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Неизвестная причина спавна в spawn-limits.limited-reasons: " + reason);
+            }
+        }
+        if (limitedReasons.isEmpty()) {
+            limitedReasons.add(SpawnReason.NATURAL);
+            limitedReasons.add(SpawnReason.SPAWNER);
+        }
+
+        logger.info("SpawnLimitManager инициализирован");
+    }
+
+    /**
+     * Проверить, нужно ли запретить спавн моба
+     */
+    public boolean shouldBlockSpawn(Entity entity, Location location, SpawnReason reason) {
+        if (!enabled || !(entity instanceof Mob) || !limitedReasons.contains(reason)) {
+            return false;
+        }
+
+        Region region = findRegion(location);
+        if (region == null || region.getMobCount() < getBudget(region)) {
+            return false;
+        }
+
+        blockedSpawns++;
+        return true;
+    }
+
+    /**
+     * Учесть появление моба
+     */
+    public void track(Entity entity) {
+        if (!enabled || !(entity instanceof Mob) || owners.containsKey(entity.getUniqueId())) {
+            return;
+        }
+
+        Region region = findRegion(entity.getLocation());
+        if (region != null && owners.putIfAbsent(entity.getUniqueId(), region) == null) {
+            region.adjustMobCount(1);
+        }
+    }
+
+    /**
+     * Учесть смерть или удаление моба
+     */
+    public void untrack(Entity entity) {
+        Region region = owners.remove(entity.getUniqueId());
+        if (region != null) {
+            region.adjustMobCount(-1);
+        }
+    }
+
+    /**
+     * Текущий лимит мобов региона; уменьшается при нагрузке на сервер
+     */
+    public int getBudget(Region region) {
+        double pressure = plugin.getPerformanceManager().getLoadPressure();
+        double factor = 1.0 - pressure * (1.0 - minBudgetFactor);
+        return (int) Math.ceil(maxMobsPerRegion * factor);
+    }
+
+    /**
+     * Найти регион по месту появления
+     */
+    private Region findRegion(Location location) {
+        return plugin.getRegionManager().getRegionAtChunk(location.getWorld(),
+            location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    }
+
+    /**
+     * Получить количество запрещенных спавнов
+     */
+    public long getBlockedSpawns() {
+        return blockedSpawns;
+    }
+
+    /**
+     * Проверить, включены ли лимиты
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Завершить работу менеджера
+     */
+    public void shutdown() {
+        owners.clear();
+        logger.info("SpawnLimitManager завершил работу, запрещено спавнов: " + blockedSpawns);
+    }
+}
@@ -0,0 +1,543 @@
+package com.regionmanager.managers;
+
+import com.regionmanager.RegionManagerPlugin;
+import com.regionmanager.trace.TraceEventType;
+import com.regionmanager.trace.TraceFormat;
+import com.regionmanager.utils.Logger;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Менеджер записи трассы перемещений игроков
+ *
+ * Обработчики событий только кодируют запись фиксированной длины в текущий буфер.
+ * Заполненные буферы передаются потоку записи, который пишет их в файл через
+ * FileChannel и возвращает в пул. Когда файл достигает предельного размера,
+ * начинается новый, а старые сверх лимита удаляются. Если поток записи не успевает
+ * и свободных буферов нет, записи отбрасываются и учитываются в счетчике.
+ *
+ * Трасса воспроизводится симулятором (replay) для сравнения версий плагина
+ * на одинаковом входе.
+ */
+public class TraceManager {
+
+    // Служебные буферы очереди: начать новый файл и остановить поток записи
+    private static final ByteBuffer ROTATE = ByteBuffer.allocate(0);
+    private static final ByteBuffer STOP = ByteBuffer.allocate(0);
+    private static final DateTimeFormatter SESSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final RegionManagerPlugin plugin;
+    private final Logger logger;
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final String session;
+    private final BlockingQueue<ByteBuffer> filled;
+    private final BlockingQueue<ByteBuffer> free;
+
+    // Слоты игроков и их последние позиции для повторного объявления в новом файле
+    private final Map<UUID, Integer> slots;
+    private final BitSet usedSlots;
+    private UUID[] slotPlayers;
+    private int[] slotWorlds;
+    private double[] slotX;
+    private double[] slotY;
+    private double[] slotZ;
+    private final Map<String, Integer> worlds;
+    private final List<byte[]> worldNames;
+
+    private Thread writer;
+    private ByteBuffer buffer;
+    private long fileBytes;
+    private int fileIndex;
+    private volatile boolean enabled;
+    private long recorded;
+    private long dropped;
+
+    /**
+     * Конструктор менеджера
+     */
+    public TraceManager(RegionManagerPlugin plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getPluginLogger();
+        this.directory = plugin.getDataFolder().toPath().resolve(plugin.getConfig().getString("trace.directory", "traces"));
+        this.maxFileBytes = Math.max(1, plugin.getConfig().getLong("trace.max-file-mb", 64)) * 1024 * 1024;
+        this.maxFiles = Math.max(1, plugin.getConfig().getInt("trace.max-files", 8));
+        this.session = LocalDateTime.now().format(SESSION_FORMAT);
+        this.filled = new LinkedBlockingQueue<>();
+
+        int bufferSize = Math.max(4, plugin.getConfig().getInt("trace.buffer-kb", 64)) * 1024;
+        int bufferCount = Math.max(2, plugin.getConfig().getInt("trace.buffers", 16));
+        this.free = new ArrayBlockingQueue<>(bufferCount);
+        for (int i = 0; i < bufferCount; i++) {
+            free.add(ByteBuffer.allocateDirect(bufferSize));
+        }
+
+        int capacity = Math.max(16, plugin.getServer().getMaxPlayers());
+        this.slots = new HashMap<>();
+        this.usedSlots = new BitSet(capacity);
+        this.slotPlayers = new UUID[capacity];
+        this.slotWorlds = new int[capacity];
+        this.slotX = new double[capacity];
+        this.slotY = new double[capacity];
+        this.slotZ = new double[capacity];
+        this.worlds = new HashMap<>();
+        this.worldNames = new ArrayList<>();
+
+        plugin.getTaskScheduler().runGlobalTimer(this::flush, 20L, 20L);
+
+        if (plugin.getConfig().getBoolean("trace.enabled", false)) {
+            start();
+        }
+
+        logger.info("TraceManager инициализирован (запись " + (enabled ? "включена" : "выключена") + ")");
+    }
+
+    /**
+     * Начать запись трассы в новый файл
+     *
+     * @return false, если запись уже идет
+     */
+    public synchronized boolean start() {
+        if (enabled) {
+            return false;
+        }
+
+        if (writer == null || !writer.isAlive()) {
+            // После ошибки записи буферы могли остаться в очереди
+            ByteBuffer stale;
+            while ((stale = filled.poll()) != null) {
+                if (stale != ROTATE && stale != STOP) {
+                    stale.clear();
+                    free.offer(stale);
+                }
+            }
+            writer = new Thread(this::writeLoop, "RegionManager-Trace");
+            writer.setDaemon(true);
+            writer.start();
+        }
+
+        // Состояние прошлой записи могло остаться после ошибки потока записи
+        resetSlots();
+        enabled = true;
+        beginFile();
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            slotFor(player.getUniqueId(), player.getLocation());
+        }
+
+        logger.info("Запись трассы перемещений включена: " + directory);
+        return true;
+    }
+
+    /**
+     * Остановить запись и сбросить накопленные записи в файл
+     *
+     * @return false, если запись не шла
+     */
+    public synchronized boolean stop() {
+        if (!enabled) {
+            return false;
+        }
+        enabled = false;
+        flush();
+        resetSlots();
+
+        logger.info("Запись трассы перемещений выключена (записей: " + recorded + ", отброшено: " + dropped + ")");
+        return true;
+    }
+
+    private void resetSlots() {
+        slots.clear();
+        usedSlots.clear();
+        Arrays.fill(slotPlayers, null);
+        worlds.clear();
+        worldNames.clear();
+    }
+
+    /**
+     * Записать вход игрока
+     */
+    public void recordJoin(Player player) {
+        if (enabled) {
+            join(player.getUniqueId(), player.getLocation());
+        }
+    }
+
+    /**
+     * Записать выход игрока
+     */
+    public void recordQuit(Player player) {
+        if (enabled) {
+            quit(player.getUniqueId());
+        }
+    }
+
+    /**
+     * Записать перемещение игрока
+     */
+    public void recordMove(Player player, Location location) {
+        if (enabled) {
+            position(TraceEventType.MOVE, player.getUniqueId(), location);
+        }
+    }
+
+    /**
+     * Записать телепортацию игрока
+     */
+    public void recordTeleport(Player player, Location location) {
+        if (enabled) {
+            position(TraceEventType.TELEPORT, player.getUniqueId(), location);
+        }
+    }
+
+    /**
+     * Записать вход в кровать или выход из нее
+     */
+    public void recordBed(Player player, boolean enter) {
+        if (enabled) {
+            position(enter ? TraceEventType.BED_ENTER : TraceEventType.BED_LEAVE, player.getUniqueId(),
+                player.getLocation());
+        }
+    }
+
+    private synchronized void join(UUID playerId, Location location) {
+        if (!enabled) {
+            return;
+        }
+        Integer slot = slots.get(playerId);
+        if (slot != null) {
+            // Повторный вход без выхода: считается перемещением
+            writePosition(TraceEventType.MOVE, slot, location);
+            return;
+        }
+        slotFor(playerId, location);
+    }
+
+    private synchronized void quit(UUID playerId) {
+        if (!enabled) {
+            return;
+        }
+        Integer slot = slots.remove(playerId);
+        if (slot == null) {
+            return;
+        }
+        usedSlots.clear(slot);
+        slotPlayers[slot] = null;
+
+        ByteBuffer out = reserve(TraceFormat.QUIT_RECORD_SIZE);
+        if (out != null) {
+            TraceFormat.writeQuit(out, slot, tick());
+            rotateIfFull();
+        }
+    }
+
+    private synchronized void position(TraceEventType type, UUID playerId, Location location) {
+        if (!enabled) {
+            return;
+        }
+        Integer slot = slots.get(playerId);
+        if (slot == null) {
+            // Игрок вошел до включения записи и не был объявлен
+            slotFor(playerId, location);
+            if (type == TraceEventType.MOVE) {
+                return;
+            }
+            slot = slots.get(playerId);
+            if (slot == null) {
+                return;
+            }
+        }
+        writePosition(type, slot, location);
+    }
+
+    /**
+     * Выделить слот игроку и записать вход
+     */
+    private void slotFor(UUID playerId, Location location) {
+        int slot = usedSlots.nextClearBit(0);
+        if (slot >= TraceFormat.MAX_SLOTS) {
+            dropped++;
+            return;
+        }
+        int world = worldIndex(location);
+        if (world < 0) {
+            return;
+        }
+        ensureSlotCapacity(slot + 1);
+        usedSlots.set(slot);
+        slots.put(playerId, slot);
+        slotPlayers[slot] = playerId;
+        remember(slot, world, location);
+
+        ByteBuffer out = reserve(TraceFormat.JOIN_RECORD_SIZE);
+        if (out != null) {
+            TraceFormat.writeJoin(out, slot, tick(), playerId, world, location.getX(), location.getY(), location.getZ());
+            rotateIfFull();
+        }
+    }
+
+    private void writePosition(TraceEventType type, int slot, Location location) {
+        int world = worldIndex(location);
+        if (world < 0) {
+            return;
+        }
+        remember(slot, world, location);
+
+        ByteBuffer out = reserve(TraceFormat.POSITION_RECORD_SIZE);
+        if (out != null) {
+            TraceFormat.writePosition(out, type, slot, tick(), world, location.getX(), location.getY(), location.getZ());
+            rotateIfFull();
+        }
+    }
+
+    private int tick() {
+        return (int) plugin.getCurrentTick();
+    }
+
+    private void remember(int slot, int world, Location location) {
+        slotWorlds[slot] = world;
+        slotX[slot] = location.getX();
+        slotY[slot] = location.getY();
+        slotZ[slot] = location.getZ();
+    }
+
+    /**
+     * Индекс мира в трассе; новый мир объявляется записью WORLD
+     *
+     * @return -1, если миров больше, чем помещается в формат
+     */
+    private int worldIndex(Location location) {
+        String name = location.getWorld().getName();
+        Integer index = worlds.get(name);
+        if (index != null) {
+            return index;
+        }
+        if (worldNames.size() >= TraceFormat.MAX_WORLDS) {
+            dropped++;
+            return -1;
+        }
+
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > TraceFormat.MAX_WORLD_NAME) {
+            bytes = Arrays.copyOf(bytes, TraceFormat.MAX_WORLD_NAME);
+        }
+        int world = worldNames.size();
+        worlds.put(name, world);
+        worldNames.add(bytes);
+
+        ByteBuffer out = reserve(TraceFormat.WORLD_RECORD_HEADER + bytes.length);
+        if (out != null) {
+            TraceFormat.writeWorld(out, world, bytes);
+        }
+        return world;
+    }
+
+    private void ensureSlotCapacity(int capacity) {
+        if (capacity <= slotPlayers.length) {
+            return;
+        }
+        int size = Math.min(TraceFormat.MAX_SLOTS, Math.max(capacity, slotPlayers.length * 2));
+        slotPlayers = Arrays.copyOf(slotPlayers, size);
+        slotWorlds = Arrays.copyOf(slotWorlds, size);
+        slotX = Arrays.copyOf(slotX, size);
+        slotY = Arrays.copyOf(slotY, size);
+        slotZ = Arrays.copyOf(slotZ, size);
+    }
+
+    /**
+     * Получить буфер с местом под запись
+     *
+     * @return null, если свободных буферов нет и запись отброшена
+     */
+    private ByteBuffer reserve(int size) {
+        if (buffer != null && buffer.remaining() < size) {
+            filled.offer(buffer);
+            buffer = null;
+        }
+        if (buffer == null) {
+            buffer = free.poll();
+            if (buffer == null) {
+                dropped++;
+                return null;
+            }
+        }
+        fileBytes += size;
+        recorded++;
+        return buffer;
+    }
+
+    private void rotateIfFull() {
+        if (fileBytes >= maxFileBytes) {
+            beginFile();
+        }
+    }
+
+    /**
+     * Начать новый файл: заголовок, объявления миров и игроков в сети
+     */
+    private void beginFile() {
+        if (buffer != null && buffer.position() > 0) {
+            filled.offer(buffer);
+            buffer = null;
+        }
+        filled.offer(ROTATE);
+        fileBytes = 0;
+
+        ByteBuffer out = reserve(TraceFormat.HEADER_SIZE);
+        if (out != null) {
+            TraceFormat.writeHeader(out, System.currentTimeMillis());
+        }
+        for (int world = 0; world < worldNames.size(); world++) {
+            byte[] name = worldNames.get(world);
+            out = reserve(TraceFormat.WORLD_RECORD_HEADER + name.length);
+            if (out != null) {
+                TraceFormat.writeWorld(out, world, name);
+            }
+        }
+        for (int slot = usedSlots.nextSetBit(0); slot >= 0; slot = usedSlots.nextSetBit(slot + 1)) {
+            out = reserve(TraceFormat.JOIN_RECORD_SIZE);
+            if (out != null) {
+                TraceFormat.writeJoin(out, slot, tick(), slotPlayers[slot], slotWorlds[slot],
+                    slotX[slot], slotY[slot], slotZ[slot]);
+            }
+        }
+    }
+
+    /**
+     * Передать частично заполненный буфер потоку записи
+     */
+    private synchronized void flush() {
+        if (buffer != null && buffer.position() > 0) {
+            filled.offer(buffer);
+            buffer = free.poll();
+        }
+    }
+
+    /**
+     * Цикл потока записи
+     */
+    private void writeLoop() {
+        FileChannel channel = null;
+        try {
+            while (true) {
+                ByteBuffer next = filled.take();
+                if (next == STOP) {
+                    break;
+                }
+                if (next == ROTATE) {
+                    if (channel != null) {
+                        channel.close();
+                    }
+                    channel = openNextFile();
+                    continue;
+                }
+
+                next.flip();
+                while (next.hasRemaining()) {
+                    channel.write(next);
+                }
+                next.clear();
+                free.offer(next);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.error("Ошибка записи трассы перемещений, запись остановлена: " + e.getMessage());
+            enabled = false;
+        } finally {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    logger.warn("Не удалось закрыть файл трассы: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Открыть следующий файл трассы и удалить старые сверх лимита
+     */
+    private FileChannel openNextFile() throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(String.format("trace-%s-%04d.rmt", session, fileIndex++));
+
+        List<Path> existing = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "trace-*.rmt")) {
+            for (Path path : stream) {
+                existing.add(path);
+            }
+        }
+        // Имена упорядочены по времени создания
+        existing.sort(null);
+        for (int i = 0; i < existing.size() - (maxFiles - 1); i++) {
+            Files.deleteIfExists(existing.get(i));
+        }
+
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Проверить, идет ли запись
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Получить число записанных событий
+     */
+    public synchronized long getRecordedCount() {
+        return recorded;
+    }
+
+    /**
+     * Получить число отброшенных событий
+     */
+    public synchronized long getDroppedCount() {
+        return dropped;
+    }
+
+    /**
+     * Остановить запись и дождаться потока записи
+     */
+    public void shutdown() {
+        stop();
+        Thread thread;
+        synchronized (this) {
+            thread = writer;
+            writer = null;
+        }
+        if (thread == null) {
+            return;
+        }
+        filled.offer(STOP);
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
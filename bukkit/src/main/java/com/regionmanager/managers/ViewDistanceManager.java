@@ -0,0 +1,196 @@
+package com.regionmanager.managers;
+
+import com.regionmanager.RegionManagerPlugin;
+import com.regionmanager.region.Region;
+import com.regionmanager.utils.Logger;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Менеджер дальности прорисовки и симуляции игроков
+ *
+ * Уменьшает серверные view/simulation distance игроков в перегруженных регионах
+ * и при высоком MSPT. Уменьшение применяется сразу, а восстановление идет по одному
+ * чанку за проход и только после паузы и с запасом по нагрузке (гистерезис), чтобы
+ * дальность не колебалась на границе порога. Дальности выставляются в потоке,
+ * владеющем игроком.
+ */
+public class ViewDistanceManager {
+
+    private final RegionManagerPlugin plugin;
+    private final Logger logger;
+    // Дальности, выставленные игрокам этим менеджером
+    private final Map<UUID, ViewState> states;
+    private final boolean enabled;
+    private final int minViewDistance;
+    private final int minSimulationDistance;
+    private final double regionStartMs;
+    private final double regionFullMs;
+    private final double hysteresis;
+    private final long restoreDelayMs;
+
+    /**
+     * Конструктор менеджера
+     */
+    public ViewDistanceManager(RegionManagerPlugin plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getPluginLogger();
+        this.states = new HashMap<>();
+
+        // Загрузка конфигурации
+        this.enabled = plugin.getConfig().getBoolean("view-distance.enabled", true);
+        this.minViewDistance = Math.max(2, plugin.getConfig().getInt("view-distance.min-view-distance", 4));
+        this.minSimulationDistance = Math.max(2, plugin.getConfig().getInt("view-distance.min-simulation-distance", 3));
+        this.regionStartMs = plugin.getConfig().getDouble("view-distance.region-start-ms", 8.0);
+        this.regionFullMs = plugin.getConfig().getDouble("view-distance.region-full-ms", 20.0);
+        this.hysteresis = plugin.getConfig().getDouble("view-distance.hysteresis", 0.15);
+        this.restoreDelayMs = plugin.getConfig().getLong("view-distance.restore-delay-seconds", 30) * 1000L;
+
+        if (enabled) {
+            int interval = plugin.getConfig().getInt("view-distance.interval", 100);
+            plugin.getTaskScheduler().runGlobalTimer(this::update, interval, interval);
+        }
+
+        logger.info("ViewDistanceManager инициализирован");
+    }
+
+    /**
+     * Пересчитать дальности всех игроков
+     */
+    private void update() {
+        double globalPressure = plugin.getPerformanceManager().getLoadPressure();
+        double averageTickMs = plugin.getPerformanceManager().getAverageTickTime();
+        long now = System.currentTimeMillis();
+
+        states.keySet().removeIf(playerId -> plugin.getServer().getPlayer(playerId) == null);
+
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            Region region = plugin.getRegionManager().getPlayerRegion(player);
+            double regionPressure = 0.0;
+            if (region != null) {
+                double regionMs = region.getCost().getEstimatedTickMs(averageTickMs);
+                regionPressure = clamp((regionMs - regionStartMs) / Math.max(0.001, regionFullMs - regionStartMs));
+            }
+
+            apply(player, Math.max(globalPressure, regionPressure), now);
+        }
+    }
+
+    /**
+     * Применить дальности к игроку по нагрузке
+     */
+    private void apply(Player player, double load, long now) {
+        World world = player.getWorld();
+        int baseView = world.getViewDistance();
+        int baseSimulation = world.getSimulationDistance();
+
+        ViewState state = states.get(player.getUniqueId());
+        int currentView = state != null ? state.viewDistance : baseView;
+        int currentSimulation = state != null ? state.simulationDistance : baseSimulation;
+
+        int view = currentView;
+        int simulation = currentSimulation;
+
+        int shrinkView = scale(baseView, minViewDistance, load);
+        int shrinkSimulation = scale(baseSimulation, minSimulationDistance, load);
+        if (shrinkView < currentView || shrinkSimulation < currentSimulation) {
+            // Уменьшение сразу до целевого значения
+            view = Math.min(currentView, shrinkView);
+            simulation = Math.min(currentSimulation, shrinkSimulation);
+        } else if (state != null && now - state.lastShrink >= restoreDelayMs) {
+            // Восстановление постепенно и с запасом по нагрузке
+            double restoreLoad = clamp(load + hysteresis);
+            if (scale(baseView, minViewDistance, restoreLoad) > currentView) {
+                view = currentView + 1;
+            }
+            if (scale(baseSimulation, minSimulationDistance, restoreLoad) > currentSimulation) {
+                simulation = currentSimulation + 1;
+            }
+        }
+
+        simulation = Math.min(simulation, view);
+        if (view == currentView && simulation == currentSimulation) {
+            if (state != null && view >= baseView && simulation >= baseSimulation) {
+                states.remove(player.getUniqueId());
+            }
+            return;
+        }
+
+        int targetView = view;
+        int targetSimulation = simulation;
+        plugin.getTaskScheduler().runForEntity(player, () -> {
+            if (targetView != player.getViewDistance()) {
+                player.setViewDistance(targetView);
+            }
+            if (targetSimulation != player.getSimulationDistance()) {
+                player.setSimulationDistance(targetSimulation);
+            }
+        });
+
+        if (view >= baseView && simulation >= baseSimulation) {
+            states.remove(player.getUniqueId());
+            logger.debug("Дальность игрока " + player.getName() + " восстановлена");
+            return;
+        }
+
+        long lastShrink = view < currentView || simulation < currentSimulation ? now : state.lastShrink;
+        states.put(player.getUniqueId(), new ViewState(view, simulation, lastShrink));
+        logger.debug("Дальность игрока " + player.getName() + ": view " + view + ", simulation " + simulation +
+            " (нагрузка " + String.format("%.2f", load) + ")");
+    }
+
+    /**
+     * Дальность между базовой и минимальной по нагрузке
+     */
+    private int scale(int base, int min, double load) {
+        if (base <= min) {
+            return base;
+        }
+        return base - (int) Math.round(load * (base - min));
+    }
+
+    private double clamp(double value) {
+        return Math.max(0.0, Math.min(1.0, value));
+    }
+
+    /**
+     * Получить количество игроков с уменьшенной дальностью
+     */
+    public int getReducedPlayerCount() {
+        return states.size();
+    }
+
+    /**
+     * Завершить работу менеджера и вернуть игрокам дальности мира
+     */
+    public void shutdown() {
+        for (UUID playerId : states.keySet()) {
+            Player player = plugin.getServer().getPlayer(playerId);
+            if (player != null) {
+                player.setViewDistance(player.getWorld().getViewDistance());
+                player.setSimulationDistance(player.getWorld().getSimulationDistance());
+            }
+        }
+        states.clear();
+        logger.info("ViewDistanceManager завершил работу");
+    }
+
+    /**
+     * Дальности, выставленные игроку
+     */
+    private static class ViewState {
+        final int viewDistance;
+        final int simulationDistance;
+        final long lastShrink;
+
+        ViewState(int viewDistance, int simulationDistance, long lastShrink) {
+            this.viewDistance = viewDistance;
+            this.simulationDistance = simulationDistance;
+            this.lastShrink = lastShrink;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.regionmanager.persistence;
+
+import com.regionmanager.engine.ChunkShape;
+
+/**
+ * Событие изменения региона для журнала упреждающей записи
+ */
+public class JournalEntry {
+
+    /**
+     * Тип события журнала
+     */
+    public enum Type {
+        CREATE(1),
+        EXPAND(2),
+        MERGE(3),
+        FORCED(4),
+        REMOVE(5),
+        SHAPE(6),
+        DEACTIVATE(7),
+        // Служебное событие: записать снимок и усечь журнал
+        COMPACT(-1),
+        // Служебное событие: остановить поток записи
+        STOP(-2);
+
+        private final byte code;
+
+        Type(int code) {
+            this.code = (byte) code;
+        }
+
+        public byte getCode() {
+            return code;
+        }
+
+        public static Type fromCode(byte code) {
+            for (Type type : values()) {
+                if (type.code == code && code > 0) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Type type;
+    private final String regionId;
+    private final String targetId;
+    private final int value;
+    private final RegionRecord record;
+    private final RegionSnapshot snapshot;
+    private final ChunkShape shape;
+
+    private JournalEntry(Type type, String regionId, String targetId, int value,
+                         RegionRecord record, RegionSnapshot snapshot) {
+        this(type, regionId, targetId, value, record, snapshot, null);
+    }
+
+    private JournalEntry(Type type, String regionId, String targetId, int value,
+                         RegionRecord record, RegionSnapshot snapshot, ChunkShape shape) {
+        this.type = type;
+        this.regionId = regionId;
+        this.targetId = targetId;
+        this.value = value;
+        this.record = record;
+        this.snapshot = snapshot;
+        this.shape = shape;
+    }
+
+    /**
+     * Создание региона; value хранит значение счетчика регионов
+     */
+    public static JournalEntry create(RegionRecord record, int regionCounter) {
+        return new JournalEntry(Type.CREATE, record.getId(), null, regionCounter, record, null);
+    }
+
+    /**
+     * Изменение размера региона
+     */
+    public static JournalEntry expand(String regionId, int newSize) {
+        return new JournalEntry(Type.EXPAND, regionId, null, newSize, null, null);
+    }
+
+    /**
+     * Поглощение региона regionId регионом targetId
+     */
+    public static JournalEntry merge(String regionId, String targetId) {
+        return new JournalEntry(Type.MERGE, regionId, targetId, 0, null, null);
+    }
+
+    /**
+     * Изменение флага принудительного региона
+     */
+    public static JournalEntry forced(String regionId, boolean forced) {
+        return new JournalEntry(Type.FORCED, regionId, null, forced ? 1 : 0, null, null);
+    }
+
+    /**
+     * Удаление региона
+     */
+    public static JournalEntry remove(String regionId) {
+        return new JournalEntry(Type.REMOVE, regionId, null, 0, null, null);
+    }
+
+    /**
+     * Изменение формы региона (не квадрат по центру и размеру)
+     */
+    public static JournalEntry shape(String regionId, ChunkShape shape) {
+        return new JournalEntry(Type.SHAPE, regionId, null, 0, null, null, shape);
+    }
+
+    /**
+     * Выгрузка (деактивация) региона
+     */
+    public static JournalEntry deactivate(String regionId) {
+        return new JournalEntry(Type.DEACTIVATE, regionId, null, 0, null, null);
+    }
+
+    static JournalEntry compact(RegionSnapshot snapshot) {
+        return new JournalEntry(Type.COMPACT, null, null, 0, null, snapshot);
+    }
+
+    static JournalEntry stop() {
+        return new JournalEntry(Type.STOP, null, null, 0, null, null);
+    }
+
+    // Геттеры
+    public Type getType() { return type; }
+    public String getRegionId() { return regionId; }
+    public String getTargetId() { return targetId; }
+    public int getValue() { return value; }
+    public RegionRecord getRecord() { return record; }
+    public RegionSnapshot getSnapshot() { return snapshot; }
+    public ChunkShape getShape() { return shape; }
+}
@@ -0,0 +1,418 @@
+package com.regionmanager.persistence;
+
+import com.regionmanager.engine.ChunkShape;
+import com.regionmanager.utils.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Журнал упреждающей записи изменений регионов
+ *
+ * События добавляются в очередь на главном потоке и записываются фоновым потоком
+ * через FileChannel пачками: одна операция force на пачку (групповая фиксация).
+ * Каждая запись: длина, CRC32 и полезная нагрузка, поэтому оборванный хвост
+ * после сбоя обнаруживается и отбрасывается при воспроизведении.
+ */
+public class RegionJournal {
+
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_BATCH_SIZE = 256;
+
+    private final File file;
+    private final RegionSnapshotStore snapshotStore;
+    private final Logger logger;
+    private final long groupCommitMs;
+    private final long compactThresholdBytes;
+    private final BlockingQueue<JournalEntry> queue;
+    private final AtomicLong journalSize;
+    private final AtomicBoolean compactionPending;
+    private FileChannel channel;
+    private Thread writerThread;
+
+    /**
+     * Конструктор журнала
+     */
+    public RegionJournal(File file, RegionSnapshotStore snapshotStore, Logger logger,
+                         long groupCommitMs, long compactThresholdBytes) {
+        this.file = file;
+        this.snapshotStore = snapshotStore;
+        this.logger = logger;
+        this.groupCommitMs = groupCommitMs;
+        this.compactThresholdBytes = compactThresholdBytes;
+        this.queue = new LinkedBlockingQueue<>();
+        this.journalSize = new AtomicLong(0);
+        this.compactionPending = new AtomicBoolean(false);
+    }
+
+    /**
+     * Воспроизвести журнал поверх записей снимка
+     *
+     * @param records записи регионов по идентификатору, изменяются на месте
+     * @return максимальное значение счетчика регионов из журнала
+     */
+    public int replay(Map<String, RegionRecord> records) throws IOException {
+        if (!file.exists()) {
+            return 0;
+        }
+
+        int regionCounter = 0;
+        int applied = 0;
+        long validLength = 0;
+
+        try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            CRC32 crc = new CRC32();
+
+            while (true) {
+                header.clear();
+                if (!readFully(in, header)) {
+                    break;
+                }
+                header.flip();
+                int length = header.getInt();
+                int checksum = header.getInt();
+                if (length <= 0 || length > in.size()) {
+                    break;
+                }
+
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                if (!readFully(in, payload)) {
+                    break;
+                }
+
+                crc.reset();
+                crc.update(payload.array(), 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+
+                regionCounter = Math.max(regionCounter, apply(payload.array(), records));
+                validLength += HEADER_SIZE + length;
+                applied++;
+            }
+        }
+
+        if (validLength < file.length()) {
+            logger.warn("Журнал регионов содержит оборванную запись, хвост будет отброшен");
+            try (FileChannel out = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                out.truncate(validLength);
+            }
+        }
+
+        if (applied > 0) {
+            logger.info("Воспроизведено " + applied + " событий журнала регионов");
+        }
+        return regionCounter;
+    }
+
+    /**
+     * Открыть журнал и запустить фоновый поток записи
+     */
+    public void start() throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        channel = FileChannel.open(file.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        channel.position(channel.size());
+        journalSize.set(channel.size());
+
+        writerThread = new Thread(this::writerLoop, "RegionManager-Journal");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Добавить событие в журнал; запись на диск выполняется фоновым потоком
+     */
+    public void append(JournalEntry entry) {
+        queue.offer(entry);
+    }
+
+    /**
+     * Проверить, превысил ли журнал порог уплотнения
+     */
+    public boolean needsCompaction() {
+        return journalSize.get() >= compactThresholdBytes && !compactionPending.get();
+    }
+
+    /**
+     * Уплотнить журнал: записать снимок и усечь журнал
+     * Снимок должен быть снят на главном потоке: все события до него уже в очереди,
+     * поэтому после усечения журнал содержит только более поздние изменения
+     */
+    public void compact(RegionSnapshot snapshot) {
+        compactionPending.set(true);
+        queue.offer(JournalEntry.compact(snapshot));
+    }
+
+    /**
+     * Записать финальный снимок и остановить поток записи
+     */
+    public void close(RegionSnapshot finalSnapshot) {
+        if (writerThread == null) {
+            return;
+        }
+
+        compact(finalSnapshot);
+        queue.offer(JournalEntry.stop());
+
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (writerThread.isAlive()) {
+            logger.warn("Поток записи журнала регионов не завершился вовремя");
+        }
+        writerThread = null;
+    }
+
+    /**
+     * Цикл фонового потока записи
+     */
+    private void writerLoop() {
+        List<JournalEntry> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        CRC32 crc = new CRC32();
+        boolean running = true;
+
+        while (running) {
+            try {
+                batch.add(queue.take());
+                // Ждем немного, чтобы собрать в одну фиксацию несколько событий
+                if (groupCommitMs > 0) {
+                    Thread.sleep(groupCommitMs);
+                }
+                queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+
+                ByteBuffer buffer = null;
+                for (JournalEntry entry : batch) {
+                    switch (entry.getType()) {
+                        case COMPACT:
+                            // Сначала сбрасываем накопленное, затем уплотняем
+                            buffer = flush(buffer);
+                            try {
+                                writeSnapshotAndTruncate(entry.getSnapshot());
+                            } catch (IOException e) {
+                                // Журнал не усечен, поэтому изменения сохранятся при следующем запуске
+                                logger.error("Ошибка записи снимка регионов при уплотнении журнала: " + e.getMessage());
+                            }
+                            break;
+                        case STOP:
+                            running = false;
+                            break;
+                        default:
+                            bytes.reset();
+                            encode(entry, out);
+                            out.flush();
+                            buffer = appendFrame(buffer, bytes, crc);
+                            break;
+                    }
+                }
+                flush(buffer);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (IOException e) {
+                logger.error("Ошибка записи журнала регионов: " + e.getMessage());
+            } finally {
+                // Остановка не должна теряться, даже если запись пачки прервалась ошибкой
+                for (JournalEntry entry : batch) {
+                    if (entry.getType() == JournalEntry.Type.STOP) {
+                        running = false;
+                    }
+                }
+                batch.clear();
+            }
+        }
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.error("Ошибка закрытия журнала регионов: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Добавить запись с заголовком в буфер пачки
+     */
+    private ByteBuffer appendFrame(ByteBuffer buffer, ByteArrayOutputStream bytes, CRC32 crc) {
+        int length = bytes.size();
+        int required = HEADER_SIZE + length;
+
+        if (buffer == null) {
+            buffer = ByteBuffer.allocate(Math.max(4096, required));
+        } else if (buffer.remaining() < required) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + required));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+
+        byte[] payload = bytes.toByteArray();
+        crc.reset();
+        crc.update(payload, 0, length);
+        buffer.putInt(length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(payload);
+        return buffer;
+    }
+
+    /**
+     * Записать пачку и зафиксировать ее одной операцией force
+     */
+    private ByteBuffer flush(ByteBuffer buffer) throws IOException {
+        if (buffer == null || buffer.position() == 0) {
+            return buffer;
+        }
+
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            journalSize.addAndGet(channel.write(buffer));
+        }
+        channel.force(false);
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Записать снимок и усечь журнал
+     */
+    private void writeSnapshotAndTruncate(RegionSnapshot snapshot) throws IOException {
+        try {
+            snapshotStore.write(snapshot);
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(true);
+            journalSize.set(0);
+        } finally {
+            compactionPending.set(false);
+        }
+    }
+
+    /**
+     * Закодировать событие
+     */
+    private void encode(JournalEntry entry, DataOutputStream out) throws IOException {
+        out.writeByte(entry.getType().getCode());
+        switch (entry.getType()) {
+            case CREATE:
+                out.writeInt(entry.getValue());
+                RegionSnapshotStore.writeRecord(out, entry.getRecord());
+                break;
+            case MERGE:
+                out.writeUTF(entry.getRegionId());
+                out.writeUTF(entry.getTargetId());
+                break;
+            case EXPAND:
+            case FORCED:
+                out.writeUTF(entry.getRegionId());
+                out.writeInt(entry.getValue());
+                break;
+            case REMOVE:
+            case DEACTIVATE:
+                out.writeUTF(entry.getRegionId());
+                break;
+            case SHAPE:
+                out.writeUTF(entry.getRegionId());
+                RegionSnapshotStore.writeShape(out, entry.getShape());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Применить закодированное событие к записям регионов
+     *
+     * @return значение счетчика регионов из события создания или 0
+     */
+    private int apply(byte[] payload, Map<String, RegionRecord> records) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        JournalEntry.Type type = JournalEntry.Type.fromCode(in.readByte());
+        if (type == null) {
+            return 0;
+        }
+
+        switch (type) {
+            case CREATE: {
+                int regionCounter = in.readInt();
+                RegionRecord record = RegionSnapshotStore.readRecord(in);
+                records.put(record.getId(), record);
+                return regionCounter;
+            }
+            case EXPAND: {
+                String id = in.readUTF();
+                int size = in.readInt();
+                records.computeIfPresent(id, (k, record) -> record.withSize(size));
+                return 0;
+            }
+            case FORCED: {
+                String id = in.readUTF();
+                boolean forced = in.readInt() != 0;
+                records.computeIfPresent(id, (k, record) -> record.withForced(forced));
+                return 0;
+            }
+            case SHAPE: {
+                String id = in.readUTF();
+                ChunkShape shape = RegionSnapshotStore.readShape(in);
+                if (shape != null) {
+                    records.computeIfPresent(id, (k, record) -> record.withShape(shape));
+                }
+                return 0;
+            }
+            case MERGE:
+            case REMOVE:
+                records.remove(in.readUTF());
+                return 0;
+            case DEACTIVATE: {
+                // Как в снимке: неактивные регионы сохраняются, только если они принудительные
+                String id = in.readUTF();
+                records.computeIfPresent(id, (k, record) -> record.isForced() ? record : null);
+                return 0;
+            }
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Прочитать буфер полностью
+     *
+     * @return false, если файл закончился раньше
+     */
+    private static boolean readFully(FileChannel in, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getJournalSize() {
+        return journalSize.get();
+    }
+}
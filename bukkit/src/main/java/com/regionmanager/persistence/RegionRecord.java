@@ -0,0 +1,118 @@
+package com.regionmanager.persistence;
+
+import com.regionmanager.engine.ChunkShape;
+import com.regionmanager.region.Region;
+import org.bukkit.Location;
+
+/**
+ * Сохраняемое описание региона
+ * Не зависит от загруженности мира, поэтому может храниться до его появления
+ */
+public class RegionRecord {
+
+    private final String id;
+    private final String worldName;
+    private final int x;
+    private final int y;
+    private final int z;
+    private final int size;
+    private final boolean forced;
+    private final long creationTime;
+    private final long lastActivityTime;
+    private final int peakPlayerCount;
+    private final ChunkShape shape;
+
+    /**
+     * Конструктор записи квадратного региона
+     */
+    public RegionRecord(String id, String worldName, int x, int y, int z, int size, boolean forced,
+                        long creationTime, long lastActivityTime, int peakPlayerCount) {
+        this(id, worldName, x, y, z, size, forced, creationTime, lastActivityTime, peakPlayerCount, null);
+    }
+
+    /**
+     * Конструктор записи региона
+     *
+     * @param shape форма по границам чанков или null для квадрата по центру и размеру
+     */
+    public RegionRecord(String id, String worldName, int x, int y, int z, int size, boolean forced,
+                        long creationTime, long lastActivityTime, int peakPlayerCount, ChunkShape shape) {
+        this.id = id;
+        this.worldName = worldName;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.size = size;
+        this.forced = forced;
+        this.creationTime = creationTime;
+        this.lastActivityTime = lastActivityTime;
+        this.peakPlayerCount = peakPlayerCount;
+        this.shape = shape;
+    }
+
+    /**
+     * Снять запись с существующего региона
+     */
+    public static RegionRecord fromRegion(Region region) {
+        Location center = region.getCenter();
+        return new RegionRecord(
+            region.getId(),
+            region.getWorld().getName(),
+            center.getBlockX(),
+            center.getBlockY(),
+            center.getBlockZ(),
+            region.getSize(),
+            region.isForcedRegion(),
+            region.getCreationTime(),
+            region.getLastActivityTime(),
+            region.getPeakPlayerCount(),
+            region.getShape()
+        );
+    }
+
+    /**
+     * Копия записи с другим размером
+     * Форма меняется так же, как при расширении региона: набор чанков становится прямоугольником
+     */
+    public RegionRecord withSize(int newSize) {
+        if (shape == null) {
+            return new RegionRecord(id, worldName, x, y, z, newSize, forced, creationTime, lastActivityTime, peakPlayerCount);
+        }
+        return withShape(shape.resize(newSize));
+    }
+
+    /**
+     * Копия записи с другой формой; центр и размер берутся из формы
+     */
+    public RegionRecord withShape(ChunkShape newShape) {
+        return new RegionRecord(id, worldName, newShape.getCenterX(), y, newShape.getCenterZ(), newShape.getSize(),
+            forced, creationTime, lastActivityTime, peakPlayerCount, newShape);
+    }
+
+    /**
+     * Отличается ли форма от квадрата, который восстанавливается по центру и размеру
+     */
+    public boolean hasCustomShape() {
+        return shape != null && !shape.equals(ChunkShape.square(x, z, size));
+    }
+
+    /**
+     * Копия записи с другим флагом принудительного региона
+     */
+    public RegionRecord withForced(boolean newForced) {
+        return new RegionRecord(id, worldName, x, y, z, size, newForced, creationTime, lastActivityTime, peakPlayerCount, shape);
+    }
+
+    // Геттеры
+    public String getId() { return id; }
+    public String getWorldName() { return worldName; }
+    public int getX() { return x; }
+    public int getY() { return y; }
+    public int getZ() { return z; }
+    public int getSize() { return size; }
+    public boolean isForced() { return forced; }
+    public long getCreationTime() { return creationTime; }
+    public long getLastActivityTime() { return lastActivityTime; }
+    public int getPeakPlayerCount() { return peakPlayerCount; }
+    public ChunkShape getShape() { return shape; }
+}
@@ -0,0 +1,28 @@
+package com.regionmanager.persistence;
+
+import java.util.List;
+
+/**
+ * Снимок раскладки регионов: записи регионов и значение счетчика идентификаторов
+ */
+public class RegionSnapshot {
+
+    private final int regionCounter;
+    private final List<RegionRecord> records;
+
+    /**
+     * Конструктор снимка
+     */
+    public RegionSnapshot(int regionCounter, List<RegionRecord> records) {
+        this.regionCounter = regionCounter;
+        this.records = records;
+    }
+
+    public int getRegionCounter() {
+        return regionCounter;
+    }
+
+    public List<RegionRecord> getRecords() {
+        return records;
+    }
+}
@@ -0,0 +1,193 @@
+package com.regionmanager.persistence;
+
+import com.regionmanager.engine.ChunkShape;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Хранилище снимков раскладки регионов в компактном бинарном формате
+ *
+ * Формат файла: магическое число, версия, счетчик регионов, количество записей,
+ * затем записи регионов фиксированной структуры. С версии 2 за каждой записью
+ * следует форма региона по чанкам; снимки версии 1 читаются как квадраты.
+ */
+public class RegionSnapshotStore {
+
+    private static final int MAGIC = 0x524D5253; // "RMRS"
+    private static final short VERSION = 2;
+
+    private final File file;
+
+    /**
+     * Конструктор хранилища
+     */
+    public RegionSnapshotStore(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Записать снимок
+     * Запись идет во временный файл, который затем атомарно заменяет основной,
+     * чтобы сбой во время записи не повредил предыдущий снимок
+     */
+    public void write(RegionSnapshot snapshot) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        File tempFile = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tempFile.toPath())))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(snapshot.getRegionCounter());
+            out.writeInt(snapshot.getRecords().size());
+
+            for (RegionRecord record : snapshot.getRecords()) {
+                writeRecord(out, record);
+                writeShape(out, record.getShape());
+            }
+        }
+
+        try {
+            Files.move(tempFile.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Прочитать снимок
+     *
+     * @return снимок или null, если файл отсутствует
+     */
+    public RegionSnapshot read() throws IOException {
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Файл " + file.getName() + " не является снимком регионов");
+            }
+
+            short version = in.readShort();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Неподдерживаемая версия снимка регионов: " + version);
+            }
+
+            int regionCounter = in.readInt();
+            int count = in.readInt();
+            List<RegionRecord> records = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                RegionRecord record = readRecord(in);
+                ChunkShape shape = version >= 2 ? readShape(in) : null;
+                records.add(shape != null ? record.withShape(shape) : record);
+            }
+
+            return new RegionSnapshot(regionCounter, records);
+        }
+    }
+
+    /**
+     * Записать одну запись региона
+     */
+    static void writeRecord(DataOutputStream out, RegionRecord record) throws IOException {
+        out.writeUTF(record.getId());
+        out.writeUTF(record.getWorldName());
+        out.writeInt(record.getX());
+        out.writeInt(record.getY());
+        out.writeInt(record.getZ());
+        out.writeInt(record.getSize());
+        out.writeBoolean(record.isForced());
+        out.writeLong(record.getCreationTime());
+        out.writeLong(record.getLastActivityTime());
+        out.writeInt(record.getPeakPlayerCount());
+    }
+
+    /**
+     * Прочитать одну запись региона
+     */
+    static RegionRecord readRecord(DataInputStream in) throws IOException {
+        String id = in.readUTF();
+        String worldName = in.readUTF();
+        int x = in.readInt();
+        int y = in.readInt();
+        int z = in.readInt();
+        int size = in.readInt();
+        boolean forced = in.readBoolean();
+        long creationTime = in.readLong();
+        long lastActivityTime = in.readLong();
+        int peakPlayerCount = in.readInt();
+        return new RegionRecord(id, worldName, x, y, z, size, forced, creationTime, lastActivityTime, peakPlayerCount);
+    }
+
+    /**
+     * Записать форму региона: флаг наличия, границы в чанках и маску набора
+     */
+    static void writeShape(DataOutputStream out, ChunkShape shape) throws IOException {
+        out.writeBoolean(shape != null);
+        if (shape == null) {
+            return;
+        }
+        out.writeInt(shape.getMinChunkX());
+        out.writeInt(shape.getMinChunkZ());
+        out.writeInt(shape.getWidth());
+        out.writeInt(shape.getDepth());
+        long[] mask = shape.getMask();
+        out.writeInt(mask != null ? mask.length : 0);
+        if (mask != null) {
+            for (long word : mask) {
+                out.writeLong(word);
+            }
+        }
+    }
+
+    /**
+     * Прочитать форму региона
+     *
+     * @return форма или null, если она не записана
+     */
+    static ChunkShape readShape(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        int minChunkX = in.readInt();
+        int minChunkZ = in.readInt();
+        int width = in.readInt();
+        int depth = in.readInt();
+        int maskLength = in.readInt();
+        if (width <= 0 || depth <= 0 || maskLength != 0 && maskLength != ((long) width * depth + 63) >> 6) {
+            throw new IOException("Поврежденная форма региона: " + width + "x" + depth + ", маска " + maskLength);
+        }
+        long[] mask = null;
+        if (maskLength > 0) {
+            mask = new long[maskLength];
+            for (int i = 0; i < maskLength; i++) {
+                mask[i] = in.readLong();
+            }
+        }
+        try {
+            return ChunkShape.of(minChunkX, minChunkZ, width, depth, mask);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Поврежденная форма региона: " + e.getMessage());
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+}
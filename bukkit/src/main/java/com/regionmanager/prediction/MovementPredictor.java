@@ -0,0 +1,583 @@
+package com.regionmanager.prediction;
+
+import com.regionmanager.RegionManagerPlugin;
+import com.regionmanager.engine.ResizeDebouncer;
+import com.regionmanager.motion.ErrorHistogram;
+import com.regionmanager.motion.MotionEstimate;
+import com.regionmanager.motion.MotionPredictor;
+import com.regionmanager.motion.PredictionTracker;
+import com.regionmanager.motion.PredictorMode;
+import com.regionmanager.motion.PredictorSettings;
+import com.regionmanager.motion.TransportMode;
+import com.regionmanager.motion.TransportProfile;
+import com.regionmanager.region.Region;
+import com.regionmanager.scheduler.TaskScheduler;
+import org.bukkit.Location;
+import org.bukkit.entity.AbstractHorse;
+import org.bukkit.entity.Boat;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Minecart;
+import org.bukkit.entity.Pig;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Strider;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Система предсказания движения игроков
+ * Предугадывает направление движения и адаптивно управляет регионами
+ *
+ * Позиция предсказывается подключаемой моделью (prediction.mode) по тикам плагина.
+ * Модели с оценкой неопределенности задают ширину коридора предзагрузки: регион
+ * расширяется до предсказанной точки плюс радиус неопределенности, а при слишком
+ * большой неопределенности предзагрузка не выполняется.
+ *
+ * Часть предсказаний проверяется по фактической позиции игрока: горизонт и
+ * дальность предсказания каждого игрока растут, пока предсказания сбываются,
+ * и сокращаются при промахах.
+ *
+ * Горизонт, дальность, ширина коридора и правила расширения задаются отдельно для
+ * каждого способа передвижения (prediction.transport): полет на элитрах
+ * предсказывается далеко вперед, а для пеших и неподвижных игроков предзагрузки нет.
+ *
+ * Расширение и сжатие регионов не применяются сразу: запросы копятся и применяются
+ * не чаще раза в prediction.resize.interval-ticks на регион, с полосами гистерезиса.
+ */
+public class MovementPredictor {
+    
+    private final RegionManagerPlugin plugin;
+    private final Map<UUID, PlayerMovementData> playerMovements;
+    private final Map<UUID, Location> lastPositions;
+    private final Map<UUID, Long> lastMoveTimes;
+    private final Map<UUID, MotionPredictor> predictors;
+    private final Map<UUID, PredictionTracker[]> trackers;
+    private final Map<UUID, TransportMode> transportModes;
+    // Игроки, для которых поиск целевого региона уже ждет глобального потока (Folia)
+    private final Set<UUID> pendingPreloads;
+    private final Map<TransportMode, TransportProfile> profiles;
+    private final ResizeDebouncer resizes;
+    private final ErrorHistogram globalAccuracy;
+    private final PredictorSettings predictorSettings;
+    private final int predictionDistance;
+    private final int predictionTimeSeconds;
+    private final double speedThreshold;
+    private final double maxUncertainty;
+    private final boolean adaptiveHorizon;
+    private final int minHorizonTicks;
+    private final int maxHorizonTicks;
+    private final int accuracySampleTicks;
+    private final double accuracyHitRadius;
+    private final double idleSpeed;
+    private final double fastSpeed;
+    
+    /**
+     * Конструктор предиктора движения
+     */
+    public MovementPredictor(RegionManagerPlugin plugin) {
+        this.plugin = plugin;
+        this.playerMovements = new ConcurrentHashMap<>();
+        this.lastPositions = new ConcurrentHashMap<>();
+        this.lastMoveTimes = new ConcurrentHashMap<>();
+        this.predictors = new ConcurrentHashMap<>();
+        this.trackers = new ConcurrentHashMap<>();
+        this.transportModes = new ConcurrentHashMap<>();
+        this.pendingPreloads = ConcurrentHashMap.newKeySet();
+        this.profiles = new EnumMap<>(TransportMode.class);
+        this.globalAccuracy = new ErrorHistogram();
+        
+        // Загрузка конфигурации
+        this.predictionDistance = plugin.getConfig().getInt("prediction.distance", 128);
+        this.predictionTimeSeconds = plugin.getConfig().getInt("prediction.time-seconds", 10);
+        this.speedThreshold = plugin.getConfig().getDouble("prediction.speed-threshold", 0.1);
+        this.maxUncertainty = plugin.getConfig().getDouble("prediction.max-uncertainty", 256.0);
+        this.predictorSettings = new PredictorSettings(
+            PredictorMode.parse(plugin.getConfig().getString("prediction.mode", "kalman-velocity"), PredictorMode.KALMAN_VELOCITY),
+            plugin.getConfig().getDouble("prediction.kalman.process-noise", 0.0005),
+            plugin.getConfig().getDouble("prediction.kalman.measurement-noise", 0.05),
+            plugin.getConfig().getDouble("prediction.kalman.confidence", 2.0),
+            plugin.getConfig().getInt("prediction.kalman.max-gap-ticks", 100));
+        this.adaptiveHorizon = plugin.getConfig().getBoolean("prediction.adaptive.enabled", true);
+        this.minHorizonTicks = plugin.getConfig().getInt("prediction.adaptive.min-seconds", 2) * 20;
+        this.maxHorizonTicks = plugin.getConfig().getInt("prediction.adaptive.max-seconds", 30) * 20;
+        this.accuracySampleTicks = plugin.getConfig().getInt("prediction.adaptive.sample-interval-ticks", 20);
+        this.accuracyHitRadius = plugin.getConfig().getDouble("prediction.adaptive.hit-radius", 16.0);
+        this.idleSpeed = plugin.getConfig().getDouble("prediction.transport.idle-speed", 0.5);
+        this.fastSpeed = plugin.getConfig().getDouble("prediction.transport.fast-speed", 12.0);
+        
+        this.resizes = new ResizeDebouncer(
+            plugin.getConfig().getInt("prediction.resize.interval-ticks", 100),
+            plugin.getConfig().getDouble("prediction.resize.grow-band", 0.1),
+            plugin.getConfig().getDouble("prediction.resize.shrink-band", 0.25),
+            plugin.getConfig().getInt("prediction.resize.shrink-cooldown-seconds", 60) * 20);
+        
+        // Профили способов передвижения; без своих значений - общие time-seconds и distance
+        for (TransportMode mode : TransportMode.values()) {
+            String path = "prediction.transport." + mode.getConfigName() + ".";
+            profiles.put(mode, new TransportProfile(
+                plugin.getConfig().getBoolean(path + "prefetch", mode.isDefaultPrefetch()),
+                plugin.getConfig().getInt(path + "time-seconds", predictionTimeSeconds) * 20,
+                plugin.getConfig().getDouble(path + "distance", predictionDistance),
+                plugin.getConfig().getDouble(path + "corridor", 1.0),
+                plugin.getConfig().getBoolean(path + "create-regions", mode.isDefaultCreateRegions())));
+        }
+        
+        startPredictionTask();
+        plugin.getLogger().info("MovementPredictor инициализирован (модель: " +
+            predictorSettings.getMode().getConfigName() + ")");
+    }
+    
+    /**
+     * Обработать движение игрока
+     */
+    public void onPlayerMove(Player player, Location from, Location to) {
+        UUID playerId = player.getUniqueId();
+        long currentTime = System.currentTimeMillis();
+        
+        // Сохранить текущую позицию; время прошлого движения читается до перезаписи
+        lastPositions.put(playerId, to);
+        Long lastMoveTime = lastMoveTimes.put(playerId, currentTime);
+        
+        // Вычислить скорость и направление
+        double distance = from.distance(to);
+        long timeDiff = lastMoveTime != null ? currentTime - lastMoveTime : 0;
+        
+        if (timeDiff > 0 && distance > speedThreshold) {
+            double speed = distance / (timeDiff / 1000.0); // блоков в секунду
+            
+            // Вычислить направление движения
+            double dx = to.getX() - from.getX();
+            double dz = to.getZ() - from.getZ();
+            double direction = Math.atan2(dz, dx);
+            
+            recordMovement(player, to, speed, direction, currentTime);
+        }
+    }
+    
+    /**
+     * Обработать позицию игрока из пакетной выборки
+     *
+     * Скорость и направление уже рассчитаны по пакету, поэтому здесь только
+     * обновляются данные игрока и проверяется предсказанная позиция.
+     */
+    public void onPositionSample(Player player, Location location, double distance,
+                                 double speed, double direction, long currentTime) {
+        if (distance <= speedThreshold) {
+            return;
+        }
+        
+        UUID playerId = player.getUniqueId();
+        lastPositions.put(playerId, location);
+        lastMoveTimes.put(playerId, currentTime);
+        recordMovement(player, location, speed, direction, currentTime);
+    }
+    
+    /**
+     * Обновить данные движения и проверить предсказанную позицию
+     */
+    private void recordMovement(Player player, Location location, double speed, double direction, long currentTime) {
+        // Обновить данные движения
+        PlayerMovementData movementData = playerMovements.computeIfAbsent(player.getUniqueId(), 
+            k -> new PlayerMovementData());
+        
+        movementData.updateMovement(speed, direction, location, currentTime);
+        
+        long tick = plugin.getCurrentTick();
+        UUID playerId = player.getUniqueId();
+        PredictionTracker[] modeTrackers = trackers.computeIfAbsent(playerId,
+            k -> new PredictionTracker[TransportMode.values().length]);
+        
+        // Проверить предсказания, срок которых наступил (в том числе сделанные в прежнем режиме)
+        for (PredictionTracker pending : modeTrackers) {
+            if (pending != null) {
+                pending.resolve(tick, location.getX(), location.getZ(), globalAccuracy);
+            }
+        }
+        
+        // Определить способ передвижения; при пересадке скорость меняется скачком
+        MotionPredictor predictor = predictors.computeIfAbsent(playerId, k -> predictorSettings.create());
+        TransportMode mode = classify(player, movementData);
+        TransportMode previousMode = transportModes.put(playerId, mode);
+        if (previousMode != null && previousMode != mode && !(previousMode.isOnFoot() && mode.isOnFoot())) {
+            predictor.reset();
+        }
+        predictor.observe(tick, location.getX(), location.getZ());
+        
+        TransportProfile profile = profiles.get(mode);
+        if (!profile.isPrefetch()) {
+            return;
+        }
+        
+        // Предсказать будущую позицию
+        PredictionTracker tracker = modeTrackers[mode.ordinal()];
+        if (tracker == null) {
+            tracker = createTracker(profile);
+            modeTrackers[mode.ordinal()] = tracker;
+        }
+        int horizonTicks = tracker.getHorizonTicks();
+        MotionEstimate estimate = predictor.predict(horizonTicks);
+        if (estimate == null) {
+            return;
+        }
+        
+        // Проверить, нужно ли предварительно загрузить регион
+        // (не выполняется, если движение слишком непредсказуемо)
+        Region prepared = null;
+        if (estimate.getUncertainty() <= maxUncertainty) {
+            prepared = checkAndPreloadRegion(player,
+                toPredictedLocation(location, estimate, profile.getMaxDistance() * tracker.getHorizonScale()),
+                estimate.getUncertainty() * profile.getCorridor(), profile.isCreateRegions());
+        }
+        
+        if (tracker.shouldSample(tick)) {
+            tracker.add(tick, horizonTicks, estimate, prepared != null ? prepared.getShape() : null);
+        }
+    }
+    
+    /**
+     * Определить способ передвижения игрока
+     *
+     * Полет на элитрах и транспорт определяются напрямую, остальное - по средней скорости.
+     */
+    private TransportMode classify(Player player, PlayerMovementData movementData) {
+        if (player.isGliding()) {
+            return TransportMode.ELYTRA;
+        }
+        
+        Entity vehicle = player.getVehicle();
+        if (vehicle instanceof Boat) {
+            return TransportMode.BOAT;
+        }
+        if (vehicle instanceof Minecart) {
+            return TransportMode.MINECART;
+        }
+        if (vehicle instanceof AbstractHorse || vehicle instanceof Pig || vehicle instanceof Strider) {
+            return TransportMode.MOUNT;
+        }
+        
+        return TransportMode.fromSpeed(movementData.getAverageSpeed(), idleSpeed, fastSpeed);
+    }
+    
+    /**
+     * Создать учет точности предсказаний игрока для профиля
+     */
+    private PredictionTracker createTracker(TransportProfile profile) {
+        int baseHorizon = profile.getHorizonTicks();
+        return adaptiveHorizon
+            ? new PredictionTracker(baseHorizon, minHorizonTicks, maxHorizonTicks, accuracySampleTicks, accuracyHitRadius)
+            : new PredictionTracker(baseHorizon, baseHorizon, baseHorizon, accuracySampleTicks, accuracyHitRadius);
+    }
+    
+    /**
+     * Перевести оценку в позицию, не дальше maxDistance от текущей
+     */
+    private Location toPredictedLocation(Location currentLocation, MotionEstimate estimate, double maxDistance) {
+        double dx = estimate.getX() - currentLocation.getX();
+        double dz = estimate.getZ() - currentLocation.getZ();
+        double distance = Math.sqrt(dx * dx + dz * dz);
+        if (distance > maxDistance) {
+            dx *= maxDistance / distance;
+            dz *= maxDistance / distance;
+        }
+        
+        return new Location(currentLocation.getWorld(), currentLocation.getX() + dx, currentLocation.getY(),
+            currentLocation.getZ() + dz);
+    }
+    
+    /**
+     * Проверить и предварительно загрузить регион
+     *
+     * На Folia движение обрабатывается в потоке региона игрока, а RegionManager
+     * изменяется только глобальным потоком, поэтому поиск, расширение и создание
+     * целевого региона переносятся в глобальную задачу (одна на игрока за раз).
+     *
+     * @param createRegions создать регион в предсказанной позиции, если рядом нет подходящего
+     * @return регион, подготовленный под предсказанную позицию, или null
+     */
+    private Region checkAndPreloadRegion(Player player, Location predictedLocation, double uncertainty,
+                                         boolean createRegions) {
+        Region currentRegion = plugin.getRegionManager().getPlayerRegion(player);
+        
+        if (currentRegion != null && currentRegion.contains(predictedLocation)) {
+            // Игрок останется в том же регионе
+            return currentRegion;
+        }
+        
+        TaskScheduler scheduler = plugin.getTaskScheduler();
+        if (!scheduler.isRegionThreaded()) {
+            return preloadTargetRegion(player, predictedLocation, uncertainty, createRegions);
+        }
+        
+        UUID playerId = player.getUniqueId();
+        if (pendingPreloads.add(playerId)) {
+            scheduler.runGlobal(() -> {
+                try {
+                    preloadTargetRegion(player, predictedLocation, uncertainty, createRegions);
+                } finally {
+                    pendingPreloads.remove(playerId);
+                }
+            });
+        }
+        return null;
+    }
+    
+    /**
+     * Расширить ближайший к предсказанной позиции регион или создать новый
+     * Выполняется в глобальном потоке
+     */
+    private Region preloadTargetRegion(Player player, Location predictedLocation, double uncertainty,
+                                       boolean createRegions) {
+        // Игрок может перейти в другой регион
+        Region targetRegion = plugin.getRegionManager().findNearestRegion(predictedLocation);
+        
+        if (targetRegion != null && targetRegion.canAcceptPlayers()) {
+            // Предварительно расширить целевой регион
+            expandRegionForPlayer(targetRegion, player, predictedLocation, uncertainty);
+            return targetRegion;
+        }
+        if (!createRegions) {
+            return null;
+        }
+        
+        // Создать новый регион в предсказанной позиции
+        plugin.getLogger().info("Предсказание: создание нового региона для " + player.getName() + 
+            " в " + predictedLocation);
+        return plugin.getRegionManager().createNewRegion(predictedLocation);
+    }
+    
+    /**
+     * Расширить регион для игрока
+     *
+     * @param uncertainty ширина коридора вокруг предсказанной точки; 0 - запас в половину расстояния
+     */
+    private void expandRegionForPlayer(Region region, Player player, Location playerLocation, double uncertainty) {
+        // Проверить, нужно ли расширение
+        double distanceToCenter = region.distanceToCenter(playerLocation);
+        int currentRadius = region.getSize() / 2;
+        
+        if (distanceToCenter > currentRadius * 0.8) { // Расширяем если игрок ближе к границе
+            // Коридор: до предсказанной точки плюс радиус неопределенности
+            int newRadius = (int) Math.ceil(uncertainty > 0 ? distanceToCenter + uncertainty : distanceToCenter * 1.5);
+            int maxRadius = plugin.getConfig().getInt("regions.max-size", 1024) / 2;
+            
+            if (newRadius > currentRadius && newRadius <= maxRadius) {
+                resizes.request(region.getId(), currentRadius, newRadius, plugin.getCurrentTick());
+            }
+        }
+    }
+    
+    /**
+     * Получить предсказанную позицию игрока
+     */
+    public Location getPredictedLocation(Player player) {
+        MotionEstimate estimate = getPrediction(player);
+        if (estimate == null) {
+            return player.getLocation();
+        }
+        
+        TransportProfile profile = profiles.get(getTransportMode(player));
+        PredictionTracker tracker = getPredictionTracker(player);
+        return toPredictedLocation(player.getLocation(), estimate,
+            profile.getMaxDistance() * (tracker != null ? tracker.getHorizonScale() : 1.0));
+    }
+    
+    /**
+     * Получить оценку позиции игрока с радиусом неопределенности
+     *
+     * @return оценка или null, если данных нет
+     */
+    public MotionEstimate getPrediction(Player player) {
+        MotionPredictor predictor = predictors.get(player.getUniqueId());
+        if (predictor == null) {
+            return null;
+        }
+        PredictionTracker tracker = getPredictionTracker(player);
+        return predictor.predict(tracker != null ? tracker.getHorizonTicks()
+            : profiles.get(getTransportMode(player)).getHorizonTicks());
+    }
+    
+    /**
+     * Получить учет точности предсказаний игрока в текущем способе передвижения
+     *
+     * @return учет или null, если в этом способе предсказаний еще не было
+     */
+    public PredictionTracker getPredictionTracker(Player player) {
+        PredictionTracker[] modeTrackers = trackers.get(player.getUniqueId());
+        return modeTrackers != null ? modeTrackers[getTransportMode(player).ordinal()] : null;
+    }
+    
+    /**
+     * Получить последний определенный способ передвижения игрока
+     */
+    public TransportMode getTransportMode(Player player) {
+        return transportModes.getOrDefault(player.getUniqueId(), TransportMode.IDLE);
+    }
+    
+    /**
+     * Сбросить предсказание при телепортации: скачок позиции не является движением
+     */
+    public void onPlayerTeleport(Player player) {
+        MotionPredictor predictor = predictors.get(player.getUniqueId());
+        if (predictor != null) {
+            predictor.reset();
+        }
+        PredictionTracker[] modeTrackers = trackers.get(player.getUniqueId());
+        if (modeTrackers != null) {
+            for (PredictionTracker tracker : modeTrackers) {
+                if (tracker != null) {
+                    tracker.discardPending();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Получить данные движения игрока
+     */
+    public PlayerMovementData getPlayerMovementData(Player player) {
+        return playerMovements.get(player.getUniqueId());
+    }
+    
+    /**
+     * Очистить данные игрока при выходе
+     */
+    public void onPlayerQuit(Player player) {
+        UUID playerId = player.getUniqueId();
+        playerMovements.remove(playerId);
+        predictors.remove(playerId);
+        trackers.remove(playerId);
+        transportModes.remove(playerId);
+        lastPositions.remove(playerId);
+        lastMoveTimes.remove(playerId);
+    }
+    
+    /**
+     * Запустить задачу предсказания
+     */
+    private void startPredictionTask() {
+        plugin.getTaskScheduler().runGlobalTimer(() -> {
+            // Очистить устаревшие данные движения
+            long currentTime = System.currentTimeMillis();
+            long maxAge = 30000; // 30 секунд
+            
+            playerMovements.entrySet().removeIf(entry -> 
+                currentTime - entry.getValue().getLastUpdateTime() > maxAge);
+            predictors.keySet().retainAll(playerMovements.keySet());
+            trackers.keySet().retainAll(playerMovements.keySet());
+            transportModes.keySet().retainAll(playerMovements.keySet());
+            
+            // Проверить игроков, которые долго не двигались
+            for (Player player : plugin.getServer().getOnlinePlayers()) {
+                UUID playerId = player.getUniqueId();
+                Long lastMoveTime = lastMoveTimes.get(playerId);
+                
+                if (lastMoveTime != null && currentTime - lastMoveTime > 10000) { // 10 секунд
+                    // Игрок не двигается, можно оптимизировать его регион
+                    optimizeRegionForInactivePlayer(player);
+                }
+            }
+        }, 100L, 100L); // Каждые 5 секунд
+        
+        // Применение накопленных изменений размера
+        plugin.getTaskScheduler().runGlobalTimer(this::applyPendingResizes, 20L, 20L);
+    }
+    
+    /**
+     * Применить изменения размера, интервал которых истек
+     *
+     * Изменение пропускается, если регион удален или его размер за время ожидания
+     * уже изменился в нужную сторону.
+     */
+    private void applyPendingResizes() {
+        for (ResizeDebouncer.Change change : resizes.drain(plugin.getCurrentTick())) {
+            Region region = plugin.getRegionManager().getRegions().get(change.getRegionId());
+            if (region == null) {
+                resizes.forget(change.getRegionId());
+                continue;
+            }
+            
+            int currentRadius = region.getSize() / 2;
+            if (change.isGrow() ? change.getRadius() <= currentRadius : change.getRadius() >= currentRadius) {
+                continue;
+            }
+            
+            region.expandRadius(change.getRadius());
+            resizes.recordApplied(change.isGrow());
+            plugin.getLogger().info("Регион " + region.getId() + (change.isGrow() ? " расширен" : " уменьшен") +
+                " до " + change.getRadius() + " блоков по предсказанию");
+        }
+    }
+    
+    /**
+     * Оптимизировать регион для неактивного игрока
+     */
+    private void optimizeRegionForInactivePlayer(Player player) {
+        Region region = plugin.getRegionManager().getPlayerRegion(player);
+        if (region != null && region.getPlayerCount() == 1) {
+            // Если в регионе только один игрок и он не двигается, можно уменьшить регион
+            int minRadius = plugin.getConfig().getInt("regions.min-size", 256) / 2;
+            int currentRadius = region.getSize() / 2;
+            
+            if (currentRadius > minRadius) {
+                int newRadius = Math.max(minRadius, currentRadius / 2);
+                resizes.request(region.getId(), currentRadius, newRadius, plugin.getCurrentTick());
+            }
+        }
+    }
+    
+    /**
+     * Проверить, ждет ли регион отложенного изменения размера или недавно его получил
+     */
+    public boolean isResizing(Region region) {
+        return resizes.isBusy(region.getId(), plugin.getCurrentTick());
+    }
+    
+    /**
+     * Получить статистику предсказаний
+     */
+    public Map<String, Object> getPredictionStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("trackedPlayers", playerMovements.size());
+        stats.put("predictionDistance", predictionDistance);
+        stats.put("predictionTimeSeconds", predictionTimeSeconds);
+        stats.put("predictorMode", predictorSettings.getMode().getConfigName());
+        
+        // Средняя скорость игроков
+        double avgSpeed = playerMovements.values().stream()
+            .mapToDouble(PlayerMovementData::getAverageSpeed)
+            .average()
+            .orElse(0.0);
+        stats.put("averagePlayerSpeed", avgSpeed);
+        
+        // Точность проверенных предсказаний всех игроков
+        synchronized (globalAccuracy) {
+            stats.put("resolvedPredictions", globalAccuracy.getCount());
+            stats.put("meanError", globalAccuracy.getMeanError());
+            stats.put("p90Error", globalAccuracy.getPercentile(0.9));
+            stats.put("hitRate", globalAccuracy.getHitRate());
+        }
+        stats.put("averageHorizonSeconds", trackers.values().stream()
+            .flatMap(Arrays::stream)
+            .filter(Objects::nonNull)
+            .mapToInt(PredictionTracker::getHorizonTicks)
+            .average()
+            .orElse(predictionTimeSeconds * 20) / 20.0);
+        
+        // Число игроков по способам передвижения
+        Map<String, Integer> modeCounts = new TreeMap<>();
+        for (TransportMode mode : transportModes.values()) {
+            modeCounts.merge(mode.getConfigName(), 1, Integer::sum);
+        }
+        stats.put("transportModes", modeCounts);
+        
+        // Частота изменений размера регионов
+        stats.put("resizeRequests", resizes.getRequested());
+        stats.put("resizeCoalesced", resizes.getCoalesced());
+        stats.put("resizeSuppressed", resizes.getSuppressed());
+        stats.put("resizeGrows", resizes.getAppliedGrows());
+        stats.put("resizeShrinks", resizes.getAppliedShrinks());
+        stats.put("resizePending", resizes.getPendingCount());
+        
+        return stats;
+    }
+} 
\ No newline at end of file
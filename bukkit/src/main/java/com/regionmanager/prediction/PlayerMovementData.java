@@ -0,0 +1,94 @@
+package com.regionmanager.prediction;
+
+import com.regionmanager.motion.MovementHistory;
+import org.bukkit.Location;
+
+/**
+ * Данные движения игрока для предсказания
+ */
+public class PlayerMovementData {
+    
+    private final MovementHistory movementHistory;
+    private long lastUpdateTime;
+    private Location lastLocation;
+    
+    /**
+     * Конструктор данных движения
+     */
+    public PlayerMovementData() {
+        this.movementHistory = new MovementHistory(10); // Хранить последние 10 измерений
+        this.lastUpdateTime = System.currentTimeMillis();
+    }
+    
+    /**
+     * Обновить данные движения
+     */
+    public void updateMovement(double speed, double direction, Location location, long timestamp) {
+        movementHistory.add(speed, direction);
+        this.lastLocation = location;
+        this.lastUpdateTime = timestamp;
+    }
+    
+    /**
+     * Получить среднюю скорость
+     */
+    public double getAverageSpeed() {
+        return movementHistory.getAverageSpeed();
+    }
+    
+    /**
+     * Получить среднее направление
+     */
+    public double getAverageDirection() {
+        return movementHistory.getAverageDirection();
+    }
+    
+    /**
+     * Получить последнюю скорость
+     */
+    public double getLastSpeed() {
+        return movementHistory.getLastSpeed();
+    }
+    
+    /**
+     * Получить последнее направление
+     */
+    public double getLastDirection() {
+        return movementHistory.getLastDirection();
+    }
+    
+    /**
+     * Получить время последнего обновления
+     */
+    public long getLastUpdateTime() {
+        return lastUpdateTime;
+    }
+    
+    /**
+     * Получить последнюю позицию
+     */
+    public Location getLastLocation() {
+        return lastLocation;
+    }
+    
+    /**
+     * Проверить, движется ли игрок
+     */
+    public boolean isMoving() {
+        return getAverageSpeed() > 0.1; // Порог минимальной скорости
+    }
+    
+    /**
+     * Получить размер истории движения
+     */
+    public int getHistorySize() {
+        return movementHistory.size();
+    }
+    
+    /**
+     * Очистить историю движения
+     */
+    public void clearHistory() {
+        movementHistory.clear();
+    }
+}
@@ -0,0 +1,178 @@
+package com.regionmanager.prediction;
+
+import com.regionmanager.engine.ChunkShape;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.Arrays;
+
+/**
+ * Пакет позиций игроков в виде параллельных массивов примитивов
+ *
+ * Заполняется один раз за выборку, после чего проверка границ регионов и расчет
+ * движения выполняются простыми циклами по массивам без обращений к объектам
+ * сервера. Проходы работают с диапазонами индексов, поэтому большие пакеты
+ * делятся между потоками. Массивы переиспользуются между выборками и растут
+ * только при увеличении числа игроков.
+ */
+public class PositionBatch {
+
+    private int size;
+    private Player[] players;
+    private World[] worlds;
+    private double[] x;
+    private double[] z;
+    private int[] blockX;
+    private int[] blockZ;
+    // Границы текущего региона игрока; пустой диапазон, если региона нет
+    private int[] minX;
+    private int[] maxX;
+    private int[] minZ;
+    private int[] maxZ;
+    // Форма с маской, если регион - не целый прямоугольник; иначе null
+    private ChunkShape[] masked;
+    // Позиция в предыдущей выборке
+    private boolean[] hasPrevious;
+    private double[] previousX;
+    private double[] previousZ;
+    // Результаты проходов
+    private boolean[] exited;
+    private double[] speed;
+    private double[] direction;
+
+    /**
+     * Конструктор пакета
+     */
+    public PositionBatch(int capacity) {
+        allocate(Math.max(16, capacity));
+    }
+
+    private void allocate(int capacity) {
+        players = new Player[capacity];
+        worlds = new World[capacity];
+        x = new double[capacity];
+        z = new double[capacity];
+        blockX = new int[capacity];
+        blockZ = new int[capacity];
+        minX = new int[capacity];
+        maxX = new int[capacity];
+        minZ = new int[capacity];
+        maxZ = new int[capacity];
+        masked = new ChunkShape[capacity];
+        hasPrevious = new boolean[capacity];
+        previousX = new double[capacity];
+        previousZ = new double[capacity];
+        exited = new boolean[capacity];
+        speed = new double[capacity];
+        direction = new double[capacity];
+    }
+
+    /**
+     * Подготовить пакет к новой выборке
+     */
+    public void reset(int expected) {
+        if (expected > players.length) {
+            allocate(Math.max(expected, players.length * 2));
+        } else {
+            Arrays.fill(players, 0, size, null);
+            Arrays.fill(worlds, 0, size, null);
+            Arrays.fill(masked, 0, size, null);
+        }
+        size = 0;
+    }
+
+    /**
+     * Добавить позицию игрока
+     *
+     * @return индекс игрока в пакете
+     */
+    public int add(Player player, World world, double px, double pz) {
+        int i = size++;
+        players[i] = player;
+        worlds[i] = world;
+        x[i] = px;
+        z[i] = pz;
+        blockX[i] = (int) Math.floor(px);
+        blockZ[i] = (int) Math.floor(pz);
+        minX[i] = 1;
+        maxX[i] = 0;
+        minZ[i] = 1;
+        maxZ[i] = 0;
+        masked[i] = null;
+        hasPrevious[i] = false;
+        return i;
+    }
+
+    /**
+     * Задать границы текущего региона игрока (включительно)
+     */
+    public void setBounds(int i, int fromX, int toX, int fromZ, int toZ) {
+        minX[i] = fromX;
+        maxX[i] = toX;
+        minZ[i] = fromZ;
+        maxZ[i] = toZ;
+    }
+
+    /**
+     * Задать форму текущего региона игрока
+     * Для прямоугольника достаточно границ, форма с маской проверяется по чанкам
+     */
+    public void setShape(int i, ChunkShape shape) {
+        int fromX = shape.getMinChunkX() << 4;
+        int fromZ = shape.getMinChunkZ() << 4;
+        setBounds(i, fromX, fromX + (shape.getWidth() << 4) - 1, fromZ, fromZ + (shape.getDepth() << 4) - 1);
+        masked[i] = shape.isRectangle() ? null : shape;
+    }
+
+    /**
+     * Задать позицию игрока в предыдущей выборке
+     */
+    public void setPrevious(int i, double px, double pz) {
+        hasPrevious[i] = true;
+        previousX[i] = px;
+        previousZ[i] = pz;
+    }
+
+    /**
+     * Отметить игроков диапазона [from, to), вышедших за границы своего региона
+     *
+     * @return количество таких игроков
+     */
+    public int computeExits(int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            boolean outside = blockX[i] < minX[i] | blockX[i] > maxX[i] | blockZ[i] < minZ[i] | blockZ[i] > maxZ[i];
+            if (!outside && masked[i] != null) {
+                outside = !masked[i].contains(blockX[i], blockZ[i]);
+            }
+            exited[i] = outside;
+            count += outside ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * Рассчитать скорость (блоков в секунду) и направление движения для диапазона [from, to)
+     */
+    public void computeMotion(double elapsedSeconds, int from, int to) {
+        double inverse = elapsedSeconds > 0 ? 1.0 / elapsedSeconds : 0.0;
+        for (int i = from; i < to; i++) {
+            double dx = hasPrevious[i] ? x[i] - previousX[i] : 0.0;
+            double dz = hasPrevious[i] ? z[i] - previousZ[i] : 0.0;
+            speed[i] = Math.sqrt(dx * dx + dz * dz) * inverse;
+            direction[i] = Math.atan2(dz, dx);
+        }
+    }
+
+    public int size() { return size; }
+    public Player getPlayer(int i) { return players[i]; }
+    public World getWorld(int i) { return worlds[i]; }
+    public double getX(int i) { return x[i]; }
+    public double getZ(int i) { return z[i]; }
+    public boolean hasPrevious(int i) { return hasPrevious[i]; }
+    public double getPreviousX(int i) { return previousX[i]; }
+    public double getPreviousZ(int i) { return previousZ[i]; }
+    public boolean hasExited(int i) { return exited[i]; }
+    public double getSpeed(int i) { return speed[i]; }
+    public double getDirection(int i) { return direction[i]; }
+}
@@ -0,0 +1,83 @@
+package com.regionmanager.region;
+
+import org.bukkit.World;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс "чанк -> регион"
+ *
+ * Результаты поиска запоминаются лениво (включая отсутствие региона), поэтому частые
+ * события в одних и тех же чанках (редстоун, воронки, спавн) обходятся одним обращением
+ * к хеш-таблице. При любом изменении регионов мира его кеш сбрасывается.
+ * Индекс потокобезопасен: на Folia события приходят из потоков разных регионов.
+ */
+public class ChunkRegionIndex {
+
+    private static final int MAX_ENTRIES_PER_WORLD = 65536;
+    // Отметка "в чанке нет региона": ConcurrentHashMap не хранит null
+    private static final Object NO_REGION = new Object();
+
+    private final Map<String, Map<Long, Object>> worldIndexes;
+
+    /**
+     * Конструктор индекса
+     */
+    public ChunkRegionIndex() {
+        this.worldIndexes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Найти активный регион, содержащий чанк
+     *
+     * @param regions все регионы для поиска при промахе кеша
+     */
+    public Region lookup(World world, int chunkX, int chunkZ, Collection<Region> regions) {
+        Map<Long, Object> index = worldIndexes.computeIfAbsent(world.getName(), k -> new ConcurrentHashMap<>());
+        long key = chunkKey(chunkX, chunkZ);
+
+        Object cached = index.get(key);
+        if (cached != null) {
+            return cached == NO_REGION ? null : (Region) cached;
+        }
+
+        Region found = null;
+        for (Region region : regions) {
+            if (region.isActive() && region.getWorld().equals(world) && region.containsChunk(chunkX, chunkZ)) {
+                found = region;
+                break;
+            }
+        }
+
+        if (index.size() >= MAX_ENTRIES_PER_WORLD) {
+            index.clear();
+        }
+        index.put(key, found != null ? found : NO_REGION);
+        return found;
+    }
+
+    /**
+     * Сбросить кеш мира после изменения его регионов
+     */
+    public void invalidate(World world) {
+        if (world != null) {
+            worldIndexes.remove(world.getName());
+        }
+    }
+
+    /**
+     * Сбросить весь кеш
+     */
+    public void clear() {
+        worldIndexes.clear();
+    }
+
+    /**
+     * Ключ чанка
+     */
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
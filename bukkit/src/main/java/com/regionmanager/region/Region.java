@@ -0,0 +1,555 @@
+package com.regionmanager.region;
+
+import com.regionmanager.RegionManagerPlugin;
+import com.regionmanager.engine.ChunkShape;
+import com.regionmanager.engine.RegionRegistry;
+import com.regionmanager.engine.RegionState;
+import com.regionmanager.managers.HeatmapManager;
+import com.regionmanager.managers.RegionManager;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Представляет регион в мире, который управляет игроками и загрузкой чанков
+ *
+ * Форма, игроки и флаги региона хранятся в RegionState ядра и меняются через
+ * RegionRegistry; здесь - привязка к миру сервера: загрузка и выгрузка чанков,
+ * стоимость и счетчики событий. Граница выровнена по чанкам: квадрат,
+ * прямоугольник или набор чанков (ChunkShape).
+ */
+public class Region {
+    private final RegionState state;
+    private final World world;
+    private final double centerY; // Высота центра; остальные координаты берутся из формы
+    private final Set<String> loadedChunks;
+    private final RegionManager regionManager;
+    private volatile int unloadDelay; // Задержка выгрузки в тиках
+    private volatile RegionCost cost; // Стоимость по последней выборке
+    // Счетчики событий пишутся из потоков разных регионов Folia
+    private final LongAdder redstoneEvents; // Срабатывания редстоуна с последней выборки
+    private final LongAdder hopperEvents; // Перемещения предметов воронками с последней выборки
+    private final LongAdder blockedRedstoneEvents; // Срабатывания редстоуна, подавленные ограничителем
+    private final LongAdder blockedHopperEvents; // Перемещения предметов, отмененные ограничителем
+    private final AtomicInteger mobCount; // Мобы, учтенные слушателем спавна
+
+    /**
+     * Конструктор региона для состояния из реестра
+     *
+     * @param centerY высота центра региона
+     */
+    public Region(RegionState state, World world, double centerY, RegionManager regionManager) {
+        this.state = state;
+        this.world = world;
+        this.centerY = centerY;
+        this.loadedChunks = ConcurrentHashMap.newKeySet();
+        this.mobCount = new AtomicInteger();
+        this.redstoneEvents = new LongAdder();
+        this.hopperEvents = new LongAdder();
+        this.blockedRedstoneEvents = new LongAdder();
+        this.blockedHopperEvents = new LongAdder();
+        this.regionManager = regionManager;
+        this.cost = RegionCost.EMPTY;
+        this.unloadDelay = RegionManagerPlugin.getInstance().getConfig().getInt("regions.unload-delay-ticks", 600); // 30 секунд по умолчанию
+    }
+
+    /**
+     * Добавляет игрока в регион
+     */
+    public void addPlayer(Player player) {
+        addPlayer(player, player.getLocation());
+    }
+
+    /**
+     * Добавляет игрока в регион; location - позиция игрока, вокруг которой загружаются чанки
+     */
+    public void addPlayer(Player player, Location location) {
+        if (registry().join(player.getUniqueId(), state, System.currentTimeMillis())) {
+            onPlayerAdded(player, location);
+        }
+    }
+
+    /**
+     * Загрузить чанки вокруг игрока, добавленного в регион реестром
+     */
+    public void onPlayerAdded(Player player, Location location) {
+        // Загружаем чанки вокруг игрока, холодные по тепловой карте области не прогреваем
+        HeatmapManager heatmapManager = RegionManagerPlugin.getInstance().getHeatmapManager();
+        if (heatmapManager == null || !heatmapManager.shouldSkipWarmup(location)) {
+            loadChunksAroundPlayer(player, location);
+        }
+        
+        RegionManagerPlugin.getInstance().getLogger().info(
+            "Игрок " + player.getName() + " добавлен в регион " + state.getId()
+        );
+    }
+
+    /**
+     * Удаляет игрока из региона
+     */
+    public void removePlayer(Player player) {
+        // Выгрузку опустевшего региона планирует RegionManager по уведомлению реестра
+        if (registry().getPlayerRegion(player.getUniqueId()) == state
+            && registry().leave(player.getUniqueId(), System.currentTimeMillis()) != null) {
+            RegionManagerPlugin.getInstance().getLogger().info(
+                "Игрок " + player.getName() + " удален из региона " + state.getId()
+            );
+        }
+    }
+
+    /**
+     * Загружает чанки вокруг игрока
+     */
+    private void loadChunksAroundPlayer(Player player, Location location) {
+        int maxViewDistance = RegionManagerPlugin.getInstance().getConfig()
+            .getInt("chunk-loading.max-view-distance", 4);
+        
+        // Используем меньший радиус для предотвращения блокировки
+        int viewDistance = Math.min(player.getViewDistance(), maxViewDistance);
+        loadChunksAround(location, viewDistance, "игрока " + player.getName());
+    }
+
+    /**
+     * Предварительно прогреть чанки вокруг локации без участия игрока
+     */
+    public void preloadChunks(Location location, int radius) {
+        loadChunksAround(location, radius, "прогрева региона " + state.getId());
+    }
+
+    /**
+     * Загружает чанки вокруг локации
+     */
+    private void loadChunksAround(Location centerLoc, int viewDistance, String requester) {
+        // Получаем настройки из конфигурации
+        int chunkLoadDelay = RegionManagerPlugin.getInstance().getConfig()
+            .getInt("chunk-loading.chunk-load-delay", 10);
+        boolean asyncChunkLoading = RegionManagerPlugin.getInstance().getConfig()
+            .getBoolean("chunk-loading.async-chunk-loading", true);
+        int maxChunksPerBatch = RegionManagerPlugin.getInstance().getConfig()
+            .getInt("chunk-loading.max-chunks-per-batch", 16);
+        boolean chunkLoadingLogging = RegionManagerPlugin.getInstance().getConfig()
+            .getBoolean("logging.chunk-loading", false);
+        
+        if (chunkLoadingLogging) {
+            RegionManagerPlugin.getInstance().getLogger().info(
+                "Загрузка чанков для " + requester + 
+                " с радиусом " + viewDistance + " чанков"
+            );
+        }
+        
+        if (asyncChunkLoading) {
+            // Загружаем чанки асинхронно, чтобы не блокировать главный поток
+            RegionManagerPlugin.getInstance().getTaskScheduler().runAsync(
+                () -> {
+                    try {
+                        int chunksLoaded = 0;
+                        
+                        for (int x = -viewDistance; x <= viewDistance; x++) {
+                            for (int z = -viewDistance; z <= viewDistance; z++) {
+                                // Ограничиваем количество чанков за раз
+                                if (chunksLoaded >= maxChunksPerBatch) {
+                                    if (chunkLoadingLogging) {
+                                        RegionManagerPlugin.getInstance().getLogger().info(
+                                            "Достигнут лимит чанков за раз для " + requester
+                                        );
+                                    }
+                                    break;
+                                }
+                                
+                                int chunkX = (centerLoc.getBlockX() >> 4) + x;
+                                int chunkZ = (centerLoc.getBlockZ() >> 4) + z;
+                                String chunkKey = chunkX + "," + chunkZ;
+                                
+                                if (!loadedChunks.contains(chunkKey)) {
+                                    // Загружаем чанк синхронно в потоке, владеющем чанком
+                                    RegionManagerPlugin.getInstance().getTaskScheduler().runAtChunk(
+                                        world, chunkX, chunkZ,
+                                        () -> {
+                                            try {
+                                                world.getChunkAt(chunkX, chunkZ);
+                                                loadedChunks.add(chunkKey);
+                                                
+                                                if (chunkLoadingLogging) {
+                                                    RegionManagerPlugin.getInstance().getLogger().info(
+                                                        "Загружен чанк (" + chunkX + "," + chunkZ + ") для " + requester
+                                                    );
+                                                }
+                                            } catch (Exception e) {
+                                                RegionManagerPlugin.getInstance().getLogger().warning(
+                                                    "Ошибка при загрузке чанка (" + chunkX + "," + chunkZ + "): " + e.getMessage()
+                                                );
+                                            }
+                                        }
+                                    );
+                                    
+                                    chunksLoaded++;
+                                    
+                                    // Задержка между загрузкой чанков
+                                    if (chunkLoadDelay > 0) {
+                                        try {
+                                            Thread.sleep(chunkLoadDelay);
+                                        } catch (InterruptedException e) {
+                                            Thread.currentThread().interrupt();
+                                            break;
+                                        }
+                                    }
+                                }
+                            }
+                        }
+                        
+                        if (chunkLoadingLogging) {
+                            RegionManagerPlugin.getInstance().getLogger().info(
+                                "Завершена загрузка " + chunksLoaded + " чанков для " + requester
+                            );
+                        }
+                    } catch (Exception e) {
+                        RegionManagerPlugin.getInstance().getLogger().severe(
+                            "Ошибка при асинхронной загрузке чанков для " + requester + ": " + e.getMessage()
+                        );
+                    }
+                }
+            );
+        } else {
+            // Синхронная загрузка (не рекомендуется)
+            try {
+                int chunksLoaded = 0;
+                
+                for (int x = -viewDistance; x <= viewDistance; x++) {
+                    for (int z = -viewDistance; z <= viewDistance; z++) {
+                        if (chunksLoaded >= maxChunksPerBatch) {
+                            break;
+                        }
+                        
+                        int chunkX = (centerLoc.getBlockX() >> 4) + x;
+                        int chunkZ = (centerLoc.getBlockZ() >> 4) + z;
+                        String chunkKey = chunkX + "," + chunkZ;
+                        
+                        if (!loadedChunks.contains(chunkKey)) {
+                            world.getChunkAt(chunkX, chunkZ);
+                            loadedChunks.add(chunkKey);
+                            chunksLoaded++;
+                        }
+                    }
+                }
+                
+                if (chunkLoadingLogging) {
+                    RegionManagerPlugin.getInstance().getLogger().info(
+                        "Синхронно загружено " + chunksLoaded + " чанков для " + requester
+                    );
+                }
+            } catch (Exception e) {
+                RegionManagerPlugin.getInstance().getLogger().severe(
+                    "Ошибка при синхронной загрузке чанков для " + requester + ": " + e.getMessage()
+                );
+            }
+        }
+    }
+
+    /**
+     * Запланировать выгрузку опустевшего региона
+     */
+    public void scheduleUnload() {
+        // Если регион принудительно создан, не выгружаем его
+        if (state.isForced()) {
+            RegionManagerPlugin.getInstance().getLogger().info(
+                "Регион " + state.getId() + " не будет выгружен (принудительно создан)"
+            );
+            return;
+        }
+        
+        // Проверить настройки быстрой выгрузки
+        boolean fastUnload = RegionManagerPlugin.getInstance().getConfig()
+            .getBoolean("regions.fast-unload", true);
+        
+        // Дорогие регионы (много сущностей, тайлов, редстоуна) выгружаем без задержки
+        double expensiveScore = RegionManagerPlugin.getInstance().getConfig()
+            .getDouble("cost.expensive-unload-score", 5000.0);
+        
+        if (fastUnload || cost.getScore() >= expensiveScore) {
+            // Немедленная выгрузка
+            forceUnload();
+        } else {
+            // Выгрузка с задержкой
+            RegionManagerPlugin.getInstance().getTaskScheduler().runGlobalLater(
+                () -> {
+                    if (state.getPlayerCount() == 0 && state.isActive()) {
+                        forceUnload();
+                    }
+                },
+                unloadDelay
+            );
+        }
+    }
+
+    /**
+     * Проверяет, находится ли локация в пределах региона
+     */
+    public boolean contains(Location location) {
+        if (!location.getWorld().equals(world)) {
+            return false;
+        }
+        
+        return state.contains(location.getBlockX(), location.getBlockZ());
+    }
+
+    /**
+     * Проверяет, находится ли чанк в пределах региона
+     */
+    public boolean containsChunk(int chunkX, int chunkZ) {
+        return state.containsChunk(chunkX, chunkZ);
+    }
+
+    /**
+     * Вычисляет расстояние до центра региона
+     */
+    public double distanceToCenter(Location location) {
+        return location.distance(getCenter());
+    }
+
+    /**
+     * Проверяет, может ли регион принять новых игроков
+     */
+    public boolean canAcceptPlayers() {
+        return registry().canAccept(state);
+    }
+
+    /**
+     * Расширить радиус региона
+     */
+    public void expandRadius(int newRadius) {
+        int oldSize = state.getSize();
+        registry().reshape(state, state.getShape().resize(newRadius * 2), System.currentTimeMillis()); // size = диаметр, newRadius = радиус
+        
+        RegionManagerPlugin.getInstance().getLogger().info(
+            "Регион " + state.getId() + " расширен с " + oldSize + " до " + state.getSize() + " блоков"
+        );
+    }
+    
+    /**
+     * Перенести регион на новую форму
+     */
+    public void reshape(ChunkShape newShape) {
+        Location oldCenter = getCenter();
+        registry().reshape(state, newShape, System.currentTimeMillis());
+        
+        RegionManagerPlugin.getInstance().getLogger().info(
+            "Регион " + state.getId() + " перенесен с " + oldCenter.getBlockX() + ", " + oldCenter.getBlockZ() +
+            " на " + state.getCenterX() + ", " + state.getCenterZ() + ": " + newShape.getWidth() + "x" +
+            newShape.getDepth() + " чанков" + (newShape.isRectangle() ? "" : ", " + newShape.getChunkCount() + " в наборе")
+        );
+    }
+    
+    /**
+     * Быстрая выгрузка региона (немедленная)
+     * Чанки выгружает RegionManager по уведомлению реестра
+     */
+    public void forceUnload() {
+        registry().deactivate(state);
+    }
+    
+    /**
+     * Повторно активировать выгруженный регион
+     */
+    public void reactivate() {
+        registry().reactivate(state, System.currentTimeMillis());
+    }
+    
+    /**
+     * Выгрузить все чанки, загруженные регионом
+     */
+    public void unloadChunks() {
+        for (String chunkKey : loadedChunks) {
+            String[] coords = chunkKey.split(",");
+            if (coords.length == 2) {
+                try {
+                    int chunkX = Integer.parseInt(coords[0]);
+                    int chunkZ = Integer.parseInt(coords[1]);
+                    
+                    // Выгрузить чанк в потоке, владеющем чанком
+                    RegionManagerPlugin.getInstance().getTaskScheduler().runAtChunk(
+                        world, chunkX, chunkZ,
+                        () -> {
+                            if (world.isChunkLoaded(chunkX, chunkZ)) {
+                                world.unloadChunk(chunkX, chunkZ);
+                            }
+                        }
+                    );
+                } catch (NumberFormatException e) {
+                    RegionManagerPlugin.getInstance().getLogger().warning(
+                        "Ошибка парсинга координат чанка: " + chunkKey
+                    );
+                }
+            }
+        }
+        
+        loadedChunks.clear();
+    }
+    
+    /**
+     * Установить флаг принудительного региона
+     */
+    public void setForcedRegion(boolean forced) {
+        registry().setForced(state, forced);
+    }
+    
+    /**
+     * Проверить, является ли регион принудительно созданным
+     */
+    public boolean isForcedRegion() {
+        return state.isForced();
+    }
+    
+    /**
+     * Установить задержку выгрузки
+     */
+    public void setUnloadDelay(int ticks) {
+        this.unloadDelay = ticks;
+    }
+    
+    /**
+     * Получить задержку выгрузки
+     */
+    public int getUnloadDelay() {
+        return unloadDelay;
+    }
+    
+    /**
+     * Учесть срабатывание редстоуна в регионе
+     */
+    public void recordRedstoneEvent() {
+        redstoneEvents.increment();
+    }
+    
+    /**
+     * Забрать накопленное число срабатываний редстоуна
+     */
+    public int drainRedstoneEvents() {
+        return (int) redstoneEvents.sumThenReset();
+    }
+    
+    /**
+     * Учесть перемещение предмета воронкой в регионе
+     */
+    public void recordHopperEvent() {
+        hopperEvents.increment();
+    }
+    
+    /**
+     * Забрать накопленное число перемещений предметов воронками
+     */
+    public int drainHopperEvents() {
+        return (int) hopperEvents.sumThenReset();
+    }
+    
+    /**
+     * Учесть подавленное ограничителем срабатывание редстоуна
+     */
+    public void recordBlockedRedstoneEvent() {
+        blockedRedstoneEvents.increment();
+    }
+    
+    /**
+     * Учесть отмененное ограничителем перемещение предмета
+     */
+    public void recordBlockedHopperEvent() {
+        blockedHopperEvents.increment();
+    }
+    
+    /**
+     * Получить число подавленных срабатываний редстоуна
+     */
+    public long getBlockedRedstoneEvents() {
+        return blockedRedstoneEvents.sum();
+    }
+    
+    /**
+     * Получить число отмененных перемещений предметов
+     */
+    public long getBlockedHopperEvents() {
+        return blockedHopperEvents.sum();
+    }
+    
+    /**
+     * Изменить счетчик мобов региона
+     */
+    public void adjustMobCount(int delta) {
+        mobCount.updateAndGet(count -> Math.max(0, count + delta));
+    }
+    
+    /**
+     * Получить количество мобов, учтенных в регионе
+     */
+    public int getMobCount() {
+        return mobCount.get();
+    }
+    
+    /**
+     * Опубликовать результат выборки стоимости
+     */
+    public void setCost(RegionCost cost) {
+        this.cost = cost;
+        state.setCostScore(cost.getScore());
+    }
+    
+    /**
+     * Получить стоимость региона по последней выборке
+     */
+    public RegionCost getCost() {
+        return cost;
+    }
+    
+    /**
+     * Получить максимальное число игроков за время жизни региона
+     */
+    public int getPeakPlayerCount() {
+        return state.getPeakPlayerCount();
+    }
+    
+    /**
+     * Проверить, можно ли выгрузить регион
+     */
+    public boolean canUnload() {
+        return state.getPlayerCount() == 0 && !state.isForced() && state.isActive();
+    }
+    
+    /**
+     * Получить время до выгрузки
+     */
+    public long getTimeUntilUnload() {
+        if (!canUnload()) {
+            return -1; // Нельзя выгрузить
+        }
+        
+        long timeSinceLastActivity = System.currentTimeMillis() - state.getLastActivityTime();
+        long unloadDelayMs = unloadDelay * 50; // Конвертируем тики в миллисекунды
+        
+        return Math.max(0, unloadDelayMs - timeSinceLastActivity);
+    }
+
+    /**
+     * Реестр, в котором зарегистрировано состояние региона
+     */
+    private RegionRegistry registry() {
+        return regionManager.getRegistry();
+    }
+
+    // Геттеры
+    public String getId() { return state.getId(); }
+    public Location getCenter() { return new Location(world, state.getCenterX(), centerY, state.getCenterZ()); }
+    public int getSize() { return state.getSize(); }
+    public ChunkShape getShape() { return state.getShape(); }
+    public RegionState getState() { return state; }
+    public World getWorld() { return world; }
+    public Set<UUID> getPlayers() { return state.getPlayers(); }
+    public int getPlayerCount() { return state.getPlayerCount(); }
+    public long getCreationTime() { return state.getCreationTime(); }
+    public long getLastActivityTime() { return state.getLastActivityTime(); }
+    public boolean isActive() { return state.isActive(); }
+    public RegionManager getRegionManager() { return regionManager; }
+}
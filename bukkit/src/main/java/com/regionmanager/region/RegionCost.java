@@ -0,0 +1,51 @@
+package com.regionmanager.region;
+
+/**
+ * Стоимость региона по последнему полному проходу выборки
+ * Объект неизменяемый: выборщик публикует новый экземпляр после обхода всех чанков региона
+ */
+public class RegionCost {
+
+    public static final RegionCost EMPTY = new RegionCost(0, 0, 0, 0.0, 0.0, 0.0, 0.0, 0L);
+
+    private final int entityCount;
+    private final int tileEntityCount;
+    private final int loadedChunkCount;
+    private final double redstonePerSecond;
+    private final double hopperPerSecond;
+    private final double score;
+    private final double tickShare;
+    private final long sampledAt;
+
+    /**
+     * Конструктор стоимости региона
+     */
+    public RegionCost(int entityCount, int tileEntityCount, int loadedChunkCount, double redstonePerSecond,
+                      double hopperPerSecond, double score, double tickShare, long sampledAt) {
+        this.entityCount = entityCount;
+        this.tileEntityCount = tileEntityCount;
+        this.loadedChunkCount = loadedChunkCount;
+        this.redstonePerSecond = redstonePerSecond;
+        this.hopperPerSecond = hopperPerSecond;
+        this.score = score;
+        this.tickShare = tickShare;
+        this.sampledAt = sampledAt;
+    }
+
+    /**
+     * Оценка времени тика региона в миллисекундах
+     */
+    public double getEstimatedTickMs(double averageTickMs) {
+        return tickShare * averageTickMs;
+    }
+
+    // Геттеры
+    public int getEntityCount() { return entityCount; }
+    public int getTileEntityCount() { return tileEntityCount; }
+    public int getLoadedChunkCount() { return loadedChunkCount; }
+    public double getRedstonePerSecond() { return redstonePerSecond; }
+    public double getHopperPerSecond() { return hopperPerSecond; }
+    public double getScore() { return score; }
+    public double getTickShare() { return tickShare; }
+    public long getSampledAt() { return sampledAt; }
+}
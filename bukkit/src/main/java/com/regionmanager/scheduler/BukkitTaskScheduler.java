@@ -0,0 +1,97 @@
+package com.regionmanager.scheduler;
+
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Планировщик для однопоточных серверов: все задачи мира выполняются в главном потоке
+ */
+public class BukkitTaskScheduler implements TaskScheduler {
+
+    private final Plugin plugin;
+    private final BukkitScheduler scheduler;
+
+    /**
+     * Конструктор планировщика
+     */
+    public BukkitTaskScheduler(Plugin plugin, BukkitScheduler scheduler) {
+        this.plugin = plugin;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public PluginTask runGlobal(Runnable task) {
+        return wrap(scheduler.runTask(plugin, task));
+    }
+
+    @Override
+    public PluginTask runGlobalLater(Runnable task, long delayTicks) {
+        return wrap(scheduler.runTaskLater(plugin, task, delayTicks));
+    }
+
+    @Override
+    public PluginTask runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        return wrap(scheduler.runTaskTimer(plugin, task, delayTicks, periodTicks));
+    }
+
+    @Override
+    public PluginTask runAtChunk(World world, int chunkX, int chunkZ, Runnable task) {
+        return runGlobal(task);
+    }
+
+    @Override
+    public PluginTask runAtChunkLater(World world, int chunkX, int chunkZ, Runnable task, long delayTicks) {
+        return runGlobalLater(task, delayTicks);
+    }
+
+    @Override
+    public PluginTask runForEntity(Entity entity, Runnable task) {
+        return runGlobal(() -> {
+            if (entity.isValid()) {
+                task.run();
+            }
+        });
+    }
+
+    @Override
+    public PluginTask runAsync(Runnable task) {
+        return wrap(scheduler.runTaskAsynchronously(plugin, task));
+    }
+
+    @Override
+    public boolean isOwnedByCurrentThread(World world, int chunkX, int chunkZ) {
+        return true;
+    }
+
+    @Override
+    public boolean isOwnedByCurrentThread(Entity entity) {
+        return true;
+    }
+
+    @Override
+    public boolean isRegionThreaded() {
+        return false;
+    }
+
+    @Override
+    public void cancelAll() {
+        scheduler.cancelTasks(plugin);
+    }
+
+    private PluginTask wrap(BukkitTask task) {
+        return new PluginTask() {
+            @Override
+            public void cancel() {
+                task.cancel();
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return task.isCancelled();
+            }
+        };
+    }
+}
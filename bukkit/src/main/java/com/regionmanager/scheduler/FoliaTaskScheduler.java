@@ -0,0 +1,124 @@
+package com.regionmanager.scheduler;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Планировщик для серверов с региональной многопоточностью (Folia)
+ *
+ * Глобальные задачи идут в GlobalRegionScheduler, задачи чанков - в RegionScheduler,
+ * задачи сущностей - в EntityScheduler. Folia не допускает нулевую задержку для
+ * отложенных и периодических задач, поэтому она округляется до одного тика.
+ *
+ * Задачи регионов и сущностей нельзя отменить разом по плагину, поэтому после
+ * cancelAll они проверяют флаг остановки и не выполняются.
+ */
+public class FoliaTaskScheduler implements TaskScheduler {
+
+    private final Plugin plugin;
+    private volatile boolean stopped;
+
+    /**
+     * Конструктор планировщика
+     */
+    public FoliaTaskScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public PluginTask runGlobal(Runnable task) {
+        return wrap(Bukkit.getGlobalRegionScheduler().run(plugin, scheduled -> task.run()));
+    }
+
+    @Override
+    public PluginTask runGlobalLater(Runnable task, long delayTicks) {
+        return wrap(Bukkit.getGlobalRegionScheduler().runDelayed(plugin, scheduled -> task.run(), Math.max(1L, delayTicks)));
+    }
+
+    @Override
+    public PluginTask runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        return wrap(Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, scheduled -> task.run(),
+            Math.max(1L, delayTicks), Math.max(1L, periodTicks)));
+    }
+
+    @Override
+    public PluginTask runAtChunk(World world, int chunkX, int chunkZ, Runnable task) {
+        return wrap(Bukkit.getRegionScheduler().run(plugin, world, chunkX, chunkZ, scheduled -> runIfActive(task)));
+    }
+
+    @Override
+    public PluginTask runAtChunkLater(World world, int chunkX, int chunkZ, Runnable task, long delayTicks) {
+        return wrap(Bukkit.getRegionScheduler().runDelayed(plugin, world, chunkX, chunkZ, scheduled -> runIfActive(task),
+            Math.max(1L, delayTicks)));
+    }
+
+    @Override
+    public PluginTask runForEntity(Entity entity, Runnable task) {
+        // null означает, что сущность уже удалена и задача не будет выполнена
+        return wrap(entity.getScheduler().run(plugin, scheduled -> runIfActive(task), null));
+    }
+
+    @Override
+    public PluginTask runAsync(Runnable task) {
+        return wrap(Bukkit.getAsyncScheduler().runNow(plugin, scheduled -> task.run()));
+    }
+
+    @Override
+    public boolean isOwnedByCurrentThread(World world, int chunkX, int chunkZ) {
+        return Bukkit.isOwnedByCurrentRegion(world, chunkX, chunkZ);
+    }
+
+    @Override
+    public boolean isOwnedByCurrentThread(Entity entity) {
+        return Bukkit.isOwnedByCurrentRegion(entity);
+    }
+
+    @Override
+    public boolean isRegionThreaded() {
+        return true;
+    }
+
+    @Override
+    public void cancelAll() {
+        stopped = true;
+        Bukkit.getGlobalRegionScheduler().cancelTasks(plugin);
+        Bukkit.getAsyncScheduler().cancelTasks(plugin);
+    }
+
+    private void runIfActive(Runnable task) {
+        if (!stopped) {
+            task.run();
+        }
+    }
+
+    private PluginTask wrap(ScheduledTask task) {
+        if (task == null) {
+            return CANCELLED;
+        }
+        return new PluginTask() {
+            @Override
+            public void cancel() {
+                task.cancel();
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return task.isCancelled();
+            }
+        };
+    }
+
+    private static final PluginTask CANCELLED = new PluginTask() {
+        @Override
+        public void cancel() {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return true;
+        }
+    };
+}
@@ -0,0 +1,17 @@
+package com.regionmanager.scheduler;
+
+/**
+ * Запланированная задача плагина, независимая от реализации планировщика
+ */
+public interface PluginTask {
+
+    /**
+     * Отменить задачу
+     */
+    void cancel();
+
+    /**
+     * Проверить, отменена ли задача
+     */
+    boolean isCancelled();
+}
@@ -0,0 +1,71 @@
+package com.regionmanager.scheduler;
+
+import org.bukkit.World;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Последовательный запуск порций работы, привязанных к чанкам
+ *
+ * Менеджеры, обходящие чанки по частям (выборка стоимости, очистка предметов),
+ * запускают очередную порцию только после завершения предыдущей. На Bukkit порция
+ * выполняется сразу в главном потоке, на Folia - в потоке, владеющем чанком.
+ * Состояние обхода передается между потоками через флаг выполнения, поэтому
+ * оно никогда не изменяется двумя потоками одновременно.
+ */
+public class SliceDispatcher {
+
+    // Порция, не выполненная за это время (например, чанк так и не был загружен), считается потерянной
+    private static final long STALE_SLICE_MS = 10000L;
+
+    private final TaskScheduler scheduler;
+    private final AtomicLong runningSince;
+
+    /**
+     * Конструктор диспетчера
+     */
+    public SliceDispatcher(TaskScheduler scheduler) {
+        this.scheduler = scheduler;
+        this.runningSince = new AtomicLong(0L);
+    }
+
+    /**
+     * Занять диспетчер перед выбором следующей порции
+     *
+     * @return false, если предыдущая порция еще выполняется
+     */
+    public boolean tryBegin() {
+        long now = System.currentTimeMillis();
+        long since = runningSince.get();
+        if (since != 0L && now - since < STALE_SLICE_MS) {
+            return false;
+        }
+        return runningSince.compareAndSet(since, now);
+    }
+
+    /**
+     * Освободить диспетчер без запуска порции
+     */
+    public void end() {
+        runningSince.set(0L);
+    }
+
+    /**
+     * Выполнить порцию в потоке, владеющем чанком, и освободить диспетчер
+     */
+    public void dispatch(World world, int chunkX, int chunkZ, Runnable slice) {
+        Runnable task = () -> {
+            try {
+                slice.run();
+            } finally {
+                end();
+            }
+        };
+
+        if (scheduler.isRegionThreaded()) {
+            scheduler.runAtChunk(world, chunkX, chunkZ, task);
+        } else {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.regionmanager.scheduler;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+
+/**
+ * Планировщик задач плагина
+ *
+ * Глобальные задачи выполняются в главном потоке (Bukkit) или в потоке глобального
+ * региона (Folia). Задачи, привязанные к чанку или сущности, на Folia выполняются
+ * в потоке региона, владеющего ими; на Bukkit - в главном потоке.
+ */
+public interface TaskScheduler {
+
+    /**
+     * Выполнить задачу в глобальном потоке в ближайшем тике
+     */
+    PluginTask runGlobal(Runnable task);
+
+    /**
+     * Выполнить задачу в глобальном потоке с задержкой (в тиках)
+     */
+    PluginTask runGlobalLater(Runnable task, long delayTicks);
+
+    /**
+     * Выполнять задачу в глобальном потоке периодически (в тиках)
+     */
+    PluginTask runGlobalTimer(Runnable task, long delayTicks, long periodTicks);
+
+    /**
+     * Выполнить задачу в потоке, владеющем чанком
+     */
+    PluginTask runAtChunk(World world, int chunkX, int chunkZ, Runnable task);
+
+    /**
+     * Выполнить задачу в потоке, владеющем чанком, с задержкой (в тиках)
+     */
+    PluginTask runAtChunkLater(World world, int chunkX, int chunkZ, Runnable task, long delayTicks);
+
+    /**
+     * Выполнить задачу в потоке, владеющем локацией
+     */
+    default PluginTask runAtLocation(Location location, Runnable task) {
+        return runAtChunk(location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4, task);
+    }
+
+    /**
+     * Выполнить задачу в потоке, владеющем сущностью; если сущность удалена, задача не выполняется
+     */
+    PluginTask runForEntity(Entity entity, Runnable task);
+
+    /**
+     * Выполнить задачу асинхронно
+     */
+    PluginTask runAsync(Runnable task);
+
+    /**
+     * Проверить, принадлежит ли чанк текущему потоку
+     */
+    boolean isOwnedByCurrentThread(World world, int chunkX, int chunkZ);
+
+    /**
+     * Проверить, принадлежит ли сущность текущему потоку
+     */
+    boolean isOwnedByCurrentThread(Entity entity);
+
+    /**
+     * Проверить, работает ли сервер с региональной многопоточностью
+     */
+    boolean isRegionThreaded();
+
+    /**
+     * Отменить все задачи плагина
+     */
+    void cancelAll();
+}
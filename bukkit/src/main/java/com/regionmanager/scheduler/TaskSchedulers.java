@@ -0,0 +1,34 @@
+package com.regionmanager.scheduler;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * Выбор реализации планировщика по серверу
+ */
+public final class TaskSchedulers {
+
+    private TaskSchedulers() {
+    }
+
+    /**
+     * Создать планировщик: Folia при наличии региональной многопоточности, иначе Bukkit
+     */
+    public static TaskScheduler create(JavaPlugin plugin) {
+        if (isFolia()) {
+            return new FoliaTaskScheduler(plugin);
+        }
+        return new BukkitTaskScheduler(plugin, plugin.getServer().getScheduler());
+    }
+
+    /**
+     * Проверить, запущен ли плагин на Folia
+     */
+    public static boolean isFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.regionmanager.utils;
+
+/**
+ * Ограничитель частоты "ведро токенов"
+ * Токены пополняются лениво при обращении, поэтому ведро не требует отдельной задачи
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * Конструктор ведра
+     *
+     * @param capacity максимальный запас токенов (допустимый всплеск)
+     * @param refillPerSecond скорость пополнения в токенах в секунду
+     */
+    public TokenBucket(double capacity, double refillPerSecond) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000.0;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Забрать один токен, если он есть
+     */
+    public synchronized boolean tryAcquire() {
+        refill(System.nanoTime());
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Пополнить запас по прошедшему времени
+     */
+    private void refill(long now) {
+        long elapsed = now - lastRefill;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+            lastRefill = now;
+        }
+    }
+
+    /**
+     * Получить текущий запас токенов
+     */
+    public synchronized double getTokens() {
+        return tokens;
+    }
+}
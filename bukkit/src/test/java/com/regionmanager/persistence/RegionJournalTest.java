@@ -0,0 +1,264 @@
+package com.regionmanager.persistence;
+
+import com.regionmanager.RegionManagerPlugin;
+import com.regionmanager.engine.ChunkShape;
+import com.regionmanager.utils.Logger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RegionJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Logger logger;
+    private File journalFile;
+
+    @BeforeEach
+    void setUp() {
+        RegionManagerPlugin plugin = mock(RegionManagerPlugin.class);
+        when(plugin.getLogger()).thenReturn(java.util.logging.Logger.getLogger("RegionJournalTest"));
+        logger = new Logger(plugin);
+        journalFile = tempDir.resolve("regions.journal").toFile();
+    }
+
+    @Test
+    void testReplayAppliesCreateShapeAndMerge() throws IOException {
+        // Arrange
+        ChunkShape shape = ChunkShape.ofChunks(new int[] {0, 1, 4}, new int[] {0, 0, 3}, 3);
+        writeJournal(
+            JournalEntry.create(record("region_1", 0, 0), 1),
+            JournalEntry.shape("region_1", shape),
+            JournalEntry.create(record("region_2", 1024, 0), 2),
+            JournalEntry.merge("region_2", "region_1"));
+
+        // Act
+        Map<String, RegionRecord> records = new LinkedHashMap<>();
+        int counter = newJournal().replay(records);
+
+        // Assert
+        assertEquals(2, counter);
+        assertEquals(1, records.size());
+        RegionRecord restored = records.get("region_1");
+        assertEquals(shape, restored.getShape());
+        assertEquals(shape.getCenterX(), restored.getX());
+        assertEquals(shape.getSize(), restored.getSize());
+        assertTrue(restored.hasCustomShape());
+    }
+
+    @Test
+    void testReplayExpandTurnsChunkSetIntoRectangle() throws IOException {
+        // Arrange
+        ChunkShape shape = ChunkShape.ofChunks(new int[] {0, 3}, new int[] {0, 3}, 2);
+        writeJournal(
+            JournalEntry.create(record("region_1", 0, 0), 1),
+            JournalEntry.shape("region_1", shape),
+            JournalEntry.expand("region_1", 128));
+
+        // Act
+        Map<String, RegionRecord> records = new LinkedHashMap<>();
+        newJournal().replay(records);
+
+        // Assert
+        ChunkShape restored = records.get("region_1").getShape();
+        assertTrue(restored.isRectangle());
+        assertEquals(8, restored.getWidth());
+        assertEquals(128, records.get("region_1").getSize());
+    }
+
+    @Test
+    void testReplayDeactivateKeepsOnlyForcedRegions() throws IOException {
+        // Arrange
+        writeJournal(
+            JournalEntry.create(record("region_1", 0, 0), 1),
+            JournalEntry.create(record("region_2", 1024, 0), 2),
+            JournalEntry.forced("region_2", true),
+            JournalEntry.deactivate("region_1"),
+            JournalEntry.deactivate("region_2"));
+
+        // Act
+        Map<String, RegionRecord> records = new LinkedHashMap<>();
+        newJournal().replay(records);
+
+        // Assert: как в снимке, выгруженный регион сохраняется, только если он принудительный
+        assertFalse(records.containsKey("region_1"));
+        assertTrue(records.get("region_2").isForced());
+    }
+
+    @Test
+    void testReplayCreateAfterDeactivateRestoresRegion() throws IOException {
+        // Arrange: регион выгружен и повторно активирован
+        writeJournal(
+            JournalEntry.create(record("region_1", 0, 0), 1),
+            JournalEntry.deactivate("region_1"),
+            JournalEntry.create(record("region_1", 0, 0), 1));
+
+        // Act
+        Map<String, RegionRecord> records = new LinkedHashMap<>();
+        newJournal().replay(records);
+
+        // Assert
+        assertTrue(records.containsKey("region_1"));
+    }
+
+    @Test
+    void testReplayDropsTruncatedFrame() throws IOException {
+        // Arrange
+        writeJournal(JournalEntry.create(record("region_1", 0, 0), 1));
+        long firstFrameLength = journalFile.length();
+        Files.delete(journalFile.toPath());
+        writeJournal(
+            JournalEntry.create(record("region_1", 0, 0), 1),
+            JournalEntry.create(record("region_2", 1024, 0), 2));
+        truncate(journalFile, journalFile.length() - 3);
+
+        // Act
+        Map<String, RegionRecord> records = new LinkedHashMap<>();
+        int counter = newJournal().replay(records);
+
+        // Assert
+        assertEquals(1, counter);
+        assertEquals(Collections.singleton("region_1"), records.keySet());
+        assertEquals(firstFrameLength, journalFile.length());
+    }
+
+    @Test
+    void testReplayStopsAtCorruptedChecksum() throws IOException {
+        // Arrange
+        writeJournal(JournalEntry.create(record("region_1", 0, 0), 1));
+        long firstFrameLength = journalFile.length();
+        Files.delete(journalFile.toPath());
+        writeJournal(
+            JournalEntry.create(record("region_1", 0, 0), 1),
+            JournalEntry.create(record("region_2", 1024, 0), 2),
+            JournalEntry.remove("region_1"));
+        // Последний байт полезной нагрузки второй записи
+        flipByte(journalFile, 2 * firstFrameLength - 1);
+
+        // Act
+        Map<String, RegionRecord> records = new LinkedHashMap<>();
+        newJournal().replay(records);
+
+        // Assert
+        assertEquals(Collections.singleton("region_1"), records.keySet());
+        assertEquals(firstFrameLength, journalFile.length());
+    }
+
+    @Test
+    void testCloseStopsWhenFinalSnapshotFails() throws IOException {
+        // Arrange
+        RegionJournal journal = journalWithFailingSnapshot();
+        journal.start();
+        journal.append(JournalEntry.create(record("region_1", 0, 0), 1));
+
+        // Act
+        long start = System.nanoTime();
+        journal.close(new RegionSnapshot(1, Collections.emptyList()));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertTrue(elapsedMs < 5000, "поток записи не остановился: " + elapsedMs + " мс");
+        Map<String, RegionRecord> records = new LinkedHashMap<>();
+        newJournal().replay(records);
+        assertEquals(Collections.singleton("region_1"), records.keySet());
+    }
+
+    @Test
+    void testSnapshotStoreReadsVersion1() throws IOException {
+        // Arrange
+        File file = tempDir.resolve("regions.dat").toFile();
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file.toPath()))) {
+            out.writeInt(0x524D5253);
+            out.writeShort(1);
+            out.writeInt(7);
+            out.writeInt(1);
+            RegionSnapshotStore.writeRecord(out, record("region_7", 100, 100));
+        }
+
+        // Act
+        RegionSnapshot snapshot = new RegionSnapshotStore(file).read();
+
+        // Assert
+        assertEquals(7, snapshot.getRegionCounter());
+        RegionRecord restored = snapshot.getRecords().get(0);
+        assertEquals("region_7", restored.getId());
+        assertEquals(512, restored.getSize());
+        assertNull(restored.getShape());
+    }
+
+    @Test
+    void testSnapshotStoreKeepsShapes() throws IOException {
+        // Arrange
+        ChunkShape shape = ChunkShape.ofChunks(new int[] {-5, 2, 2}, new int[] {7, -1, 0}, 3);
+        RegionSnapshotStore store = new RegionSnapshotStore(tempDir.resolve("regions.dat").toFile());
+
+        // Act
+        store.write(new RegionSnapshot(2, List.of(record("region_1", 0, 0).withShape(shape), record("region_2", 1024, 0))));
+        RegionSnapshot snapshot = store.read();
+
+        // Assert
+        assertEquals(shape, snapshot.getRecords().get(0).getShape());
+        assertNull(snapshot.getRecords().get(1).getShape());
+    }
+
+    /**
+     * Записать события в журнал и остановить поток записи без усечения:
+     * снимок указывает в каталог, который нельзя создать, поэтому уплотнение не удается
+     */
+    private void writeJournal(JournalEntry... entries) throws IOException {
+        RegionJournal journal = journalWithFailingSnapshot();
+        journal.start();
+        for (JournalEntry entry : entries) {
+            journal.append(entry);
+        }
+        journal.close(new RegionSnapshot(0, Collections.emptyList()));
+    }
+
+    private RegionJournal journalWithFailingSnapshot() throws IOException {
+        File blocker = tempDir.resolve("blocker").toFile();
+        if (!blocker.exists()) {
+            Files.createFile(blocker.toPath());
+        }
+        return new RegionJournal(journalFile, new RegionSnapshotStore(new File(blocker, "regions.dat")),
+            logger, 0L, Long.MAX_VALUE);
+    }
+
+    private RegionJournal newJournal() {
+        return new RegionJournal(journalFile, new RegionSnapshotStore(tempDir.resolve("regions.dat").toFile()),
+            logger, 0L, Long.MAX_VALUE);
+    }
+
+    private static RegionRecord record(String id, int x, int z) {
+        return new RegionRecord(id, "world", x, 64, z, 512, false, 1000L, 2000L, 3);
+    }
+
+    private static void truncate(File file, long length) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(length);
+        }
+    }
+
+    private static void flipByte(File file, long position) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(position);
+            int value = raf.read();
+            raf.seek(position);
+            raf.write(value ^ 0xFF);
+        }
+    }
+}
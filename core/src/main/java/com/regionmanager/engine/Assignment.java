@@ -0,0 +1,85 @@
+package com.regionmanager.engine;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Результат назначения игрока региону, применяемый в главном потоке
+ */
+public final class Assignment {
+
+    /**
+     * Тип назначения
+     */
+    public enum Type {
+        // Перейти в существующий регион
+        JOIN,
+        // Создать регион выбранной формы
+        CREATE,
+        // Регион нужен, но достигнут лимит активных регионов
+        LIMIT
+    }
+
+    private final UUID playerId;
+    private final Type type;
+    private final String regionId;
+    private final String worldName;
+    private final int x;
+    private final int z;
+    private final ChunkShape shape;
+    private final long layoutVersion;
+
+    private Assignment(UUID playerId, Type type, String regionId, String worldName, int x, int z, ChunkShape shape,
+                       long layoutVersion) {
+        this.playerId = playerId;
+        this.type = type;
+        this.regionId = regionId;
+        this.worldName = worldName;
+        this.x = x;
+        this.z = z;
+        this.shape = shape;
+        this.layoutVersion = layoutVersion;
+    }
+
+    /**
+     * Перевести игрока в существующий регион
+     */
+    public static Assignment join(UUID playerId, String regionId, String worldName, int x, int z, long layoutVersion) {
+        return new Assignment(playerId, Type.JOIN, regionId, worldName, x, z, null, layoutVersion);
+    }
+
+    /**
+     * Создать регион для игрока в точке (x, z); форма нового региона содержит эту точку
+     */
+    public static Assignment create(UUID playerId, String worldName, int x, int z, ChunkShape shape,
+                                    long layoutVersion) {
+        return new Assignment(playerId, Type.CREATE, null, worldName, x, z, shape, layoutVersion);
+    }
+
+    /**
+     * Игроку нужен новый регион, но лимит активных регионов исчерпан
+     */
+    public static Assignment limit(UUID playerId, String worldName, int x, int z, long layoutVersion) {
+        return new Assignment(playerId, Type.LIMIT, null, worldName, x, z, null, layoutVersion);
+    }
+
+    /**
+     * Проверить, совпадает ли решение с другим без учета позиции игрока
+     * Отказ по лимиту не зависит от версии раскладки: он повторяется, пока лимит не освободится
+     */
+    public boolean sameDecision(Assignment other) {
+        return other != null && type == other.type
+            && (type == Type.LIMIT || layoutVersion == other.layoutVersion)
+            && Objects.equals(regionId, other.regionId);
+    }
+
+    // Геттеры
+    public UUID getPlayerId() { return playerId; }
+    public Type getType() { return type; }
+    public String getRegionId() { return regionId; }
+    public String getWorldName() { return worldName; }
+    public int getX() { return x; }
+    public int getZ() { return z; }
+    public ChunkShape getShape() { return shape; }
+    public long getLayoutVersion() { return layoutVersion; }
+}
@@ -0,0 +1,221 @@
+package com.regionmanager.engine;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Движок назначения игроков регионам
+ *
+ * Единственный поток-писатель забирает позиции игроков из неблокирующей очереди,
+ * оставляет для каждого игрока только последнюю позицию и считает назначения по
+ * неизменяемому снимку раскладки. Результаты складываются в выходную очередь,
+ * которую главный поток разбирает одной пачкой за тик. Поток движка не обращается
+ * к состоянию сервера, поэтому снимок - единственный источник данных о регионах.
+ *
+ * Последнее выданное решение игрока подавляет повторы, пока снимок не сменится.
+ * Решения прежних снимков удаляются при смене версии, решения вышедших игроков и
+ * отклоненные сервером - по запросу forget. Отказ по лимиту активных регионов
+ * выдается игроку один раз и действует, пока лимит не освободится, независимо от
+ * смены снимков: версия меняется при каждом входе и выходе игроков.
+ */
+public class AssignmentEngine {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final Queue<PositionUpdate> updates;
+    private final Queue<Assignment> results;
+    private final Queue<UUID> forgotten;
+    private final AtomicBoolean parked;
+    private final int regionSize;
+    private final int minDistanceBetweenRegions;
+    private final int maxActiveRegions;
+    private final int maxBatch;
+    private volatile RegionLayout layout;
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    // Состояние потока движка
+    private final Map<UUID, Assignment> lastEmitted;
+
+    /**
+     * Конструктор движка
+     */
+    public AssignmentEngine(int regionSize, int minDistanceBetweenRegions, int maxActiveRegions, int maxBatch) {
+        this.updates = new ConcurrentLinkedQueue<>();
+        this.results = new ConcurrentLinkedQueue<>();
+        this.forgotten = new ConcurrentLinkedQueue<>();
+        this.parked = new AtomicBoolean(false);
+        this.regionSize = regionSize;
+        this.minDistanceBetweenRegions = minDistanceBetweenRegions;
+        this.maxActiveRegions = maxActiveRegions;
+        this.maxBatch = maxBatch;
+        this.layout = RegionLayout.EMPTY;
+        this.lastEmitted = new HashMap<>();
+    }
+
+    /**
+     * Запустить поток движка
+     */
+    public void start() {
+        running = true;
+        Thread worker = new Thread(this::run, "RegionManager-Assignment");
+        worker.setDaemon(true);
+        thread = worker;
+        worker.start();
+    }
+
+    /**
+     * Передать позицию игрока; вызывается из потоков сервера
+     */
+    public void submit(PositionUpdate update) {
+        updates.offer(update);
+        if (parked.get()) {
+            Thread worker = thread;
+            if (worker != null) {
+                LockSupport.unpark(worker);
+            }
+        }
+    }
+
+    /**
+     * Забыть последнее решение игрока: следующая позиция даст решение заново,
+     * даже если оно совпадет с прежним. Вызывается при выходе игрока и когда
+     * сервер отклонил решение и передал позицию повторно.
+     */
+    public void forget(UUID playerId) {
+        forgotten.offer(playerId);
+    }
+
+    /**
+     * Опубликовать новый снимок раскладки
+     */
+    public void publish(RegionLayout layout) {
+        this.layout = layout;
+    }
+
+    /**
+     * Забрать следующий готовый результат или null
+     */
+    public Assignment pollResult() {
+        return results.poll();
+    }
+
+    /**
+     * Основной цикл потока движка
+     */
+    private void run() {
+        Map<UUID, PositionUpdate> batch = new LinkedHashMap<>();
+        long seenVersion = Long.MIN_VALUE;
+
+        while (running) {
+            PositionUpdate update;
+            while (batch.size() < maxBatch && (update = updates.poll()) != null) {
+                batch.put(update.getPlayerId(), update);
+            }
+            // После сбора пачки: повторная позиция передается после forget и уже видна здесь
+            UUID forgottenId;
+            while ((forgottenId = forgotten.poll()) != null) {
+                lastEmitted.remove(forgottenId);
+            }
+
+            if (batch.isEmpty()) {
+                parked.set(true);
+                if (updates.isEmpty()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                parked.set(false);
+                continue;
+            }
+
+            RegionLayout current = layout;
+            if (current.getVersion() != seenVersion) {
+                // Решения по прежним снимкам уже не совпадут с новыми; отказы по лимиту
+                // сохраняются, пока лимит не освободится
+                long version = current.getVersion();
+                boolean atLimit = current.getActiveCount() >= maxActiveRegions;
+                lastEmitted.values().removeIf(emitted -> emitted.getType() == Assignment.Type.LIMIT
+                    ? !atLimit : emitted.getLayoutVersion() != version);
+                seenVersion = version;
+            }
+            for (PositionUpdate pending : batch.values()) {
+                Assignment assignment = assign(current, pending);
+                if (assignment == null) {
+                    lastEmitted.remove(pending.getPlayerId());
+                } else if (!assignment.sameDecision(lastEmitted.get(pending.getPlayerId()))) {
+                    // Пока главный поток не применил решение и не обновил снимок, повторять его незачем
+                    lastEmitted.put(pending.getPlayerId(), assignment);
+                    results.offer(assignment);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Рассчитать назначение для позиции игрока
+     * Не меняет состояние движка, поэтому может вызываться вне его потока (например, в замерах)
+     *
+     * @return null, если игрок остается в текущем регионе
+     */
+    public Assignment assign(RegionLayout current, PositionUpdate update) {
+        int x = update.getX();
+        int z = update.getZ();
+        String worldName = update.getWorldName();
+
+        RegionView currentRegion = current.get(update.getCurrentRegionId());
+        if (currentRegion != null && currentRegion.isActive()
+            && currentRegion.getWorldName().equals(worldName) && currentRegion.contains(x, z)) {
+            return null;
+        }
+
+        RegionView suitable = current.findAccepting(worldName, x, z);
+        if (suitable != null) {
+            return Assignment.join(update.getPlayerId(), suitable.getId(), worldName, x, z, current.getVersion());
+        }
+
+        if (current.getActiveCount() >= maxActiveRegions) {
+            return Assignment.limit(update.getPlayerId(), worldName, x, z, current.getVersion());
+        }
+
+        ChunkShape shape = RegionGeometry.findFreeShape(current.getRegionMap().values(), worldName, x, z,
+            regionSize, minDistanceBetweenRegions);
+        if (shape == null || !shape.contains(x, z)) {
+            // Свободного места рядом нет - регион по позиции игрока, как при синхронном создании
+            shape = ChunkShape.square(x, z, regionSize);
+        }
+        return Assignment.create(update.getPlayerId(), worldName, x, z, shape, current.getVersion());
+    }
+
+    /**
+     * Получить число позиций, ожидающих обработки
+     */
+    public int getPendingCount() {
+        return updates.size();
+    }
+
+    /**
+     * Остановить поток движка
+     */
+    public void shutdown() {
+        running = false;
+        Thread worker = thread;
+        if (worker != null) {
+            LockSupport.unpark(worker);
+            try {
+                worker.join(1000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        updates.clear();
+        results.clear();
+        forgotten.clear();
+    }
+}
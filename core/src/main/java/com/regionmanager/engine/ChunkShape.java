@@ -0,0 +1,249 @@
+package com.regionmanager.engine;
+
+import java.util.Arrays;
+
+/**
+ * Форма региона, выровненная по границам чанков
+ *
+ * Прямоугольник из целых чанков, при необходимости с маской: тогда регион - это
+ * только отмеченные чанки прямоугольника (объединение произвольных чанков). Проверка
+ * принадлежности - сравнение с границами и, для маски, чтение одного бита, то есть
+ * O(1) независимо от размера. Квадрат размером 512 блоков по границам чанков задевает
+ * 32x32 чанка, тогда как квадрат с произвольным центром - 33x33.
+ */
+public final class ChunkShape {
+
+    // Предел прямоугольника формы с маской: 2^26 чанков, маска до 8 МБ
+    private static final long MAX_MASKED_CHUNKS = 1L << 26;
+
+    private final int minChunkX;
+    private final int minChunkZ;
+    private final int width;
+    private final int depth;
+    // Бит (x - minChunkX) * depth + (z - minChunkZ); null - весь прямоугольник
+    private final long[] mask;
+    private final int chunkCount;
+
+    private ChunkShape(int minChunkX, int minChunkZ, int width, int depth, long[] mask) {
+        this.minChunkX = minChunkX;
+        this.minChunkZ = minChunkZ;
+        this.width = width;
+        this.depth = depth;
+        this.mask = mask;
+
+        int count = width * depth;
+        if (mask != null) {
+            count = 0;
+            for (long word : mask) {
+                count += Long.bitCount(word);
+            }
+        }
+        this.chunkCount = count;
+    }
+
+    /**
+     * Квадрат по границам чанков, ближайший к квадрату с центром (centerX, centerZ)
+     *
+     * @param size сторона в блоках, округляется вверх до целого числа чанков
+     */
+    public static ChunkShape square(int centerX, int centerZ, int size) {
+        int chunks = Math.max(1, (size + 15) >> 4);
+        return new ChunkShape(alignedStart(centerX, chunks), alignedStart(centerZ, chunks), chunks, chunks, null);
+    }
+
+    /**
+     * Наименьший прямоугольник из чанков, покрывающий блоки [minX, maxX] x [minZ, maxZ]
+     */
+    public static ChunkShape rectangle(int minX, int minZ, int maxX, int maxZ) {
+        int minChunkX = minX >> 4;
+        int minChunkZ = minZ >> 4;
+        return new ChunkShape(minChunkX, minChunkZ,
+            Math.max(1, (maxX >> 4) - minChunkX + 1), Math.max(1, (maxZ >> 4) - minChunkZ + 1), null);
+    }
+
+    /**
+     * Объединение чанков
+     *
+     * @param chunkXs координаты X чанков
+     * @param chunkZs координаты Z чанков
+     * @param count число чанков, больше нуля
+     * @throws IllegalArgumentException если чанков нет или их прямоугольник слишком велик
+     */
+    public static ChunkShape ofChunks(int[] chunkXs, int[] chunkZs, int count) {
+        if (count <= 0 || count > chunkXs.length || count > chunkZs.length) {
+            throw new IllegalArgumentException("Неверное число чанков формы: " + count);
+        }
+        int lowX = Integer.MAX_VALUE;
+        int highX = Integer.MIN_VALUE;
+        int lowZ = Integer.MAX_VALUE;
+        int highZ = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            lowX = Math.min(lowX, chunkXs[i]);
+            highX = Math.max(highX, chunkXs[i]);
+            lowZ = Math.min(lowZ, chunkZs[i]);
+            highZ = Math.max(highZ, chunkZs[i]);
+        }
+
+        // Разность крайних координат может не поместиться в int
+        long width = (long) highX - lowX + 1;
+        long depth = (long) highZ - lowZ + 1;
+        if (width * depth > MAX_MASKED_CHUNKS) {
+            throw new IllegalArgumentException("Слишком большая форма: " + width + "x" + depth + " чанков");
+        }
+        long[] mask = new long[(int) ((width * depth + 63) >> 6)];
+        for (int i = 0; i < count; i++) {
+            int bit = (int) ((chunkXs[i] - lowX) * depth + (chunkZs[i] - lowZ));
+            mask[bit >> 6] |= 1L << bit;
+        }
+        return of(lowX, lowZ, (int) width, (int) depth, mask);
+    }
+
+    /**
+     * Восстановить форму по сохраненным полям
+     *
+     * @param mask маска чанков или null для целого прямоугольника
+     * @throws IllegalArgumentException если размеры или длина маски неверны
+     */
+    public static ChunkShape of(int minChunkX, int minChunkZ, int width, int depth, long[] mask) {
+        if (width <= 0 || depth <= 0 || (long) width * depth > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Неверный размер формы: " + width + "x" + depth);
+        }
+        if (mask == null) {
+            return new ChunkShape(minChunkX, minChunkZ, width, depth, null);
+        }
+        if (mask.length != (width * depth + 63) >> 6) {
+            throw new IllegalArgumentException("Неверная длина маски формы: " + mask.length);
+        }
+
+        // Маска, покрывающая весь прямоугольник, не нужна
+        ChunkShape shape = new ChunkShape(minChunkX, minChunkZ, width, depth, mask.clone());
+        return shape.chunkCount == width * depth ? new ChunkShape(minChunkX, minChunkZ, width, depth, null) : shape;
+    }
+
+    /**
+     * Первый чанк отрезка из chunks чанков, центр которого ближе всего к center
+     */
+    private static int alignedStart(int center, int chunks) {
+        return Math.floorDiv(2 * center - chunks * 16 + 16, 32);
+    }
+
+    /**
+     * Проверить, принадлежит ли блок форме
+     */
+    public boolean contains(int x, int z) {
+        return containsChunk(x >> 4, z >> 4);
+    }
+
+    /**
+     * Проверить, принадлежит ли чанк форме
+     */
+    public boolean containsChunk(int chunkX, int chunkZ) {
+        int dx = chunkX - minChunkX;
+        int dz = chunkZ - minChunkZ;
+        if (dx < 0 || dz < 0 || dx >= width || dz >= depth) {
+            return false;
+        }
+        if (mask == null) {
+            return true;
+        }
+        int bit = dx * depth + dz;
+        return (mask[bit >> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Проверить, есть ли у форм общий чанк
+     */
+    public boolean intersects(ChunkShape other) {
+        int fromX = Math.max(minChunkX, other.minChunkX);
+        int toX = Math.min(minChunkX + width, other.minChunkX + other.width);
+        int fromZ = Math.max(minChunkZ, other.minChunkZ);
+        int toZ = Math.min(minChunkZ + depth, other.minChunkZ + other.depth);
+        if (fromX >= toX || fromZ >= toZ) {
+            return false;
+        }
+        if (mask == null && other.mask == null) {
+            return true;
+        }
+        for (int cx = fromX; cx < toX; cx++) {
+            for (int cz = fromZ; cz < toZ; cz++) {
+                if (containsChunk(cx, cz) && other.containsChunk(cx, cz)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Изменить размер: большая сторона становится newSize блоков, меньшая меняется на
+     * столько же. Центр сохраняется с точностью до чанка, маска не сохраняется.
+     */
+    public ChunkShape resize(int newSize) {
+        int deltaChunks = ((Math.max(16, newSize) + 15) >> 4) - Math.max(width, depth);
+        int newWidth = Math.max(1, width + deltaChunks);
+        int newDepth = Math.max(1, depth + deltaChunks);
+        return new ChunkShape(
+            minChunkX - Math.floorDiv(newWidth - width, 2),
+            minChunkZ - Math.floorDiv(newDepth - depth, 2),
+            newWidth, newDepth, null);
+    }
+
+    /**
+     * Форма - целый прямоугольник, без маски
+     */
+    public boolean isRectangle() {
+        return mask == null;
+    }
+
+    /**
+     * Центр по X в блоках
+     */
+    public int getCenterX() {
+        return (minChunkX << 4) + width * 8;
+    }
+
+    /**
+     * Центр по Z в блоках
+     */
+    public int getCenterZ() {
+        return (minChunkZ << 4) + depth * 8;
+    }
+
+    /**
+     * Большая сторона в блоках
+     */
+    public int getSize() {
+        return Math.max(width, depth) << 4;
+    }
+
+    public int getMinChunkX() { return minChunkX; }
+    public int getMinChunkZ() { return minChunkZ; }
+    public int getWidth() { return width; }
+    public int getDepth() { return depth; }
+    public int getChunkCount() { return chunkCount; }
+
+    /**
+     * Копия маски или null для целого прямоугольника
+     */
+    public long[] getMask() {
+        return mask != null ? mask.clone() : null;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ChunkShape)) {
+            return false;
+        }
+        ChunkShape shape = (ChunkShape) other;
+        return minChunkX == shape.minChunkX && minChunkZ == shape.minChunkZ && width == shape.width
+            && depth == shape.depth && Arrays.equals(mask, shape.mask);
+    }
+
+    @Override
+    public int hashCode() {
+        return ((minChunkX * 31 + minChunkZ) * 31 + width) * 31 + depth;
+    }
+}
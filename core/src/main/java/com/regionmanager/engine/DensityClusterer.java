@@ -0,0 +1,256 @@
+package com.regionmanager.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Поиск скоплений игроков сеточным DBSCAN
+ *
+ * Точки раскладываются по ячейкам со стороной eps/√2, так что любые две точки одной
+ * ячейки ближе eps. Точка - ядро, если в радиусе eps (включая ее саму) не меньше
+ * minPoints точек; ячейка с minPoints точками целиком состоит из ядер без проверки
+ * расстояний. Ячейки с ядрами объединяются, если какие-то их ядра ближе eps, а
+ * остальные точки присоединяются к ближайшему ядру в радиусе eps или остаются
+ * шумом. Соседи ищутся только в ячейках, часть которых ближе eps (5x5 без углов),
+ * поэтому проход линеен по числу игроков при ограниченной плотности. Экземпляр не потокобезопасен.
+ */
+public final class DensityClusterer {
+
+    private static final int NOISE = -1;
+
+    private final int eps;
+    private final long epsSquared;
+    private final int minPoints;
+    private final int cellSize;
+    // Смещения соседних ячеек {dx, dz}, в которых могут быть точки ближе eps
+    private final int[][] neighborCells;
+
+    /**
+     * @param eps расстояние, на котором игроки считаются соседями
+     * @param minPoints наименьшее число игроков в окрестности ядра
+     */
+    public DensityClusterer(int eps, int minPoints) {
+        this.eps = Math.max(1, eps);
+        this.epsSquared = (long) this.eps * this.eps;
+        this.minPoints = Math.max(1, minPoints);
+        this.cellSize = Math.max(1, (int) (this.eps / Math.sqrt(2.0)));
+
+        int reach = this.eps / cellSize + 1;
+        List<int[]> offsets = new ArrayList<>();
+        for (int dx = -reach; dx <= reach; dx++) {
+            for (int dz = -reach; dz <= reach; dz++) {
+                long gapX = (long) Math.max(0, Math.abs(dx) - 1) * cellSize;
+                long gapZ = (long) Math.max(0, Math.abs(dz) - 1) * cellSize;
+                if (gapX * gapX + gapZ * gapZ <= epsSquared) {
+                    offsets.add(new int[] {dx, dz});
+                }
+            }
+        }
+        this.neighborCells = offsets.toArray(new int[0][]);
+    }
+
+    /**
+     * Найти скопления среди count точек
+     *
+     * @return скопления; шумовые точки ни в одно не входят
+     */
+    public List<PlayerCluster> cluster(int[] xs, int[] zs, int count) {
+        if (count == 0) {
+            return new ArrayList<>();
+        }
+
+        // Раскладка по ячейкам: точки отсортированы по ключу ячейки
+        long[] keys = new long[count];
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = cellKey(Math.floorDiv(xs[i], cellSize), Math.floorDiv(zs[i], cellSize));
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(keys[a], keys[b]));
+        int[] sorted = new int[count];
+        // Ячейка: {первый индекс в sorted, число точек, номер ячейки}
+        Map<Long, int[]> cells = new HashMap<>();
+        for (int s = 0; s < count; s++) {
+            sorted[s] = order[s];
+            int[] range = cells.get(keys[sorted[s]]);
+            if (range == null) {
+                cells.put(keys[sorted[s]], new int[] {s, 1, cells.size()});
+            } else {
+                range[1]++;
+            }
+        }
+
+        // Ядра
+        boolean[] core = new boolean[count];
+        for (int[] range : cells.values()) {
+            if (range[1] >= minPoints) {
+                for (int s = range[0]; s < range[0] + range[1]; s++) {
+                    core[sorted[s]] = true;
+                }
+                continue;
+            }
+            for (int s = range[0]; s < range[0] + range[1]; s++) {
+                int i = sorted[s];
+                core[i] = countNeighbors(i, xs, zs, sorted, cells) >= minPoints;
+            }
+        }
+
+        // Объединение ячеек с ядрами
+        int[] parent = new int[cells.size()];
+        for (int c = 0; c < parent.length; c++) {
+            parent[c] = c;
+        }
+        for (int[] range : cells.values()) {
+            long key = keyOf(sorted[range[0]], xs, zs);
+            int cellX = (int) (key >> 32);
+            int cellZ = (int) key;
+            for (int[] offset : neighborCells) {
+                if (offset[0] < 0 || offset[0] == 0 && offset[1] <= 0) {
+                    // Каждая пара ячеек проверяется один раз
+                    continue;
+                }
+                int[] other = cells.get(cellKey(cellX + offset[0], cellZ + offset[1]));
+                if (other != null && find(parent, range[2]) != find(parent, other[2])
+                    && coresTouch(range, other, xs, zs, sorted, core)) {
+                    parent[find(parent, range[2])] = find(parent, other[2]);
+                }
+            }
+        }
+
+        // Номера скоплений: по корню ячейки с ядром
+        int[] label = new int[count];
+        Arrays.fill(label, NOISE);
+        int[] clusterOfRoot = new int[parent.length];
+        Arrays.fill(clusterOfRoot, NOISE);
+        int clusters = 0;
+        for (int i = 0; i < count; i++) {
+            if (core[i]) {
+                int root = find(parent, cells.get(keyOf(i, xs, zs))[2]);
+                if (clusterOfRoot[root] == NOISE) {
+                    clusterOfRoot[root] = clusters++;
+                }
+                label[i] = clusterOfRoot[root];
+            }
+        }
+
+        // Граничные точки - к ближайшему ядру в радиусе eps
+        for (int i = 0; i < count; i++) {
+            if (!core[i]) {
+                int nearest = nearestCore(i, xs, zs, sorted, cells, core);
+                if (nearest >= 0) {
+                    label[i] = label[nearest];
+                }
+            }
+        }
+
+        // Сборка скоплений
+        int[] sizes = new int[clusters];
+        for (int i = 0; i < count; i++) {
+            if (label[i] != NOISE) {
+                sizes[label[i]]++;
+            }
+        }
+        int[][] members = new int[clusters][];
+        for (int c = 0; c < clusters; c++) {
+            members[c] = new int[sizes[c]];
+            sizes[c] = 0;
+        }
+        for (int i = 0; i < count; i++) {
+            if (label[i] != NOISE) {
+                members[label[i]][sizes[label[i]]++] = i;
+            }
+        }
+        List<PlayerCluster> result = new ArrayList<>(clusters);
+        for (int c = 0; c < clusters; c++) {
+            result.add(new PlayerCluster(members[c], xs, zs));
+        }
+        return result;
+    }
+
+    private int countNeighbors(int i, int[] xs, int[] zs, int[] sorted, Map<Long, int[]> cells) {
+        long key = keyOf(i, xs, zs);
+        int cellX = (int) (key >> 32);
+        int cellZ = (int) key;
+        int neighbors = 0;
+        for (int[] offset : neighborCells) {
+            int[] range = cells.get(cellKey(cellX + offset[0], cellZ + offset[1]));
+            if (range == null) {
+                continue;
+            }
+            for (int s = range[0]; s < range[0] + range[1]; s++) {
+                if (within(i, sorted[s], xs, zs) && ++neighbors >= minPoints) {
+                    return neighbors;
+                }
+            }
+        }
+        return neighbors;
+    }
+
+    private boolean coresTouch(int[] first, int[] second, int[] xs, int[] zs, int[] sorted, boolean[] core) {
+        for (int s = first[0]; s < first[0] + first[1]; s++) {
+            if (!core[sorted[s]]) {
+                continue;
+            }
+            for (int t = second[0]; t < second[0] + second[1]; t++) {
+                if (core[sorted[t]] && within(sorted[s], sorted[t], xs, zs)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int nearestCore(int i, int[] xs, int[] zs, int[] sorted, Map<Long, int[]> cells, boolean[] core) {
+        long key = keyOf(i, xs, zs);
+        int cellX = (int) (key >> 32);
+        int cellZ = (int) key;
+        int nearest = -1;
+        long nearestDistance = Long.MAX_VALUE;
+        for (int[] offset : neighborCells) {
+            int[] range = cells.get(cellKey(cellX + offset[0], cellZ + offset[1]));
+            if (range == null) {
+                continue;
+            }
+            for (int s = range[0]; s < range[0] + range[1]; s++) {
+                int j = sorted[s];
+                long distance = RegionGeometry.distanceSquared(xs[i], zs[i], xs[j], zs[j]);
+                if (core[j] && distance <= epsSquared && distance < nearestDistance) {
+                    nearestDistance = distance;
+                    nearest = j;
+                }
+            }
+        }
+        return nearest;
+    }
+
+    private boolean within(int i, int j, int[] xs, int[] zs) {
+        return RegionGeometry.distanceSquared(xs[i], zs[i], xs[j], zs[j]) <= epsSquared;
+    }
+
+    private long keyOf(int i, int[] xs, int[] zs) {
+        return cellKey(Math.floorDiv(xs[i], cellSize), Math.floorDiv(zs[i], cellSize));
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    private static int find(int[] parent, int c) {
+        while (parent[c] != c) {
+            parent[c] = parent[parent[c]];
+            c = parent[c];
+        }
+        return c;
+    }
+
+    public int getEps() {
+        return eps;
+    }
+
+    public int getMinPoints() {
+        return minPoints;
+    }
+}
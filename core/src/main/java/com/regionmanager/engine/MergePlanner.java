@@ -0,0 +1,63 @@
+package com.regionmanager.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Поиск пар регионов для объединения по неизменяемому снимку
+ *
+ * Пары проверяются по миру, расстоянию между центрами, суммарному числу игроков и
+ * суммарной оценке стоимости. Результат упорядочен по индексам входного списка,
+ * поэтому при одинаковом входе применение пар детерминировано.
+ */
+public final class MergePlanner {
+
+    private final int maxDistance;
+    private final int maxPlayers;
+    private final double maxScore;
+
+    /**
+     * Конструктор планировщика
+     *
+     * @param maxDistance максимальное расстояние между центрами
+     * @param maxPlayers максимальное суммарное число игроков
+     * @param maxScore максимальная суммарная оценка стоимости
+     */
+    public MergePlanner(int maxDistance, int maxPlayers, double maxScore) {
+        this.maxDistance = maxDistance;
+        this.maxPlayers = maxPlayers;
+        this.maxScore = maxScore;
+    }
+
+    /**
+     * Найти пары-кандидаты {id первого, id второго}; второй регион вливается в первый
+     */
+    public List<String[]> findCandidates(List<RegionView> regions, ParallelAnalytics analytics) {
+        long maxDistanceSquared = (long) maxDistance * maxDistance;
+
+        return analytics.collectRows(regions.size(), i -> {
+            RegionView first = regions.get(i);
+            if (!first.isActive()) {
+                return null;
+            }
+
+            List<String[]> row = null;
+            for (int j = i + 1; j < regions.size(); j++) {
+                RegionView second = regions.get(j);
+                if (!second.isActive()
+                    || !first.getWorldName().equals(second.getWorldName())
+                    || RegionGeometry.distanceSquared(first.getCenterX(), first.getCenterZ(),
+                        second.getCenterX(), second.getCenterZ()) > maxDistanceSquared
+                    || first.getPlayerCount() + second.getPlayerCount() > maxPlayers
+                    || first.getCostScore() + second.getCostScore() > maxScore) {
+                    continue;
+                }
+                if (row == null) {
+                    row = new ArrayList<>();
+                }
+                row.add(new String[] {first.getId(), second.getId()});
+            }
+            return row;
+        });
+    }
+}
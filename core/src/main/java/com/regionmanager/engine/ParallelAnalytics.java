@@ -0,0 +1,154 @@
+package com.regionmanager.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Параллельные расчеты по неизменяемым снимкам регионов и позиций игроков
+ *
+ * Работа делится на диапазоны индексов и выполняется в отдельном ForkJoinPool,
+ * чтобы не занимать общий пул сервера. Ниже порога размера расчет идет в
+ * вызывающем потоке: для малых наборов накладные расходы на задачи больше выигрыша.
+ * Задачи только читают снимки; изменения по результатам применяет вызывающий поток.
+ */
+public final class ParallelAnalytics {
+
+    /**
+     * Обработка диапазона индексов [from, to) с целочисленным результатом
+     */
+    @FunctionalInterface
+    public interface RangeTask {
+        int run(int from, int to);
+    }
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * Конструктор
+     *
+     * @param parallelism число потоков пула
+     * @param threshold минимальный размер набора для параллельного расчета
+     */
+    public ParallelAnalytics(int parallelism, int threshold) {
+        this.pool = new ForkJoinPool(Math.max(1, parallelism), p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("RegionManager-Analytics-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        this.threshold = Math.max(2, threshold);
+    }
+
+    /**
+     * Проверить, будет ли набор такого размера обработан параллельно
+     */
+    public boolean isParallel(int size) {
+        return size >= threshold && !pool.isShutdown();
+    }
+
+    /**
+     * Обработать диапазон [0, size) и сложить результаты частей
+     */
+    public int sumRange(int size, RangeTask task) {
+        if (!isParallel(size)) {
+            return task.run(0, size);
+        }
+        int grain = Math.max(1, size / (pool.getParallelism() * 4));
+        return pool.invoke(new RangeSum(task, 0, size, grain));
+    }
+
+    /**
+     * Преобразовать элементы с сохранением порядка; null-результаты отбрасываются
+     */
+    @SuppressWarnings("unchecked")
+    public <T, R> List<R> map(List<T> items, Function<? super T, ? extends R> function) {
+        Object[] results = new Object[items.size()];
+        sumRange(items.size(), (from, to) -> {
+            for (int i = from; i < to; i++) {
+                results[i] = function.apply(items.get(i));
+            }
+            return 0;
+        });
+
+        List<R> mapped = new ArrayList<>(results.length);
+        for (Object result : results) {
+            if (result != null) {
+                mapped.add((R) result);
+            }
+        }
+        return mapped;
+    }
+
+    /**
+     * Построить строку результатов для каждого индекса [0, size) и объединить их по порядку
+     */
+    @SuppressWarnings("unchecked")
+    public <R> List<R> collectRows(int size, IntFunction<List<R>> rowFunction) {
+        Object[] rows = new Object[size];
+        sumRange(size, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                rows[i] = rowFunction.apply(i);
+            }
+            return 0;
+        });
+
+        List<R> merged = new ArrayList<>();
+        for (Object row : rows) {
+            if (row != null) {
+                merged.addAll((List<R>) row);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Получить число потоков пула
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Остановить пул
+     */
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Рекурсивное деление диапазона пополам до размера зерна
+     */
+    private static final class RangeSum extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final RangeTask task;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        RangeSum(RangeTask task, int from, int to, int grain) {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= grain) {
+                return task.run(from, to);
+            }
+            int middle = (from + to) >>> 1;
+            RangeSum left = new RangeSum(task, from, middle, grain);
+            left.fork();
+            int right = new RangeSum(task, middle, to, grain).compute();
+            return left.join() + right;
+        }
+    }
+}
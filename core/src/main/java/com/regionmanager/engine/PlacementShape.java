@@ -0,0 +1,47 @@
+package com.regionmanager.engine;
+
+import java.util.Locale;
+
+/**
+ * Форма регионов, подбираемых по скоплениям игроков
+ */
+public enum PlacementShape {
+
+    /**
+     * Квадрат по границам чанков
+     */
+    SQUARE,
+
+    /**
+     * Прямоугольник по границам чанков, стороны подбираются отдельно
+     */
+    RECTANGLE,
+
+    /**
+     * Набор чанков вокруг игроков, если он заметно меньше прямоугольника
+     */
+    CHUNKS;
+
+    /**
+     * Разобрать имя формы из конфигурации
+     *
+     * @return форма или fallback, если имя неизвестно
+     */
+    public static PlacementShape parse(String name, PlacementShape fallback) {
+        if (name == null) {
+            return fallback;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * Имя формы в конфигурации
+     */
+    public String getConfigName() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
@@ -0,0 +1,231 @@
+package com.regionmanager.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Скопление игроков, найденное DensityClusterer
+ *
+ * Хранит индексы игроков во входных массивах, границы и сумму координат для
+ * центроида.
+ */
+public final class PlayerCluster {
+
+    private final int[] members;
+    private final int minX;
+    private final int maxX;
+    private final int minZ;
+    private final int maxZ;
+    private final double centroidX;
+    private final double centroidZ;
+
+    PlayerCluster(int[] members, int[] xs, int[] zs) {
+        this.members = members;
+        int lowX = Integer.MAX_VALUE;
+        int highX = Integer.MIN_VALUE;
+        int lowZ = Integer.MAX_VALUE;
+        int highZ = Integer.MIN_VALUE;
+        long sumX = 0;
+        long sumZ = 0;
+        for (int i : members) {
+            lowX = Math.min(lowX, xs[i]);
+            highX = Math.max(highX, xs[i]);
+            lowZ = Math.min(lowZ, zs[i]);
+            highZ = Math.max(highZ, zs[i]);
+            sumX += xs[i];
+            sumZ += zs[i];
+        }
+        this.minX = lowX;
+        this.maxX = highX;
+        this.minZ = lowZ;
+        this.maxZ = highZ;
+        this.centroidX = (double) sumX / members.length;
+        this.centroidZ = (double) sumZ / members.length;
+    }
+
+    /**
+     * Подобрать регионы, покрывающие всех игроков скопления
+     *
+     * Сторона - протяженность скопления плюс запас с обеих сторон, в пределах
+     * [minSize, maxSize] (для квадрата - по большей протяженности). Центр - центроид,
+     * сдвинутый настолько, чтобы регион покрывал крайних игроков; затем граница
+     * выравнивается по чанкам, и если выравнивание оставило крайних игроков снаружи,
+     * регион расширяется до них. Для формы CHUNKS берутся чанки в пределах запаса от
+     * каждого игрока, если их не больше chunkFill от прямоугольника. Скопление шире
+     * maxSize делится на полосы сетки, и каждая непустая ячейка получает свой регион.
+     *
+     * @param xs координаты X, переданные в DensityClusterer
+     * @param zs координаты Z, переданные в DensityClusterer
+     * @param chunkFill наибольшая доля набора чанков от прямоугольника для формы CHUNKS
+     */
+    public List<RegionPlacement> place(int[] xs, int[] zs, int margin, int minSize, int maxSize,
+                                       PlacementShape shape, double chunkFill) {
+        List<RegionPlacement> placements = new ArrayList<>();
+        int tilesX = Math.max(1, ceilDiv(maxX - minX + 2 * margin, maxSize));
+        int tilesZ = Math.max(1, ceilDiv(maxZ - minZ + 2 * margin, maxSize));
+        if (tilesX == 1 && tilesZ == 1) {
+            placements.add(fit(xs, zs, margin, minSize, maxSize, shape, chunkFill));
+            return placements;
+        }
+
+        // Разбить на ячейки и подобрать регион для каждой непустой
+        int tileWidth = ceilDiv(maxX - minX + 1, tilesX);
+        int tileDepth = ceilDiv(maxZ - minZ + 1, tilesZ);
+        int[] tileCounts = new int[tilesX * tilesZ];
+        int[] tileOf = new int[members.length];
+        for (int m = 0; m < members.length; m++) {
+            int i = members[m];
+            int tile = Math.min(tilesX - 1, (xs[i] - minX) / tileWidth) * tilesZ
+                + Math.min(tilesZ - 1, (zs[i] - minZ) / tileDepth);
+            tileOf[m] = tile;
+            tileCounts[tile]++;
+        }
+        for (int tile = 0; tile < tileCounts.length; tile++) {
+            if (tileCounts[tile] == 0) {
+                continue;
+            }
+            int[] tileMembers = new int[tileCounts[tile]];
+            int n = 0;
+            for (int m = 0; m < members.length; m++) {
+                if (tileOf[m] == tile) {
+                    tileMembers[n++] = members[m];
+                }
+            }
+            placements.add(new PlayerCluster(tileMembers, xs, zs).fit(xs, zs, margin, minSize, maxSize, shape, chunkFill));
+        }
+        return placements;
+    }
+
+    private RegionPlacement fit(int[] xs, int[] zs, int margin, int minSize, int maxSize,
+                                PlacementShape shape, double chunkFill) {
+        int sideX = clampSide(maxX - minX + 2 * margin, minSize, maxSize);
+        int sideZ = clampSide(maxZ - minZ + 2 * margin, minSize, maxSize);
+        if (shape == PlacementShape.SQUARE) {
+            sideX = Math.max(sideX, sideZ);
+            sideZ = sideX;
+        }
+
+        int centerX = fitAxis(centroidX, minX, maxX, sideX / 2);
+        int centerZ = fitAxis(centroidZ, minZ, maxZ, sideZ / 2);
+        ChunkShape rectangle = shape == PlacementShape.SQUARE
+            ? ChunkShape.square(centerX, centerZ, sideX)
+            : ChunkShape.rectangle(centerX - sideX / 2, centerZ - sideZ / 2,
+                centerX + sideX / 2 - 1, centerZ + sideZ / 2 - 1);
+        if (!coversMembers(rectangle, xs, zs)) {
+            rectangle = cover(rectangle, shape == PlacementShape.SQUARE);
+        }
+        if (shape == PlacementShape.CHUNKS) {
+            ChunkShape chunks = chunksAround(xs, zs, margin, rectangle);
+            if (chunks.getChunkCount() <= rectangle.getChunkCount() * chunkFill) {
+                return new RegionPlacement(chunks, members.length);
+            }
+        }
+        return new RegionPlacement(rectangle, members.length);
+    }
+
+    private boolean coversMembers(ChunkShape region, int[] xs, int[] zs) {
+        for (int i : members) {
+            if (!region.contains(xs[i], zs[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Расширить прямоугольник до крайних игроков, которых выравнивание по чанкам
+     * или ограничение maxSize оставило снаружи; квадрат остается квадратом
+     */
+    private ChunkShape cover(ChunkShape region, boolean square) {
+        int fromX = Math.min(region.getMinChunkX(), minX >> 4);
+        int fromZ = Math.min(region.getMinChunkZ(), minZ >> 4);
+        int width = Math.max(region.getMinChunkX() + region.getWidth(), (maxX >> 4) + 1) - fromX;
+        int depth = Math.max(region.getMinChunkZ() + region.getDepth(), (maxZ >> 4) + 1) - fromZ;
+        if (square && width != depth) {
+            int side = Math.max(width, depth);
+            fromX -= (side - width) / 2;
+            fromZ -= (side - depth) / 2;
+            width = side;
+            depth = side;
+        }
+        return ChunkShape.of(fromX, fromZ, width, depth, null);
+    }
+
+    /**
+     * Чанки в пределах запаса от каждого игрока, в границах прямоугольника
+     */
+    private ChunkShape chunksAround(int[] xs, int[] zs, int margin, ChunkShape bounds) {
+        int width = bounds.getWidth();
+        int depth = bounds.getDepth();
+        boolean[] marked = new boolean[width * depth];
+        int count = 0;
+        for (int i : members) {
+            int fromX = Math.max(0, ((xs[i] - margin) >> 4) - bounds.getMinChunkX());
+            int toX = Math.min(width - 1, ((xs[i] + margin) >> 4) - bounds.getMinChunkX());
+            int fromZ = Math.max(0, ((zs[i] - margin) >> 4) - bounds.getMinChunkZ());
+            int toZ = Math.min(depth - 1, ((zs[i] + margin) >> 4) - bounds.getMinChunkZ());
+            for (int cx = fromX; cx <= toX; cx++) {
+                for (int cz = fromZ; cz <= toZ; cz++) {
+                    if (!marked[cx * depth + cz]) {
+                        marked[cx * depth + cz] = true;
+                        count++;
+                    }
+                }
+            }
+        }
+
+        int[] chunkXs = new int[count];
+        int[] chunkZs = new int[count];
+        int n = 0;
+        for (int cx = 0; cx < width; cx++) {
+            for (int cz = 0; cz < depth; cz++) {
+                if (marked[cx * depth + cz]) {
+                    chunkXs[n] = bounds.getMinChunkX() + cx;
+                    chunkZs[n] = bounds.getMinChunkZ() + cz;
+                    n++;
+                }
+            }
+        }
+        return count > 0 ? ChunkShape.ofChunks(chunkXs, chunkZs, count) : bounds;
+    }
+
+    /**
+     * Сторона в пределах [minSize, maxSize], четная: по size/2 блоков от центра
+     */
+    private static int clampSide(int side, int minSize, int maxSize) {
+        return Math.max(minSize, Math.min(maxSize, side)) & ~1;
+    }
+
+    /**
+     * Центр на оси как можно ближе к центроиду, при котором покрыты крайние точки
+     */
+    private static int fitAxis(double centroid, int min, int max, int radius) {
+        int center = (int) Math.round(centroid);
+        int low = max - radius;
+        int high = min + radius;
+        if (low > high) {
+            // Протяженность больше региона: покрыть середину
+            return (int) Math.floorDiv((long) min + max, 2);
+        }
+        return Math.max(low, Math.min(high, center));
+    }
+
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    /**
+     * Индексы игроков скопления во входных массивах
+     */
+    public int[] getMembers() {
+        return members.clone();
+    }
+
+    public int size() { return members.length; }
+    public int getMinX() { return minX; }
+    public int getMaxX() { return maxX; }
+    public int getMinZ() { return minZ; }
+    public int getMaxZ() { return maxZ; }
+    public double getCentroidX() { return centroidX; }
+    public double getCentroidZ() { return centroidZ; }
+}
@@ -0,0 +1,34 @@
+package com.regionmanager.engine;
+
+import java.util.UUID;
+
+/**
+ * Позиция игрока, переданная движку назначения
+ */
+public final class PositionUpdate {
+
+    private final UUID playerId;
+    private final String worldName;
+    private final int x;
+    private final int z;
+    // Регион игрока на момент отправки или null
+    private final String currentRegionId;
+
+    /**
+     * Конструктор обновления позиции
+     */
+    public PositionUpdate(UUID playerId, String worldName, int x, int z, String currentRegionId) {
+        this.playerId = playerId;
+        this.worldName = worldName;
+        this.x = x;
+        this.z = z;
+        this.currentRegionId = currentRegionId;
+    }
+
+    // Геттеры
+    public UUID getPlayerId() { return playerId; }
+    public String getWorldName() { return worldName; }
+    public int getX() { return x; }
+    public int getZ() { return z; }
+    public String getCurrentRegionId() { return currentRegionId; }
+}
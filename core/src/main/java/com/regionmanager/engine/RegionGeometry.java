@@ -0,0 +1,197 @@
+package com.regionmanager.engine;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Геометрия регионов на примитивных координатах
+ * Общая для главного потока и движка назначения, поэтому оба дают одинаковый результат
+ */
+public final class RegionGeometry {
+
+    private RegionGeometry() {
+    }
+
+    /**
+     * Проверить, находится ли точка в пределах квадратного региона
+     */
+    public static boolean contains(int centerX, int centerZ, int size, int x, int z) {
+        return Math.abs(x - centerX) <= size / 2 && Math.abs(z - centerZ) <= size / 2;
+    }
+
+    /**
+     * Квадрат расстояния между точками на плоскости
+     */
+    public static long distanceSquared(int x1, int z1, int x2, int z2) {
+        long dx = x1 - x2;
+        long dz = z1 - z2;
+        return dx * dx + dz * dz;
+    }
+
+    /**
+     * Найти регион мира, принимающий игроков, для точки
+     *
+     * Регион, содержащий точку, возвращается сразу. Иначе выбирается ближайший по
+     * центру регион, если точка не дальше его радиуса плюс дистанции проверки
+     * (но не дальше двух радиусов).
+     *
+     * @return регион или null, если подходящего нет
+     */
+    public static RegionView findNearest(Collection<RegionView> regions, String worldName, int x, int z,
+                                         int checkDistance) {
+        RegionView nearest = null;
+        long nearestDistanceSquared = Long.MAX_VALUE;
+
+        for (RegionView region : regions) {
+            if (!region.isActive() || !region.isAcceptingPlayers() || !region.getWorldName().equals(worldName)) {
+                continue;
+            }
+            if (region.contains(x, z)) {
+                return region;
+            }
+
+            int radius = region.getSize() / 2;
+            long maxAcceptable = Math.min(radius + checkDistance, radius * 2);
+            long distanceSquared = distanceSquared(region.getCenterX(), region.getCenterZ(), x, z);
+            if (distanceSquared <= maxAcceptable * maxAcceptable && distanceSquared < nearestDistanceSquared) {
+                nearestDistanceSquared = distanceSquared;
+                nearest = region;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Найти форму нового региона, содержащую точку и не мешающую активным регионам мира
+     *
+     * Сначала проверяется квадрат по границам чанков с центром в точке. Если он
+     * задевает соседей, перебираются квадраты того же размера, которые по-прежнему
+     * содержат точку и прилегают к границам соседей с ее стороны; из свободных
+     * выбирается квадрат с центром ближе к точке. Если места нет, размер уменьшается
+     * вдвое, но не меньше четверти размера региона. Место свободно, если квадрат не
+     * задевает формы активных регионов и его центр не ближе минимального расстояния
+     * к их центрам.
+     *
+     * @return форма, содержащая точку, или null, если подходящего места нет
+     */
+    public static ChunkShape findFreeShape(Collection<RegionView> regions, String worldName, int x, int z,
+                                           int regionSize, int minDistance) {
+        int fullChunks = Math.max(1, (regionSize + 15) >> 4);
+        int minChunks = Math.max(1, fullChunks / 4);
+
+        for (int chunks = fullChunks; chunks >= minChunks; chunks /= 2) {
+            ChunkShape centered = ChunkShape.square(x, z, chunks << 4);
+            if (isClear(regions, worldName, null, centered, minDistance)) {
+                return centered;
+            }
+
+            ChunkShape best = null;
+            long bestDistance = Long.MAX_VALUE;
+            int[] startsX = candidateStarts(regions, worldName, x >> 4, centered.getMinChunkX(), chunks, true);
+            int[] startsZ = candidateStarts(regions, worldName, z >> 4, centered.getMinChunkZ(), chunks, false);
+            for (int startX : startsX) {
+                for (int startZ : startsZ) {
+                    ChunkShape shape = ChunkShape.of(startX, startZ, chunks, chunks, null);
+                    long distance = distanceSquared(shape.getCenterX(), shape.getCenterZ(), x, z);
+                    if (distance < bestDistance && isClear(regions, worldName, null, shape, minDistance)) {
+                        best = shape;
+                        bestDistance = distance;
+                    }
+                }
+            }
+            if (best != null) {
+                return best;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Проверить, свободно ли место для нового региона заданной формы
+     */
+    public static boolean canPlace(Collection<RegionView> regions, String worldName, ChunkShape shape,
+                                   int minDistance) {
+        return isClear(regions, worldName, null, shape, minDistance);
+    }
+
+    /**
+     * Проверить, можно ли придать региону новую форму
+     *
+     * Новая форма не должна пересекаться с другими активными регионами мира, а ее
+     * центр - быть к их центрам ближе минимального расстояния, как при создании.
+     */
+    public static boolean canReshape(Collection<RegionView> regions, String worldName, String regionId,
+                                     ChunkShape shape, int minDistance) {
+        return isClear(regions, worldName, regionId, shape, minDistance);
+    }
+
+    /**
+     * Начальные чанки отрезков из chunks чанков по одной оси, содержащих чанк точки:
+     * отрезок по центру и отрезки, прилегающие к границам активных регионов мира со
+     * стороны точки. Регионы дальше двух отрезков от точки не рассматриваются.
+     */
+    private static int[] candidateStarts(Collection<RegionView> regions, String worldName, int chunk,
+                                         int centeredStart, int chunks, boolean alongX) {
+        int lowest = chunk - chunks + 1;
+        int[] starts = new int[1 + regions.size() * 2];
+        int count = 0;
+        starts[count++] = centeredStart;
+
+        for (RegionView region : regions) {
+            if (!region.isActive() || !region.getWorldName().equals(worldName)) {
+                continue;
+            }
+            ChunkShape other = shapeOf(region);
+            int from = alongX ? other.getMinChunkX() : other.getMinChunkZ();
+            int to = from + (alongX ? other.getWidth() : other.getDepth());
+            if (to <= chunk - chunks * 2 || from > chunk + chunks * 2) {
+                continue;
+            }
+            // Точка за верхней границей соседа - отрезок начинается сразу за ней,
+            // точка перед нижней - отрезок заканчивается перед ней
+            if (chunk >= to) {
+                starts[count++] = Math.max(lowest, to);
+            } else if (chunk < from) {
+                starts[count++] = Math.min(chunk, from - chunks);
+            }
+        }
+
+        int[] result = Arrays.copyOf(starts, count);
+        Arrays.sort(result);
+        int distinct = 0;
+        for (int i = 0; i < result.length; i++) {
+            if (i == 0 || result[i] != result[i - 1]) {
+                result[distinct++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+
+    /**
+     * Форма региона; для снимков без формы - квадрат по центру и размеру
+     */
+    private static ChunkShape shapeOf(RegionView region) {
+        return region.getShape() != null
+            ? region.getShape()
+            : ChunkShape.square(region.getCenterX(), region.getCenterZ(), region.getSize());
+    }
+
+    /**
+     * Проверить, что форма не задевает активные регионы мира (кроме ignoredId),
+     * а ее центр не ближе минимального расстояния к их центрам
+     */
+    private static boolean isClear(Collection<RegionView> regions, String worldName, String ignoredId,
+                                   ChunkShape shape, int minDistance) {
+        long minDistanceSquared = (long) minDistance * minDistance;
+        for (RegionView region : regions) {
+            if (!region.isActive() || region.getId().equals(ignoredId) || !region.getWorldName().equals(worldName)) {
+                continue;
+            }
+            if (shapeOf(region).intersects(shape) || distanceSquared(region.getCenterX(), region.getCenterZ(),
+                shape.getCenterX(), shape.getCenterZ()) < minDistanceSquared) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
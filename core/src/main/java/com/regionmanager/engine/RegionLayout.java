@@ -0,0 +1,60 @@
+package com.regionmanager.engine;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Неизменяемый снимок раскладки регионов, публикуемый главным потоком
+ */
+public final class RegionLayout {
+
+    public static final RegionLayout EMPTY = new RegionLayout(0L, Collections.emptyMap(), 0);
+
+    private final long version;
+    private final Map<String, RegionView> regions;
+    private final int activeCount;
+
+    /**
+     * Конструктор снимка
+     *
+     * @param regions представления регионов по идентификатору; не копируется и не должен изменяться
+     */
+    public RegionLayout(long version, Map<String, RegionView> regions, int activeCount) {
+        this.version = version;
+        this.regions = Collections.unmodifiableMap(regions);
+        this.activeCount = activeCount;
+    }
+
+    /**
+     * Найти регион, содержащий точку и принимающий игроков
+     */
+    public RegionView findAccepting(String worldName, int x, int z) {
+        for (RegionView region : regions.values()) {
+            if (region.isActive() && region.isAcceptingPlayers()
+                && region.getWorldName().equals(worldName) && region.contains(x, z)) {
+                return region;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Получить регион по идентификатору
+     */
+    public RegionView get(String id) {
+        return id != null ? regions.get(id) : null;
+    }
+
+    /**
+     * Получить все регионы
+     */
+    public List<RegionView> getRegions() {
+        return List.copyOf(regions.values());
+    }
+
+    // Геттеры
+    public long getVersion() { return version; }
+    public int getActiveCount() { return activeCount; }
+    public Map<String, RegionView> getRegionMap() { return regions; }
+}
@@ -0,0 +1,61 @@
+package com.regionmanager.engine;
+
+/**
+ * Побочные эффекты изменений реестра регионов
+ *
+ * Реестр вызывает слушателя в потоке изменения, после того как состояние уже
+ * обновлено. Плагин загружает и выгружает чанки и пишет журнал, симулятор считает
+ * запрошенные чанки. Все методы по умолчанию ничего не делают.
+ */
+public interface RegionListener {
+
+    /**
+     * Регион создан реестром (не восстановлен из снимка)
+     */
+    default void onRegionCreated(RegionState region) {
+    }
+
+    /**
+     * Регион выгружен или повторно активирован
+     */
+    default void onRegionStateChanged(RegionState region) {
+    }
+
+    /**
+     * Форма региона изменилась
+     *
+     * @param previous прежняя форма
+     */
+    default void onRegionShapeChanged(RegionState region, ChunkShape previous) {
+    }
+
+    /**
+     * Флаг принудительного региона изменился
+     */
+    default void onRegionForcedChanged(RegionState region) {
+    }
+
+    /**
+     * Из активного региона вышел последний игрок
+     */
+    default void onRegionEmptied(RegionState region) {
+    }
+
+    /**
+     * Регион удален из реестра
+     */
+    default void onRegionRemoved(RegionState region) {
+    }
+
+    /**
+     * Регион source объединен с target: игроки source перешли в target, source удален
+     */
+    default void onRegionsMerged(RegionState target, RegionState source) {
+    }
+
+    /**
+     * Достигнут лимит активных регионов; вызывается один раз, пока лимит не освободится
+     */
+    default void onActiveLimitReached(int maxActiveRegions) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.regionmanager.engine;
+
+/**
+ * Предлагаемое размещение региона: форма и число покрываемых игроков
+ */
+public final class RegionPlacement {
+
+    private final ChunkShape shape;
+    private final int playerCount;
+
+    public RegionPlacement(ChunkShape shape, int playerCount) {
+        this.shape = shape;
+        this.playerCount = playerCount;
+    }
+
+    /**
+     * Проверить, покрывает ли размещение точку
+     */
+    public boolean contains(int x, int z) {
+        return shape.contains(x, z);
+    }
+
+    public ChunkShape getShape() { return shape; }
+    public int getCenterX() { return shape.getCenterX(); }
+    public int getCenterZ() { return shape.getCenterZ(); }
+    public int getSize() { return shape.getSize(); }
+    public int getPlayerCount() { return playerCount; }
+}
@@ -0,0 +1,402 @@
+package com.regionmanager.engine;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Реестр регионов и распределение игроков по ним
+ *
+ * Хранит состояние регионов и принадлежность игроков, ведет версию раскладки и
+ * применяет решения движка назначения. Не обращается к серверу: плагин и
+ * симулятор получают побочные эффекты (чанки, журнал) через RegionListener.
+ * Изменения выполняются в едином последовательном потоке, чтение и снимки
+ * раскладки доступны из любых потоков.
+ */
+public class RegionRegistry {
+
+    /**
+     * Итог применения решения движка
+     */
+    public enum Outcome {
+        // Игрок уже в подходящем регионе
+        UNCHANGED,
+        // Игрок переведен в существующий регион
+        JOINED,
+        // Создан регион, игрок переведен в него
+        CREATED,
+        // Решение устарело - позицию нужно рассчитать заново
+        RETRY,
+        // Регион нужен, но достигнут лимит активных регионов
+        LIMITED
+    }
+
+    private final Map<String, RegionState> regions;
+    private final Map<UUID, RegionState> playerRegions;
+    private final AtomicInteger regionCounter;
+    // Растет при любом изменении регионов или их заполненности
+    private final AtomicLong version;
+    // Предупреждение о лимите активных регионов уже выдано
+    private final AtomicBoolean activeLimitReached;
+    private final int regionSize;
+    private final int minDistanceBetweenRegions;
+    private final int maxActiveRegions;
+    private final int maxPlayersPerRegion;
+    private final RegionListener listener;
+    // Снимок раскладки для частых поисков; пересоздается при смене версии
+    private volatile RegionLayout cachedLayout;
+
+    /**
+     * Конструктор реестра
+     */
+    public RegionRegistry(int regionSize, int minDistanceBetweenRegions, int maxActiveRegions,
+                          int maxPlayersPerRegion, RegionListener listener) {
+        this.regions = new ConcurrentHashMap<>();
+        this.playerRegions = new ConcurrentHashMap<>();
+        this.regionCounter = new AtomicInteger(0);
+        this.version = new AtomicLong(0L);
+        this.activeLimitReached = new AtomicBoolean(false);
+        this.regionSize = regionSize;
+        this.minDistanceBetweenRegions = minDistanceBetweenRegions;
+        this.maxActiveRegions = maxActiveRegions;
+        this.maxPlayersPerRegion = maxPlayersPerRegion;
+        this.listener = listener;
+    }
+
+    /**
+     * Применить решение движка для игрока, находящегося сейчас в точке (x, z) мира worldName
+     * Решение проверяется по текущему состоянию: раскладка могла измениться после расчета,
+     * а игрок - уйти из точки расчета. Форма нового региона берется из решения, только если
+     * версия раскладки не менялась и игрок все еще внутри формы, иначе решение нужно
+     * рассчитать заново.
+     */
+    public Outcome apply(UUID playerId, Assignment assignment, String worldName, int x, int z, long now) {
+        RegionState current = playerRegions.get(playerId);
+        if (current != null && current.isActive() && current.getWorldName().equals(worldName)
+            && current.contains(x, z)) {
+            return Outcome.UNCHANGED;
+        }
+
+        if (!assignment.getWorldName().equals(worldName)) {
+            return Outcome.RETRY;
+        }
+
+        if (assignment.getType() == Assignment.Type.JOIN) {
+            RegionState target = regions.get(assignment.getRegionId());
+            if (target == null || !canAccept(target) || !target.getWorldName().equals(worldName)
+                || !target.contains(x, z)) {
+                return Outcome.RETRY;
+            }
+            join(playerId, target, now);
+            return Outcome.JOINED;
+        }
+
+        // Регион мог появиться раньше в этой же пачке (например, для соседнего игрока)
+        RegionView existing = getLayout().findAccepting(worldName, x, z);
+        RegionState accepting = existing != null ? regions.get(existing.getId()) : null;
+        if (accepting != null && canAccept(accepting)) {
+            join(playerId, accepting, now);
+            return Outcome.JOINED;
+        }
+
+        if (isActiveLimitReached() || assignment.getType() == Assignment.Type.LIMIT) {
+            return Outcome.LIMITED;
+        }
+
+        if (assignment.getLayoutVersion() != version.get() || !assignment.getShape().contains(x, z)) {
+            return Outcome.RETRY;
+        }
+
+        RegionState created = create(worldName, assignment.getShape(), now);
+        if (created == null) {
+            return Outcome.LIMITED;
+        }
+        join(playerId, created, now);
+        return Outcome.CREATED;
+    }
+
+    /**
+     * Создать регион заданной формы
+     *
+     * @return новый регион или null, если достигнут лимит активных регионов
+     */
+    public RegionState create(String worldName, ChunkShape shape, long now) {
+        if (isActiveLimitReached()) {
+            return null;
+        }
+
+        RegionState region = new RegionState("region_" + regionCounter.incrementAndGet(), worldName, shape, now, now);
+        regions.put(region.getId(), region);
+        changed();
+        listener.onRegionCreated(region);
+        return region;
+    }
+
+    /**
+     * Восстановить регион из снимка без проверки лимита и без уведомления слушателя
+     *
+     * @return восстановленный регион или null, если регион с таким id уже есть
+     */
+    public RegionState restore(String id, String worldName, ChunkShape shape, long creationTime,
+                               long lastActivityTime, boolean forced, int peakPlayerCount, boolean active) {
+        if (regions.containsKey(id)) {
+            return null;
+        }
+
+        RegionState region = new RegionState(id, worldName, shape, creationTime, lastActivityTime);
+        region.setForced(forced);
+        region.restorePeak(peakPlayerCount);
+        region.setActive(active);
+        regions.put(id, region);
+        changed();
+        return region;
+    }
+
+    /**
+     * Перевести игрока в регион, убрав его из предыдущего
+     *
+     * @return false, если игрок уже в этом регионе
+     */
+    public boolean join(UUID playerId, RegionState region, long now) {
+        if (playerRegions.get(playerId) == region) {
+            return false;
+        }
+
+        leave(playerId, now);
+        region.addPlayer(playerId, now);
+        playerRegions.put(playerId, region);
+        changed();
+        return true;
+    }
+
+    /**
+     * Убрать игрока из его региона
+     *
+     * @return регион, из которого вышел игрок, или null
+     */
+    public RegionState leave(UUID playerId, long now) {
+        RegionState region = playerRegions.remove(playerId);
+        if (region == null) {
+            return null;
+        }
+
+        if (region.removePlayer(playerId, now)) {
+            changed();
+            if (region.getPlayerCount() == 0 && region.isActive()) {
+                listener.onRegionEmptied(region);
+            }
+        }
+        return region;
+    }
+
+    /**
+     * Выгрузить регион; выгруженный регион не занимает лимит активных регионов
+     */
+    public boolean deactivate(RegionState region) {
+        if (!region.isActive()) {
+            return false;
+        }
+
+        region.setActive(false);
+        changed();
+        listener.onRegionStateChanged(region);
+        return true;
+    }
+
+    /**
+     * Повторно активировать выгруженный регион
+     */
+    public boolean reactivate(RegionState region, long now) {
+        if (region.isActive()) {
+            return false;
+        }
+
+        region.setActive(true);
+        region.touch(now);
+        changed();
+        listener.onRegionStateChanged(region);
+        return true;
+    }
+
+    /**
+     * Изменить форму региона
+     */
+    public void reshape(RegionState region, ChunkShape shape, long now) {
+        ChunkShape previous = region.getShape();
+        if (previous.equals(shape)) {
+            return;
+        }
+
+        region.setShape(shape);
+        region.touch(now);
+        changed();
+        listener.onRegionShapeChanged(region, previous);
+    }
+
+    /**
+     * Установить флаг принудительного региона
+     */
+    public void setForced(RegionState region, boolean forced) {
+        if (region.isForced() != forced) {
+            region.setForced(forced);
+            listener.onRegionForcedChanged(region);
+        }
+    }
+
+    /**
+     * Удалить регион; его игроки остаются без региона
+     */
+    public boolean remove(RegionState region) {
+        if (!regions.remove(region.getId(), region)) {
+            return false;
+        }
+
+        for (UUID playerId : region.getPlayers()) {
+            playerRegions.remove(playerId, region);
+        }
+        changed();
+        listener.onRegionRemoved(region);
+        return true;
+    }
+
+    /**
+     * Объединить регионы: игроки source переходят в target, source удаляется
+     */
+    public boolean merge(RegionState target, RegionState source, long now) {
+        if (target == source || regions.get(target.getId()) != target || !regions.remove(source.getId(), source)) {
+            return false;
+        }
+
+        for (UUID playerId : source.getPlayers()) {
+            source.removePlayer(playerId, now);
+            target.addPlayer(playerId, now);
+            playerRegions.put(playerId, target);
+        }
+        changed();
+        listener.onRegionsMerged(target, source);
+        return true;
+    }
+
+    /**
+     * Выгрузить активные пустые регионы без активности дольше idleTime
+     * Принудительные регионы не выгружаются, регионы, для которых hold возвращает true, - тоже
+     *
+     * @return число выгруженных регионов
+     */
+    public int deactivateIdle(long idleTime, long now, Predicate<RegionState> hold) {
+        int deactivated = 0;
+        for (RegionState region : regions.values()) {
+            if (region.isActive() && region.getPlayerCount() == 0 && !region.isForced()
+                && now - region.getLastActivityTime() > idleTime
+                && (hold == null || !hold.test(region)) && deactivate(region)) {
+                deactivated++;
+            }
+        }
+        return deactivated;
+    }
+
+    /**
+     * Проверить, достигнут ли лимит активных регионов
+     * Слушатель уведомляется один раз при достижении лимита, а не при каждой попытке создания
+     */
+    public boolean isActiveLimitReached() {
+        if (getActiveCount() < maxActiveRegions) {
+            activeLimitReached.set(false);
+            return false;
+        }
+        if (activeLimitReached.compareAndSet(false, true)) {
+            listener.onActiveLimitReached(maxActiveRegions);
+        }
+        return true;
+    }
+
+    /**
+     * Проверить, может ли регион принять нового игрока
+     */
+    public boolean canAccept(RegionState region) {
+        return region.isActive() && region.getPlayerCount() < maxPlayersPerRegion;
+    }
+
+    /**
+     * Построить неизменяемый снимок раскладки для расчетов вне потока изменений
+     */
+    public RegionLayout createLayout() {
+        long current = version.get();
+        Map<String, RegionView> views = new HashMap<>();
+        int activeCount = 0;
+
+        for (RegionState region : regions.values()) {
+            views.put(region.getId(), region.view(maxPlayersPerRegion));
+            if (region.isActive()) {
+                activeCount++;
+            }
+        }
+
+        return new RegionLayout(current, views, activeCount);
+    }
+
+    /**
+     * Получить снимок раскладки текущей версии, пересоздавая его только после изменений
+     */
+    public RegionLayout getLayout() {
+        RegionLayout layout = cachedLayout;
+        if (layout == null || layout.getVersion() != version.get()) {
+            layout = createLayout();
+            cachedLayout = layout;
+        }
+        return layout;
+    }
+
+    /**
+     * Получить количество активных регионов
+     */
+    public int getActiveCount() {
+        int count = 0;
+        for (RegionState region : regions.values()) {
+            if (region.isActive()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Учесть номер последнего выданного id, например из снимка
+     */
+    public void restoreCounter(int counter) {
+        regionCounter.accumulateAndGet(counter, Math::max);
+    }
+
+    /**
+     * Удалить все регионы и игроков
+     */
+    public void clear() {
+        regions.clear();
+        playerRegions.clear();
+        changed();
+    }
+
+    private void changed() {
+        version.incrementAndGet();
+    }
+
+    // Геттеры
+    public RegionState get(String id) { return id != null ? regions.get(id) : null; }
+    public Collection<RegionState> getRegions() { return Collections.unmodifiableCollection(regions.values()); }
+    public RegionState getPlayerRegion(UUID playerId) { return playerRegions.get(playerId); }
+    public int getPlayerCount() { return playerRegions.size(); }
+    public int getRegionCount() { return regions.size(); }
+    public int getRegionCounter() { return regionCounter.get(); }
+    public long getVersion() { return version.get(); }
+    public int getRegionSize() { return regionSize; }
+    public int getMinDistanceBetweenRegions() { return minDistanceBetweenRegions; }
+    public int getMaxActiveRegions() { return maxActiveRegions; }
+    public int getMaxPlayersPerRegion() { return maxPlayersPerRegion; }
+}
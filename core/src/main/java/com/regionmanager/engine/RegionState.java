@@ -0,0 +1,125 @@
+package com.regionmanager.engine;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Состояние региона без привязки к серверу
+ *
+ * Форма по границам чанков, игроки, флаги активности и принудительного региона.
+ * Меняется только через RegionRegistry в едином последовательном потоке, читается
+ * из любых потоков. Время задается вызывающим в его единицах: миллисекунды на
+ * сервере, тики в симуляторе.
+ */
+public final class RegionState {
+
+    private final String id;
+    private final String worldName;
+    private final Set<UUID> players;
+    private final long creationTime;
+    private final AtomicInteger peakPlayerCount;
+    private volatile ChunkShape shape;
+    private volatile long lastActivityTime;
+    private volatile boolean active;
+    private volatile boolean forced;
+    private volatile double costScore;
+
+    RegionState(String id, String worldName, ChunkShape shape, long creationTime, long lastActivityTime) {
+        this.id = id;
+        this.worldName = worldName;
+        this.shape = shape;
+        this.players = ConcurrentHashMap.newKeySet();
+        this.creationTime = creationTime;
+        this.lastActivityTime = lastActivityTime;
+        this.peakPlayerCount = new AtomicInteger();
+        this.active = true;
+    }
+
+    /**
+     * Проверить, находится ли точка в пределах региона
+     */
+    public boolean contains(int x, int z) {
+        return shape.contains(x, z);
+    }
+
+    /**
+     * Проверить, находится ли чанк в пределах региона
+     */
+    public boolean containsChunk(int chunkX, int chunkZ) {
+        return shape.containsChunk(chunkX, chunkZ);
+    }
+
+    /**
+     * Опубликовать оценку стоимости по последней выборке
+     * Не меняет раскладку: оценка попадает в следующий снимок
+     */
+    public void setCostScore(double costScore) {
+        this.costScore = costScore;
+    }
+
+    /**
+     * Неизменяемое представление для снимка раскладки
+     */
+    RegionView view(int maxPlayersPerRegion) {
+        ChunkShape current = shape;
+        int playerCount = players.size();
+        return new RegionView(id, worldName, current.getCenterX(), current.getCenterZ(), current.getSize(), active,
+            active && playerCount < maxPlayersPerRegion, playerCount, costScore, current);
+    }
+
+    boolean addPlayer(UUID playerId, long now) {
+        if (!players.add(playerId)) {
+            return false;
+        }
+        peakPlayerCount.accumulateAndGet(players.size(), Math::max);
+        lastActivityTime = now;
+        return true;
+    }
+
+    boolean removePlayer(UUID playerId, long now) {
+        if (!players.remove(playerId)) {
+            return false;
+        }
+        lastActivityTime = now;
+        return true;
+    }
+
+    void setShape(ChunkShape shape) {
+        this.shape = shape;
+    }
+
+    void setActive(boolean active) {
+        this.active = active;
+    }
+
+    void setForced(boolean forced) {
+        this.forced = forced;
+    }
+
+    void touch(long now) {
+        this.lastActivityTime = now;
+    }
+
+    void restorePeak(int peakPlayerCount) {
+        this.peakPlayerCount.accumulateAndGet(peakPlayerCount, Math::max);
+    }
+
+    // Геттеры
+    public String getId() { return id; }
+    public String getWorldName() { return worldName; }
+    public ChunkShape getShape() { return shape; }
+    public int getCenterX() { return shape.getCenterX(); }
+    public int getCenterZ() { return shape.getCenterZ(); }
+    public int getSize() { return shape.getSize(); }
+    public Set<UUID> getPlayers() { return Collections.unmodifiableSet(players); }
+    public int getPlayerCount() { return players.size(); }
+    public long getCreationTime() { return creationTime; }
+    public long getLastActivityTime() { return lastActivityTime; }
+    public int getPeakPlayerCount() { return peakPlayerCount.get(); }
+    public boolean isActive() { return active; }
+    public boolean isForced() { return forced; }
+    public double getCostScore() { return costScore; }
+}
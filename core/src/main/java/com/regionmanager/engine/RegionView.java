@@ -0,0 +1,66 @@
+package com.regionmanager.engine;
+
+/**
+ * Неизменяемое представление региона для расчетов вне главного потока
+ * Содержит только примитивные данные, необходимые для геометрии назначения
+ */
+public final class RegionView {
+
+    private final String id;
+    private final String worldName;
+    private final int centerX;
+    private final int centerZ;
+    private final int size;
+    private final boolean active;
+    private final boolean acceptingPlayers;
+    private final int playerCount;
+    private final double costScore;
+    private final ChunkShape shape;
+
+    /**
+     * Конструктор представления квадратного региона
+     */
+    public RegionView(String id, String worldName, int centerX, int centerZ, int size,
+                      boolean active, boolean acceptingPlayers, int playerCount, double costScore) {
+        this(id, worldName, centerX, centerZ, size, active, acceptingPlayers, playerCount, costScore, null);
+    }
+
+    /**
+     * Конструктор представления
+     *
+     * @param shape форма по границам чанков или null для квадрата по центру и размеру
+     */
+    public RegionView(String id, String worldName, int centerX, int centerZ, int size,
+                      boolean active, boolean acceptingPlayers, int playerCount, double costScore,
+                      ChunkShape shape) {
+        this.id = id;
+        this.worldName = worldName;
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.size = size;
+        this.active = active;
+        this.acceptingPlayers = acceptingPlayers;
+        this.playerCount = playerCount;
+        this.costScore = costScore;
+        this.shape = shape;
+    }
+
+    /**
+     * Проверить, находится ли точка в пределах региона
+     */
+    public boolean contains(int x, int z) {
+        return shape != null ? shape.contains(x, z) : RegionGeometry.contains(centerX, centerZ, size, x, z);
+    }
+
+    // Геттеры
+    public String getId() { return id; }
+    public String getWorldName() { return worldName; }
+    public int getCenterX() { return centerX; }
+    public int getCenterZ() { return centerZ; }
+    public int getSize() { return size; }
+    public boolean isActive() { return active; }
+    public boolean isAcceptingPlayers() { return acceptingPlayers; }
+    public int getPlayerCount() { return playerCount; }
+    public double getCostScore() { return costScore; }
+    public ChunkShape getShape() { return shape; }
+}
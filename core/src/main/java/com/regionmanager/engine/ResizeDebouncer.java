@@ -0,0 +1,237 @@
+package com.regionmanager.engine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Отложенное изменение размера регионов
+ *
+ * Запросы на изменение радиуса копятся и применяются не чаще раза в интервал на
+ * регион: из нескольких запросов роста остается наибольший, из запросов сжатия -
+ * наименьший. Полосы гистерезиса отсекают мелкие изменения: рост меньше growBand
+ * и сжатие меньше shrinkBand от текущего радиуса не выполняются. Рост отменяет
+ * ожидающее сжатие, а сжатие не принимается, пока с последнего запроса роста не
+ * прошло shrinkCooldown тиков. Все методы синхронизированы.
+ */
+public final class ResizeDebouncer {
+
+    private final int intervalTicks;
+    private final double growBand;
+    private final double shrinkBand;
+    private final int shrinkCooldownTicks;
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private long requested;
+    private long coalesced;
+    private long suppressed;
+    private long appliedGrows;
+    private long appliedShrinks;
+
+    /**
+     * @param intervalTicks наименьший интервал между изменениями одного региона
+     * @param growBand доля текущего радиуса, меньше которой рост не выполняется
+     * @param shrinkBand доля текущего радиуса, меньше которой сжатие не выполняется
+     * @param shrinkCooldownTicks пауза после запроса роста, в течение которой сжатие не принимается
+     */
+    public ResizeDebouncer(int intervalTicks, double growBand, double shrinkBand, int shrinkCooldownTicks) {
+        this.intervalTicks = Math.max(1, intervalTicks);
+        this.growBand = growBand;
+        this.shrinkBand = shrinkBand;
+        this.shrinkCooldownTicks = shrinkCooldownTicks;
+    }
+
+    /**
+     * Запросить изменение радиуса региона
+     *
+     * @return true, если запрос принят к применению
+     */
+    public synchronized boolean request(String regionId, int currentRadius, int targetRadius, long tick) {
+        if (targetRadius == currentRadius) {
+            return false;
+        }
+        requested++;
+        Entry entry = entries.computeIfAbsent(regionId, k -> new Entry());
+        entry.lastRequestTick = tick;
+
+        if (targetRadius > currentRadius) {
+            entry.lastGrowTick = tick;
+            if (entry.pending && !entry.pendingGrow) {
+                // Рост отменяет ожидающее сжатие
+                entry.pending = false;
+            }
+            if (targetRadius < currentRadius + currentRadius * growBand) {
+                suppressed++;
+                return false;
+            }
+            if (entry.pending) {
+                coalesced++;
+                entry.pendingRadius = Math.max(entry.pendingRadius, targetRadius);
+            } else {
+                entry.setPending(targetRadius, true);
+            }
+            return true;
+        }
+
+        boolean coolingDown = entry.lastGrowTick != Long.MIN_VALUE && tick - entry.lastGrowTick < shrinkCooldownTicks;
+        if (coolingDown || targetRadius > currentRadius - currentRadius * shrinkBand) {
+            suppressed++;
+            return false;
+        }
+        if (entry.pending) {
+            coalesced++;
+            if (!entry.pendingGrow) {
+                entry.pendingRadius = Math.min(entry.pendingRadius, targetRadius);
+            }
+        } else {
+            entry.setPending(targetRadius, false);
+        }
+        return true;
+    }
+
+    /**
+     * Забрать изменения, интервал которых истек
+     *
+     * Заодно забываются регионы без ожидающих изменений, по которым уже не действуют
+     * ни интервал, ни пауза сжатия.
+     */
+    public synchronized List<Change> drain(long tick) {
+        List<Change> due = null;
+        long retention = Math.max(intervalTicks, shrinkCooldownTicks);
+
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Entry> mapEntry = iterator.next();
+            Entry entry = mapEntry.getValue();
+            if (!entry.pending) {
+                if (tick - Math.max(entry.lastAppliedTick, entry.lastRequestTick) > retention) {
+                    iterator.remove();
+                }
+                continue;
+            }
+            if (entry.lastAppliedTick != Long.MIN_VALUE && tick - entry.lastAppliedTick < intervalTicks) {
+                continue;
+            }
+
+            if (due == null) {
+                due = new ArrayList<>();
+            }
+            due.add(new Change(mapEntry.getKey(), entry.pendingRadius, entry.pendingGrow));
+            entry.pending = false;
+            entry.lastAppliedTick = tick;
+        }
+        return due != null ? due : List.of();
+    }
+
+    /**
+     * Учесть примененное изменение
+     */
+    public synchronized void recordApplied(boolean grow) {
+        if (grow) {
+            appliedGrows++;
+        } else {
+            appliedShrinks++;
+        }
+    }
+
+    /**
+     * Проверить, ждет ли регион изменения или менялся меньше интервала назад
+     */
+    public synchronized boolean isBusy(String regionId, long tick) {
+        Entry entry = entries.get(regionId);
+        if (entry == null) {
+            return false;
+        }
+        return entry.pending || entry.lastAppliedTick != Long.MIN_VALUE && tick - entry.lastAppliedTick < intervalTicks;
+    }
+
+    /**
+     * Забыть регион (удален или объединен)
+     */
+    public synchronized void forget(String regionId) {
+        entries.remove(regionId);
+    }
+
+    public synchronized long getRequested() {
+        return requested;
+    }
+
+    /**
+     * Запросы, объединенные с уже ожидающим изменением
+     */
+    public synchronized long getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * Запросы, отклоненные гистерезисом или паузой сжатия
+     */
+    public synchronized long getSuppressed() {
+        return suppressed;
+    }
+
+    public synchronized long getAppliedGrows() {
+        return appliedGrows;
+    }
+
+    public synchronized long getAppliedShrinks() {
+        return appliedShrinks;
+    }
+
+    public synchronized int getPendingCount() {
+        int pending = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.pending) {
+                pending++;
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Изменение радиуса, готовое к применению
+     */
+    public static final class Change {
+        private final String regionId;
+        private final int radius;
+        private final boolean grow;
+
+        Change(String regionId, int radius, boolean grow) {
+            this.regionId = regionId;
+            this.radius = radius;
+            this.grow = grow;
+        }
+
+        public String getRegionId() {
+            return regionId;
+        }
+
+        public int getRadius() {
+            return radius;
+        }
+
+        /**
+         * Рост (true) или сжатие (false); изменение в обратную сторону не применяется
+         */
+        public boolean isGrow() {
+            return grow;
+        }
+    }
+
+    private static final class Entry {
+        boolean pending;
+        boolean pendingGrow;
+        int pendingRadius;
+        long lastAppliedTick = Long.MIN_VALUE;
+        long lastGrowTick = Long.MIN_VALUE;
+        long lastRequestTick;
+
+        void setPending(int radius, boolean grow) {
+            pending = true;
+            pendingGrow = grow;
+            pendingRadius = radius;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.regionmanager.motion;
+
+import java.util.Arrays;
+
+/**
+ * Гистограмма ошибок предсказания на примитивных счетчиках
+ *
+ * Ошибки раскладываются по корзинам шириной BIN_WIDTH блоков, все, что дальше
+ * последней корзины, попадает в нее. Кроме корзин хранятся сумма ошибок и число
+ * попаданий в предсказанный регион. Экземпляр не потокобезопасен; общий для всех
+ * игроков экземпляр синхронизирует вызывающий.
+ */
+public final class ErrorHistogram {
+
+    public static final int BIN_WIDTH = 4;
+    public static final int BIN_COUNT = 64;
+
+    private final long[] bins = new long[BIN_COUNT];
+    private long count;
+    private long hits;
+    private double errorSum;
+
+    /**
+     * Учесть разрешенное предсказание
+     *
+     * @param error расстояние от предсказанной до фактической позиции, блоки
+     * @param hit фактическая позиция оказалась в предсказанном регионе
+     */
+    public void record(double error, boolean hit) {
+        int bin = (int) Math.min(BIN_COUNT - 1, Math.max(0.0, error) / BIN_WIDTH);
+        bins[bin]++;
+        count++;
+        errorSum += error;
+        if (hit) {
+            hits++;
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanError() {
+        return count == 0 ? 0.0 : errorSum / count;
+    }
+
+    public double getHitRate() {
+        return count == 0 ? 0.0 : (double) hits / count;
+    }
+
+    /**
+     * Ошибка, не превышаемая долей q предсказаний (верхняя граница корзины)
+     */
+    public double getPercentile(double q) {
+        if (count == 0) {
+            return 0.0;
+        }
+        long rank = (long) Math.ceil(q * count);
+        long seen = 0;
+        for (int bin = 0; bin < BIN_COUNT; bin++) {
+            seen += bins[bin];
+            if (seen >= rank) {
+                return (bin + 1) * (double) BIN_WIDTH;
+            }
+        }
+        return BIN_COUNT * (double) BIN_WIDTH;
+    }
+
+    public void clear() {
+        Arrays.fill(bins, 0L);
+        count = 0;
+        hits = 0;
+        errorSum = 0.0;
+    }
+}
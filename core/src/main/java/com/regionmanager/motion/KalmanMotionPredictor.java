@@ -0,0 +1,209 @@
+package com.regionmanager.motion;
+
+/**
+ * Предсказание фильтром Калмана по тиковым приращениям
+ *
+ * Оси X и Z фильтруются независимо. Состояние оси - позиция, скорость и ускорение
+ * (в блоках, тиках). Модель постоянной скорости держит ускорение равным нулю и
+ * считает его белым шумом; модель постоянного ускорения считает белым шумом рывок.
+ * Предсказание дает позицию и радиус неопределенности: заданное число стандартных
+ * отклонений позиции на горизонте, с учетом накопленного шума процесса.
+ */
+public final class KalmanMotionPredictor implements MotionPredictor {
+
+    // Начальная дисперсия скорости: до 2 блоков за тик (полет на элитрах)
+    private static final double INITIAL_VELOCITY_VARIANCE = 4.0;
+    private static final double INITIAL_ACCELERATION_VARIANCE = 0.01;
+
+    private final boolean constantAcceleration;
+    private final double processNoise;
+    private final double measurementNoise;
+    private final double confidence;
+    private final int maxGapTicks;
+    private final Axis axisX = new Axis();
+    private final Axis axisZ = new Axis();
+    private boolean initialized;
+    private long lastTick;
+
+    /**
+     * @param constantAcceleration модель постоянного ускорения вместо постоянной скорости
+     * @param processNoise спектральная плотность шума процесса (ускорения или рывка)
+     * @param measurementNoise дисперсия ошибки наблюдения позиции, блоки^2
+     * @param confidence число стандартных отклонений в радиусе неопределенности
+     * @param maxGapTicks перерыв в наблюдениях, после которого фильтр начинается заново
+     */
+    public KalmanMotionPredictor(boolean constantAcceleration, double processNoise, double measurementNoise,
+                                 double confidence, int maxGapTicks) {
+        this.constantAcceleration = constantAcceleration;
+        this.processNoise = processNoise;
+        this.measurementNoise = measurementNoise;
+        this.confidence = confidence;
+        this.maxGapTicks = maxGapTicks;
+    }
+
+    @Override
+    public void observe(long tick, double x, double z) {
+        long gap = tick - lastTick;
+        if (!initialized || gap < 0 || gap > maxGapTicks) {
+            axisX.start(x);
+            axisZ.start(z);
+            initialized = true;
+            lastTick = tick;
+            return;
+        }
+
+        if (gap > 0) {
+            axisX.propagate(gap);
+            axisZ.propagate(gap);
+        }
+        axisX.correct(x);
+        axisZ.correct(z);
+        lastTick = tick;
+    }
+
+    @Override
+    public MotionEstimate predict(int horizonTicks) {
+        if (!initialized) {
+            return null;
+        }
+        double varianceX = axisX.predictedVariance(horizonTicks);
+        double varianceZ = axisZ.predictedVariance(horizonTicks);
+        return new MotionEstimate(axisX.predictedPosition(horizonTicks), axisZ.predictedPosition(horizonTicks),
+            confidence * Math.sqrt(varianceX + varianceZ));
+    }
+
+    @Override
+    public void reset() {
+        initialized = false;
+    }
+
+    /**
+     * Скорость по оси X в блоках за тик
+     */
+    public double getVelocityX() {
+        return axisX.v;
+    }
+
+    /**
+     * Скорость по оси Z в блоках за тик
+     */
+    public double getVelocityZ() {
+        return axisZ.v;
+    }
+
+    /**
+     * Фильтр одной оси: состояние (p, v, a) и симметричная ковариация 3x3
+     */
+    private final class Axis {
+        double p;
+        double v;
+        double a;
+        double pp;
+        double pv;
+        double pa;
+        double vv;
+        double va;
+        double aa;
+
+        void start(double position) {
+            p = position;
+            v = 0.0;
+            a = 0.0;
+            pp = measurementNoise;
+            pv = 0.0;
+            pa = 0.0;
+            vv = INITIAL_VELOCITY_VARIANCE;
+            va = 0.0;
+            aa = constantAcceleration ? INITIAL_ACCELERATION_VARIANCE : 0.0;
+        }
+
+        /**
+         * Шаг предсказания на dt тиков: x = F x, P = F P F^T + Q
+         */
+        void propagate(double dt) {
+            double h2 = dt * dt / 2.0;
+            p += v * dt + a * h2;
+            v += a * dt;
+
+            // F P, строки 0 и 1 (строка 2 не меняется)
+            double f00 = pp + dt * pv + h2 * pa;
+            double f01 = pv + dt * vv + h2 * va;
+            double f02 = pa + dt * va + h2 * aa;
+            double f11 = vv + dt * va;
+            double f12 = va + dt * aa;
+
+            pp = f00 + dt * f01 + h2 * f02 + qPositionPosition(dt);
+            pv = f01 + dt * f02 + qPositionVelocity(dt);
+            pa = f02 + qPositionAcceleration(dt);
+            vv = f11 + dt * f12 + qVelocityVelocity(dt);
+            va = f12 + qVelocityAcceleration(dt);
+            aa = aa + qAccelerationAcceleration(dt);
+        }
+
+        /**
+         * Шаг коррекции по наблюдению позиции
+         */
+        void correct(double measured) {
+            double s = pp + measurementNoise;
+            double k0 = pp / s;
+            double k1 = pv / s;
+            double k2 = pa / s;
+            double residual = measured - p;
+
+            p += k0 * residual;
+            v += k1 * residual;
+            a += k2 * residual;
+
+            double oldPp = pp;
+            double oldPv = pv;
+            double oldPa = pa;
+            pp -= k0 * oldPp;
+            pv -= k0 * oldPv;
+            pa -= k0 * oldPa;
+            vv -= k1 * oldPv;
+            va -= k1 * oldPa;
+            aa -= k2 * oldPa;
+        }
+
+        double predictedPosition(double horizon) {
+            return p + v * horizon + a * horizon * horizon / 2.0;
+        }
+
+        /**
+         * Дисперсия позиции на горизонте без изменения состояния
+         */
+        double predictedVariance(double horizon) {
+            double h2 = horizon * horizon / 2.0;
+            double f00 = pp + horizon * pv + h2 * pa;
+            double f01 = pv + horizon * vv + h2 * va;
+            double f02 = pa + horizon * va + h2 * aa;
+            return f00 + horizon * f01 + h2 * f02 + qPositionPosition(horizon);
+        }
+    }
+
+    // Шум процесса: белый шум ускорения (постоянная скорость) или рывка (постоянное ускорение)
+
+    private double qPositionPosition(double dt) {
+        return constantAcceleration ? processNoise * Math.pow(dt, 5) / 20.0 : processNoise * dt * dt * dt / 3.0;
+    }
+
+    private double qPositionVelocity(double dt) {
+        return constantAcceleration ? processNoise * Math.pow(dt, 4) / 8.0 : processNoise * dt * dt / 2.0;
+    }
+
+    private double qPositionAcceleration(double dt) {
+        return constantAcceleration ? processNoise * dt * dt * dt / 6.0 : 0.0;
+    }
+
+    private double qVelocityVelocity(double dt) {
+        return constantAcceleration ? processNoise * dt * dt * dt / 3.0 : processNoise * dt;
+    }
+
+    private double qVelocityAcceleration(double dt) {
+        return constantAcceleration ? processNoise * dt * dt / 2.0 : 0.0;
+    }
+
+    private double qAccelerationAcceleration(double dt) {
+        return constantAcceleration ? processNoise * dt : 0.0;
+    }
+}
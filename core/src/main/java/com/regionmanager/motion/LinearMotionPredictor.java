@@ -0,0 +1,52 @@
+package com.regionmanager.motion;
+
+/**
+ * Прямолинейное предсказание по средней скорости и среднему направлению
+ *
+ * Скорость и направление считаются по последним наблюдениям, позиция
+ * экстраполируется по прямой. Неопределенность не оценивается.
+ */
+public final class LinearMotionPredictor implements MotionPredictor {
+
+    private static final int HISTORY_SIZE = 10;
+
+    private final MovementHistory history;
+    private boolean hasLast;
+    private long lastTick;
+    private double lastX;
+    private double lastZ;
+
+    public LinearMotionPredictor() {
+        this.history = new MovementHistory(HISTORY_SIZE);
+    }
+
+    @Override
+    public void observe(long tick, double x, double z) {
+        if (hasLast && tick > lastTick) {
+            double dx = x - lastX;
+            double dz = z - lastZ;
+            // Скорость в блоках за тик
+            history.add(Math.sqrt(dx * dx + dz * dz) / (tick - lastTick), Math.atan2(dz, dx));
+        }
+        hasLast = true;
+        lastTick = tick;
+        lastX = x;
+        lastZ = z;
+    }
+
+    @Override
+    public MotionEstimate predict(int horizonTicks) {
+        if (history.size() == 0) {
+            return null;
+        }
+        double distance = history.getAverageSpeed() * horizonTicks;
+        double direction = history.getAverageDirection();
+        return new MotionEstimate(lastX + distance * Math.cos(direction), lastZ + distance * Math.sin(direction), 0.0);
+    }
+
+    @Override
+    public void reset() {
+        history.clear();
+        hasLast = false;
+    }
+}
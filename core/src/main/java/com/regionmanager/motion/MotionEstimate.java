@@ -0,0 +1,26 @@
+package com.regionmanager.motion;
+
+/**
+ * Предсказанная позиция игрока на плоскости и радиус неопределенности
+ */
+public final class MotionEstimate {
+
+    private final double x;
+    private final double z;
+    private final double uncertainty;
+
+    public MotionEstimate(double x, double z, double uncertainty) {
+        this.x = x;
+        this.z = z;
+        this.uncertainty = uncertainty;
+    }
+
+    public double getX() { return x; }
+    public double getZ() { return z; }
+
+    /**
+     * Радиус в блоках, в котором с заданной достоверностью окажется игрок;
+     * 0, если модель неопределенность не оценивает
+     */
+    public double getUncertainty() { return uncertainty; }
+}
@@ -0,0 +1,30 @@
+package com.regionmanager.motion;
+
+/**
+ * Предсказатель движения одного игрока
+ *
+ * Получает наблюдения позиции с номером тика и предсказывает позицию через
+ * заданное число тиков. Экземпляр хранит состояние одного игрока и не
+ * потокобезопасен.
+ */
+public interface MotionPredictor {
+
+    /**
+     * Учесть наблюдение позиции
+     *
+     * @param tick номер тика наблюдения, не убывает
+     */
+    void observe(long tick, double x, double z);
+
+    /**
+     * Предсказать позицию через horizonTicks тиков после последнего наблюдения
+     *
+     * @return оценка или null, если наблюдений недостаточно
+     */
+    MotionEstimate predict(int horizonTicks);
+
+    /**
+     * Сбросить состояние (телепортация, смена мира)
+     */
+    void reset();
+}
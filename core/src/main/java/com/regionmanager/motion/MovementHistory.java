@@ -0,0 +1,107 @@
+package com.regionmanager.motion;
+
+/**
+ * История скорости и направления движения фиксированной длины
+ *
+ * Хранится в кольцевом буфере примитивных массивов. Суммы скорости, синуса и
+ * косинуса направления обновляются при добавлении и вытеснении измерения, поэтому
+ * средние считаются за O(1) без выделения памяти.
+ */
+public final class MovementHistory {
+
+    private final int capacity;
+    private final double[] speeds;
+    private final double[] directions;
+    private final double[] sins;
+    private final double[] coss;
+    // Индекс следующей записи и число измерений в буфере
+    private int head;
+    private int size;
+    private double speedSum;
+    private double sinSum;
+    private double cosSum;
+
+    public MovementHistory(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.speeds = new double[this.capacity];
+        this.directions = new double[this.capacity];
+        this.sins = new double[this.capacity];
+        this.coss = new double[this.capacity];
+    }
+
+    /**
+     * Добавить измерение, вытеснив самое старое при заполненном буфере
+     */
+    public void add(double speed, double direction) {
+        double sin = Math.sin(direction);
+        double cos = Math.cos(direction);
+
+        if (size == capacity) {
+            speedSum -= speeds[head];
+            sinSum -= sins[head];
+            cosSum -= coss[head];
+        } else {
+            size++;
+        }
+
+        speeds[head] = speed;
+        directions[head] = direction;
+        sins[head] = sin;
+        coss[head] = cos;
+        speedSum += speed;
+        sinSum += sin;
+        cosSum += cos;
+
+        head = (head + 1) % capacity;
+        if (head == 0) {
+            // Раз за оборот суммы пересчитываются, чтобы не копить ошибку округления
+            recomputeSums();
+        }
+    }
+
+    private void recomputeSums() {
+        speedSum = 0.0;
+        sinSum = 0.0;
+        cosSum = 0.0;
+        for (int i = 0; i < size; i++) {
+            speedSum += speeds[i];
+            sinSum += sins[i];
+            cosSum += coss[i];
+        }
+    }
+
+    public double getAverageSpeed() {
+        return size == 0 ? 0.0 : speedSum / size;
+    }
+
+    /**
+     * Среднее направление с учетом циклической природы углов
+     */
+    public double getAverageDirection() {
+        return size == 0 ? 0.0 : Math.atan2(sinSum, cosSum);
+    }
+
+    public double getLastSpeed() {
+        return size > 0 ? speeds[lastIndex()] : 0.0;
+    }
+
+    public double getLastDirection() {
+        return size > 0 ? directions[lastIndex()] : 0.0;
+    }
+
+    private int lastIndex() {
+        return (head + capacity - 1) % capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        speedSum = 0.0;
+        sinSum = 0.0;
+        cosSum = 0.0;
+    }
+}
@@ -0,0 +1,184 @@
+package com.regionmanager.motion;
+
+import com.regionmanager.engine.ChunkShape;
+
+import java.util.Arrays;
+
+/**
+ * Проверка точности предсказаний игрока и подстройка горизонта
+ *
+ * Раз в sampleInterval тиков предсказание запоминается вместе с тиком, на который
+ * оно сделано, и регионом, подготовленным под предсказанную точку. Когда этот тик
+ * наступает, предсказание сравнивается с фактической позицией: ошибка попадает в
+ * гистограммы игрока и общую, попаданием считается фактическая позиция внутри
+ * формы подготовленного региона на момент предсказания (без региона - не дальше
+ * hitRadius от предсказанной точки).
+ *
+ * По сглаженной доле попаданий горизонт удлиняется, пока предсказания сбываются,
+ * и укорачивается при промахах: неверное предсказание создает регионы и грузит
+ * чанки впустую. Экземпляр хранит состояние одного игрока и не потокобезопасен.
+ */
+public final class PredictionTracker {
+
+    private static final double SMOOTHING = 0.1;
+    private static final double INITIAL_HIT_RATE = 0.65;
+    private static final double EXTEND_ABOVE = 0.8;
+    private static final double SHORTEN_BELOW = 0.5;
+    private static final double EXTEND_FACTOR = 1.1;
+    private static final double SHORTEN_FACTOR = 0.8;
+
+    private final int baseHorizon;
+    private final int minHorizon;
+    private final int maxHorizon;
+    private final int sampleInterval;
+    private final double hitRadius;
+
+    // Ожидающие проверки предсказания; порядок не важен, удаление перестановкой с последним
+    private final long[] targetTicks;
+    private final double[] predictedX;
+    private final double[] predictedZ;
+    private final ChunkShape[] regionShapes;
+    private int pending;
+
+    private final ErrorHistogram histogram = new ErrorHistogram();
+    private double hitRate = INITIAL_HIT_RATE;
+    private double horizon;
+    private long lastSampleTick = Long.MIN_VALUE;
+
+    /**
+     * @param baseHorizon начальный горизонт в тиках
+     * @param minHorizon наименьший горизонт в тиках
+     * @param maxHorizon наибольший горизонт в тиках
+     * @param sampleInterval интервал между проверяемыми предсказаниями в тиках
+     * @param hitRadius радиус попадания, если регион не подготавливался
+     */
+    public PredictionTracker(int baseHorizon, int minHorizon, int maxHorizon, int sampleInterval, double hitRadius) {
+        this.minHorizon = Math.max(1, minHorizon);
+        this.maxHorizon = Math.max(this.minHorizon, maxHorizon);
+        this.baseHorizon = Math.max(this.minHorizon, Math.min(this.maxHorizon, baseHorizon));
+        this.sampleInterval = Math.max(1, sampleInterval);
+        this.hitRadius = hitRadius;
+        this.horizon = this.baseHorizon;
+
+        int capacity = this.maxHorizon / this.sampleInterval + 2;
+        this.targetTicks = new long[capacity];
+        this.predictedX = new double[capacity];
+        this.predictedZ = new double[capacity];
+        this.regionShapes = new ChunkShape[capacity];
+    }
+
+    /**
+     * Нужно ли запомнить предсказание этого тика
+     */
+    public boolean shouldSample(long tick) {
+        return lastSampleTick == Long.MIN_VALUE || tick - lastSampleTick >= sampleInterval;
+    }
+
+    /**
+     * Запомнить предсказание для проверки
+     *
+     * @param regionShape форма подготовленного региона или null, если регион не подготавливался
+     */
+    public void add(long tick, int horizonTicks, MotionEstimate estimate, ChunkShape regionShape) {
+        lastSampleTick = tick;
+        if (pending == targetTicks.length) {
+            // При проверке перед каждым добавлением не случается; защита от переполнения
+            removeAt(0);
+        }
+        int i = pending++;
+        targetTicks[i] = tick + horizonTicks;
+        predictedX[i] = estimate.getX();
+        predictedZ[i] = estimate.getZ();
+        regionShapes[i] = regionShape;
+    }
+
+    /**
+     * Проверить предсказания, чей тик наступил, по фактической позиции
+     *
+     * @param global общая гистограмма всех игроков, синхронизируется здесь
+     * @return число проверенных предсказаний
+     */
+    public int resolve(long tick, double x, double z, ErrorHistogram global) {
+        int resolved = 0;
+        int i = 0;
+        while (i < pending) {
+            if (targetTicks[i] > tick) {
+                i++;
+                continue;
+            }
+
+            double dx = x - predictedX[i];
+            double dz = z - predictedZ[i];
+            double error = Math.sqrt(dx * dx + dz * dz);
+            boolean hit = regionShapes[i] != null
+                ? regionShapes[i].contains((int) Math.floor(x), (int) Math.floor(z))
+                : error <= hitRadius;
+
+            histogram.record(error, hit);
+            if (global != null) {
+                synchronized (global) {
+                    global.record(error, hit);
+                }
+            }
+            adapt(hit);
+            removeAt(i);
+            resolved++;
+        }
+        return resolved;
+    }
+
+    private void adapt(boolean hit) {
+        hitRate += SMOOTHING * ((hit ? 1.0 : 0.0) - hitRate);
+        if (hitRate > EXTEND_ABOVE) {
+            horizon = Math.min(maxHorizon, horizon * EXTEND_FACTOR);
+        } else if (hitRate < SHORTEN_BELOW) {
+            horizon = Math.max(minHorizon, horizon * SHORTEN_FACTOR);
+        }
+    }
+
+    private void removeAt(int i) {
+        int last = --pending;
+        targetTicks[i] = targetTicks[last];
+        predictedX[i] = predictedX[last];
+        predictedZ[i] = predictedZ[last];
+        regionShapes[i] = regionShapes[last];
+        regionShapes[last] = null;
+    }
+
+    /**
+     * Отбросить непроверенные предсказания (телепортация, смена мира)
+     */
+    public void discardPending() {
+        Arrays.fill(regionShapes, 0, pending, null);
+        pending = 0;
+    }
+
+    /**
+     * Текущий горизонт предсказания в тиках
+     */
+    public int getHorizonTicks() {
+        return (int) Math.round(horizon);
+    }
+
+    /**
+     * Отношение текущего горизонта к начальному; им масштабируется дальность предсказания
+     */
+    public double getHorizonScale() {
+        return horizon / baseHorizon;
+    }
+
+    /**
+     * Сглаженная доля попаданий
+     */
+    public double getRecentHitRate() {
+        return hitRate;
+    }
+
+    public ErrorHistogram getHistogram() {
+        return histogram;
+    }
+
+    public int getPendingCount() {
+        return pending;
+    }
+}
@@ -0,0 +1,47 @@
+package com.regionmanager.motion;
+
+import java.util.Locale;
+
+/**
+ * Модель предсказания движения
+ */
+public enum PredictorMode {
+
+    /**
+     * Прямая по средней скорости и среднему направлению
+     */
+    LINEAR,
+
+    /**
+     * Фильтр Калмана с постоянной скоростью
+     */
+    KALMAN_VELOCITY,
+
+    /**
+     * Фильтр Калмана с постоянным ускорением
+     */
+    KALMAN_ACCELERATION;
+
+    /**
+     * Разобрать имя режима из конфигурации, например kalman-velocity
+     *
+     * @return режим или fallback, если имя неизвестно
+     */
+    public static PredictorMode parse(String name, PredictorMode fallback) {
+        if (name == null) {
+            return fallback;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * Имя режима в конфигурации
+     */
+    public String getConfigName() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
@@ -0,0 +1,42 @@
+package com.regionmanager.motion;
+
+/**
+ * Настройки предсказателей движения
+ *
+ * Создает предсказатель выбранной модели для каждого игрока.
+ */
+public final class PredictorSettings {
+
+    private final PredictorMode mode;
+    private final double processNoise;
+    private final double measurementNoise;
+    private final double confidence;
+    private final int maxGapTicks;
+
+    public PredictorSettings(PredictorMode mode, double processNoise, double measurementNoise,
+                             double confidence, int maxGapTicks) {
+        this.mode = mode;
+        this.processNoise = processNoise;
+        this.measurementNoise = measurementNoise;
+        this.confidence = confidence;
+        this.maxGapTicks = maxGapTicks;
+    }
+
+    /**
+     * Создать предсказатель для нового игрока
+     */
+    public MotionPredictor create() {
+        switch (mode) {
+            case KALMAN_VELOCITY:
+                return new KalmanMotionPredictor(false, processNoise, measurementNoise, confidence, maxGapTicks);
+            case KALMAN_ACCELERATION:
+                return new KalmanMotionPredictor(true, processNoise, measurementNoise, confidence, maxGapTicks);
+            default:
+                return new LinearMotionPredictor();
+        }
+    }
+
+    public PredictorMode getMode() {
+        return mode;
+    }
+}
@@ -0,0 +1,93 @@
+package com.regionmanager.motion;
+
+import java.util.Locale;
+
+/**
+ * Способ передвижения игрока
+ *
+ * Определяет профиль предсказания: горизонт, дальность, ширину коридора предзагрузки
+ * и правила расширения регионов. Явные признаки (полет на элитрах, транспорт)
+ * берутся с сервера, остальное выводится из скорости.
+ */
+public enum TransportMode {
+
+    /**
+     * Игрок почти не перемещается (AFK, стройка)
+     */
+    IDLE(false, false),
+
+    /**
+     * Ходьба, бег, плавание
+     */
+    WALKING(false, false),
+
+    /**
+     * Верховое животное: лошадь, верблюд, свинья, страйдер
+     */
+    MOUNT(true, false),
+
+    /**
+     * Лодка, в том числе по льду
+     */
+    BOAT(true, true),
+
+    /**
+     * Вагонетка
+     */
+    MINECART(true, true),
+
+    /**
+     * Полет на элитрах или иное быстрое перемещение без транспорта
+     */
+    ELYTRA(true, true);
+
+    private final boolean defaultPrefetch;
+    private final boolean defaultCreateRegions;
+
+    TransportMode(boolean defaultPrefetch, boolean defaultCreateRegions) {
+        this.defaultPrefetch = defaultPrefetch;
+        this.defaultCreateRegions = defaultCreateRegions;
+    }
+
+    /**
+     * Вывести способ передвижения без транспорта по средней скорости
+     *
+     * @param speed средняя скорость в блоках за секунду
+     * @param idleSpeed скорость, ниже которой игрок считается неподвижным
+     * @param fastSpeed скорость, выше которой перемещение считается полетом
+     */
+    public static TransportMode fromSpeed(double speed, double idleSpeed, double fastSpeed) {
+        if (speed < idleSpeed) {
+            return IDLE;
+        }
+        return speed > fastSpeed ? ELYTRA : WALKING;
+    }
+
+    /**
+     * Передвижение пешком: смена между такими способами не сбрасывает фильтр
+     */
+    public boolean isOnFoot() {
+        return this == IDLE || this == WALKING;
+    }
+
+    /**
+     * Предзагружать ли регионы по умолчанию
+     */
+    public boolean isDefaultPrefetch() {
+        return defaultPrefetch;
+    }
+
+    /**
+     * Создавать ли регионы в предсказанной точке по умолчанию
+     */
+    public boolean isDefaultCreateRegions() {
+        return defaultCreateRegions;
+    }
+
+    /**
+     * Имя способа в конфигурации
+     */
+    public String getConfigName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
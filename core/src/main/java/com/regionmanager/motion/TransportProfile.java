@@ -0,0 +1,52 @@
+package com.regionmanager.motion;
+
+/**
+ * Профиль предсказания для способа передвижения
+ *
+ * Ширина коридора - множитель радиуса неопределенности при расширении региона:
+ * больше единицы для непредсказуемого полета, меньше для движения по рельсам.
+ */
+public final class TransportProfile {
+
+    private final boolean prefetch;
+    private final int horizonTicks;
+    private final double maxDistance;
+    private final double corridor;
+    private final boolean createRegions;
+
+    /**
+     * @param prefetch предзагружать ли регионы по предсказанию
+     * @param horizonTicks начальный горизонт предсказания в тиках
+     * @param maxDistance наибольшее расстояние до предсказанной точки при начальном горизонте
+     * @param corridor множитель радиуса неопределенности
+     * @param createRegions создавать ли регион в предсказанной точке, если рядом нет подходящего
+     */
+    public TransportProfile(boolean prefetch, int horizonTicks, double maxDistance, double corridor,
+                            boolean createRegions) {
+        this.prefetch = prefetch;
+        this.horizonTicks = Math.max(1, horizonTicks);
+        this.maxDistance = maxDistance;
+        this.corridor = corridor;
+        this.createRegions = createRegions;
+    }
+
+    public boolean isPrefetch() {
+        return prefetch;
+    }
+
+    public int getHorizonTicks() {
+        return horizonTicks;
+    }
+
+    public double getMaxDistance() {
+        return maxDistance;
+    }
+
+    public double getCorridor() {
+        return corridor;
+    }
+
+    public boolean isCreateRegions() {
+        return createRegions;
+    }
+}
@@ -0,0 +1,66 @@
+package com.regionmanager.trace;
+
+/**
+ * Тип записи трассы перемещений
+ */
+public enum TraceEventType {
+
+    /**
+     * Объявление мира: индекс и имя
+     */
+    WORLD(0),
+
+    /**
+     * Вход игрока: слот, UUID и позиция
+     */
+    JOIN(1),
+
+    /**
+     * Выход игрока, слот освобождается
+     */
+    QUIT(2),
+
+    /**
+     * Перемещение игрока
+     */
+    MOVE(3),
+
+    /**
+     * Телепортация игрока
+     */
+    TELEPORT(4),
+
+    /**
+     * Игрок лег в кровать
+     */
+    BED_ENTER(5),
+
+    /**
+     * Игрок встал с кровати
+     */
+    BED_LEAVE(6);
+
+    private static final TraceEventType[] BY_CODE = values();
+
+    private final byte code;
+
+    TraceEventType(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    /**
+     * Получить тип по коду записи
+     *
+     * @throws IllegalArgumentException если код неизвестен
+     */
+    public static TraceEventType fromCode(byte code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Неизвестный тип записи трассы: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
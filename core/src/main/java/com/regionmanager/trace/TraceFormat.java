@@ -0,0 +1,91 @@
+package com.regionmanager.trace;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Двоичный формат трассы перемещений
+ *
+ * Файл начинается с заголовка (сигнатура, версия, время начала), за которым идут
+ * записи фиксированной длины для каждого типа. Игрок обозначается слотом: UUID
+ * передается только в записи входа, мир - индексом из записи объявления мира.
+ * Координаты хранятся как float, тик - как номер тика с запуска плагина. Каждый файл
+ * самодостаточен: после смены файла миры и игроки в сети объявляются заново.
+ *
+ * <pre>
+ * заголовок:  int сигнатура, short версия, long время начала (мс)
+ * WORLD:      byte тип, byte индекс, short длина, байты имени UTF-8
+ * JOIN:       byte тип, short слот, int тик, long UUID (старшие), long UUID (младшие), byte мир, float x, y, z
+ * QUIT:       byte тип, short слот, int тик
+ * остальные:  byte тип, short слот, int тик, byte мир, float x, y, z
+ * </pre>
+ */
+public final class TraceFormat {
+
+    public static final int MAGIC = 0x524D5452;
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 4 + 2 + 8;
+    public static final int MAX_WORLDS = 256;
+    public static final int MAX_SLOTS = 65536;
+    public static final int MAX_WORLD_NAME = 255;
+    public static final int WORLD_RECORD_HEADER = 1 + 1 + 2;
+    public static final int JOIN_RECORD_SIZE = 1 + 2 + 4 + 16 + 1 + 12;
+    public static final int QUIT_RECORD_SIZE = 1 + 2 + 4;
+    public static final int POSITION_RECORD_SIZE = 1 + 2 + 4 + 1 + 12;
+    public static final int MAX_RECORD_SIZE = WORLD_RECORD_HEADER + MAX_WORLD_NAME;
+
+    private TraceFormat() {
+    }
+
+    public static void writeHeader(ByteBuffer buffer, long startMillis) {
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putLong(startMillis);
+    }
+
+    /**
+     * Записать объявление мира
+     *
+     * @param name имя в UTF-8, не длиннее MAX_WORLD_NAME байт
+     */
+    public static void writeWorld(ByteBuffer buffer, int world, byte[] name) {
+        buffer.put(TraceEventType.WORLD.getCode());
+        buffer.put((byte) world);
+        buffer.putShort((short) name.length);
+        buffer.put(name);
+    }
+
+    public static void writeJoin(ByteBuffer buffer, int slot, int tick, UUID playerId,
+                                 int world, double x, double y, double z) {
+        buffer.put(TraceEventType.JOIN.getCode());
+        buffer.putShort((short) slot);
+        buffer.putInt(tick);
+        buffer.putLong(playerId.getMostSignificantBits());
+        buffer.putLong(playerId.getLeastSignificantBits());
+        putPosition(buffer, world, x, y, z);
+    }
+
+    public static void writeQuit(ByteBuffer buffer, int slot, int tick) {
+        buffer.put(TraceEventType.QUIT.getCode());
+        buffer.putShort((short) slot);
+        buffer.putInt(tick);
+    }
+
+    /**
+     * Записать событие с позицией: MOVE, TELEPORT, BED_ENTER или BED_LEAVE
+     */
+    public static void writePosition(ByteBuffer buffer, TraceEventType type, int slot, int tick,
+                                     int world, double x, double y, double z) {
+        buffer.put(type.getCode());
+        buffer.putShort((short) slot);
+        buffer.putInt(tick);
+        putPosition(buffer, world, x, y, z);
+    }
+
+    private static void putPosition(ByteBuffer buffer, int world, double x, double y, double z) {
+        buffer.put((byte) world);
+        buffer.putFloat((float) x);
+        buffer.putFloat((float) y);
+        buffer.putFloat((float) z);
+    }
+}
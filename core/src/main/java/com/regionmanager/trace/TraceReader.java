@@ -0,0 +1,168 @@
+package com.regionmanager.trace;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * Последовательное чтение трассы перемещений
+ *
+ * Поля текущей записи доступны через геттеры до следующего вызова next(), поэтому
+ * чтение не создает объектов на запись (кроме UUID входа и имени мира).
+ * Обрезанная последняя запись (файл не был закрыт штатно) считается концом трассы.
+ */
+public final class TraceReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final long startMillis;
+    private boolean endOfChannel;
+
+    private TraceEventType type;
+    private int slot;
+    private int tick;
+    private int world;
+    private float x;
+    private float y;
+    private float z;
+    private UUID playerId;
+    private String worldName;
+
+    public TraceReader(ReadableByteChannel channel) throws IOException {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.buffer.flip();
+
+        if (!ensure(TraceFormat.HEADER_SIZE)) {
+            throw new EOFException("Трасса пуста или обрезана");
+        }
+        if (buffer.getInt() != TraceFormat.MAGIC) {
+            throw new IOException("Файл не является трассой перемещений");
+        }
+        short version = buffer.getShort();
+        if (version != TraceFormat.VERSION) {
+            throw new IOException("Неподдерживаемая версия трассы: " + version);
+        }
+        this.startMillis = buffer.getLong();
+    }
+
+    /**
+     * Открыть файл трассы
+     */
+    public static TraceReader open(Path file) throws IOException {
+        return new TraceReader(FileChannel.open(file, StandardOpenOption.READ));
+    }
+
+    /**
+     * Прочитать следующую запись
+     *
+     * @return false в конце трассы
+     */
+    public boolean next() throws IOException {
+        if (!ensure(1)) {
+            return false;
+        }
+        type = TraceEventType.fromCode(buffer.get());
+
+        switch (type) {
+            case WORLD:
+                if (!ensure(3)) {
+                    return false;
+                }
+                world = buffer.get() & 0xFF;
+                int length = buffer.getShort() & 0xFFFF;
+                if (!ensure(length)) {
+                    return false;
+                }
+                byte[] name = new byte[length];
+                buffer.get(name);
+                worldName = new String(name, StandardCharsets.UTF_8);
+                return true;
+            case QUIT:
+                if (!ensure(TraceFormat.QUIT_RECORD_SIZE - 1)) {
+                    return false;
+                }
+                readSlotAndTick();
+                return true;
+            case JOIN:
+                if (!ensure(TraceFormat.JOIN_RECORD_SIZE - 1)) {
+                    return false;
+                }
+                readSlotAndTick();
+                playerId = new UUID(buffer.getLong(), buffer.getLong());
+                readPosition();
+                return true;
+            default:
+                if (!ensure(TraceFormat.POSITION_RECORD_SIZE - 1)) {
+                    return false;
+                }
+                readSlotAndTick();
+                readPosition();
+                return true;
+        }
+    }
+
+    private void readSlotAndTick() {
+        slot = buffer.getShort() & 0xFFFF;
+        tick = buffer.getInt();
+    }
+
+    private void readPosition() {
+        world = buffer.get() & 0xFF;
+        x = buffer.getFloat();
+        y = buffer.getFloat();
+        z = buffer.getFloat();
+    }
+
+    /**
+     * Дочитать в буфер не меньше count байт
+     *
+     * @return false, если канал закончился раньше
+     */
+    private boolean ensure(int count) throws IOException {
+        while (buffer.remaining() < count) {
+            if (endOfChannel) {
+                return false;
+            }
+            buffer.compact();
+            if (channel.read(buffer) < 0) {
+                endOfChannel = true;
+            }
+            buffer.flip();
+        }
+        return true;
+    }
+
+    public long getStartMillis() { return startMillis; }
+    public TraceEventType getType() { return type; }
+    public int getSlot() { return slot; }
+    public int getTick() { return tick; }
+    public int getWorld() { return world; }
+    public float getX() { return x; }
+    public float getY() { return y; }
+    public float getZ() { return z; }
+
+    /**
+     * UUID игрока последней записи JOIN
+     */
+    public UUID getPlayerId() { return playerId; }
+
+    /**
+     * Имя мира последней записи WORLD
+     */
+    public String getWorldName() { return worldName; }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
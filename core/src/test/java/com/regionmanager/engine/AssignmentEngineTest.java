@@ -0,0 +1,142 @@
+package com.regionmanager.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssignmentEngineTest {
+
+    private static final long WAIT_MS = 2000L;
+    private static final long QUIET_MS = 200L;
+
+    private AssignmentEngine engine;
+    private final UUID playerId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        engine = new AssignmentEngine(512, 256, 50, 1024);
+        engine.publish(layout(1L));
+        engine.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void testRepeatedDecisionIsSuppressed() throws InterruptedException {
+        // Act
+        engine.submit(update());
+        Assignment first = awaitResult(WAIT_MS);
+        engine.submit(update());
+
+        // Assert
+        assertNotNull(first);
+        assertEquals(Assignment.Type.JOIN, first.getType());
+        assertEquals("region_1", first.getRegionId());
+        assertNull(awaitResult(QUIET_MS));
+    }
+
+    @Test
+    void testForgetReemitsDecisionForSameLayout() throws InterruptedException {
+        // Arrange
+        engine.submit(update());
+        assertNotNull(awaitResult(WAIT_MS));
+
+        // Act: сервер отклонил решение и передал позицию повторно
+        engine.forget(playerId);
+        engine.submit(update());
+
+        // Assert
+        Assignment repeated = awaitResult(WAIT_MS);
+        assertNotNull(repeated);
+        assertEquals("region_1", repeated.getRegionId());
+    }
+
+    @Test
+    void testNewLayoutVersionReemitsDecision() throws InterruptedException {
+        // Arrange
+        engine.submit(update());
+        assertNotNull(awaitResult(WAIT_MS));
+
+        // Act
+        engine.publish(layout(2L));
+        engine.submit(update());
+
+        // Assert
+        Assignment repeated = awaitResult(WAIT_MS);
+        assertNotNull(repeated);
+        assertEquals(2L, repeated.getLayoutVersion());
+    }
+
+    @Test
+    void testLimitDecisionIsNotRepeatedAcrossVersions() throws InterruptedException {
+        // Arrange: лимит активных регионов занят, игрок вне регионов
+        engine.publish(layout(2L, 50));
+        engine.submit(outside());
+        Assignment first = awaitResult(WAIT_MS);
+
+        // Act: версия меняется при входе и выходе других игроков, лимит остается
+        engine.publish(layout(3L, 50));
+        engine.submit(outside());
+
+        // Assert
+        assertNotNull(first);
+        assertEquals(Assignment.Type.LIMIT, first.getType());
+        assertNull(awaitResult(QUIET_MS));
+    }
+
+    @Test
+    void testFreedLimitEmitsCreate() throws InterruptedException {
+        // Arrange
+        engine.publish(layout(2L, 50));
+        engine.submit(outside());
+        assertNotNull(awaitResult(WAIT_MS));
+
+        // Act: регион деактивирован, лимит освободился
+        engine.publish(layout(3L, 49));
+        engine.submit(outside());
+
+        // Assert
+        Assignment created = awaitResult(WAIT_MS);
+        assertNotNull(created);
+        assertEquals(Assignment.Type.CREATE, created.getType());
+        assertTrue(created.getShape().contains(5000, 5000));
+    }
+
+    private PositionUpdate update() {
+        return new PositionUpdate(playerId, "world", 10, 10, null);
+    }
+
+    private PositionUpdate outside() {
+        return new PositionUpdate(playerId, "world", 5000, 5000, null);
+    }
+
+    private static RegionLayout layout(long version) {
+        return layout(version, 1);
+    }
+
+    private static RegionLayout layout(long version, int activeCount) {
+        RegionView region = new RegionView("region_1", "world", 0, 0, 512, true, true, 0, 0.0,
+            ChunkShape.square(0, 0, 512));
+        return new RegionLayout(version, Map.of("region_1", region), activeCount);
+    }
+
+    private Assignment awaitResult(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (System.currentTimeMillis() < deadline) {
+            Assignment result = engine.pollResult();
+            if (result != null) {
+                return result;
+            }
+            Thread.sleep(5L);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,142 @@
+package com.regionmanager.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkShapeTest {
+
+    @Test
+    void testSquareAlignsToChunksAtNegativeCoordinates() {
+        // Act
+        ChunkShape shape = ChunkShape.square(-100, -100, 512);
+
+        // Assert: 32x32 чанка, а не 33x33, как у квадрата с произвольным центром
+        assertEquals(32, shape.getWidth());
+        assertEquals(32, shape.getDepth());
+        assertEquals(-22, shape.getMinChunkX());
+        assertEquals(-96, shape.getCenterX());
+        assertTrue(shape.contains(-352, -352));
+        assertFalse(shape.contains(-353, -100));
+        assertTrue(shape.contains(159, 159));
+        assertFalse(shape.contains(160, -100));
+    }
+
+    @Test
+    void testSquareWithOddChunkCount() {
+        // Act
+        ChunkShape shape = ChunkShape.square(-8, 0, 40);
+
+        // Assert: 3 чанка, центр ближе всего к заданному
+        assertEquals(3, shape.getWidth());
+        assertEquals(-2, shape.getMinChunkX());
+        assertEquals(-8, shape.getCenterX());
+        assertEquals(48, shape.getSize());
+    }
+
+    @Test
+    void testRectangleCoversBlocksAcrossZero() {
+        // Act
+        ChunkShape shape = ChunkShape.rectangle(-17, -1, 16, 0);
+
+        // Assert: блоки -17..16 задевают чанки -2..1
+        assertEquals(-2, shape.getMinChunkX());
+        assertEquals(4, shape.getWidth());
+        assertEquals(-1, shape.getMinChunkZ());
+        assertEquals(2, shape.getDepth());
+        assertTrue(shape.isRectangle());
+        assertTrue(shape.contains(-32, -16));
+        assertFalse(shape.contains(-33, 0));
+        assertTrue(shape.contains(31, 15));
+        assertFalse(shape.contains(32, 0));
+    }
+
+    @Test
+    void testOfChunksBounds() {
+        // Act
+        ChunkShape shape = ChunkShape.ofChunks(new int[] {-3, 5, 0}, new int[] {2, -4, 0}, 3);
+
+        // Assert
+        assertEquals(-3, shape.getMinChunkX());
+        assertEquals(-4, shape.getMinChunkZ());
+        assertEquals(9, shape.getWidth());
+        assertEquals(7, shape.getDepth());
+        assertEquals(3, shape.getChunkCount());
+        assertFalse(shape.isRectangle());
+        assertTrue(shape.containsChunk(-3, 2));
+        assertTrue(shape.containsChunk(5, -4));
+        assertFalse(shape.containsChunk(1, 0));
+    }
+
+    @Test
+    void testOfChunksUsesOnlyCountEntries() {
+        // Act: лишние элементы массивов не учитываются
+        ChunkShape shape = ChunkShape.ofChunks(new int[] {1, 2, 100}, new int[] {1, 1, 100}, 2);
+
+        // Assert
+        assertEquals(2, shape.getWidth());
+        assertEquals(1, shape.getDepth());
+        assertTrue(shape.isRectangle());
+        assertFalse(shape.containsChunk(100, 100));
+    }
+
+    @Test
+    void testContainsMatchesContainsChunk() {
+        // Arrange
+        ChunkShape shape = ChunkShape.ofChunks(new int[] {-1, 0, -2}, new int[] {-1, 0, 3}, 3);
+
+        // Act & Assert: блок принадлежит форме тогда и только тогда, когда его чанк принадлежит
+        for (int x = -48; x < 32; x++) {
+            for (int z = -32; z < 72; z++) {
+                assertEquals(shape.containsChunk(x >> 4, z >> 4), shape.contains(x, z), x + ", " + z);
+            }
+        }
+        assertTrue(shape.contains(-1, -1));
+        assertTrue(shape.contains(-16, -16));
+        assertFalse(shape.contains(-17, -1));
+    }
+
+    @Test
+    void testResizeKeepsCenterAndDropsMask() {
+        // Arrange
+        ChunkShape shape = ChunkShape.ofChunks(new int[] {0, 3}, new int[] {0, 3}, 2);
+
+        // Act
+        ChunkShape resized = shape.resize(128);
+
+        // Assert
+        assertTrue(resized.isRectangle());
+        assertEquals(128, resized.getSize());
+        assertEquals(shape.getCenterX(), resized.getCenterX());
+        assertEquals(shape.getCenterZ(), resized.getCenterZ());
+    }
+
+    @Test
+    void testIntersectsChecksMaskedChunks() {
+        // Arrange
+        ChunkShape diagonal = ChunkShape.ofChunks(new int[] {0, 1}, new int[] {0, 1}, 2);
+        ChunkShape antiDiagonal = ChunkShape.ofChunks(new int[] {0, 1}, new int[] {1, 0}, 2);
+
+        // Act & Assert
+        assertFalse(diagonal.intersects(antiDiagonal));
+        assertTrue(diagonal.intersects(ChunkShape.rectangle(16, 16, 16, 16)));
+        assertFalse(diagonal.intersects(ChunkShape.rectangle(32, 0, 100, 100)));
+    }
+
+    @Test
+    void testOfRejectsWrongMaskLength() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> ChunkShape.of(0, 0, 10, 10, new long[1]));
+        assertThrows(IllegalArgumentException.class, () -> ChunkShape.of(0, 0, 0, 10, null));
+    }
+
+    @Test
+    void testOfChunksRejectsEmptyAndHugeSets() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> ChunkShape.ofChunks(new int[0], new int[0], 0));
+        assertThrows(IllegalArgumentException.class, () -> ChunkShape.ofChunks(new int[] {1}, new int[] {1}, 2));
+        // Крайние координаты: произведение сторон не помещается в int
+        assertThrows(IllegalArgumentException.class, () -> ChunkShape.ofChunks(
+            new int[] {Integer.MIN_VALUE, Integer.MAX_VALUE}, new int[] {0, 100000}, 2));
+    }
+}
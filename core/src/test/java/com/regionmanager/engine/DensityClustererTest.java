@@ -0,0 +1,86 @@
+package com.regionmanager.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DensityClustererTest {
+
+    @Test
+    void testSeparatesGroupsAndLeavesNoise() {
+        // Arrange: две группы далеко друг от друга и одиночка
+        int[] xs = {0, 10, 20, 5000, 5010, 5020, -3000};
+        int[] zs = {0, 5, -5, 5000, 4990, 5005, 200};
+        DensityClusterer clusterer = new DensityClusterer(64, 2);
+
+        // Act
+        List<PlayerCluster> clusters = clusterer.cluster(xs, zs, xs.length);
+
+        // Assert
+        assertEquals(2, clusters.size());
+        int[][] members = clusters.stream().map(c -> sorted(c.getMembers())).toArray(int[][]::new);
+        Arrays.sort(members, (a, b) -> Integer.compare(a[0], b[0]));
+        assertArrayEquals(new int[] {0, 1, 2}, members[0]);
+        assertArrayEquals(new int[] {3, 4, 5}, members[1]);
+    }
+
+    @Test
+    void testChainOfCoresJoinsOneCluster() {
+        // Arrange: цепочка с шагом меньше eps, концы дальше eps друг от друга
+        int count = 20;
+        int[] xs = new int[count];
+        int[] zs = new int[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = -600 + i * 50;
+            zs[i] = -40;
+        }
+        DensityClusterer clusterer = new DensityClusterer(64, 3);
+
+        // Act
+        List<PlayerCluster> clusters = clusterer.cluster(xs, zs, count);
+
+        // Assert
+        assertEquals(1, clusters.size());
+        assertEquals(count, clusters.get(0).size());
+        assertEquals(-600, clusters.get(0).getMinX());
+        assertEquals(-600 + 19 * 50, clusters.get(0).getMaxX());
+    }
+
+    @Test
+    void testNeighborsAcrossCellCornersAreFound() {
+        // Arrange: точки на расстоянии чуть меньше eps по диагонали через несколько ячеек
+        int[] xs = {0, 45};
+        int[] zs = {0, 45};
+        DensityClusterer clusterer = new DensityClusterer(64, 2);
+
+        // Act
+        List<PlayerCluster> clusters = clusterer.cluster(xs, zs, xs.length);
+
+        // Assert
+        assertEquals(1, clusters.size());
+        assertEquals(2, clusters.get(0).size());
+    }
+
+    @Test
+    void testSparsePointsAreNoise() {
+        // Arrange
+        int[] xs = {0, 100, 200, 300};
+        int[] zs = {0, 0, 0, 0};
+        DensityClusterer clusterer = new DensityClusterer(64, 2);
+
+        // Act
+        List<PlayerCluster> clusters = clusterer.cluster(xs, zs, xs.length);
+
+        // Assert
+        assertTrue(clusters.isEmpty());
+    }
+
+    private static int[] sorted(int[] values) {
+        int[] copy = values.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+}
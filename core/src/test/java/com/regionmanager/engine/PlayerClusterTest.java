@@ -0,0 +1,92 @@
+package com.regionmanager.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerClusterTest {
+
+    @Test
+    void testPlacementCoversEdgePlayersAfterAlignment() {
+        // Arrange: без запаса крайние игроки лежат на самой границе стороны
+        Random random = new Random(42);
+        DensityClusterer clusterer = new DensityClusterer(64, 2);
+
+        for (int round = 0; round < 500; round++) {
+            int count = 2 + random.nextInt(6);
+            int baseX = random.nextInt(20_000) - 10_000;
+            int baseZ = random.nextInt(20_000) - 10_000;
+            int[] xs = new int[count];
+            int[] zs = new int[count];
+            for (int i = 0; i < count; i++) {
+                xs[i] = baseX + i * 40 + random.nextInt(20);
+                zs[i] = baseZ + random.nextInt(40);
+            }
+
+            for (PlacementShape shape : PlacementShape.values()) {
+                // Act
+                for (PlayerCluster cluster : clusterer.cluster(xs, zs, count)) {
+                    List<RegionPlacement> placements = cluster.place(xs, zs, 0, 32, 1024, shape, 0.6);
+
+                    // Assert
+                    for (int i : cluster.getMembers()) {
+                        assertTrue(covered(placements, xs[i], zs[i]),
+                            shape + ": игрок " + xs[i] + ", " + zs[i] + " вне региона");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSquarePlacementStaysSquare() {
+        // Arrange
+        int[] xs = {-8, 200};
+        int[] zs = {-8, -8};
+        PlayerCluster cluster = new DensityClusterer(256, 2).cluster(xs, zs, xs.length).get(0);
+
+        // Act
+        List<RegionPlacement> placements = cluster.place(xs, zs, 0, 32, 1024, PlacementShape.SQUARE, 0.6);
+
+        // Assert
+        assertEquals(1, placements.size());
+        ChunkShape shape = placements.get(0).getShape();
+        assertEquals(shape.getWidth(), shape.getDepth());
+        assertTrue(shape.contains(-8, -8));
+        assertTrue(shape.contains(200, -8));
+    }
+
+    @Test
+    void testWideClusterSplitsIntoTiles() {
+        // Arrange: цепочка длиннее maxSize
+        int count = 40;
+        int[] xs = new int[count];
+        int[] zs = new int[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = i * 50;
+            zs[i] = 0;
+        }
+        PlayerCluster cluster = new DensityClusterer(64, 2).cluster(xs, zs, count).get(0);
+
+        // Act
+        List<RegionPlacement> placements = cluster.place(xs, zs, 32, 256, 512, PlacementShape.RECTANGLE, 0.6);
+
+        // Assert
+        assertTrue(placements.size() > 1);
+        for (int i = 0; i < count; i++) {
+            assertTrue(covered(placements, xs[i], zs[i]));
+        }
+    }
+
+    private static boolean covered(List<RegionPlacement> placements, int x, int z) {
+        for (RegionPlacement placement : placements) {
+            if (placement.contains(x, z)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
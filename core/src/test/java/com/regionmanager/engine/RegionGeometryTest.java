@@ -0,0 +1,152 @@
+package com.regionmanager.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegionGeometryTest {
+
+    @Test
+    void testCanReshapeRejectsOverlapWithNeighbor() {
+        // Arrange
+        List<RegionView> regions = List.of(
+            view("region_1", 0, 0, ChunkShape.square(0, 0, 512)),
+            view("region_2", 1024, 0, ChunkShape.square(1024, 0, 512)));
+
+        // Act: новая форма региона 1 заходит на регион 2
+        boolean allowed = RegionGeometry.canReshape(regions, "world", "region_1",
+            ChunkShape.rectangle(0, -256, 800, 255), 0);
+
+        // Assert
+        assertFalse(allowed);
+    }
+
+    @Test
+    void testCanReshapeRejectsCenterTooClose() {
+        // Arrange
+        List<RegionView> regions = List.of(
+            view("region_1", 0, 0, ChunkShape.square(0, 0, 256)),
+            view("region_2", 512, 0, ChunkShape.square(512, 0, 256)));
+
+        // Act: формы не пересекаются, но центры ближе минимального расстояния
+        boolean allowed = RegionGeometry.canReshape(regions, "world", "region_1",
+            ChunkShape.square(256, 0, 128), 300);
+
+        // Assert
+        assertFalse(allowed);
+    }
+
+    @Test
+    void testCanReshapeIgnoresItselfOtherWorldsAndInactive() {
+        // Arrange
+        List<RegionView> regions = List.of(
+            view("region_1", 0, 0, ChunkShape.square(0, 0, 512)),
+            new RegionView("region_2", "world_nether", 200, 0, 512, true, true, 0, 0.0, null),
+            new RegionView("region_3", "world", 200, 0, 512, false, false, 0, 0.0, null));
+
+        // Act
+        boolean allowed = RegionGeometry.canReshape(regions, "world", "region_1",
+            ChunkShape.square(100, 0, 512), 256);
+
+        // Assert
+        assertTrue(allowed);
+    }
+
+    @Test
+    void testCanReshapeAllowsInterleavedChunkSets() {
+        // Arrange: наборы чанков с пересекающимися границами, но без общих чанков
+        ChunkShape neighbor = ChunkShape.ofChunks(new int[] {0, 2}, new int[] {0, 2}, 2);
+        List<RegionView> regions = List.of(
+            view("region_1", 0, 0, ChunkShape.square(-1000, 0, 64)),
+            view("region_2", neighbor.getCenterX(), neighbor.getCenterZ(), neighbor));
+
+        // Act
+        boolean allowed = RegionGeometry.canReshape(regions, "world", "region_1",
+            ChunkShape.ofChunks(new int[] {2, 0}, new int[] {0, 2}, 2), 0);
+
+        // Assert
+        assertTrue(allowed);
+    }
+
+    @Test
+    void testFindFreeShapeChecksNeighborShapeBounds() {
+        // Arrange: длинный прямоугольник, центр которого далеко, а край рядом с точкой
+        ChunkShape strip = ChunkShape.rectangle(-2048, 0, 1023, 255);
+        List<RegionView> regions = List.of(view("region_1", strip.getCenterX(), strip.getCenterZ(), strip));
+
+        // Act
+        ChunkShape shape = RegionGeometry.findFreeShape(regions, "world", 900, 300, 512, 256);
+
+        // Assert: квадрат на самой точке задел бы полосу, поэтому он прижат к ее краю
+        assertNotNull(shape);
+        assertTrue(shape.contains(900, 300));
+        assertFalse(shape.intersects(strip));
+        assertEquals(512, shape.getSize());
+    }
+
+    @Test
+    void testFindFreeShapeContainsPointNearNeighbor() {
+        // Arrange
+        ChunkShape neighbor = ChunkShape.square(0, 0, 512);
+        List<RegionView> regions = List.of(view("region_1", 0, 0, neighbor));
+
+        for (int x : new int[] {257, 260, 300, 400}) {
+            // Act
+            ChunkShape shape = RegionGeometry.findFreeShape(regions, "world", x, 0, 512, 256);
+
+            // Assert: регион прилегает к соседу со стороны выхода и содержит игрока
+            assertNotNull(shape);
+            assertTrue(shape.contains(x, 0), "x = " + x);
+            assertFalse(shape.intersects(neighbor));
+            assertEquals(256, shape.getMinChunkX() << 4);
+        }
+    }
+
+    @Test
+    void testFindFreeShapeShrinksBetweenNeighbors() {
+        // Arrange: между регионами 256 блоков - квадрат 512 не помещается
+        List<RegionView> regions = List.of(
+            view("region_1", 0, 0, ChunkShape.square(0, 0, 512)),
+            view("region_2", 768, 0, ChunkShape.square(768, 0, 512)));
+
+        // Act
+        ChunkShape shape = RegionGeometry.findFreeShape(regions, "world", 384, 0, 512, 256);
+
+        // Assert
+        assertNotNull(shape);
+        assertTrue(shape.contains(384, 0));
+        assertEquals(256, shape.getSize());
+    }
+
+    @Test
+    void testFindFreeShapeReturnsNullWithoutRoom() {
+        // Arrange: между регионами один чанк, меньше четверти размера региона
+        List<RegionView> regions = List.of(
+            view("region_1", 0, 0, ChunkShape.square(0, 0, 512)),
+            view("region_2", 528, 0, ChunkShape.square(528, 0, 512)));
+
+        // Act
+        ChunkShape shape = RegionGeometry.findFreeShape(regions, "world", 260, 0, 512, 0);
+
+        // Assert
+        assertNull(shape);
+    }
+
+    @Test
+    void testFindFreeShapeKeepsFreePoint() {
+        // Arrange
+        List<RegionView> regions = List.of(view("region_1", 0, 0, ChunkShape.square(0, 0, 512)));
+
+        // Act
+        ChunkShape shape = RegionGeometry.findFreeShape(regions, "world", 2000, -2000, 512, 256);
+
+        // Assert
+        assertEquals(ChunkShape.square(2000, -2000, 512), shape);
+    }
+
+    private static RegionView view(String id, int centerX, int centerZ, ChunkShape shape) {
+        return new RegionView(id, "world", centerX, centerZ, shape.getSize(), true, true, 0, 0.0, shape);
+    }
+}
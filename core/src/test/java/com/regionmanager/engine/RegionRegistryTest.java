@@ -0,0 +1,172 @@
+package com.regionmanager.engine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegionRegistryTest {
+
+    private RecordingListener listener;
+    private RegionRegistry registry;
+    private AssignmentEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        listener = new RecordingListener();
+        registry = new RegionRegistry(512, 256, 2, 20, listener);
+        engine = new AssignmentEngine(512, 256, 2, 1024);
+    }
+
+    @Test
+    void testApplyCreatesRegionAndJoinsNextPlayer() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        // Act
+        RegionRegistry.Outcome created = registry.apply(first, decide(first, 10, 10), "world", 10, 10, 0L);
+        RegionRegistry.Outcome joined = registry.apply(second, decide(second, 20, 20), "world", 20, 20, 1L);
+
+        // Assert
+        assertEquals(RegionRegistry.Outcome.CREATED, created);
+        assertEquals(RegionRegistry.Outcome.JOINED, joined);
+        RegionState region = registry.getPlayerRegion(first);
+        assertSame(region, registry.getPlayerRegion(second));
+        assertEquals(2, region.getPlayerCount());
+        assertEquals(1, listener.created.size());
+        assertEquals(2, registry.getLayout().get(region.getId()).getPlayerCount());
+    }
+
+    @Test
+    void testApplyStaleCreateIsRetried() {
+        // Arrange: решение рассчитано до появления другого региона
+        UUID playerId = UUID.randomUUID();
+        Assignment stale = decide(playerId, 5000, 5000);
+        registry.create("world", ChunkShape.square(0, 0, 512), 0L);
+
+        // Act
+        RegionRegistry.Outcome outcome = registry.apply(playerId, stale, "world", 5000, 5000, 1L);
+
+        // Assert
+        assertEquals(RegionRegistry.Outcome.RETRY, outcome);
+        assertNull(registry.getPlayerRegion(playerId));
+        assertEquals(1, registry.getRegionCount());
+    }
+
+    @Test
+    void testApplyAtLimitIsRejectedAndReportedOnce() {
+        // Arrange
+        registry.create("world", ChunkShape.square(0, 0, 512), 0L);
+        registry.create("world", ChunkShape.square(4096, 0, 512), 0L);
+        UUID playerId = UUID.randomUUID();
+
+        // Act
+        RegionRegistry.Outcome first = registry.apply(playerId, decide(playerId, -5000, -5000), "world",
+            -5000, -5000, 1L);
+        RegionRegistry.Outcome second = registry.apply(playerId, decide(playerId, -5000, -5000), "world",
+            -5000, -5000, 2L);
+
+        // Assert
+        assertEquals(RegionRegistry.Outcome.LIMITED, first);
+        assertEquals(RegionRegistry.Outcome.LIMITED, second);
+        assertEquals(1, listener.limitReached);
+        assertNull(registry.create("world", ChunkShape.square(-5000, -5000, 512), 3L));
+    }
+
+    @Test
+    void testLastLeaveNotifiesEmptied() {
+        // Arrange
+        RegionState region = registry.create("world", ChunkShape.square(0, 0, 512), 0L);
+        UUID playerId = UUID.randomUUID();
+        registry.join(playerId, region, 1L);
+
+        // Act
+        RegionState left = registry.leave(playerId, 5L);
+
+        // Assert
+        assertSame(region, left);
+        assertEquals(0, region.getPlayerCount());
+        assertEquals(5L, region.getLastActivityTime());
+        assertEquals(List.of(region), listener.emptied);
+    }
+
+    @Test
+    void testDeactivateIdleSkipsForcedAndHeldRegions() {
+        // Arrange
+        RegionState idle = registry.restore("region_1", "world", ChunkShape.square(0, 0, 512), 0L, 0L,
+            false, 0, true);
+        RegionState forced = registry.restore("region_2", "world", ChunkShape.square(4096, 0, 512), 0L, 0L,
+            true, 0, true);
+        RegionState held = registry.restore("region_3", "world", ChunkShape.square(8192, 0, 512), 0L, 0L,
+            false, 0, true);
+
+        // Act
+        int deactivated = registry.deactivateIdle(100L, 1000L, region -> region == held);
+
+        // Assert
+        assertEquals(1, deactivated);
+        assertFalse(idle.isActive());
+        assertTrue(forced.isActive());
+        assertTrue(held.isActive());
+        assertEquals(List.of(idle), listener.stateChanged);
+    }
+
+    @Test
+    void testMergeMovesPlayersToTarget() {
+        // Arrange
+        RegionState target = registry.create("world", ChunkShape.square(0, 0, 512), 0L);
+        RegionState source = registry.create("world", ChunkShape.square(512, 0, 512), 0L);
+        UUID playerId = UUID.randomUUID();
+        registry.join(playerId, source, 1L);
+
+        // Act
+        boolean merged = registry.merge(target, source, 2L);
+
+        // Assert
+        assertTrue(merged);
+        assertSame(target, registry.getPlayerRegion(playerId));
+        assertTrue(target.getPlayers().contains(playerId));
+        assertNull(registry.get(source.getId()));
+        assertEquals(1, registry.getRegionCount());
+    }
+
+    private Assignment decide(UUID playerId, int x, int z) {
+        String current = registry.getPlayerRegion(playerId) != null ? registry.getPlayerRegion(playerId).getId() : null;
+        return engine.assign(registry.getLayout(), new PositionUpdate(playerId, "world", x, z, current));
+    }
+
+    /**
+     * Слушатель, запоминающий уведомления реестра
+     */
+    private static final class RecordingListener implements RegionListener {
+        final List<RegionState> created = new ArrayList<>();
+        final List<RegionState> emptied = new ArrayList<>();
+        final List<RegionState> stateChanged = new ArrayList<>();
+        int limitReached;
+
+        @Override
+        public void onRegionCreated(RegionState region) {
+            created.add(region);
+        }
+
+        @Override
+        public void onRegionEmptied(RegionState region) {
+            emptied.add(region);
+        }
+
+        @Override
+        public void onRegionStateChanged(RegionState region) {
+            stateChanged.add(region);
+        }
+
+        @Override
+        public void onActiveLimitReached(int maxActiveRegions) {
+            limitReached++;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.regionmanager.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResizeDebouncerTest {
+
+    private static final int INTERVAL = 100;
+    private static final int COOLDOWN = 200;
+
+    private final ResizeDebouncer debouncer = new ResizeDebouncer(INTERVAL, 0.1, 0.25, COOLDOWN);
+
+    @Test
+    void testSecondChangeWaitsForInterval() {
+        // Arrange
+        assertTrue(debouncer.request("region_1", 256, 320, 0));
+        assertEquals(1, debouncer.drain(0).size());
+
+        // Act
+        assertTrue(debouncer.request("region_1", 320, 400, 10));
+        List<ResizeDebouncer.Change> early = debouncer.drain(50);
+        List<ResizeDebouncer.Change> due = debouncer.drain(INTERVAL);
+
+        // Assert
+        assertTrue(early.isEmpty());
+        assertEquals(1, due.size());
+        assertEquals(400, due.get(0).getRadius());
+        assertTrue(due.get(0).isGrow());
+    }
+
+    @Test
+    void testGrowRequestsCoalesceToLargest() {
+        // Act
+        debouncer.request("region_1", 256, 300, 0);
+        debouncer.request("region_1", 256, 400, 1);
+        debouncer.request("region_1", 256, 350, 2);
+        List<ResizeDebouncer.Change> due = debouncer.drain(3);
+
+        // Assert
+        assertEquals(1, due.size());
+        assertEquals(400, due.get(0).getRadius());
+        assertEquals(2, debouncer.getCoalesced());
+    }
+
+    @Test
+    void testGrowCancelsPendingShrink() {
+        // Arrange
+        assertTrue(debouncer.request("region_1", 512, 256, 0));
+
+        // Act: рост ниже полосы гистерезиса сам не ставится, но отменяет сжатие
+        assertFalse(debouncer.request("region_1", 512, 520, 1));
+
+        // Assert
+        assertEquals(0, debouncer.getPendingCount());
+        assertTrue(debouncer.drain(2).isEmpty());
+    }
+
+    @Test
+    void testExpandThenShrinkCancelsOut() {
+        // Arrange
+        assertTrue(debouncer.request("region_1", 256, 320, 0));
+
+        // Act: сжатие во время паузы после роста отклоняется
+        assertFalse(debouncer.request("region_1", 256, 128, 10));
+        List<ResizeDebouncer.Change> due = debouncer.drain(20);
+
+        // Assert
+        assertEquals(1, due.size());
+        assertTrue(due.get(0).isGrow());
+        assertEquals(1, debouncer.getSuppressed());
+
+        // После паузы сжатие принимается снова
+        assertTrue(debouncer.request("region_1", 320, 128, COOLDOWN + 1));
+        List<ResizeDebouncer.Change> shrink = debouncer.drain(COOLDOWN + 1);
+        assertEquals(1, shrink.size());
+        assertFalse(shrink.get(0).isGrow());
+    }
+
+    @Test
+    void testHysteresisSuppressesSmallChanges() {
+        // Act
+        boolean grow = debouncer.request("region_1", 256, 270, 0);
+        boolean shrink = debouncer.request("region_2", 256, 224, 0);
+
+        // Assert
+        assertFalse(grow);
+        assertFalse(shrink);
+        assertEquals(2, debouncer.getSuppressed());
+        assertTrue(debouncer.drain(1).isEmpty());
+    }
+
+    @Test
+    void testDrainFlushesOnceAndForgetsIdleRegions() {
+        // Arrange: как applyPendingResizes - забрать, применить и учесть
+        debouncer.request("region_1", 256, 320, 0);
+        debouncer.request("region_2", 512, 256, 0);
+
+        // Act
+        List<ResizeDebouncer.Change> due = debouncer.drain(1);
+        for (ResizeDebouncer.Change change : due) {
+            debouncer.recordApplied(change.isGrow());
+        }
+
+        // Assert
+        assertEquals(2, due.size());
+        assertEquals(0, debouncer.getPendingCount());
+        assertTrue(debouncer.drain(2).isEmpty());
+        assertEquals(1, debouncer.getAppliedGrows());
+        assertEquals(1, debouncer.getAppliedShrinks());
+
+        // После истечения интервала и паузы регион забывается: сжатие сразу снова доступно
+        debouncer.drain(COOLDOWN + 10);
+        assertTrue(debouncer.request("region_1", 320, 160, COOLDOWN + 11));
+        assertEquals(1, debouncer.drain(COOLDOWN + 11).size());
+    }
+
+    @Test
+    void testBusyWhilePendingAndWithinInterval() {
+        // Arrange
+        assertFalse(debouncer.isBusy("region_1", 0));
+        debouncer.request("region_1", 256, 320, 0);
+
+        // Act & Assert: ожидает изменения
+        assertTrue(debouncer.isBusy("region_1", 1));
+
+        // Изменено недавно
+        debouncer.drain(10);
+        assertTrue(debouncer.isBusy("region_1", 10 + INTERVAL - 1));
+
+        // Интервал истек
+        assertFalse(debouncer.isBusy("region_1", 10 + INTERVAL));
+    }
+
+    @Test
+    void testForgetDropsPendingChange() {
+        // Arrange
+        debouncer.request("region_1", 256, 320, 0);
+
+        // Act
+        debouncer.forget("region_1");
+
+        // Assert
+        assertTrue(debouncer.drain(1).isEmpty());
+    }
+}
@@ -0,0 +1,80 @@
+package com.regionmanager.motion;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KalmanMotionPredictorTest {
+
+    @Test
+    void testConstantVelocityConverges() {
+        // Arrange: игрок идет 0.3 блока за тик по X и -0.2 по Z
+        KalmanMotionPredictor predictor = new KalmanMotionPredictor(false, 0.01, 0.25, 2.0, 40);
+
+        // Act
+        for (long tick = 0; tick <= 200; tick += 2) {
+            predictor.observe(tick, 100.0 + 0.3 * tick, -50.0 - 0.2 * tick);
+        }
+        MotionEstimate estimate = predictor.predict(20);
+
+        // Assert
+        assertEquals(0.3, predictor.getVelocityX(), 0.01);
+        assertEquals(-0.2, predictor.getVelocityZ(), 0.01);
+        assertEquals(100.0 + 0.3 * 220, estimate.getX(), 0.5);
+        assertEquals(-50.0 - 0.2 * 220, estimate.getZ(), 0.5);
+    }
+
+    @Test
+    void testUncertaintyShrinksWithObservations() {
+        // Arrange
+        KalmanMotionPredictor predictor = new KalmanMotionPredictor(false, 0.01, 0.25, 2.0, 40);
+        predictor.observe(0, 0.0, 0.0);
+        double initial = predictor.predict(20).getUncertainty();
+
+        // Act
+        for (long tick = 1; tick <= 100; tick++) {
+            predictor.observe(tick, 0.5 * tick, 0.0);
+        }
+
+        // Assert
+        assertTrue(predictor.predict(20).getUncertainty() < initial);
+    }
+
+    @Test
+    void testResetClearsState() {
+        // Arrange
+        KalmanMotionPredictor predictor = new KalmanMotionPredictor(false, 0.01, 0.25, 2.0, 40);
+        for (long tick = 0; tick <= 100; tick++) {
+            predictor.observe(tick, 0.5 * tick, 0.0);
+        }
+
+        // Act
+        predictor.reset();
+
+        // Assert
+        assertNull(predictor.predict(20));
+
+        // Первое наблюдение после сброса начинает фильтр с нулевой скоростью
+        predictor.observe(101, 1000.0, 1000.0);
+        MotionEstimate estimate = predictor.predict(20);
+        assertEquals(0.0, predictor.getVelocityX(), 1e-9);
+        assertEquals(1000.0, estimate.getX(), 1e-9);
+        assertEquals(1000.0, estimate.getZ(), 1e-9);
+    }
+
+    @Test
+    void testLongGapRestartsFilter() {
+        // Arrange
+        KalmanMotionPredictor predictor = new KalmanMotionPredictor(false, 0.01, 0.25, 2.0, 40);
+        for (long tick = 0; tick <= 100; tick++) {
+            predictor.observe(tick, 0.5 * tick, 0.0);
+        }
+
+        // Act: перерыв длиннее maxGapTicks (например, телепорт после перезахода)
+        predictor.observe(200, -300.0, 0.0);
+
+        // Assert
+        assertEquals(0.0, predictor.getVelocityX(), 1e-9);
+        assertEquals(-300.0, predictor.predict(20).getX(), 1e-9);
+    }
+}
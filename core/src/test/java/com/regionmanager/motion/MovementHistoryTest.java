@@ -0,0 +1,74 @@
+package com.regionmanager.motion;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovementHistoryTest {
+
+    @Test
+    void testWraparoundEvictsOldest() {
+        // Arrange
+        MovementHistory history = new MovementHistory(4);
+
+        // Act: шесть измерений в буфере на четыре
+        for (int i = 1; i <= 6; i++) {
+            history.add(i, 0.0);
+        }
+
+        // Assert: остались 3, 4, 5, 6
+        assertEquals(4, history.size());
+        assertEquals(4.5, history.getAverageSpeed(), 1e-9);
+        assertEquals(6.0, history.getLastSpeed(), 1e-9);
+    }
+
+    @Test
+    void testSumsStayExactAfterManyTurns() {
+        // Arrange
+        MovementHistory history = new MovementHistory(5);
+
+        // Act: много оборотов буфера
+        for (int i = 0; i < 10_003; i++) {
+            history.add(0.1 * (i % 7), 0.0);
+        }
+
+        // Assert: последние пять значений i = 9998..10002
+        double expected = 0.0;
+        for (int i = 9998; i <= 10_002; i++) {
+            expected += 0.1 * (i % 7);
+        }
+        assertEquals(expected / 5, history.getAverageSpeed(), 1e-9);
+        assertEquals(0.1 * (10_002 % 7), history.getLastSpeed(), 1e-9);
+    }
+
+    @Test
+    void testAverageDirectionAcrossZero() {
+        // Arrange
+        MovementHistory history = new MovementHistory(3);
+
+        // Act: направления по обе стороны от угла pi
+        history.add(1.0, Math.PI - 0.1);
+        history.add(1.0, -Math.PI + 0.1);
+
+        // Assert: среднее - pi, а не 0, как дало бы арифметическое среднее
+        assertEquals(Math.PI, Math.abs(history.getAverageDirection()), 1e-9);
+        assertEquals(-Math.PI + 0.1, history.getLastDirection(), 1e-9);
+    }
+
+    @Test
+    void testClearResetsBuffer() {
+        // Arrange
+        MovementHistory history = new MovementHistory(3);
+        history.add(5.0, 1.0);
+        history.add(7.0, 1.0);
+
+        // Act
+        history.clear();
+        history.add(2.0, 0.5);
+
+        // Assert
+        assertEquals(1, history.size());
+        assertEquals(2.0, history.getAverageSpeed(), 1e-9);
+        assertEquals(0.5, history.getAverageDirection(), 1e-9);
+    }
+}
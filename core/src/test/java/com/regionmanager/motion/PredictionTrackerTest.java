@@ -0,0 +1,57 @@
+package com.regionmanager.motion;
+
+import com.regionmanager.engine.ChunkShape;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PredictionTrackerTest {
+
+    @Test
+    void testHitUsesPreparedRegionShape() {
+        // Arrange: регион - два чанка по диагонали, предсказанная точка далеко от факта
+        PredictionTracker tracker = new PredictionTracker(20, 20, 20, 1, 1.0);
+        ChunkShape shape = ChunkShape.ofChunks(new int[] {0, 1}, new int[] {0, 1}, 2);
+        tracker.add(0, 20, new MotionEstimate(0.0, 0.0, 1.0), shape);
+        tracker.add(1, 20, new MotionEstimate(0.0, 0.0, 1.0), shape);
+
+        // Act: первый раз игрок во втором чанке формы, второй - в пустом чанке ее границ
+        tracker.resolve(20, 24.0, 24.0, null);
+        tracker.resolve(21, 24.0, 8.0, null);
+
+        // Assert
+        assertEquals(2, tracker.getHistogram().getCount());
+        assertEquals(0.5, tracker.getHistogram().getHitRate(), 1e-9);
+        assertEquals(0, tracker.getPendingCount());
+    }
+
+    @Test
+    void testHitWithoutRegionUsesRadius() {
+        // Arrange
+        PredictionTracker tracker = new PredictionTracker(20, 20, 20, 1, 4.0);
+        tracker.add(0, 20, new MotionEstimate(100.0, 100.0, 1.0), null);
+        tracker.add(1, 20, new MotionEstimate(100.0, 100.0, 1.0), null);
+
+        // Act
+        tracker.resolve(20, 103.0, 100.0, null);
+        tracker.resolve(21, 110.0, 100.0, null);
+
+        // Assert
+        assertEquals(0.5, tracker.getHistogram().getHitRate(), 1e-9);
+    }
+
+    @Test
+    void testPredictionsWaitForTargetTick() {
+        // Arrange
+        PredictionTracker tracker = new PredictionTracker(40, 40, 40, 1, 4.0);
+        tracker.add(0, 40, new MotionEstimate(0.0, 0.0, 1.0), ChunkShape.square(0, 0, 64));
+
+        // Act
+        int early = tracker.resolve(39, 0.0, 0.0, null);
+        int due = tracker.resolve(40, 0.0, 0.0, null);
+
+        // Assert
+        assertEquals(0, early);
+        assertEquals(1, due);
+    }
+}
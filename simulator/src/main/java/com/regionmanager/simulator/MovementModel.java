@@ -0,0 +1,70 @@
+package com.regionmanager.simulator;
+
+import java.util.Random;
+
+/**
+ * Модель перемещения синтетического игрока
+ *
+ * Скорости соответствуют игре: ходьба/бег около 4-5.6 блоков в секунду, лодка по воде
+ * около 8 и по льду до 40, элитры 30 и больше. Телепортирующийся игрок ходит как
+ * обычно, но время от времени переносится в случайную точку мира.
+ */
+public enum MovementModel {
+
+    WALK {
+        @Override
+        void step(SimulatedPlayer player, Random random, int spread) {
+            if (--player.ticksUntilTurn <= 0) {
+                player.heading = random.nextDouble() * Math.PI * 2;
+                // Часть времени игрок стоит на месте (строит, копает)
+                player.speed = random.nextDouble() < 0.4 ? 0.0 : (4.3 + random.nextDouble() * 1.3) / 20.0;
+                player.ticksUntilTurn = 40 + random.nextInt(160);
+            }
+            player.advance();
+        }
+    },
+
+    ELYTRA {
+        @Override
+        void step(SimulatedPlayer player, Random random, int spread) {
+            if (--player.ticksUntilTurn <= 0) {
+                player.heading += (random.nextDouble() - 0.5) * 0.6;
+                player.speed = (25.0 + random.nextDouble() * 15.0) / 20.0;
+                player.ticksUntilTurn = 200 + random.nextInt(400);
+            }
+            player.advance();
+        }
+    },
+
+    BOAT {
+        @Override
+        void step(SimulatedPlayer player, Random random, int spread) {
+            if (--player.ticksUntilTurn <= 0) {
+                player.heading += (random.nextDouble() - 0.5) * 1.2;
+                // Лодка по льду в 5 раз быстрее, чем по воде
+                player.speed = (random.nextDouble() < 0.25 ? 40.0 : 8.0) / 20.0;
+                player.ticksUntilTurn = 100 + random.nextInt(300);
+            }
+            player.advance();
+        }
+    },
+
+    TELEPORT {
+        @Override
+        void step(SimulatedPlayer player, Random random, int spread) {
+            if (--player.ticksUntilTeleport <= 0) {
+                player.teleport(random.nextInt(spread * 2 + 1) - spread, random.nextInt(spread * 2 + 1) - spread);
+                player.ticksUntilTeleport = 600 + random.nextInt(1800);
+                return;
+            }
+            WALK.step(player, random, spread);
+        }
+    };
+
+    /**
+     * Сместить игрока на один тик
+     *
+     * @param spread половина стороны квадрата мира
+     */
+    abstract void step(SimulatedPlayer player, Random random, int spread);
+}
@@ -0,0 +1,62 @@
+package com.regionmanager.simulator;
+
+import java.util.UUID;
+
+/**
+ * Синтетический игрок: позиция, модель перемещения и текущий регион
+ */
+final class SimulatedPlayer {
+
+    final UUID id;
+    int worldIndex;
+    // Модель перемещения; у игроков из трассы отсутствует
+    final MovementModel model;
+    double x;
+    double z;
+    // Позиция до перемещения на текущем тике
+    double previousX;
+    double previousZ;
+    double heading;
+    double speed;
+    int ticksUntilTurn;
+    int ticksUntilTeleport;
+    boolean teleported;
+    boolean online;
+    boolean sleeping;
+    // Блок на прошлом тике: решение о регионе принимается только при смене блока
+    int lastBlockX = Integer.MIN_VALUE;
+    int lastBlockZ = Integer.MIN_VALUE;
+
+    SimulatedPlayer(UUID id, int worldIndex, MovementModel model, double x, double z) {
+        this.id = id;
+        this.worldIndex = worldIndex;
+        this.model = model;
+        this.x = x;
+        this.z = z;
+    }
+
+    /**
+     * Сдвинуть игрока по текущему направлению и скорости
+     */
+    void advance() {
+        x += Math.cos(heading) * speed;
+        z += Math.sin(heading) * speed;
+    }
+
+    /**
+     * Перенести игрока в точку
+     */
+    void teleport(double toX, double toZ) {
+        x = toX;
+        z = toZ;
+        teleported = true;
+    }
+
+    int blockX() {
+        return (int) Math.floor(x);
+    }
+
+    int blockZ() {
+        return (int) Math.floor(z);
+    }
+}
@@ -0,0 +1,186 @@
+package com.regionmanager.simulator;
+
+import com.regionmanager.engine.RegionView;
+import com.regionmanager.motion.ErrorHistogram;
+import com.regionmanager.motion.MotionEstimate;
+import com.regionmanager.motion.MotionPredictor;
+import com.regionmanager.motion.MovementHistory;
+import com.regionmanager.motion.PredictionTracker;
+import com.regionmanager.motion.PredictorMode;
+import com.regionmanager.motion.PredictorSettings;
+import com.regionmanager.motion.TransportMode;
+import com.regionmanager.motion.TransportProfile;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Предсказание движения синтетических игроков
+ *
+ * Повторяет работу MovementPredictor на классах ядра: история скорости, фильтр
+ * Калмана, способ передвижения, подстройка горизонта и проверка предсказаний по
+ * форме региона, найденного в предсказанной точке. Профили и параметры совпадают
+ * с config.yml. Сами классы плагина (MovementPredictor, PlayerListener) здесь не
+ * вызываются: им нужны Player, World и Location сервера.
+ */
+final class SimulatedPrediction {
+
+    private static final double SPEED_THRESHOLD = 0.1;
+    private static final double MAX_UNCERTAINTY = 256.0;
+    private static final double IDLE_SPEED = 0.5;
+    private static final double FAST_SPEED = 12.0;
+    private static final int MIN_HORIZON_TICKS = 2 * 20;
+    private static final int MAX_HORIZON_TICKS = 30 * 20;
+    private static final int SAMPLE_INTERVAL_TICKS = 20;
+    private static final double HIT_RADIUS = 16.0;
+
+    private final SimulationConfig config;
+    private final SimulatedRegions regions;
+    private final PredictorSettings settings;
+    private final Map<TransportMode, TransportProfile> profiles;
+    private final Map<UUID, State> states;
+    private final ErrorHistogram accuracy;
+    private long predictions;
+    private long prefetches;
+
+    SimulatedPrediction(SimulationConfig config, SimulatedRegions regions) {
+        this.config = config;
+        this.regions = regions;
+        this.settings = new PredictorSettings(PredictorMode.KALMAN_VELOCITY, 0.0005, 0.05, 2.0, 100);
+        this.profiles = new EnumMap<>(TransportMode.class);
+        this.states = new HashMap<>();
+        this.accuracy = new ErrorHistogram();
+
+        // Значения по умолчанию из config.yml
+        profiles.put(TransportMode.IDLE, new TransportProfile(false, 200, 128, 1.0, false));
+        profiles.put(TransportMode.WALKING, new TransportProfile(false, 200, 128, 1.0, false));
+        profiles.put(TransportMode.MOUNT, new TransportProfile(true, 160, 192, 1.0, false));
+        profiles.put(TransportMode.BOAT, new TransportProfile(true, 200, 256, 1.0, true));
+        profiles.put(TransportMode.MINECART, new TransportProfile(true, 200, 128, 0.5, true));
+        profiles.put(TransportMode.ELYTRA, new TransportProfile(true, 300, 512, 1.5, true));
+    }
+
+    /**
+     * Учесть перемещение игрока за тик, как MovementPredictor при событии движения
+     */
+    void onMove(SimulatedPlayer player, double fromX, double fromZ, long tick) {
+        double dx = player.x - fromX;
+        double dz = player.z - fromZ;
+        double distance = Math.sqrt(dx * dx + dz * dz);
+        if (distance <= SPEED_THRESHOLD) {
+            return;
+        }
+
+        State state = states.computeIfAbsent(player.id, k -> new State(settings.create()));
+        state.history.add(distance * 20.0, Math.atan2(dz, dx));
+
+        for (PredictionTracker pending : state.trackers) {
+            if (pending != null) {
+                pending.resolve(tick, player.x, player.z, accuracy);
+            }
+        }
+
+        TransportMode mode = classify(player, state.history);
+        if (state.mode != null && state.mode != mode && !(state.mode.isOnFoot() && mode.isOnFoot())) {
+            state.predictor.reset();
+        }
+        state.mode = mode;
+        state.predictor.observe(tick, player.x, player.z);
+
+        TransportProfile profile = profiles.get(mode);
+        if (!profile.isPrefetch()) {
+            return;
+        }
+        PredictionTracker tracker = state.trackers[mode.ordinal()];
+        if (tracker == null) {
+            tracker = new PredictionTracker(profile.getHorizonTicks(), MIN_HORIZON_TICKS, MAX_HORIZON_TICKS,
+                SAMPLE_INTERVAL_TICKS, HIT_RADIUS);
+            state.trackers[mode.ordinal()] = tracker;
+        }
+        int horizonTicks = tracker.getHorizonTicks();
+        MotionEstimate estimate = state.predictor.predict(horizonTicks);
+        if (estimate == null) {
+            return;
+        }
+        predictions++;
+
+        // Регион в предсказанной точке, ограниченной дальностью профиля
+        RegionView prepared = null;
+        if (estimate.getUncertainty() <= MAX_UNCERTAINTY) {
+            double maxDistance = profile.getMaxDistance() * tracker.getHorizonScale();
+            double px = estimate.getX() - player.x;
+            double pz = estimate.getZ() - player.z;
+            double predictedDistance = Math.sqrt(px * px + pz * pz);
+            if (predictedDistance > maxDistance) {
+                px *= maxDistance / predictedDistance;
+                pz *= maxDistance / predictedDistance;
+            }
+            prepared = regions.layout().findAccepting(config.worldNames[player.worldIndex],
+                (int) Math.floor(player.x + px), (int) Math.floor(player.z + pz));
+            if (prepared != null && !prepared.getId().equals(regions.regionIdOf(player))) {
+                prefetches++;
+            }
+        }
+
+        if (tracker.shouldSample(tick)) {
+            tracker.add(tick, horizonTicks, estimate, prepared != null ? prepared.getShape() : null);
+        }
+    }
+
+    /**
+     * Игрок телепортировался: непроверенные предсказания и фильтр больше не действуют
+     */
+    void onTeleport(SimulatedPlayer player) {
+        State state = states.get(player.id);
+        if (state == null) {
+            return;
+        }
+        state.predictor.reset();
+        for (PredictionTracker tracker : state.trackers) {
+            if (tracker != null) {
+                tracker.discardPending();
+            }
+        }
+    }
+
+    /**
+     * Способ передвижения: модели лодки и элитр соответствуют признакам сервера
+     */
+    private static TransportMode classify(SimulatedPlayer player, MovementHistory history) {
+        if (player.model == MovementModel.BOAT) {
+            return TransportMode.BOAT;
+        }
+        if (player.model == MovementModel.ELYTRA) {
+            return TransportMode.ELYTRA;
+        }
+        return TransportMode.fromSpeed(history.getAverageSpeed(), IDLE_SPEED, FAST_SPEED);
+    }
+
+    long getPredictions() {
+        return predictions;
+    }
+
+    long getPrefetches() {
+        return prefetches;
+    }
+
+    ErrorHistogram getAccuracy() {
+        return accuracy;
+    }
+
+    /**
+     * Состояние предсказания одного игрока
+     */
+    private static final class State {
+        final MovementHistory history = new MovementHistory(10);
+        final PredictionTracker[] trackers = new PredictionTracker[TransportMode.values().length];
+        final MotionPredictor predictor;
+        TransportMode mode;
+
+        State(MotionPredictor predictor) {
+            this.predictor = predictor;
+        }
+    }
+}
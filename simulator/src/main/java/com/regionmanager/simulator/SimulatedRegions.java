@@ -0,0 +1,284 @@
+package com.regionmanager.simulator;
+
+import com.regionmanager.engine.Assignment;
+import com.regionmanager.engine.AssignmentEngine;
+import com.regionmanager.engine.MergePlanner;
+import com.regionmanager.engine.ParallelAnalytics;
+import com.regionmanager.engine.PositionUpdate;
+import com.regionmanager.engine.RegionLayout;
+import com.regionmanager.engine.RegionListener;
+import com.regionmanager.engine.RegionRegistry;
+import com.regionmanager.engine.RegionState;
+import com.regionmanager.engine.RegionView;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Регионы симуляции
+ *
+ * Состояние регионов и распределение игроков ведет тот же RegionRegistry ядра,
+ * что и плагин: решения движка применяются реестром, выгрузка пустых регионов,
+ * удаление неактивных и объединение близких - его операциями по расписанию
+ * плагина. Здесь - только то, что на сервере делает мир: вместо запросов чанков
+ * считаются запрошенные чанки вокруг вошедших игроков. Реакция на события игроков
+ * повторяет PlayerListener и общая для симуляции и воспроизведения трассы.
+ */
+final class SimulatedRegions implements RegionListener {
+
+    private static final int DEACTIVATE_INTERVAL = 20;
+
+    private final SimulationConfig config;
+    private final ParallelAnalytics analytics;
+    private final AssignmentEngine engine;
+    private final RegionRegistry registry;
+    // Чанки, загруженные для игроков региона
+    private final Map<String, Set<Long>> regionChunks;
+    // Число регионов, удерживающих чанк загруженным, по мирам
+    private final Map<String, Map<Long, Integer>> loadedChunks;
+    private long chunkRequests;
+    private long joins;
+    private long creates;
+    private long rejected;
+    private long merges;
+
+    SimulatedRegions(SimulationConfig config, ParallelAnalytics analytics) {
+        this.config = config;
+        this.analytics = analytics;
+        this.engine = new AssignmentEngine(config.regionSize, config.minDistance, config.maxActiveRegions, 1024);
+        // Время реестра в симуляции - тики
+        this.registry = new RegionRegistry(config.regionSize, config.minDistance, config.maxActiveRegions,
+            config.maxPlayersPerRegion, this);
+        this.regionChunks = new HashMap<>();
+        this.loadedChunks = new HashMap<>();
+        for (String worldName : config.worldNames) {
+            loadedChunks.put(worldName, new HashMap<>());
+        }
+    }
+
+    /**
+     * Снимок раскладки текущей версии
+     */
+    RegionLayout layout() {
+        return registry.getLayout();
+    }
+
+    /**
+     * Регион, в котором числится игрок
+     */
+    String regionIdOf(SimulatedPlayer player) {
+        RegionState region = registry.getPlayerRegion(player.id);
+        return region != null ? region.getId() : null;
+    }
+
+    /**
+     * Перемещение игрока: решение о регионе только при смене блока
+     */
+    void onMove(SimulatedPlayer player, long tick) {
+        int blockX = player.blockX();
+        int blockZ = player.blockZ();
+        if (blockX == player.lastBlockX && blockZ == player.lastBlockZ) {
+            return;
+        }
+        player.lastBlockX = blockX;
+        player.lastBlockZ = blockZ;
+
+        // Спящий игрок не меняет регион
+        if (!player.sleeping && !isInCurrentRegion(player)) {
+            decide(player, tick);
+        }
+    }
+
+    /**
+     * Телепортация: регион всегда пересчитывается заново
+     */
+    void onTeleport(SimulatedPlayer player, long tick) {
+        leave(player, tick);
+        decide(player, tick);
+    }
+
+    /**
+     * Принять и применить решение о регионе игрока
+     */
+    void decide(SimulatedPlayer player, long tick) {
+        player.lastBlockX = player.blockX();
+        player.lastBlockZ = player.blockZ();
+        PositionUpdate update = new PositionUpdate(player.id, config.worldNames[player.worldIndex],
+            player.blockX(), player.blockZ(), regionIdOf(player));
+        Assignment assignment = engine.assign(layout(), update);
+        if (assignment != null) {
+            apply(player, assignment, tick);
+        }
+    }
+
+    /**
+     * Периодическое обслуживание регионов по расписанию плагина
+     */
+    void maintain(long tick) {
+        if (tick % DEACTIVATE_INTERVAL == 0) {
+            registry.deactivateIdle(config.unloadDelayTicks, tick, null);
+        }
+        if (tick > 0 && tick % config.mergeInterval == 0) {
+            merge(tick);
+        }
+        if (tick > 0 && tick % config.cleanupInterval == 0) {
+            cleanup();
+        }
+    }
+
+    /**
+     * Проверить, остается ли игрок в своем регионе
+     */
+    boolean isInCurrentRegion(SimulatedPlayer player) {
+        RegionState region = registry.getPlayerRegion(player.id);
+        return region != null && region.isActive()
+            && region.getWorldName().equals(config.worldNames[player.worldIndex])
+            && region.contains(player.blockX(), player.blockZ());
+    }
+
+    /**
+     * Применить решение движка реестром, как это делает AssignmentManager
+     * Устаревшее решение пересчитывается при следующей смене блока, пока игрок вне региона
+     */
+    void apply(SimulatedPlayer player, Assignment assignment, long tick) {
+        switch (registry.apply(player.id, assignment, config.worldNames[player.worldIndex],
+            player.blockX(), player.blockZ(), tick)) {
+            case JOINED:
+                joins++;
+                loadChunks(player);
+                break;
+            case CREATED:
+                creates++;
+                loadChunks(player);
+                break;
+            case LIMITED:
+                rejected++;
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Загрузить чанки вокруг игрока, вошедшего в регион
+     */
+    private void loadChunks(SimulatedPlayer player) {
+        RegionState region = registry.getPlayerRegion(player.id);
+        Set<Long> chunks = regionChunks.computeIfAbsent(region.getId(), k -> new HashSet<>());
+        Map<Long, Integer> loaded = loadedChunks.get(region.getWorldName());
+
+        int radius = config.chunkRadius;
+        int chunkX = player.blockX() >> 4;
+        int chunkZ = player.blockZ() >> 4;
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dz = -radius; dz <= radius; dz++) {
+                long key = chunkKey(chunkX + dx, chunkZ + dz);
+                if (chunks.add(key) && loaded.merge(key, 1, Integer::sum) == 1) {
+                    chunkRequests++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Убрать игрока из его региона
+     */
+    void leave(SimulatedPlayer player, long tick) {
+        registry.leave(player.id, tick);
+    }
+
+    /**
+     * Удалить неактивные пустые регионы
+     */
+    void cleanup() {
+        for (RegionState region : new ArrayList<>(registry.getRegions())) {
+            if (!region.isActive() && region.getPlayerCount() == 0) {
+                registry.remove(region);
+            }
+        }
+    }
+
+    /**
+     * Объединить близкие регионы по плану ядра
+     */
+    void merge(long tick) {
+        List<RegionView> views = new ArrayList<>(layout().getRegionMap().values());
+        views.sort(Comparator.comparing(RegionView::getId));
+        MergePlanner planner = new MergePlanner(config.regionSize, config.maxPlayersPerRegion, Double.MAX_VALUE);
+
+        Set<String> mergedAway = new HashSet<>();
+        for (String[] pair : planner.findCandidates(views, analytics)) {
+            RegionState target = registry.get(pair[0]);
+            RegionState source = registry.get(pair[1]);
+            if (mergedAway.contains(pair[0]) || mergedAway.contains(pair[1]) || target == null || source == null
+                || !target.isActive() || !source.isActive()
+                || target.getPlayerCount() + source.getPlayerCount() > config.maxPlayersPerRegion) {
+                continue;
+            }
+
+            if (registry.merge(target, source, tick)) {
+                mergedAway.add(source.getId());
+                merges++;
+            }
+        }
+    }
+
+    @Override
+    public void onRegionStateChanged(RegionState region) {
+        if (!region.isActive()) {
+            releaseChunks(region);
+        }
+    }
+
+    @Override
+    public void onRegionsMerged(RegionState target, RegionState source) {
+        releaseChunks(source);
+    }
+
+    @Override
+    public void onRegionRemoved(RegionState region) {
+        releaseChunks(region);
+    }
+
+    private void releaseChunks(RegionState region) {
+        Set<Long> chunks = regionChunks.remove(region.getId());
+        if (chunks == null) {
+            return;
+        }
+        Map<Long, Integer> loaded = loadedChunks.get(region.getWorldName());
+        for (long key : chunks) {
+            loaded.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    int getActiveCount() {
+        return registry.getActiveCount();
+    }
+
+    int getTotalCount() {
+        return registry.getRegionCount();
+    }
+
+    int getLoadedChunkCount() {
+        int count = 0;
+        for (Map<Long, Integer> loaded : loadedChunks.values()) {
+            count += loaded.size();
+        }
+        return count;
+    }
+
+    long getChunkRequests() { return chunkRequests; }
+    long getJoins() { return joins; }
+    long getCreates() { return creates; }
+    long getRejected() { return rejected; }
+    long getMerges() { return merges; }
+}
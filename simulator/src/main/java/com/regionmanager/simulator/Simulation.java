@@ -0,0 +1,149 @@
+package com.regionmanager.simulator;
+
+import com.regionmanager.engine.ParallelAnalytics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Симуляция сервера с синтетическими игроками
+ *
+ * Каждый тик сначала двигает игроков по их моделям, затем выполняет работу
+ * плагина: вход игроков, решение о смене региона при смене блока (как
+ * PlayerListener), предсказание движения (как MovementPredictor), пересчет при
+ * телепортации и периодическое обслуживание регионов. Замеряется только работа
+ * плагина: процессорное время потока, выделенная память, число регионов и
+ * запросы чанков.
+ */
+final class Simulation {
+
+    private static final int JOIN_WINDOW_TICKS = 200;
+
+    private final SimulationConfig config;
+    private final Random random;
+    private final ParallelAnalytics analytics;
+    private final SimulatedRegions regions;
+    private final SimulatedPrediction prediction;
+    private final List<SimulatedPlayer> players;
+    private final ThreadMXBean threads;
+    private final com.sun.management.ThreadMXBean allocations;
+
+    Simulation(SimulationConfig config) {
+        this.config = config;
+        this.random = new Random(config.seed);
+        this.analytics = new ParallelAnalytics(config.analyticsThreads, config.analyticsThreshold);
+        this.regions = new SimulatedRegions(config, analytics);
+        this.prediction = new SimulatedPrediction(config, regions);
+        this.players = new ArrayList<>(config.players);
+        this.threads = ManagementFactory.getThreadMXBean();
+        this.allocations = threads instanceof com.sun.management.ThreadMXBean
+            && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()
+            ? (com.sun.management.ThreadMXBean) threads : null;
+        createPlayers();
+    }
+
+    /**
+     * Создать игроков по долям моделей перемещения
+     */
+    private void createPlayers() {
+        int total = 0;
+        for (int share : config.mix.values()) {
+            total += share;
+        }
+
+        for (int i = 0; i < config.players; i++) {
+            MovementModel model = MovementModel.WALK;
+            int roll = random.nextInt(Math.max(1, total));
+            for (Entry<MovementModel, Integer> entry : config.mix.entrySet()) {
+                roll -= entry.getValue();
+                if (roll < 0) {
+                    model = entry.getKey();
+                    break;
+                }
+            }
+
+            // Большая часть игроков появляется у спавна, остальные - на своих базах
+            boolean atSpawn = random.nextDouble() < 0.5;
+            double x = atSpawn ? random.nextGaussian() * 256 : random.nextInt(config.spread * 2 + 1) - config.spread;
+            double z = atSpawn ? random.nextGaussian() * 256 : random.nextInt(config.spread * 2 + 1) - config.spread;
+            SimulatedPlayer player = new SimulatedPlayer(new UUID(config.seed, i), random.nextInt(config.worldCount),
+                model, x, z);
+            player.ticksUntilTeleport = 600 + random.nextInt(1800);
+            players.add(player);
+        }
+    }
+
+    /**
+     * Выполнить симуляцию
+     */
+    SimulationReport run() {
+        SimulationReport report = new SimulationReport(config.ticks);
+        try {
+            for (int tick = 0; tick < config.ticks; tick++) {
+                moveOnlinePlayers();
+
+                long cpuBefore = threads.getCurrentThreadCpuTime();
+                long allocatedBefore = allocated();
+                long chunksBefore = regions.getChunkRequests();
+
+                runPluginTick(tick);
+
+                report.record(threads.getCurrentThreadCpuTime() - cpuBefore, allocated() - allocatedBefore,
+                    regions.getActiveCount(), regions.getTotalCount(), regions.getChunkRequests() - chunksBefore);
+            }
+        } finally {
+            analytics.shutdown();
+        }
+
+        report.finish(regions);
+        report.finishPrediction(prediction);
+        return report;
+    }
+
+    private void moveOnlinePlayers() {
+        for (SimulatedPlayer player : players) {
+            if (player.online) {
+                player.previousX = player.x;
+                player.previousZ = player.z;
+                player.model.step(player, random, config.spread);
+            }
+        }
+    }
+
+    /**
+     * Работа плагина за один тик
+     */
+    private void runPluginTick(int tick) {
+        for (int i = 0; i < players.size(); i++) {
+            SimulatedPlayer player = players.get(i);
+            if (!player.online) {
+                // Игроки заходят равномерно в течение первых секунд
+                if ((long) i * JOIN_WINDOW_TICKS / players.size() == tick) {
+                    player.online = true;
+                    regions.decide(player, tick);
+                }
+                continue;
+            }
+
+            if (player.teleported) {
+                player.teleported = false;
+                prediction.onTeleport(player);
+                regions.onTeleport(player, tick);
+            } else {
+                prediction.onMove(player, player.previousX, player.previousZ, tick);
+                regions.onMove(player, tick);
+            }
+        }
+
+        regions.maintain(tick);
+    }
+
+    private long allocated() {
+        return allocations != null ? allocations.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0L;
+    }
+}
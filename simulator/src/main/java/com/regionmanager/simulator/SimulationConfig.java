@@ -0,0 +1,91 @@
+package com.regionmanager.simulator;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Параметры симуляции
+ *
+ * Значения по умолчанию совпадают с config.yml плагина. Аргументы командной строки
+ * задаются в виде --ключ значение, остальные аргументы - файлы трассы для replay.
+ */
+final class SimulationConfig {
+
+    int players = 2000;
+    int ticks = 6000;
+    int worldCount = 1;
+    long seed = 42L;
+    // Половина стороны квадрата, в котором появляются игроки
+    int spread = 20000;
+    int regionSize = 512;
+    int minDistance = 256;
+    int maxActiveRegions = 50;
+    int maxPlayersPerRegion = 20;
+    int chunkRadius = 4;
+    int unloadDelayTicks = 600;
+    int mergeInterval = 600;
+    int cleanupInterval = 6000;
+    int analyticsThreads = 1;
+    int analyticsThreshold = 64;
+    String csvFile;
+    String[] worldNames;
+    final List<String> traceFiles = new ArrayList<>();
+    final Map<MovementModel, Integer> mix = new EnumMap<>(MovementModel.class);
+
+    /**
+     * Разобрать аргументы командной строки
+     */
+    static SimulationConfig parse(String[] args) {
+        SimulationConfig config = new SimulationConfig();
+        config.mix.put(MovementModel.WALK, 70);
+        config.mix.put(MovementModel.ELYTRA, 10);
+        config.mix.put(MovementModel.BOAT, 10);
+        config.mix.put(MovementModel.TELEPORT, 10);
+
+        int i = 0;
+        while (i < args.length) {
+            String key = args[i++];
+            if (!key.startsWith("--")) {
+                config.traceFiles.add(key);
+                continue;
+            }
+            if (i >= args.length) {
+                throw new IllegalArgumentException("Не задано значение параметра: " + key);
+            }
+            String value = args[i++];
+            switch (key) {
+                case "--players": config.players = Integer.parseInt(value); break;
+                case "--ticks": config.ticks = Integer.parseInt(value); break;
+                case "--worlds": config.worldCount = Math.max(1, Integer.parseInt(value)); break;
+                case "--seed": config.seed = Long.parseLong(value); break;
+                case "--spread": config.spread = Integer.parseInt(value); break;
+                case "--region-size": config.regionSize = Integer.parseInt(value); break;
+                case "--max-active-regions": config.maxActiveRegions = Integer.parseInt(value); break;
+                case "--max-players-per-region": config.maxPlayersPerRegion = Integer.parseInt(value); break;
+                case "--analytics-threads": config.analyticsThreads = Integer.parseInt(value); break;
+                case "--csv": config.csvFile = value; break;
+                case "--mix": config.parseMix(value); break;
+                default: throw new IllegalArgumentException("Неизвестный параметр: " + key);
+            }
+        }
+
+        config.worldNames = new String[config.worldCount];
+        for (int w = 0; w < config.worldCount; w++) {
+            config.worldNames[w] = w == 0 ? "world" : "world_" + w;
+        }
+        return config;
+    }
+
+    /**
+     * Доли моделей перемещения, например walk=60,elytra=20,boat=10,teleport=10
+     */
+    private void parseMix(String value) {
+        mix.clear();
+        for (String part : value.split(",")) {
+            String[] entry = part.split("=");
+            mix.put(MovementModel.valueOf(entry[0].trim().toUpperCase()), Integer.parseInt(entry[1].trim()));
+        }
+    }
+}
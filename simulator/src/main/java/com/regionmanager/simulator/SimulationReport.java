@@ -0,0 +1,145 @@
+package com.regionmanager.simulator;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Результаты симуляции по тикам и итоговая сводка
+ */
+final class SimulationReport {
+
+    private long[] cpuNanos;
+    private long[] allocatedBytes;
+    private int[] activeRegions;
+    private int[] totalRegions;
+    private long[] chunkRequests;
+    private int ticks;
+    private int maxActiveRegions;
+    private int loadedChunks;
+    private long joins;
+    private long creates;
+    private long rejected;
+    private long merges;
+    private long predictions;
+    private long prefetches;
+    private long resolvedPredictions;
+    private double predictionHitRate;
+    private double predictionP90Error;
+
+    /**
+     * @param capacity ожидаемое число тиков; массивы растут при необходимости
+     */
+    SimulationReport(int capacity) {
+        int size = Math.max(1, capacity);
+        this.cpuNanos = new long[size];
+        this.allocatedBytes = new long[size];
+        this.activeRegions = new int[size];
+        this.totalRegions = new int[size];
+        this.chunkRequests = new long[size];
+    }
+
+    /**
+     * Записать показатели следующего тика
+     */
+    void record(long cpu, long allocated, int active, int total, long chunks) {
+        if (ticks == cpuNanos.length) {
+            int size = ticks * 2;
+            cpuNanos = Arrays.copyOf(cpuNanos, size);
+            allocatedBytes = Arrays.copyOf(allocatedBytes, size);
+            activeRegions = Arrays.copyOf(activeRegions, size);
+            totalRegions = Arrays.copyOf(totalRegions, size);
+            chunkRequests = Arrays.copyOf(chunkRequests, size);
+        }
+        int tick = ticks++;
+        cpuNanos[tick] = cpu;
+        allocatedBytes[tick] = allocated;
+        activeRegions[tick] = active;
+        totalRegions[tick] = total;
+        chunkRequests[tick] = chunks;
+        maxActiveRegions = Math.max(maxActiveRegions, active);
+    }
+
+    void finish(SimulatedRegions regions) {
+        loadedChunks = regions.getLoadedChunkCount();
+        joins = regions.getJoins();
+        creates = regions.getCreates();
+        rejected = regions.getRejected();
+        merges = regions.getMerges();
+    }
+
+    /**
+     * Запомнить итоги предсказания движения; при воспроизведении трассы не вызывается
+     */
+    void finishPrediction(SimulatedPrediction prediction) {
+        predictions = prediction.getPredictions();
+        prefetches = prediction.getPrefetches();
+        resolvedPredictions = prediction.getAccuracy().getCount();
+        predictionHitRate = prediction.getAccuracy().getHitRate();
+        predictionP90Error = prediction.getAccuracy().getPercentile(0.9);
+    }
+
+    int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Вывести сводку
+     */
+    void print(PrintStream out) {
+        long[] cpu = Arrays.copyOf(cpuNanos, ticks);
+        long[] sortedCpu = cpu.clone();
+        Arrays.sort(sortedCpu);
+        long totalChunks = Arrays.stream(chunkRequests, 0, ticks).sum();
+        long peakChunksPerSecond = 0;
+        for (int start = 0; start < ticks; start += 20) {
+            long second = 0;
+            for (int t = start; t < Math.min(start + 20, ticks); t++) {
+                second += chunkRequests[t];
+            }
+            peakChunksPerSecond = Math.max(peakChunksPerSecond, second);
+        }
+
+        out.printf("Время плагина за тик, мкс: среднее %.1f, p50 %.1f, p99 %.1f, макс %.1f%n",
+            Arrays.stream(cpu).average().orElse(0) / 1000.0,
+            percentile(sortedCpu, 0.50) / 1000.0, percentile(sortedCpu, 0.99) / 1000.0,
+            sortedCpu.length > 0 ? sortedCpu[sortedCpu.length - 1] / 1000.0 : 0.0);
+        out.printf("Выделено памяти за тик, КБ: среднее %.1f%n",
+            Arrays.stream(allocatedBytes, 0, ticks).average().orElse(0) / 1024.0);
+        out.println("Регионы: активных в конце " + (ticks > 0 ? activeRegions[ticks - 1] : 0)
+            + ", максимум " + maxActiveRegions + ", всего в конце " + (ticks > 0 ? totalRegions[ticks - 1] : 0));
+        out.println("Назначения: вход в существующий " + joins + ", создано " + creates
+            + ", отклонено по лимиту " + rejected + ", объединений " + merges);
+        out.println("Запросы чанков: всего " + totalChunks + ", пик за секунду " + peakChunksPerSecond
+            + ", загружено в конце " + loadedChunks);
+        if (predictions > 0) {
+            out.printf("Предсказания: всего %d, предзагрузок региона %d%n", predictions, prefetches);
+            out.printf("Точность предсказаний: проверено %d, попаданий %.1f%%, p90 ошибки %.1f блоков%n",
+                resolvedPredictions, predictionHitRate * 100.0, predictionP90Error);
+        }
+    }
+
+    /**
+     * Записать показатели по тикам в CSV
+     */
+    void writeCsv(String file) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8))) {
+            writer.println("tick,cpu_nanos,allocated_bytes,active_regions,total_regions,chunk_requests");
+            for (int tick = 0; tick < ticks; tick++) {
+                writer.println(tick + "," + cpuNanos[tick] + "," + allocatedBytes[tick] + "," + activeRegions[tick]
+                    + "," + totalRegions[tick] + "," + chunkRequests[tick]);
+            }
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.floor(p * sorted.length))];
+    }
+}
@@ -0,0 +1,46 @@
+package com.regionmanager.simulator;
+
+import java.util.Arrays;
+
+/**
+ * Точка входа симулятора
+ *
+ * Пример: java -jar simulator.jar --players 2000 --ticks 12000 --worlds 3
+ *         --mix walk=60,elytra=20,boat=10,teleport=10 --csv ticks.csv
+ *
+ * Воспроизведение трассы: java -jar simulator.jar replay [--параметры] trace-*.rmt
+ */
+public final class SimulatorMain {
+
+    private SimulatorMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean replay = args.length > 0 && args[0].equals("replay");
+        SimulationConfig config = SimulationConfig.parse(replay
+            ? Arrays.copyOfRange(args, 1, args.length) : args);
+
+        SimulationReport report;
+        if (replay) {
+            if (config.traceFiles.isEmpty()) {
+                throw new IllegalArgumentException("Не заданы файлы трассы");
+            }
+            TraceReplay traceReplay = new TraceReplay(config);
+            report = traceReplay.run();
+            System.out.println("=== Воспроизведение: файлов " + config.traceFiles.size() + ", событий "
+                + traceReplay.getEvents() + ", игроков " + traceReplay.getPlayersSeen() + ", тиков "
+                + report.getTicks() + " ===");
+        } else {
+            report = new Simulation(config).run();
+            System.out.println("=== Симуляция: " + config.players + " игроков, " + config.ticks + " тиков, миров: "
+                + config.worldCount + " ===");
+            System.out.println("Модели перемещения: " + config.mix);
+        }
+
+        report.print(System.out);
+        if (config.csvFile != null) {
+            report.writeCsv(config.csvFile);
+            System.out.println("Показатели по тикам записаны в " + config.csvFile);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.regionmanager.simulator;
+
+import com.regionmanager.engine.ParallelAnalytics;
+import com.regionmanager.trace.TraceEventType;
+import com.regionmanager.trace.TraceFormat;
+import com.regionmanager.trace.TraceReader;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Воспроизведение записанной трассы перемещений
+ *
+ * События трассы подаются в те же обработчики, что и в симуляции, строго в порядке
+ * записи, без случайности и без привязки к реальному времени, поэтому результаты
+ * разных версий плагина сравнимы на одинаковом входе. Файлы читаются по очереди:
+ * повторное объявление игрока в начале следующего файла считается перемещением.
+ * Паузы в записи длиннее MAX_IDLE_TICKS сокращаются.
+ */
+final class TraceReplay {
+
+    private static final int MAX_IDLE_TICKS = 6000;
+
+    private final SimulationConfig config;
+    private final ParallelAnalytics analytics;
+    private final SimulatedRegions regions;
+    private final SimulatedPlayer[] bySlot;
+    private final Map<UUID, SimulatedPlayer> playersById;
+    private final ThreadMXBean threads;
+    private final com.sun.management.ThreadMXBean allocations;
+    private long events;
+    private long playersSeen;
+
+    TraceReplay(SimulationConfig config) {
+        // Имена миров берутся из записей трассы
+        config.worldCount = TraceFormat.MAX_WORLDS;
+        config.worldNames = new String[TraceFormat.MAX_WORLDS];
+        for (int w = 0; w < config.worldNames.length; w++) {
+            config.worldNames[w] = "world_" + w;
+        }
+
+        this.config = config;
+        this.analytics = new ParallelAnalytics(config.analyticsThreads, config.analyticsThreshold);
+        this.regions = new SimulatedRegions(config, analytics);
+        this.bySlot = new SimulatedPlayer[TraceFormat.MAX_SLOTS];
+        this.playersById = new HashMap<>();
+        this.threads = ManagementFactory.getThreadMXBean();
+        this.allocations = threads instanceof com.sun.management.ThreadMXBean
+            && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()
+            ? (com.sun.management.ThreadMXBean) threads : null;
+    }
+
+    /**
+     * Воспроизвести файлы трассы по порядку
+     */
+    SimulationReport run() throws IOException {
+        SimulationReport report = new SimulationReport(config.ticks);
+        long tick = 0;
+        long lastTraceTick = Long.MIN_VALUE;
+        long cpuBefore = threads.getCurrentThreadCpuTime();
+        long allocatedBefore = allocated();
+        long chunksBefore = regions.getChunkRequests();
+
+        try {
+            for (String file : config.traceFiles) {
+                try (TraceReader reader = TraceReader.open(Paths.get(file))) {
+                    while (reader.next()) {
+                        if (reader.getType() == TraceEventType.WORLD) {
+                            config.worldNames[reader.getWorld()] = reader.getWorldName();
+                            continue;
+                        }
+
+                        // Переход к тику события: обслуживание и замер каждого пройденного тика
+                        long gap = lastTraceTick == Long.MIN_VALUE ? 0 : reader.getTick() - lastTraceTick;
+                        lastTraceTick = reader.getTick();
+                        for (long t = Math.min(Math.max(0, gap), MAX_IDLE_TICKS); t > 0; t--) {
+                            regions.maintain(tick);
+                            report.record(threads.getCurrentThreadCpuTime() - cpuBefore, allocated() - allocatedBefore,
+                                regions.getActiveCount(), regions.getTotalCount(),
+                                regions.getChunkRequests() - chunksBefore);
+                            tick++;
+                            cpuBefore = threads.getCurrentThreadCpuTime();
+                            allocatedBefore = allocated();
+                            chunksBefore = regions.getChunkRequests();
+                        }
+
+                        handle(reader, tick);
+                        events++;
+                    }
+                }
+            }
+
+            regions.maintain(tick);
+            report.record(threads.getCurrentThreadCpuTime() - cpuBefore, allocated() - allocatedBefore,
+                regions.getActiveCount(), regions.getTotalCount(), regions.getChunkRequests() - chunksBefore);
+        } finally {
+            analytics.shutdown();
+        }
+
+        report.finish(regions);
+        return report;
+    }
+
+    /**
+     * Обработать событие так же, как PlayerListener
+     */
+    private void handle(TraceReader reader, long tick) {
+        int slot = reader.getSlot();
+        SimulatedPlayer player = bySlot[slot];
+
+        switch (reader.getType()) {
+            case JOIN:
+                if (player != null && player.id.equals(reader.getPlayerId())) {
+                    // Игрок объявлен заново в начале следующего файла
+                    moveTo(player, reader, tick);
+                    return;
+                }
+                if (player != null) {
+                    quit(player, slot, tick);
+                }
+                player = new SimulatedPlayer(reader.getPlayerId(), reader.getWorld(), null,
+                    reader.getX(), reader.getZ());
+                player.online = true;
+                bySlot[slot] = player;
+                playersById.put(player.id, player);
+                playersSeen++;
+                regions.decide(player, tick);
+                return;
+            case QUIT:
+                if (player != null) {
+                    quit(player, slot, tick);
+                }
+                return;
+            default:
+                break;
+        }
+
+        if (player == null) {
+            return;
+        }
+
+        switch (reader.getType()) {
+            case MOVE:
+                moveTo(player, reader, tick);
+                break;
+            case TELEPORT:
+                setPosition(player, reader);
+                regions.onTeleport(player, tick);
+                break;
+            case BED_ENTER:
+                setPosition(player, reader);
+                player.sleeping = true;
+                break;
+            case BED_LEAVE:
+                // После пробуждения регион проверяется независимо от смены блока
+                player.sleeping = false;
+                setPosition(player, reader);
+                player.lastBlockX = Integer.MIN_VALUE;
+                regions.onMove(player, tick);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void moveTo(SimulatedPlayer player, TraceReader reader, long tick) {
+        if (reader.getWorld() != player.worldIndex) {
+            // Смена мира обрабатывается как телепортация
+            setPosition(player, reader);
+            regions.onTeleport(player, tick);
+            return;
+        }
+        setPosition(player, reader);
+        regions.onMove(player, tick);
+    }
+
+    private void setPosition(SimulatedPlayer player, TraceReader reader) {
+        player.worldIndex = reader.getWorld();
+        player.x = reader.getX();
+        player.z = reader.getZ();
+    }
+
+    private void quit(SimulatedPlayer player, int slot, long tick) {
+        regions.leave(player, tick);
+        player.online = false;
+        bySlot[slot] = null;
+        playersById.remove(player.id);
+    }
+
+    private long allocated() {
+        return allocations != null ? allocations.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0L;
+    }
+
+    long getEvents() {
+        return events;
+    }
+
+    long getPlayersSeen() {
+        return playersSeen;
+    }
+}